@@ -44,6 +44,7 @@ import org.eclipse.jetty.server.Handler;
 import org.eclipse.jetty.server.Server;
 import org.eclipse.jetty.server.ServerConnector;
 import org.eclipse.jetty.util.IO;
+import org.eclipse.jetty.util.Pool;
 import org.eclipse.jetty.util.Promise;
 import org.eclipse.jetty.util.SocketAddressResolver;
 import org.eclipse.jetty.util.thread.QueuedThreadPool;
@@ -62,6 +63,7 @@ import static org.junit.jupiter.api.Assertions.assertTrue;
 public class ConnectionPoolTest
 {
     private static final ConnectionPoolFactory DUPLEX = new ConnectionPoolFactory("duplex", destination -> new DuplexConnectionPool(destination, destination.getHttpClient().getMaxConnectionsPerDestination(), destination));
+    private static final ConnectionPoolFactory DUPLEX_FREE_LIST = new ConnectionPoolFactory("duplex-freeList", destination -> new DuplexConnectionPool(destination, Pool.StrategyType.FREE_LIST, destination.getHttpClient().getMaxConnectionsPerDestination(), false, destination));
     private static final ConnectionPoolFactory MULTIPLEX = new ConnectionPoolFactory("multiplex", destination -> new MultiplexConnectionPool(destination, destination.getHttpClient().getMaxConnectionsPerDestination(), destination, 1));
     private static final ConnectionPoolFactory RANDOM = new ConnectionPoolFactory("random", destination -> new RandomConnectionPool(destination, destination.getHttpClient().getMaxConnectionsPerDestination(), destination, 1));
     private static final ConnectionPoolFactory DUPLEX_MAX_DURATION = new ConnectionPoolFactory("duplex-maxDuration", destination ->
@@ -74,12 +76,12 @@ public class ConnectionPoolTest
 
     public static Stream<ConnectionPoolFactory> pools()
     {
-        return Stream.of(DUPLEX, MULTIPLEX, RANDOM, DUPLEX_MAX_DURATION, ROUND_ROBIN);
+        return Stream.of(DUPLEX, DUPLEX_FREE_LIST, MULTIPLEX, RANDOM, DUPLEX_MAX_DURATION, ROUND_ROBIN);
     }
 
     public static Stream<ConnectionPoolFactory> poolsNoRoundRobin()
     {
-        return Stream.of(DUPLEX, MULTIPLEX, RANDOM, DUPLEX_MAX_DURATION);
+        return Stream.of(DUPLEX, DUPLEX_FREE_LIST, MULTIPLEX, RANDOM, DUPLEX_MAX_DURATION);
     }
 
     private Server server;
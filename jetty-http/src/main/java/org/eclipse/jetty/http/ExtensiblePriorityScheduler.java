@@ -0,0 +1,69 @@
+//
+// ========================================================================
+// Copyright (c) 1995-2022 Mort Bay Consulting Pty Ltd and others.
+//
+// This program and the accompanying materials are made available under the
+// terms of the Eclipse Public License v. 2.0 which is available at
+// https://www.eclipse.org/legal/epl-2.0, or the Apache License, Version 2.0
+// which is available at https://www.apache.org/licenses/LICENSE-2.0.
+//
+// SPDX-License-Identifier: EPL-2.0 OR Apache-2.0
+// ========================================================================
+//
+
+package org.eclipse.jetty.http;
+
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * <p>A {@link PriorityScheduler} that implements the extensible prioritization
+ * scheme of <a href="https://datatracker.ietf.org/doc/html/rfc9218">RFC 9218</a>.</p>
+ * <p>Entries are written in order of urgency. Within the same urgency, non-incremental
+ * responses are written one at a time in order of stream id, before incremental
+ * responses, which share the bandwidth by having their frames interleaved.
+ * Entries of less urgent responses are only written when more urgent responses
+ * cannot make progress, for example because they are flow control stalled.</p>
+ */
+public class ExtensiblePriorityScheduler implements PriorityScheduler
+{
+    private static final Comparator<Entry> COMPARATOR = (e1, e2) ->
+    {
+        HttpPriority p1 = e1.getPriority();
+        HttpPriority p2 = e2.getPriority();
+        if (p1 == null || p2 == null)
+            return p1 == null ? (p2 == null ? 0 : -1) : 1;
+        int result = Integer.compare(p1.getUrgency(), p2.getUrgency());
+        if (result != 0)
+            return result;
+        result = Boolean.compare(p1.isIncremental(), p2.isIncremental());
+        if (result != 0)
+            return result;
+        // Incremental entries keep their queue order, so that they are interleaved.
+        return p1.isIncremental() ? 0 : Long.compare(e1.getStreamId(), e2.getStreamId());
+    };
+
+    @Override
+    public <E extends Entry> void schedule(List<E> entries)
+    {
+        // List.sort() is stable, so the order of the entries of the same stream is preserved.
+        entries.sort(COMPARATOR);
+    }
+
+    @Override
+    public boolean canInterleave(Entry head, Entry next)
+    {
+        HttpPriority headPriority = head.getPriority();
+        HttpPriority nextPriority = next.getPriority();
+        if (headPriority == null || nextPriority == null || head.getStreamId() == next.getStreamId())
+            return true;
+        return headPriority.isIncremental() && nextPriority.isIncremental() &&
+            headPriority.getUrgency() == nextPriority.getUrgency();
+    }
+
+    @Override
+    public String toString()
+    {
+        return String.format("%s@%x", getClass().getSimpleName(), hashCode());
+    }
+}
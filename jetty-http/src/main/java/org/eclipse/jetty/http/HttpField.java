@@ -13,6 +13,7 @@
 
 package org.eclipse.jetty.http;
 
+import java.nio.charset.StandardCharsets;
 import java.util.Map;
 import java.util.Objects;
 import java.util.StringTokenizer;
@@ -139,22 +140,23 @@ public class HttpField
      */
     public boolean contains(String search)
     {
+        String value = getValue();
         if (search == null)
-            return _value == null;
+            return value == null;
         if (search.isEmpty())
             return false;
-        if (_value == null)
+        if (value == null)
             return false;
-        if (search.equalsIgnoreCase(_value))
+        if (search.equalsIgnoreCase(value))
             return true;
 
         int state = 0;
         int match = 0;
         int param = 0;
 
-        for (int i = 0; i < _value.length(); i++)
+        for (int i = 0; i < value.length(); i++)
         {
-            char c = StringUtil.asciiToLowerCase(_value.charAt(i));
+            char c = StringUtil.asciiToLowerCase(value.charAt(i));
             switch (state)
             {
                 case 0: // initial white space
@@ -315,7 +317,7 @@ public class HttpField
             return false;
         if (!_name.equalsIgnoreCase(field.getName()))
             return false;
-        return Objects.equals(_value, field.getValue());
+        return Objects.equals(getValue(), field.getValue());
     }
 
     public HttpHeader getHeader()
@@ -325,12 +327,12 @@ public class HttpField
 
     public int getIntValue()
     {
-        return Integer.parseInt(_value);
+        return Integer.parseInt(getValue());
     }
 
     public long getLongValue()
     {
-        return Long.parseLong(_value);
+        return Long.parseLong(getValue());
     }
 
     public String getLowerCaseName()
@@ -350,17 +352,18 @@ public class HttpField
 
     public String[] getValues()
     {
-        if (_value == null)
+        String value = getValue();
+        if (value == null)
             return null;
 
-        QuotedCSV list = new QuotedCSV(false, _value);
+        QuotedCSV list = new QuotedCSV(false, value);
         return list.getValues().toArray(new String[list.size()]);
     }
 
     @Override
     public int hashCode()
     {
-        int vhc = Objects.hashCode(_value);
+        int vhc = Objects.hashCode(getValue());
         if (_header == null)
             return vhc ^ nameHashCode();
         return vhc ^ _header.hashCode();
@@ -484,4 +487,45 @@ public class HttpField
             return _long;
         }
     }
+
+    /**
+     * <p>An HttpField whose value is kept as ISO-8859-1 bytes, usually in an
+     * array shared with the other fields of the same message, and that is
+     * converted to a String only when it is first read.</p>
+     * <p>Fields that are never read by the application cost no String allocation.</p>
+     */
+    public static class LazyValueHttpField extends HttpField
+    {
+        private final byte[] _bytes;
+        private final int _offset;
+        private final int _length;
+        private String _string;
+
+        /**
+         * @param header the header, or null if unknown
+         * @param name the field name
+         * @param bytes the array containing the ISO-8859-1 value, that must not be modified afterwards
+         * @param offset the offset of the value in the array
+         * @param length the length of the value
+         */
+        public LazyValueHttpField(HttpHeader header, String name, byte[] bytes, int offset, int length)
+        {
+            super(header, name, null);
+            _bytes = bytes;
+            _offset = offset;
+            _length = length;
+        }
+
+        @Override
+        public String getValue()
+        {
+            String value = _string;
+            if (value == null)
+            {
+                value = new String(_bytes, _offset, _length, StandardCharsets.ISO_8859_1);
+                _string = value;
+            }
+            return value;
+        }
+    }
 }
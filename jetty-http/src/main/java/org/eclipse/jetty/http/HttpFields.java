@@ -31,6 +31,8 @@ import java.util.function.ToIntFunction;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
+import org.eclipse.jetty.util.StringUtil;
+
 /**
  * Interface that represents on ordered collection of {@link HttpField}s.
  * Both {@link Mutable} and {@link Immutable} implementations are available
@@ -508,8 +510,11 @@ public interface HttpFields extends Iterable<HttpField>
      */
     class Mutable implements Iterable<HttpField>, HttpFields
     {
+        private static final int INDEX_THRESHOLD = 16;
+
         private HttpField[] _fields;
         private int _size;
+        private NameIndex _index;
 
         /**
          * Initialize an empty HttpFields.
@@ -628,6 +633,8 @@ public interface HttpFields extends Iterable<HttpField>
                 if (_size == _fields.length)
                     _fields = Arrays.copyOf(_fields, _size * 2);
                 _fields[_size++] = field;
+                if (_index != null)
+                    _index.add(field);
             }
             return this;
         }
@@ -642,6 +649,7 @@ public interface HttpFields extends Iterable<HttpField>
             if (fields.size() == 0)
                 return this;
 
+            int start = _size;
             if (fields instanceof Immutable)
             {
                 Immutable b = (Immutable)fields;
@@ -659,6 +667,11 @@ public interface HttpFields extends Iterable<HttpField>
                 for (HttpField f : fields)
                     _fields[_size++] = f;
             }
+            if (_index != null)
+            {
+                for (int i = start; i < _size; i++)
+                    _index.add(_fields[i]);
+            }
             return this;
         }
 
@@ -736,6 +749,8 @@ public interface HttpFields extends Iterable<HttpField>
         public Mutable clear()
         {
             _size = 0;
+            if (_index != null)
+                _index.clear();
             return this;
         }
 
@@ -917,6 +932,68 @@ public interface HttpFields extends Iterable<HttpField>
             return _fields[index];
         }
 
+        @Override
+        public boolean contains(HttpHeader header)
+        {
+            NameIndex index = index();
+            if (index != null)
+                return index.count(header) > 0;
+            return HttpFields.super.contains(header);
+        }
+
+        @Override
+        public boolean contains(String name)
+        {
+            NameIndex index = index();
+            if (index != null && !index.mayContain(name))
+                return false;
+            return HttpFields.super.contains(name);
+        }
+
+        @Override
+        public String get(HttpHeader header)
+        {
+            HttpField field = getField(header);
+            return field == null ? null : field.getValue();
+        }
+
+        @Override
+        public String get(String name)
+        {
+            HttpField field = getField(name);
+            return field == null ? null : field.getValue();
+        }
+
+        @Override
+        public HttpField getField(HttpHeader header)
+        {
+            NameIndex index = index();
+            if (index != null && index.count(header) == 0)
+                return null;
+            for (int i = 0; i < _size; i++)
+            {
+                HttpField f = _fields[i];
+                if (f.getHeader() == header)
+                    return f;
+            }
+            return null;
+        }
+
+        @Override
+        public HttpField getField(String name)
+        {
+            NameIndex index = index();
+            if (index != null && !index.mayContain(name))
+                return null;
+            for (int i = 0; i < _size; i++)
+            {
+                HttpField f = _fields[i];
+                if (f.is(name))
+                    return f;
+            }
+            return null;
+        }
+
         @Override
         public int hashCode()
         {
@@ -962,19 +1039,27 @@ public interface HttpFields extends Iterable<HttpField>
 
         public Mutable put(HttpField field)
         {
-            boolean put = false;
+            NameIndex index = index();
+            if (index != null && !index.mayContain(field))
+                return add(field);
 
+            boolean put = false;
             for (int i = 0; i < _size; i++)
             {
                 HttpField f = _fields[i];
                 if (f.isSameName(field))
                 {
                     if (put)
-                        System.arraycopy(_fields, i + 1, _fields, i, _size-- - i-- - 1);
+                    {
+                        remove(i--);
+                    }
                     else
                     {
-                        _fields[i] = field;
+                        set(i, field);
                         put = true;
+                        // No need to look for duplicates if the replaced field was the only one.
+                        if (index != null && index.count(field) == 1)
+                            break;
                     }
                 }
             }
@@ -1180,7 +1265,9 @@ public interface HttpFields extends Iterable<HttpField>
         {
             // Look for first occurrence
             int first = -1;
-            for (int i = 0; i < _size; i++)
+            NameIndex index = index();
+            boolean mayContain = index == null || (header instanceof HttpHeader ? index.mayContain((HttpHeader)header) : index.mayContain((String)header));
+            for (int i = 0; mayContain && i < _size; i++)
             {
                 HttpField f = _fields[i];
                 if (matcher.test(f, header))
@@ -1227,7 +1314,7 @@ public interface HttpFields extends Iterable<HttpField>
             if (newField == null)
                 remove(first);
             else
-                _fields[first] = newField;
+                set(first, newField);
         }
 
         /**
@@ -1238,11 +1325,16 @@ public interface HttpFields extends Iterable<HttpField>
          */
         public Mutable remove(HttpHeader name)
         {
-            for (int i = 0; i < _size; i++)
+            NameIndex index = index();
+            int count = index == null ? _size : index.count(name);
+            for (int i = 0; count > 0 && i < _size; i++)
             {
                 HttpField f = _fields[i];
                 if (f.getHeader() == name)
+                {
                     remove(i--);
+                    count--;
+                }
             }
             return this;
         }
@@ -1266,6 +1358,9 @@ public interface HttpFields extends Iterable<HttpField>
          */
         public Mutable remove(String name)
         {
+            NameIndex index = index();
+            if (index != null && !index.mayContain(name))
+                return this;
             for (int i = 0; i < _size; i++)
             {
                 HttpField f = _fields[i];
@@ -1277,11 +1372,38 @@ public interface HttpFields extends Iterable<HttpField>
 
         private void remove(int i)
         {
+            if (_index != null)
+                _index.remove(_fields[i]);
             _size--;
             System.arraycopy(_fields, i + 1, _fields, i, _size - i);
             _fields[_size] = null;
         }
 
+        private void set(int i, HttpField field)
+        {
+            if (_index != null)
+            {
+                _index.remove(_fields[i]);
+                _index.add(field);
+            }
+            _fields[i] = field;
+        }
+
+        /**
+         * @return the name index, built if there are enough fields to make it worthwhile, or null
+         */
+        private NameIndex index()
+        {
+            if (_index == null && _size > INDEX_THRESHOLD)
+            {
+                NameIndex index = new NameIndex();
+                for (int i = 0; i < _size; i++)
+                    index.add(_fields[i]);
+                _index = index;
+            }
+            return _index;
+        }
+
         public int size()
         {
             return _size;
@@ -1335,6 +1457,97 @@ public interface HttpFields extends Iterable<HttpField>
             return null;
         }
 
+        /**
+         * <p>Counts the fields by {@link HttpHeader} and by case insensitive name hash,
+         * so that lookups of fields that are not present, which are the majority of the
+         * lookups done by customizers and proxies, do not need to scan the fields.</p>
+         * <p>Counts by header are exact, while counts by name hash may include fields
+         * with other names in the same bucket, so they can only tell that a name is absent.</p>
+         */
+        private static class NameIndex
+        {
+            private static final int HEADERS = HttpHeader.values().length;
+            private static final int BUCKETS = 64;
+
+            private final int[] _headers = new int[HEADERS];
+            private final int[] _buckets = new int[BUCKETS];
+
+            private void add(HttpField field)
+            {
+                update(field, 1);
+            }
+
+            private void remove(HttpField field)
+            {
+                update(field, -1);
+            }
+
+            private void update(HttpField field, int delta)
+            {
+                HttpHeader header = field.getHeader();
+                if (header == null)
+                    _buckets[bucket(field.getName())] += delta;
+                else
+                    _headers[header.ordinal()] += delta;
+            }
+
+            private void clear()
+            {
+                Arrays.fill(_headers, 0);
+                Arrays.fill(_buckets, 0);
+            }
+
+            /**
+             * @param header the header
+             * @return the exact number of fields with the given header
+             */
+            private int count(HttpHeader header)
+            {
+                return _headers[header.ordinal()];
+            }
+
+            /**
+             * @param field the field
+             * @return an upper bound of the number of fields with the same name as the given field
+             */
+            private int count(HttpField field)
+            {
+                HttpHeader header = field.getHeader();
+                int count = _buckets[bucket(field.getName())];
+                if (header != null)
+                    count += _headers[header.ordinal()];
+                return count;
+            }
+
+            private boolean mayContain(HttpField field)
+            {
+                return count(field) > 0;
+            }
+
+            private boolean mayContain(HttpHeader header)
+            {
+                return _headers[header.ordinal()] > 0;
+            }
+
+            private boolean mayContain(String name)
+            {
+                if (_buckets[bucket(name)] > 0)
+                    return true;
+                HttpHeader header = HttpHeader.CACHE.get(name);
+                return header != null && _headers[header.ordinal()] > 0;
+            }
+
+            private static int bucket(String name)
+            {
+                int hash = 0;
+                for (int i = 0; i < name.length(); i++)
+                {
+                    hash = 31 * hash + StringUtil.asciiToLowerCase(name.charAt(i));
+                }
+                return (hash ^ (hash >>> 16)) & (BUCKETS - 1);
+            }
+        }
+
         private class ListItr implements ListIterator<HttpField>
         {
             int _cursor;       // index of next element to return
@@ -1349,6 +1562,8 @@ public interface HttpFields extends Iterable<HttpField>
                 _fields = Arrays.copyOf(_fields, _fields.length + 1);
                 System.arraycopy(_fields, _cursor, _fields, _cursor + 1, _size++);
                 _fields[_cursor++] = field;
+                if (_index != null)
+                    _index.add(field);
                 _current = -1;
             }
 
@@ -1412,7 +1627,7 @@ public interface HttpFields extends Iterable<HttpField>
                 if (field == null)
                     remove();
                 else
-                    _fields[_current] = field;
+                    Mutable.this.set(_current, field);
             }
         }
     }
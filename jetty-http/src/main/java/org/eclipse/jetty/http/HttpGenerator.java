@@ -604,6 +604,21 @@ public class HttpGenerator
             for (int f = 0; f < n; f++)
             {
                 HttpField field = fields.getField(f);
+                if (field instanceof PreEncodedHttpField)
+                {
+                    // Splice whole pre-encoded blocks that are still intact.
+                    PreEncodedHttpFields block = ((PreEncodedHttpField)field).getBlock();
+                    if (block != null && block.isAt(fields, f))
+                    {
+                        block.putTo(header, HttpVersion.HTTP_1_1);
+                        if (block.hasContentType())
+                            contentType = true;
+                        if (block.hasServer())
+                            send = send & ~SEND_SERVER;
+                        f += block.size() - 1;
+                        continue;
+                    }
+                }
                 HttpHeader h = field.getHeader();
                 if (h == null)
                     putTo(field, header);
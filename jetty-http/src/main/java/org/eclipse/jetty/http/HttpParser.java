@@ -210,6 +210,12 @@ public class HttpParser
     private static final EnumSet<State> __idleStates = EnumSet.of(State.START, State.END, State.CLOSE, State.CLOSED);
     private static final EnumSet<State> __completeStates = EnumSet.of(State.END, State.CLOSE, State.CLOSED);
     private static final EnumSet<State> __terminatedStates = EnumSet.of(State.CLOSE, State.CLOSED);
+    // Headers whose values are inspected by the parser itself.
+    private static final EnumSet<HttpHeader> __parsedHeaders = EnumSet.of(HttpHeader.CONTENT_LENGTH, HttpHeader.TRANSFER_ENCODING, HttpHeader.HOST, HttpHeader.CONNECTION);
+    // Headers whose fields may be added to the field cache.
+    private static final EnumSet<HttpHeader> __cacheableHeaders = EnumSet.of(HttpHeader.AUTHORIZATION, HttpHeader.ACCEPT, HttpHeader.ACCEPT_CHARSET,
+        HttpHeader.ACCEPT_ENCODING, HttpHeader.ACCEPT_LANGUAGE, HttpHeader.COOKIE, HttpHeader.CACHE_CONTROL, HttpHeader.USER_AGENT);
+    private static final int VALUE_BYTES_LENGTH = 512;
 
     private final boolean debugEnabled = LOG.isDebugEnabled(); // Cache debug to help branch prediction
     private final HttpHandler _handler;
@@ -224,6 +230,11 @@ public class HttpParser
     private HttpHeader _header;
     private String _headerString;
     private String _valueString;
+    private byte[] _valueBytes;
+    private int _valueBytesSize;
+    private byte[] _lazyValueBytes;
+    private int _lazyValueOffset;
+    private int _lazyValueLength;
     private int _responseStatus;
     private int _headerBytes;
     private boolean _host;
@@ -566,6 +577,63 @@ public class HttpParser
         return s;
     }
 
+    /**
+     * @return whether the value of the current field can be materialized lazily,
+     * because the parser does not need to inspect it
+     */
+    private boolean isLazyValue()
+    {
+        if (_field != null)
+            return false;
+        if (_header == null)
+            return true;
+        if (__parsedHeaders.contains(_header))
+            return false;
+        return !__cacheableHeaders.contains(_header) || !_fieldCache.isEnabled();
+    }
+
+    /**
+     * <p>Moves the value of the current field into a byte array shared with the
+     * values of other fields, so that a {@link HttpField.LazyValueHttpField} can
+     * create the value String only if the application reads it.</p>
+     * <p>Regions of the array are never reused, so fields of previous messages are unaffected.</p>
+     */
+    private void takeLazyValue()
+    {
+        int length = _length;
+        if (_valueBytes == null || _valueBytes.length - _valueBytesSize < length)
+        {
+            _valueBytes = new byte[Math.max(VALUE_BYTES_LENGTH, length)];
+            _valueBytesSize = 0;
+        }
+        for (int i = 0; i < length; ++i)
+        {
+            _valueBytes[_valueBytesSize + i] = (byte)_string.charAt(i);
+        }
+        _lazyValueBytes = _valueBytes;
+        _lazyValueOffset = _valueBytesSize;
+        _lazyValueLength = length;
+        _valueBytesSize += length;
+        _string.setLength(0);
+        _length = -1;
+    }
+
+    private String takeLazyValueString()
+    {
+        String value = new String(_lazyValueBytes, _lazyValueOffset, _lazyValueLength, StandardCharsets.ISO_8859_1);
+        _lazyValueBytes = null;
+        return value;
+    }
+
+    private HttpField newField()
+    {
+        if (_lazyValueBytes == null)
+            return new HttpField(_header, _headerString, _valueString);
+        HttpField field = new HttpField.LazyValueHttpField(_header, _headerString, _lazyValueBytes, _lazyValueOffset, _lazyValueLength);
+        _lazyValueBytes = null;
+        return field;
+    }
+
     private boolean handleHeaderContentMessage()
     {
         boolean handleHeader = _handler.headerComplete();
@@ -1070,7 +1138,7 @@ public class HttpParser
                     _fieldCache.add(_field);
                 }
             }
-            _handler.parsedHeader(_field != null ? _field : new HttpField(_header, _headerString, _valueString));
+            _handler.parsedHeader(_field != null ? _field : newField());
         }
 
         _headerString = _valueString = null;
@@ -1082,7 +1150,7 @@ public class HttpParser
     {
         // handler last header if any.  Delayed to here just in case there was a continuation line (above)
         if (_headerString != null || _valueString != null)
-            _handler.parsedTrailer(_field != null ? _field : new HttpField(_header, _headerString, _valueString));
+            _handler.parsedTrailer(_field != null ? _field : newField());
 
         _headerString = _valueString = null;
         _header = null;
@@ -1136,6 +1204,8 @@ public class HttpParser
                             checkViolation(Violation.MULTILINE_FIELD_VALUE);
 
                             // header value without name - continuation?
+                            if (_lazyValueBytes != null)
+                                _valueString = takeLazyValueString();
                             if (StringUtil.isEmpty(_valueString))
                             {
                                 _string.setLength(0);
@@ -1429,6 +1499,7 @@ public class HttpParser
                             _string.append(t.getChar());
                             _length = _string.length();
                             setState(FieldState.IN_VALUE);
+                            scanValue(buffer);
                             break;
 
                         default:
@@ -1442,7 +1513,10 @@ public class HttpParser
                         case LF:
                             if (_length > 0)
                             {
-                                _valueString = takeString();
+                                if (isLazyValue())
+                                    takeLazyValue();
+                                else
+                                    _valueString = takeString();
                                 _length = -1;
                             }
                             setState(FieldState.FIELD);
@@ -1461,6 +1535,7 @@ public class HttpParser
                         case OTEXT: // TODO review? should this be a utf8 string?
                             _string.append(t.getChar());
                             _length = _string.length();
+                            scanValue(buffer);
                             break;
 
                         default:
@@ -1476,6 +1551,55 @@ public class HttpParser
         return false;
     }
 
+    /**
+     * <p>Appends to the field value the run of visible ASCII characters that follows
+     * in the buffer, testing 8 bytes at a time rather than moving each byte through
+     * the state machine.</p>
+     * <p>The scan stops before the first word that contains a space, a control
+     * character (including CR and LF) or a non ASCII byte, which are then parsed
+     * by the state machine as usual.</p>
+     *
+     * @param buffer the buffer positioned after a character of a field value
+     */
+    private void scanValue(ByteBuffer buffer)
+    {
+        int position = buffer.position();
+        int limit = buffer.limit();
+        if (_maxHeaderBytes > 0)
+            limit = Math.min(limit, position + _maxHeaderBytes - _headerBytes);
+
+        int end = position;
+        while (end + 8 <= limit && isVisibleAscii(buffer.getLong(end)))
+        {
+            end += 8;
+        }
+        if (end == position)
+            return;
+
+        for (int i = position; i < end; ++i)
+        {
+            _string.append((char)buffer.get(i));
+        }
+        _length = _string.length();
+        if (_maxHeaderBytes > 0)
+            _headerBytes += end - position;
+        buffer.position(end);
+    }
+
+    /**
+     * @param word 8 bytes, in any byte order
+     * @return whether all the bytes are visible ASCII characters, from {@code 0x21} to {@code 0x7E}
+     */
+    static boolean isVisibleAscii(long word)
+    {
+        // No byte has the high bit set, so adding to each byte cannot carry into the next one.
+        return (word & 0x8080808080808080L) == 0 &&
+            // Every byte is at least 0x21, so adding 0x5F sets its high bit.
+            ((word + 0x5F5F5F5F5F5F5F5FL) & 0x8080808080808080L) == 0x8080808080808080L &&
+            // Every byte is at most 0x7E, so adding 0x01 does not set its high bit.
+            ((word + 0x0101010101010101L) & 0x8080808080808080L) == 0;
+    }
+
     /**
      * Parse until next Event.
      *
@@ -1888,6 +2012,7 @@ public class HttpParser
         _headerBytes = 0;
         _host = false;
         _headerComplete = false;
+        _lazyValueBytes = null;
     }
 
     public void servletUpgrade()
@@ -0,0 +1,157 @@
+//
+// ========================================================================
+// Copyright (c) 1995-2022 Mort Bay Consulting Pty Ltd and others.
+//
+// This program and the accompanying materials are made available under the
+// terms of the Eclipse Public License v. 2.0 which is available at
+// https://www.eclipse.org/legal/epl-2.0, or the Apache License, Version 2.0
+// which is available at https://www.apache.org/licenses/LICENSE-2.0.
+//
+// SPDX-License-Identifier: EPL-2.0 OR Apache-2.0
+// ========================================================================
+//
+
+package org.eclipse.jetty.http;
+
+import org.eclipse.jetty.util.StringUtil;
+
+/**
+ * <p>The extensible priority parameters of a response, as defined by
+ * <a href="https://datatracker.ietf.org/doc/html/rfc9218">RFC 9218</a>.</p>
+ * <p>The urgency ranges from {@code 0} (most urgent) to {@code 7} (least urgent),
+ * and the incremental flag indicates whether the response can be processed
+ * incrementally by the client, so that it may be interleaved with other responses
+ * of the same urgency.</p>
+ *
+ * @see PriorityScheduler
+ */
+public class HttpPriority
+{
+    public static final int DEFAULT_URGENCY = 3;
+    public static final int MIN_URGENCY = 0;
+    public static final int MAX_URGENCY = 7;
+    public static final HttpPriority DEFAULT = new HttpPriority(DEFAULT_URGENCY, false);
+
+    /**
+     * <p>Returns the priority carried by the {@link HttpHeader#PRIORITY Priority} field.</p>
+     *
+     * @param fields the fields to get the priority field from, may be null
+     * @return the priority, or {@link #DEFAULT} if there is no priority field
+     */
+    public static HttpPriority from(HttpFields fields)
+    {
+        if (fields == null)
+            return DEFAULT;
+        String value = fields.get(HttpHeader.PRIORITY);
+        return value == null ? DEFAULT : parse(value);
+    }
+
+    /**
+     * <p>Parses the value of a {@link HttpHeader#PRIORITY Priority} field.</p>
+     * <p>The value is a structured field dictionary; unknown members and
+     * members with invalid values are ignored, as required by RFC 9218.</p>
+     *
+     * @param value the field value
+     * @return the priority
+     */
+    public static HttpPriority parse(String value)
+    {
+        int urgency = DEFAULT_URGENCY;
+        boolean incremental = false;
+        if (value != null)
+        {
+            for (String member : StringUtil.csvSplit(value))
+            {
+                // Parameters of the member are not used by RFC 9218.
+                int semicolon = member.indexOf(';');
+                if (semicolon >= 0)
+                    member = member.substring(0, semicolon);
+                int equals = member.indexOf('=');
+                String key = (equals < 0 ? member : member.substring(0, equals)).trim();
+                String item = equals < 0 ? "?1" : member.substring(equals + 1).trim();
+                switch (key)
+                {
+                    case "u":
+                    {
+                        try
+                        {
+                            int u = Integer.parseInt(item);
+                            if (u >= MIN_URGENCY && u <= MAX_URGENCY)
+                                urgency = u;
+                        }
+                        catch (NumberFormatException x)
+                        {
+                            // Ignore invalid urgencies.
+                        }
+                        break;
+                    }
+                    case "i":
+                    {
+                        if ("?1".equals(item))
+                            incremental = true;
+                        else if ("?0".equals(item))
+                            incremental = false;
+                        break;
+                    }
+                    default:
+                        break;
+                }
+            }
+        }
+        return of(urgency, incremental);
+    }
+
+    public static HttpPriority of(int urgency, boolean incremental)
+    {
+        if (urgency == DEFAULT_URGENCY && !incremental)
+            return DEFAULT;
+        return new HttpPriority(urgency, incremental);
+    }
+
+    private final int urgency;
+    private final boolean incremental;
+
+    private HttpPriority(int urgency, boolean incremental)
+    {
+        if (urgency < MIN_URGENCY || urgency > MAX_URGENCY)
+            throw new IllegalArgumentException("Invalid urgency " + urgency);
+        this.urgency = urgency;
+        this.incremental = incremental;
+    }
+
+    public int getUrgency()
+    {
+        return urgency;
+    }
+
+    public boolean isIncremental()
+    {
+        return incremental;
+    }
+
+    @Override
+    public boolean equals(Object obj)
+    {
+        if (this == obj)
+            return true;
+        if (!(obj instanceof HttpPriority))
+            return false;
+        HttpPriority that = (HttpPriority)obj;
+        return urgency == that.urgency && incremental == that.incremental;
+    }
+
+    @Override
+    public int hashCode()
+    {
+        return urgency * 2 + (incremental ? 1 : 0);
+    }
+
+    /**
+     * @return the priority as a {@link HttpHeader#PRIORITY Priority} field value
+     */
+    @Override
+    public String toString()
+    {
+        return incremental ? "u=" + urgency + ", i" : "u=" + urgency;
+    }
+}
@@ -94,11 +94,14 @@ public class PreEncodedHttpField extends HttpField
         }
     }
 
-    private final byte[][] _encodedField = new byte[__encoders.length][];
+    private final byte[][] _encodedField;
+    private final PreEncodedHttpFields _block;
 
     public PreEncodedHttpField(HttpHeader header, String name, String value)
     {
         super(header, name, value);
+        _encodedField = new byte[__encoders.length][];
+        _block = null;
         for (int i = 0; i < __encoders.length; i++)
         {
             if (__encoders[i] != null)
@@ -106,6 +109,19 @@ public class PreEncodedHttpField extends HttpField
         }
     }
 
+    /**
+     * Copies a pre-encoded field as the first field of a {@link PreEncodedHttpFields} block.
+     *
+     * @param field the field to copy
+     * @param block the block starting with this field
+     */
+    PreEncodedHttpField(HttpField field, PreEncodedHttpFields block)
+    {
+        super(field.getHeader(), field.getName(), field.getValue());
+        _encodedField = ((PreEncodedHttpField)field)._encodedField;
+        _block = block;
+    }
+
     public PreEncodedHttpField(HttpHeader header, String value)
     {
         this(header, header.asString(), value);
@@ -125,4 +141,17 @@ public class PreEncodedHttpField extends HttpField
     {
         return _encodedField[index(version)].length;
     }
+
+    byte[] getEncodedField(HttpVersion version)
+    {
+        return _encodedField[index(version)];
+    }
+
+    /**
+     * @return the block that starts with this field, or null if this field does not start a block
+     */
+    PreEncodedHttpFields getBlock()
+    {
+        return _block;
+    }
 }
@@ -0,0 +1,150 @@
+//
+// ========================================================================
+// Copyright (c) 1995-2022 Mort Bay Consulting Pty Ltd and others.
+//
+// This program and the accompanying materials are made available under the
+// terms of the Eclipse Public License v. 2.0 which is available at
+// https://www.eclipse.org/legal/epl-2.0, or the Apache License, Version 2.0
+// which is available at https://www.apache.org/licenses/LICENSE-2.0.
+//
+// SPDX-License-Identifier: EPL-2.0 OR Apache-2.0
+// ========================================================================
+//
+
+package org.eclipse.jetty.http;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
+import java.util.EnumSet;
+
+/**
+ * <p>An immutable block of {@link PreEncodedHttpField}s that is pre-encoded as a whole.</p>
+ * <p>Applications that send the same set of fields in many responses (for example
+ * {@code Server}, {@code Content-Type}, {@code Cache-Control} and security related headers)
+ * can create a {@link PreEncodedHttpFields} once and add it to every response with
+ * {@link HttpFields.Mutable#add(HttpFields)}.
+ * As long as the fields of the block remain contiguous and unmodified in the response,
+ * {@link HttpGenerator} copies the whole block with a single buffer put rather
+ * than encoding each field in turn; otherwise the fields are encoded one by one as
+ * any other {@link PreEncodedHttpField}.</p>
+ * <p>The HTTP/2 and HTTP/3 encoders keep encoding the fields of a block one by one,
+ * so that they can still refer to their entries in the dynamic tables.</p>
+ * <p>Fields whose values change per response, such as {@code Date}, and the fields whose
+ * encoding depends on the message framing ({@code Content-Length}, {@code Transfer-Encoding}
+ * and {@code Connection}) cannot be part of a block.</p>
+ */
+public class PreEncodedHttpFields extends HttpFields.Immutable
+{
+    private static final EnumSet<HttpHeader> EXCLUDED = EnumSet.of(
+        HttpHeader.CONTENT_LENGTH,
+        HttpHeader.TRANSFER_ENCODING,
+        HttpHeader.CONNECTION,
+        HttpHeader.DATE);
+
+    private final byte[] _http1Block;
+    private final boolean _contentType;
+    private final boolean _server;
+
+    /**
+     * @param fields the fields of the block, in the order they are generated
+     * @throws IllegalArgumentException if the block is empty or contains a field that cannot be pre-encoded
+     */
+    public PreEncodedHttpFields(HttpField... fields)
+    {
+        super(toPreEncoded(fields));
+        // The first field is owned by this block, so that HttpGenerator can recognize it.
+        _fields[0] = new PreEncodedHttpField(_fields[0], this);
+
+        ByteArrayOutputStream http1 = new ByteArrayOutputStream();
+        boolean contentType = false;
+        boolean server = false;
+        for (HttpField field : _fields)
+        {
+            http1.writeBytes(((PreEncodedHttpField)field).getEncodedField(HttpVersion.HTTP_1_1));
+            contentType |= field.getHeader() == HttpHeader.CONTENT_TYPE;
+            server |= field.getHeader() == HttpHeader.SERVER;
+        }
+        _http1Block = http1.toByteArray();
+        _contentType = contentType;
+        _server = server;
+    }
+
+    private static HttpField[] toPreEncoded(HttpField[] fields)
+    {
+        if (fields.length == 0)
+            throw new IllegalArgumentException("Empty block");
+        HttpField[] preEncoded = new HttpField[fields.length];
+        for (int i = 0; i < fields.length; ++i)
+        {
+            HttpField field = fields[i];
+            HttpHeader header = field.getHeader();
+            if (header != null && (EXCLUDED.contains(header) || header.isPseudo()))
+                throw new IllegalArgumentException("Cannot pre-encode " + field);
+            preEncoded[i] = field instanceof PreEncodedHttpField ? field : new PreEncodedHttpField(header, field.getName(), field.getValue());
+        }
+        return preEncoded;
+    }
+
+    /**
+     * @param version the HTTP version
+     * @return the length in bytes of the encoded block for the given version
+     */
+    public int getEncodedLength(HttpVersion version)
+    {
+        if (version.getVersion() <= HttpVersion.HTTP_1_1.getVersion())
+            return _http1Block.length;
+        int length = 0;
+        for (HttpField field : _fields)
+        {
+            length += ((PreEncodedHttpField)field).getEncodedLength(version);
+        }
+        return length;
+    }
+
+    /**
+     * @param bufferInFillMode the buffer to put the encoded block into
+     * @param version the HTTP version
+     */
+    public void putTo(ByteBuffer bufferInFillMode, HttpVersion version)
+    {
+        if (version.getVersion() <= HttpVersion.HTTP_1_1.getVersion())
+        {
+            bufferInFillMode.put(_http1Block);
+        }
+        else
+        {
+            for (HttpField field : _fields)
+            {
+                ((PreEncodedHttpField)field).putTo(bufferInFillMode, version);
+            }
+        }
+    }
+
+    /**
+     * @param fields the fields to test
+     * @param index the index of the first field of this block in {@code fields}
+     * @return whether the fields of this block are found, unmodified and in order, at the given index
+     */
+    boolean isAt(HttpFields fields, int index)
+    {
+        int size = _fields.length;
+        if (index + size > fields.size())
+            return false;
+        for (int i = 0; i < size; ++i)
+        {
+            if (fields.getField(index + i) != _fields[i])
+                return false;
+        }
+        return true;
+    }
+
+    boolean hasContentType()
+    {
+        return _contentType;
+    }
+
+    boolean hasServer()
+    {
+        return _server;
+    }
+}
@@ -0,0 +1,119 @@
+//
+// ========================================================================
+// Copyright (c) 1995-2022 Mort Bay Consulting Pty Ltd and others.
+//
+// This program and the accompanying materials are made available under the
+// terms of the Eclipse Public License v. 2.0 which is available at
+// https://www.eclipse.org/legal/epl-2.0, or the Apache License, Version 2.0
+// which is available at https://www.apache.org/licenses/LICENSE-2.0.
+//
+// SPDX-License-Identifier: EPL-2.0 OR Apache-2.0
+// ========================================================================
+//
+
+package org.eclipse.jetty.http;
+
+import java.util.List;
+
+/**
+ * <p>Decides the order in which the frames of multiplexed streams are written.</p>
+ * <p>Flushers pass their pending entries to {@link #schedule(List)} before writing,
+ * then generate them in the resulting order, and report the bytes generated for
+ * each entry with {@link #onScheduled(Entry, long)}.</p>
+ * <p>A scheduler instance holds per-connection state, so it is created for each
+ * connection by a {@link Factory}.</p>
+ *
+ * @see ExtensiblePriorityScheduler
+ * @see WeightedFairPriorityScheduler
+ */
+public interface PriorityScheduler
+{
+    /**
+     * <p>A scheduler that keeps the entries in the order they were queued.</p>
+     */
+    PriorityScheduler FIFO = new PriorityScheduler()
+    {
+        @Override
+        public <E extends Entry> void schedule(List<E> entries)
+        {
+        }
+
+        @Override
+        public String toString()
+        {
+            return "FIFO";
+        }
+    };
+
+    /**
+     * <p>Sorts the given entries in the order they should be written.</p>
+     * <p>The relative order of the entries of the same stream must be preserved,
+     * and entries without a priority, such as connection control frames,
+     * are scheduled before all others.</p>
+     *
+     * @param entries the entries to sort in place
+     * @param <E> the type of the entries
+     */
+    <E extends Entry> void schedule(List<E> entries);
+
+    /**
+     * <p>Returns whether {@code next} may be written while {@code head}, which comes
+     * before it in the schedule, still has data to write.</p>
+     *
+     * @param head an entry that still has data to write
+     * @param next an entry scheduled after {@code head}
+     * @return whether the two entries may be interleaved
+     */
+    default boolean canInterleave(Entry head, Entry next)
+    {
+        return true;
+    }
+
+    /**
+     * <p>Callback method invoked when the given entry generated bytes to write.</p>
+     *
+     * @param entry the entry
+     * @param bytes the number of bytes generated
+     */
+    default void onScheduled(Entry entry, long bytes)
+    {
+    }
+
+    /**
+     * <p>An entry to schedule, typically a frame of a stream.</p>
+     */
+    interface Entry
+    {
+        /**
+         * The default weight of a stream, as defined by RFC 7540.
+         */
+        int DEFAULT_WEIGHT = 16;
+
+        /**
+         * @return the id of the stream of this entry
+         */
+        long getStreamId();
+
+        /**
+         * @return the priority of the stream of this entry, or null if this entry
+         * is not subject to prioritization and must be written first
+         */
+        HttpPriority getPriority();
+
+        /**
+         * @return the RFC 7540 weight of the stream of this entry, between 1 and 256
+         */
+        default int getWeight()
+        {
+            return DEFAULT_WEIGHT;
+        }
+    }
+
+    /**
+     * <p>Creates a {@link PriorityScheduler} for each connection.</p>
+     */
+    interface Factory
+    {
+        PriorityScheduler newPriorityScheduler();
+    }
+}
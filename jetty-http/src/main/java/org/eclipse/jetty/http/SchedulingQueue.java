@@ -0,0 +1,91 @@
+//
+// ========================================================================
+// Copyright (c) 1995-2022 Mort Bay Consulting Pty Ltd and others.
+//
+// This program and the accompanying materials are made available under the
+// terms of the Eclipse Public License v. 2.0 which is available at
+// https://www.eclipse.org/legal/epl-2.0, or the Apache License, Version 2.0
+// which is available at https://www.apache.org/licenses/LICENSE-2.0.
+//
+// SPDX-License-Identifier: EPL-2.0 OR Apache-2.0
+// ========================================================================
+//
+
+package org.eclipse.jetty.http;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+
+/**
+ * <p>A queue of {@link PriorityScheduler.Entry entries} that are polled
+ * in the order decided by a {@link PriorityScheduler}, for flushers
+ * that write one entry at a time.</p>
+ * <p>Entries are scheduled in batches: when the current batch is exhausted,
+ * all the queued entries are moved to a new batch and scheduled once, so
+ * that entries offered meanwhile are scheduled with the next batch.</p>
+ * <p>This class is not thread safe, it is meant to be used under the lock of a flusher.</p>
+ *
+ * @param <E> the type of the entries
+ */
+public class SchedulingQueue<E extends PriorityScheduler.Entry>
+{
+    private final Queue<E> entries = new ArrayDeque<>();
+    private final List<E> batch = new ArrayList<>();
+    private int index;
+
+    /**
+     * @param entry the entry to queue
+     */
+    public void offer(E entry)
+    {
+        entries.offer(entry);
+    }
+
+    /**
+     * @param scheduler the scheduler that orders a new batch of entries
+     * @return the next entry to write, or null if there are no entries
+     */
+    public E poll(PriorityScheduler scheduler)
+    {
+        if (index == batch.size())
+        {
+            if (!batch.isEmpty())
+            {
+                batch.clear();
+                index = 0;
+            }
+            if (scheduler == PriorityScheduler.FIFO || entries.size() <= 1)
+                return entries.poll();
+            batch.addAll(entries);
+            entries.clear();
+            scheduler.schedule(batch);
+        }
+        E entry = batch.get(index);
+        batch.set(index++, null);
+        return entry;
+    }
+
+    /**
+     * @return the number of queued entries
+     */
+    public int size()
+    {
+        return entries.size() + batch.size() - index;
+    }
+
+    /**
+     * @return whether there are no queued entries
+     */
+    public boolean isEmpty()
+    {
+        return size() == 0;
+    }
+
+    @Override
+    public String toString()
+    {
+        return String.format("%s@%x[size=%d]", getClass().getSimpleName(), hashCode(), size());
+    }
+}
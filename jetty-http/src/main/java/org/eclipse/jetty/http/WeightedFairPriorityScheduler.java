@@ -0,0 +1,176 @@
+//
+// ========================================================================
+// Copyright (c) 1995-2022 Mort Bay Consulting Pty Ltd and others.
+//
+// This program and the accompanying materials are made available under the
+// terms of the Eclipse Public License v. 2.0 which is available at
+// https://www.eclipse.org/legal/epl-2.0, or the Apache License, Version 2.0
+// which is available at https://www.apache.org/licenses/LICENSE-2.0.
+//
+// SPDX-License-Identifier: EPL-2.0 OR Apache-2.0
+// ========================================================================
+//
+
+package org.eclipse.jetty.http;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * <p>A {@link PriorityScheduler} that shares the bandwidth between streams
+ * in proportion to their RFC 7540 {@link Entry#getWeight() weight}.</p>
+ * <p>Each stream has a virtual time that advances by the bytes it writes divided
+ * by its weight, and entries are written in order of virtual time. A stream that
+ * becomes active starts at the smallest virtual time of the active streams, so
+ * that it cannot claim bandwidth for the time it was idle.</p>
+ * <p>This scheduler is not thread safe, it is meant to be used by a single flusher.</p>
+ */
+public class WeightedFairPriorityScheduler implements PriorityScheduler
+{
+    private VirtualTimes virtualTimes = new VirtualTimes();
+    private VirtualTimes spareTimes = new VirtualTimes();
+    private final Comparator<Entry> comparator = (e1, e2) ->
+    {
+        if (e1.getPriority() == null || e2.getPriority() == null)
+            return e1.getPriority() == null ? (e2.getPriority() == null ? 0 : -1) : 1;
+        return Long.compare(virtualTimes.get(e1.getStreamId()), virtualTimes.get(e2.getStreamId()));
+    };
+
+    @Override
+    public <E extends Entry> void schedule(List<E> entries)
+    {
+        long minTime = Long.MAX_VALUE;
+        for (E entry : entries)
+        {
+            long time = virtualTimes.get(entry.getStreamId());
+            if (time != VirtualTimes.ABSENT)
+                minTime = Math.min(minTime, time);
+        }
+        if (minTime == Long.MAX_VALUE)
+            minTime = 0;
+
+        // Only keep the virtual times of the active streams.
+        VirtualTimes activeTimes = spareTimes;
+        for (E entry : entries)
+        {
+            long streamId = entry.getStreamId();
+            if (activeTimes.get(streamId) == VirtualTimes.ABSENT)
+            {
+                long time = virtualTimes.get(streamId);
+                activeTimes.put(streamId, time == VirtualTimes.ABSENT ? minTime : time);
+            }
+        }
+        virtualTimes.clear();
+        spareTimes = virtualTimes;
+        virtualTimes = activeTimes;
+
+        // List.sort() is stable, so the order of the entries of the same stream is preserved.
+        entries.sort(comparator);
+    }
+
+    @Override
+    public void onScheduled(Entry entry, long bytes)
+    {
+        int weight = Math.max(1, Math.min(256, entry.getWeight()));
+        virtualTimes.add(entry.getStreamId(), bytes * 256 / weight);
+    }
+
+    @Override
+    public String toString()
+    {
+        return String.format("%s@%x[streams=%d]", getClass().getSimpleName(), hashCode(), virtualTimes.size());
+    }
+
+    /**
+     * <p>The virtual times of streams, in an open addressing hash table
+     * with primitive keys and values, so that scheduling does not box them.</p>
+     */
+    private static class VirtualTimes
+    {
+        // Stream ids and virtual times are never negative.
+        private static final long ABSENT = -1;
+
+        private long[] keys = newKeys(16);
+        private long[] values = new long[16];
+        private int size;
+
+        private static long[] newKeys(int capacity)
+        {
+            long[] keys = new long[capacity];
+            Arrays.fill(keys, ABSENT);
+            return keys;
+        }
+
+        private int indexOf(long streamId)
+        {
+            int mask = keys.length - 1;
+            int index = Long.hashCode(streamId * 0x9E3779B97F4A7C15L) & mask;
+            while (keys[index] != ABSENT && keys[index] != streamId)
+            {
+                index = (index + 1) & mask;
+            }
+            return index;
+        }
+
+        private long get(long streamId)
+        {
+            int index = indexOf(streamId);
+            return keys[index] == ABSENT ? ABSENT : values[index];
+        }
+
+        private void put(long streamId, long time)
+        {
+            int index = indexOf(streamId);
+            if (keys[index] == ABSENT)
+            {
+                if (2 * (size + 1) > keys.length)
+                {
+                    resize();
+                    index = indexOf(streamId);
+                }
+                keys[index] = streamId;
+                ++size;
+            }
+            values[index] = time;
+        }
+
+        private void add(long streamId, long delta)
+        {
+            int index = indexOf(streamId);
+            if (keys[index] != ABSENT)
+                values[index] += delta;
+        }
+
+        private void resize()
+        {
+            long[] oldKeys = keys;
+            long[] oldValues = values;
+            keys = newKeys(oldKeys.length * 2);
+            values = new long[oldKeys.length * 2];
+            for (int i = 0; i < oldKeys.length; ++i)
+            {
+                if (oldKeys[i] != ABSENT)
+                {
+                    int index = indexOf(oldKeys[i]);
+                    keys[index] = oldKeys[i];
+                    values[index] = oldValues[i];
+                }
+            }
+        }
+
+        private int size()
+        {
+            return size;
+        }
+
+        private void clear()
+        {
+            if (size > 0)
+            {
+                Arrays.fill(keys, ABSENT);
+                size = 0;
+            }
+        }
+    }
+}
@@ -11,13 +11,15 @@
 // ========================================================================
 //
 
-package org.eclipse.jetty.http3.qpack.internal.util;
-
-import java.nio.ByteBuffer;
-
-public class HuffmanEncoder
+package org.eclipse.jetty.http.compression;
+
+/**
+ * <p>The Huffman code of HPACK and QPACK, from RFC 7541 Appendix B, and the
+ * tables derived from it that are shared by {@link HuffmanEncoder} and
+ * {@link HuffmanDecoder}.</p>
+ */
+final class Huffman
 {
-
     // Appendix C: Huffman Codes
     // http://tools.ietf.org/html/draft-ietf-httpbis-header-compression-12#appendix-C
     static final int[][] CODES =
@@ -284,13 +286,22 @@ public class HuffmanEncoder
     static final int[][] LCCODES = new int[CODES.length][];
     static final char EOS = 256;
 
-    // Huffman decode tree stored in a flattened char array for good 
-    // locality of reference.
-    static final char[] tree;
-    static final char[] rowsym;
-    static final byte[] rowbits;
+    // The decoder is a state machine that consumes one octet per transition.
+    // A state is an internal node of the Huffman tree, the root being state 0,
+    // and there are exactly 256 of them as the tree has 257 leaves.
+    // Since the shortest code is 5 bits long, an octet completes at most two
+    // symbols, so a transition is packed in an int as the next state, the up
+    // to two symbols emitted and some flags.
+    static final int DECODE_SYMBOLS_SHIFT = 24;
+    static final int DECODE_NON_ASCII = 1 << 26;
+    static final int DECODE_FAILURE = 1 << 27;
+    static final int[] DECODE = new int[256 * 256];
+    // The number of bits consumed in a state since the last symbol.
+    static final byte[] DECODE_DEPTH = new byte[256];
+    // Whether the bits consumed in a state since the last symbol are valid
+    // padding, that is at most 7 most significant bits of the EOS code.
+    static final boolean[] DECODE_ACCEPTING = new boolean[256];
 
-    // Build the Huffman lookup tree and LC TABLE
     static
     {
         System.arraycopy(CODES, 0, LCCODES, 0, CODES.length);
@@ -299,175 +310,68 @@ public class HuffmanEncoder
             LCCODES[i] = LCCODES['a' + i - 'A'];
         }
 
-        int r = 0;
-        for (int i = 0; i < CODES.length; i++)
-        {
-            r += (CODES[i][1] + 7) / 8;
-        }
-        tree = new char[r * 256];
-        rowsym = new char[r];
-        rowbits = new byte[r];
-
-        r = 0;
+        // Build the Huffman tree: children of internal nodes are positive,
+        // while leaves are negative and encode the symbol as -(symbol + 1).
+        int[][] children = new int[256][2];
+        int nodes = 1;
         for (int sym = 0; sym < CODES.length; sym++)
         {
             int code = CODES[sym][0];
             int len = CODES[sym][1];
-
-            int current = 0;
-
-            while (len > 8)
+            int node = 0;
+            for (int i = len - 1; i > 0; i--)
             {
-                len -= 8;
-                int i = ((code >>> len) & 0xFF);
-
-                int t = current * 256 + i;
-                current = tree[t];
-                if (current == 0)
+                int bit = (code >>> i) & 1;
+                if (children[node][bit] == 0)
                 {
-                    tree[t] = (char)++r;
-                    current = r;
+                    children[node][bit] = nodes;
+                    DECODE_DEPTH[nodes++] = (byte)(len - i);
                 }
+                node = children[node][bit];
             }
-
-            int terminal = ++r;
-            rowsym[r] = (char)sym;
-            int b = len & 0x07;
-            int terminalBits = b == 0 ? 8 : b;
-
-            rowbits[r] = (byte)terminalBits;
-            int shift = 8 - len;
-            int start = current * 256 + ((code << shift) & 0xFF);
-            int end = start + (1 << shift);
-            for (int i = start; i < end; i++)
-            {
-                tree[i] = (char)terminal;
-            }
-        }
-    }
-
-    public static int octetsNeeded(String s)
-    {
-        return octetsNeeded(CODES, s);
-    }
-
-    public static int octetsNeeded(byte[] b)
-    {
-        return octetsNeeded(CODES, b);
-    }
-
-    public static void encode(ByteBuffer buffer, String s)
-    {
-        encode(CODES, buffer, s);
-    }
-
-    public static void encode(ByteBuffer buffer, byte[] b)
-    {
-        encode(CODES, buffer, b);
-    }
-
-    public static int octetsNeededLC(String s)
-    {
-        return octetsNeeded(LCCODES, s);
-    }
-
-    public static void encodeLC(ByteBuffer buffer, String s)
-    {
-        encode(LCCODES, buffer, s);
-    }
-
-    private static int octetsNeeded(final int[][] table, String s)
-    {
-        int needed = 0;
-        int len = s.length();
-        for (int i = 0; i < len; i++)
-        {
-            char c = s.charAt(i);
-            if (c >= 128 || c < ' ')
-                return -1;
-            needed += table[c][1];
+            children[node][code & 1] = -(sym + 1);
         }
 
-        return (needed + 7) / 8;
-    }
-
-    private static int octetsNeeded(final int[][] table, byte[] b)
-    {
-        int needed = 0;
-        int len = b.length;
-        for (int i = 0; i < len; i++)
-        {
-            int c = 0xFF & b[i];
-            needed += table[c][1];
-        }
-        return (needed + 7) / 8;
-    }
-
-    /**
-     * @param table The table to encode by
-     * @param buffer The buffer to encode to
-     * @param s The string to encode
-     */
-    private static void encode(final int[][] table, ByteBuffer buffer, String s)
-    {
-        long current = 0;
-        int n = 0;
-        int len = s.length();
-        for (int i = 0; i < len; i++)
+        for (int state = 0; state < 256; state++)
         {
-            char c = s.charAt(i);
-            if (c >= 128 || c < ' ')
-                throw new IllegalArgumentException();
-            int code = table[c][0];
-            int bits = table[c][1];
-
-            current <<= bits;
-            current |= code;
-            n += bits;
-
-            while (n >= 8)
+            for (int octet = 0; octet < 256; octet++)
             {
-                n -= 8;
-                buffer.put((byte)(current >> n));
+                int node = state;
+                int symbols = 0;
+                int transition = 0;
+                for (int i = 7; i >= 0; i--)
+                {
+                    int child = children[node][(octet >>> i) & 1];
+                    if (child >= 0)
+                    {
+                        node = child;
+                        continue;
+                    }
+                    int sym = -child - 1;
+                    if (sym == EOS)
+                    {
+                        transition |= DECODE_FAILURE;
+                        break;
+                    }
+                    if (sym >= 0x80)
+                        transition |= DECODE_NON_ASCII;
+                    transition |= sym << (8 + 8 * symbols++);
+                    node = 0;
+                }
+                DECODE[(state << 8) | octet] = transition | node | (symbols << DECODE_SYMBOLS_SHIFT);
             }
         }
 
-        if (n > 0)
+        int node = 0;
+        DECODE_ACCEPTING[node] = true;
+        for (int i = 1; i < 8; i++)
         {
-            current <<= (8 - n);
-            current |= (0xFF >>> n);
-            buffer.put((byte)(current));
+            node = children[node][1];
+            DECODE_ACCEPTING[node] = true;
         }
     }
 
-    private static void encode(final int[][] table, ByteBuffer buffer, byte[] b)
+    private Huffman()
     {
-        long current = 0;
-        int n = 0;
-
-        int len = b.length;
-        for (int i = 0; i < len; i++)
-        {
-            int c = 0xFF & b[i];
-            int code = table[c][0];
-            int bits = table[c][1];
-
-            current <<= bits;
-            current |= code;
-            n += bits;
-
-            while (n >= 8)
-            {
-                n -= 8;
-                buffer.put((byte)(current >> n));
-            }
-        }
-
-        if (n > 0)
-        {
-            current <<= (8 - n);
-            current |= (0xFF >>> n);
-            buffer.put((byte)(current));
-        }
     }
 }
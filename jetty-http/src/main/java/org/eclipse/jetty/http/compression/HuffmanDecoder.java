@@ -0,0 +1,147 @@
+//
+// ========================================================================
+// Copyright (c) 1995-2022 Mort Bay Consulting Pty Ltd and others.
+//
+// This program and the accompanying materials are made available under the
+// terms of the Eclipse Public License v. 2.0 which is available at
+// https://www.eclipse.org/legal/epl-2.0, or the Apache License, Version 2.0
+// which is available at https://www.apache.org/licenses/LICENSE-2.0.
+//
+// SPDX-License-Identifier: EPL-2.0 OR Apache-2.0
+// ========================================================================
+//
+
+package org.eclipse.jetty.http.compression;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+import org.eclipse.jetty.util.Utf8StringBuilder;
+
+import static org.eclipse.jetty.http.compression.Huffman.DECODE;
+import static org.eclipse.jetty.http.compression.Huffman.DECODE_ACCEPTING;
+import static org.eclipse.jetty.http.compression.Huffman.DECODE_DEPTH;
+import static org.eclipse.jetty.http.compression.Huffman.DECODE_FAILURE;
+import static org.eclipse.jetty.http.compression.Huffman.DECODE_NON_ASCII;
+import static org.eclipse.jetty.http.compression.Huffman.DECODE_SYMBOLS_SHIFT;
+
+/**
+ * <p>Decodes strings encoded with the Huffman code of HPACK and QPACK.</p>
+ * <p>Decoding is table driven and consumes a whole octet per table lookup,
+ * emitting up to two symbols at a time into a byte array that is reused
+ * across strings, so that the only allocation is the decoded string.</p>
+ * <p>The decoder may be fed the encoded octets across multiple buffers:
+ * {@link #setLength(int)} must be called before decoding each string, then
+ * {@link #decode(ByteBuffer)} returns {@code null} until all the encoded
+ * octets have been consumed.</p>
+ * <p>Instances are not thread-safe.</p>
+ */
+public class HuffmanDecoder
+{
+    private byte[] _bytes = new byte[64];
+    private Utf8StringBuilder _utf8;
+    private int _size;
+    private int _length;
+    private int _count;
+    private int _state;
+    private int _flags;
+
+    /**
+     * @param length the number of octets of the encoded string to decode
+     */
+    public void setLength(int length)
+    {
+        if (_count != 0)
+            throw new IllegalStateException();
+        _length = length;
+    }
+
+    /**
+     * <p>Decodes the encoded string from the given buffer.</p>
+     *
+     * @param buffer the buffer containing the encoded string
+     * @return the decoded string, or {@code null} if more octets are needed
+     * @throws EncodingException if the encoded string is invalid
+     */
+    public String decode(ByteBuffer buffer) throws EncodingException
+    {
+        int octets = Math.min(_length - _count, buffer.remaining());
+        ensureCapacity(_size + 2 * octets);
+
+        byte[] bytes = _bytes;
+        int size = _size;
+        int state = _state;
+        int flags = _flags;
+        for (int i = 0; i < octets; i++)
+        {
+            int transition = DECODE[(state << 8) | (buffer.get() & 0xFF)];
+            flags |= transition;
+            int symbols = (transition >>> DECODE_SYMBOLS_SHIFT) & 0x3;
+            if (symbols > 0)
+            {
+                bytes[size++] = (byte)(transition >>> 8);
+                if (symbols > 1)
+                    bytes[size++] = (byte)(transition >>> 16);
+            }
+            state = transition & 0xFF;
+        }
+        _size = size;
+        _state = state;
+        _flags = flags;
+        _count += octets;
+
+        if ((flags & DECODE_FAILURE) != 0)
+        {
+            reset();
+            throw new EncodingException("EOS in content");
+        }
+
+        if (_count < _length)
+            return null;
+
+        if (!DECODE_ACCEPTING[state])
+        {
+            reset();
+            // More than 7 bits of padding, or an incomplete symbol.
+            if (DECODE_DEPTH[state] > 7)
+                throw new EncodingException("Bad termination");
+            throw new EncodingException("Incorrect padding");
+        }
+
+        try
+        {
+            if ((flags & DECODE_NON_ASCII) == 0)
+                return new String(bytes, 0, size, StandardCharsets.ISO_8859_1);
+            // Validate non ASCII strings as UTF-8.
+            if (_utf8 == null)
+                _utf8 = new Utf8StringBuilder(size);
+            _utf8.append(bytes, 0, size);
+            return _utf8.toString();
+        }
+        finally
+        {
+            if (_utf8 != null)
+                _utf8.reset();
+            reset();
+        }
+    }
+
+    private void ensureCapacity(int capacity)
+    {
+        if (capacity > _bytes.length)
+        {
+            byte[] bytes = new byte[Math.max(capacity, 2 * _bytes.length)];
+            System.arraycopy(_bytes, 0, bytes, 0, _size);
+            _bytes = bytes;
+        }
+    }
+
+    public void reset()
+    {
+        _size = 0;
+        _length = 0;
+        _count = 0;
+        _state = 0;
+        _flags = 0;
+    }
+}
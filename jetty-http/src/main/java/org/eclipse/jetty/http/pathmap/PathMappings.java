@@ -16,8 +16,11 @@ package org.eclipse.jetty.http.pathmap;
 import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashMap;
 import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 import java.util.TreeSet;
 import java.util.function.Predicate;
@@ -40,6 +43,8 @@ import org.slf4j.LoggerFactory;
 public class PathMappings<E> implements Iterable<MappedResource<E>>, Dumpable
 {
     private static final Logger LOG = LoggerFactory.getLogger(PathMappings.class);
+    // Groups with fewer mappings than this are scanned linearly.
+    private static final int PREFIX_TRIE_THRESHOLD = 8;
     private final Set<MappedResource<E>> _mappings = new TreeSet<>(Comparator.comparing(MappedResource::getPathSpec));
 
     private boolean _optimizedExact = true;
@@ -57,6 +62,7 @@ public class PathMappings<E> implements Iterable<MappedResource<E>>, Dumpable
         .caseSensitive(true)
         .mutable()
         .build();
+    private volatile Map<PathSpecGroup, PrefixTrie<E>> _prefixTries;
 
     @Override
     public String dump()
@@ -86,11 +92,13 @@ public class PathMappings<E> implements Iterable<MappedResource<E>>, Dumpable
         _mappings.clear();
         _prefixMap.clear();
         _suffixMap.clear();
+        _prefixTries = null;
     }
 
     public void removeIf(Predicate<MappedResource<E>> predicate)
     {
         _mappings.removeIf(predicate);
+        _prefixTries = null;
     }
 
     /**
@@ -238,6 +246,22 @@ public class PathMappings<E> implements Iterable<MappedResource<E>>, Dumpable
 
                     default:
                 }
+
+                // Groups that are not optimized above and that have many mappings (typically
+                // regex or URI template mappings) only test the candidates that share a literal prefix with the path.
+                if (!skipRestOfGroup)
+                {
+                    PrefixTrie<E> prefixTrie = getPrefixTries().get(group);
+                    if (prefixTrie != null)
+                    {
+                        MatchedResource<E> matched = prefixTrie.match(path);
+                        if (matched != null)
+                            return matched;
+                        skipRestOfGroup = true;
+                        lastGroup = group;
+                        continue;
+                    }
+                }
             }
 
             matchedPath = mr.getPathSpec().matched(path);
@@ -294,6 +318,8 @@ public class PathMappings<E> implements Iterable<MappedResource<E>>, Dumpable
         boolean added = _mappings.add(entry);
         if (LOG.isDebugEnabled())
             LOG.debug("{} {} to {}", added ? "Added" : "Ignored", entry, this);
+        if (added)
+            _prefixTries = null;
 
         if (added)
         {
@@ -374,6 +400,7 @@ public class PathMappings<E> implements Iterable<MappedResource<E>>, Dumpable
 
         if (removed)
         {
+            _prefixTries = null;
             switch (pathSpec.getGroup())
             {
                 case EXACT:
@@ -409,6 +436,84 @@ public class PathMappings<E> implements Iterable<MappedResource<E>>, Dumpable
         return removed;
     }
 
+    private Map<PathSpecGroup, PrefixTrie<E>> getPrefixTries()
+    {
+        Map<PathSpecGroup, PrefixTrie<E>> prefixTries = _prefixTries;
+        if (prefixTries == null)
+        {
+            Map<PathSpecGroup, Integer> counts = new EnumMap<>(PathSpecGroup.class);
+            for (MappedResource<E> mr : _mappings)
+            {
+                counts.merge(mr.getPathSpec().getGroup(), 1, Integer::sum);
+            }
+
+            prefixTries = new EnumMap<>(PathSpecGroup.class);
+            int order = 0;
+            for (MappedResource<E> mr : _mappings)
+            {
+                PathSpecGroup group = mr.getPathSpec().getGroup();
+                if (counts.get(group) >= PREFIX_TRIE_THRESHOLD)
+                    prefixTries.computeIfAbsent(group, g -> new PrefixTrie<>()).add(literalPrefix(mr.getPathSpec()), order, mr);
+                order++;
+            }
+            _prefixTries = prefixTries;
+        }
+        return prefixTries;
+    }
+
+    /**
+     * @param pathSpec the path spec
+     * @return a string that is a prefix of all the paths matched by the path spec, possibly empty
+     */
+    static String literalPrefix(PathSpec pathSpec)
+    {
+        String declaration = pathSpec.getDeclaration();
+        if (pathSpec instanceof ServletPathSpec)
+        {
+            switch (pathSpec.getGroup())
+            {
+                case EXACT:
+                    return declaration;
+                case PREFIX_GLOB:
+                    return pathSpec.getPrefix();
+                default:
+                    return "";
+            }
+        }
+
+        if (pathSpec instanceof UriTemplatePathSpec)
+        {
+            int variable = declaration.indexOf('{');
+            String prefix = variable < 0 ? declaration : declaration.substring(0, variable);
+            int query = prefix.indexOf('?');
+            return query < 0 ? prefix : prefix.substring(0, query);
+        }
+
+        if (pathSpec instanceof RegexPathSpec)
+        {
+            // Alternations may match paths with different prefixes.
+            if (declaration.indexOf('|') >= 0)
+                return "";
+            int start = declaration.startsWith("^") ? 1 : 0;
+            int end = start;
+            while (end < declaration.length() && isRegexLiteral(declaration.charAt(end)))
+            {
+                end++;
+            }
+            // A quantifier applies to the last literal character, which may then be absent.
+            if (end > start && end < declaration.length() && "*+?{".indexOf(declaration.charAt(end)) >= 0)
+                end--;
+            return declaration.substring(start, end);
+        }
+
+        return "";
+    }
+
+    private static boolean isRegexLiteral(char c)
+    {
+        return (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z') || (c >= '0' && c <= '9') || "/-_~,;=:@!&'%".indexOf(c) >= 0;
+    }
+
     private boolean canBeOptimized(PathSpecGroup suffixGlob)
     {
         return _mappings.stream()
@@ -421,4 +526,70 @@ public class PathMappings<E> implements Iterable<MappedResource<E>>, Dumpable
     {
         return String.format("%s[size=%d]", this.getClass().getSimpleName(), _mappings.size());
     }
+
+    /**
+     * <p>A trie of the literal prefixes of the mappings of a group, so that matching a path
+     * only tests, in search order, the mappings whose literal prefix is a prefix of the path.</p>
+     */
+    private static class PrefixTrie<E>
+    {
+        private final Node<E> _root = new Node<>();
+
+        private void add(String prefix, int order, MappedResource<E> mapping)
+        {
+            Node<E> node = _root;
+            for (int i = 0; i < prefix.length(); i++)
+            {
+                node = node._children.computeIfAbsent(prefix.charAt(i), c -> new Node<>());
+            }
+            node._candidates.add(new Candidate<>(order, mapping));
+        }
+
+        private MatchedResource<E> match(String path)
+        {
+            List<Candidate<E>> candidates = new ArrayList<>();
+            Node<E> node = _root;
+            int nodes = 0;
+            for (int i = 0; node != null; i++)
+            {
+                if (!node._candidates.isEmpty())
+                {
+                    candidates.addAll(node._candidates);
+                    nodes++;
+                }
+                node = i < path.length() ? node._children.get(path.charAt(i)) : null;
+            }
+
+            // The candidates of each node are already in search order.
+            if (nodes > 1)
+                candidates.sort(Comparator.comparingInt(candidate -> candidate._order));
+
+            for (Candidate<E> candidate : candidates)
+            {
+                MappedResource<E> mapping = candidate._mapping;
+                MatchedPath matchedPath = mapping.getPathSpec().matched(path);
+                if (matchedPath != null)
+                    return new MatchedResource<>(mapping.getResource(), mapping.getPathSpec(), matchedPath);
+            }
+            return null;
+        }
+    }
+
+    private static class Node<E>
+    {
+        private final Map<Character, Node<E>> _children = new HashMap<>();
+        private final List<Candidate<E>> _candidates = new ArrayList<>();
+    }
+
+    private static class Candidate<E>
+    {
+        private final int _order;
+        private final MappedResource<E> _mapping;
+
+        private Candidate(int order, MappedResource<E> mapping)
+        {
+            _order = order;
+            _mapping = mapping;
+        }
+    }
 }
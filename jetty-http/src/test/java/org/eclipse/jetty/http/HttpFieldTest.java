@@ -14,15 +14,18 @@
 package org.eclipse.jetty.http;
 
 import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
 
 import org.eclipse.jetty.util.BufferUtil;
 import org.junit.jupiter.api.Test;
 
 import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.arrayContaining;
 import static org.hamcrest.Matchers.is;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
@@ -161,6 +164,19 @@ public class HttpFieldTest
         assertEquals("c", values[2]);
     }
 
+    @Test
+    public void testLazyValueField()
+    {
+        byte[] bytes = "xxgzip, deflatexx".getBytes(StandardCharsets.ISO_8859_1);
+        HttpField field = new HttpField.LazyValueHttpField(HttpHeader.ACCEPT_ENCODING, "Accept-Encoding", bytes, 2, 13);
+        HttpField expected = new HttpField(HttpHeader.ACCEPT_ENCODING, "gzip, deflate");
+        assertEquals(expected, field);
+        assertEquals(expected.hashCode(), field.hashCode());
+        assertTrue(field.contains("deflate"));
+        assertThat(field.getValues(), arrayContaining("gzip", "deflate"));
+        assertSame(field.getValue(), field.getValue());
+    }
+
     @Test
     public void testFieldNameNull()
     {
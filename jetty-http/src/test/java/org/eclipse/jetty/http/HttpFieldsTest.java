@@ -1072,4 +1072,64 @@ public class HttpFieldsTest
         fields.ensureField(new HttpField("Test", "three, four"));
         assertThat(fields.stream().map(HttpField::toString).collect(Collectors.toList()), contains("Test: one, two, three, four"));
     }
-}
\ No newline at end of file
+
+    @Test
+    public void testLargeFieldsLookup()
+    {
+        HttpFields.Mutable fields = HttpFields.build();
+        for (int i = 0; i < 40; i++)
+        {
+            fields.add("X-Custom-" + i, "value" + i);
+        }
+        fields.add(HttpHeader.ACCEPT, "text/html");
+        fields.add(HttpHeader.VIA, "1.1 one");
+        fields.add(HttpHeader.VIA, "1.1 two");
+        fields.add(new HttpField(null, "X-Forwarded-Proto", "https"));
+
+        assertEquals("value7", fields.get("x-custom-7"));
+        assertEquals("text/html", fields.get(HttpHeader.ACCEPT));
+        assertEquals("text/html", fields.get("accept"));
+        assertEquals("https", fields.get(HttpHeader.X_FORWARDED_PROTO.asString()));
+        assertNull(fields.get(HttpHeader.X_FORWARDED_PROTO));
+        assertNull(fields.get(HttpHeader.FORWARDED));
+        assertNull(fields.get("X-Custom-40"));
+        assertTrue(fields.contains(HttpHeader.VIA));
+        assertFalse(fields.contains("X-Missing"));
+
+        // Put replaces the first field and removes the others.
+        fields.put(HttpHeader.VIA, "1.1 three");
+        assertThat(fields.getValuesList(HttpHeader.VIA), contains("1.1 three"));
+        fields.put("X-Custom-3", "replaced");
+        assertEquals("replaced", fields.get("X-Custom-3"));
+        assertEquals(44 - 1, fields.size());
+
+        // Put of a missing field adds it.
+        fields.put(HttpHeader.FORWARDED, "for=1.2.3.4");
+        assertEquals("for=1.2.3.4", fields.get(HttpHeader.FORWARDED));
+
+        fields.remove(HttpHeader.VIA);
+        assertFalse(fields.contains(HttpHeader.VIA));
+        fields.remove("x-forwarded-proto");
+        assertNull(fields.get("X-Forwarded-Proto"));
+
+        fields.computeField(HttpHeader.ACCEPT, (h, l) -> new HttpField(h, l.get(0).getValue() + ", text/plain"));
+        assertEquals("text/html, text/plain", fields.get(HttpHeader.ACCEPT));
+        fields.computeField("X-Missing", (n, l) -> l == null ? new HttpField(n, "added") : null);
+        assertEquals("added", fields.get("X-Missing"));
+
+        ListIterator<HttpField> iterator = fields.listIterator();
+        while (iterator.hasNext())
+        {
+            if (iterator.next().is("X-Custom-0"))
+                iterator.set(new HttpField(HttpHeader.PRAGMA, "no-cache"));
+        }
+        assertNull(fields.get("X-Custom-0"));
+        assertEquals("no-cache", fields.get(HttpHeader.PRAGMA));
+
+        fields.clear();
+        assertNull(fields.get("X-Custom-1"));
+        assertFalse(fields.contains(HttpHeader.ACCEPT));
+        fields.add(HttpHeader.ACCEPT, "*/*");
+        assertEquals("*/*", fields.get(HttpHeader.ACCEPT));
+    }
+}
@@ -880,4 +880,40 @@ public class HttpGeneratorServerTest
         assertThat(headers, containsString("Connection: other, close\r\n"));
         assertThat(headers, not(containsString("keep-alive")));
     }
+
+    @Test
+    public void testPreEncodedHttpFieldsBlock() throws Exception
+    {
+        PreEncodedHttpFields block = new PreEncodedHttpFields(
+            new HttpField(HttpHeader.SERVER, "gateway"),
+            new PreEncodedHttpField(HttpHeader.CONTENT_TYPE, "application/json"),
+            new HttpField("X-Frame-Options", "DENY"));
+        String expected = "Server: gateway\r\nContent-Type: application/json\r\nX-Frame-Options: DENY\r\n";
+        assertEquals(expected.length(), block.getEncodedLength(HttpVersion.HTTP_1_1));
+
+        HttpFields.Mutable fields = HttpFields.build();
+        fields.add("X-Request-Id", "1");
+        fields.add(block);
+        MetaData.Response info = new MetaData.Response(HttpVersion.HTTP_1_1, 200, null, fields, 0);
+        ByteBuffer header = BufferUtil.allocate(4096);
+        HttpGenerator generator = new HttpGenerator(true, false);
+        HttpGenerator.Result result = generator.generateResponse(info, false, header, null, null, true);
+        assertSame(HttpGenerator.Result.FLUSH, result);
+        String headers = BufferUtil.toString(header);
+        assertThat(headers, containsString("X-Request-Id: 1\r\n" + expected));
+        // The Server field of the block replaces the default one.
+        assertThat(headers, not(containsString("Jetty")));
+
+        // A modified block is generated field by field.
+        fields.put(HttpHeader.CONTENT_TYPE, "text/plain");
+        info = new MetaData.Response(HttpVersion.HTTP_1_1, 200, null, fields, 0);
+        header = BufferUtil.allocate(4096);
+        generator = new HttpGenerator(true, false);
+        generator.generateResponse(info, false, header, null, null, true);
+        headers = BufferUtil.toString(header);
+        assertThat(headers, containsString("Server: gateway\r\nContent-Type: text/plain\r\nX-Frame-Options: DENY\r\n"));
+        assertThat(headers, not(containsString("Jetty")));
+
+        assertThrows(IllegalArgumentException.class, () -> new PreEncodedHttpFields(new HttpField(HttpHeader.CONTENT_LENGTH, "10")));
+    }
 }
@@ -744,6 +744,76 @@ public class HttpParserTest
         assertThat(_bad, Matchers.notNullValue());
     }
 
+    @Test
+    public void testLongHeaderValues()
+    {
+        String cookie = "JSESSIONID=node0abcdefghijklmnopqrstuvwxyz0123456789.node0; theme=dark; lang=en-US; tracking=\"a,b;c\"";
+        String request = "GET / HTTP/1.1\r\n" +
+            "Host: localhost\r\n" +
+            "Cookie: " + cookie + "\r\n" +
+            "X-Trailing-Spaces:  0123456789abcdef0123456789   \r\n" +
+            "\r\n";
+
+        // Split the request at every position, so that the scan hits every buffer boundary.
+        for (int split = 1; split < request.length(); ++split)
+        {
+            init();
+            HttpParser.RequestHandler handler = new Handler();
+            HttpParser parser = new HttpParser(handler);
+            parser.parseNext(BufferUtil.toBuffer(request.substring(0, split)));
+            parser.parseNext(BufferUtil.toBuffer(request.substring(split)));
+            parser.atEOF();
+
+            assertEquals(cookie, _val[1]);
+            assertEquals("0123456789abcdef0123456789", _val[2]);
+            assertEquals(2, _headers);
+        }
+
+        assertTrue(HttpParser.isVisibleAscii(0x2122232425267D7EL));
+        assertFalse(HttpParser.isVisibleAscii(0x2122232425262020L));
+        assertFalse(HttpParser.isVisibleAscii(0x212223242526237FL));
+        assertFalse(HttpParser.isVisibleAscii(0x2122230D0A262324L));
+        assertFalse(HttpParser.isVisibleAscii(0x21222324252623E6L));
+    }
+
+    @Test
+    public void testLazyHeaderValues()
+    {
+        ByteBuffer buffer = BufferUtil.toBuffer(
+            "GET / HTTP/1.1\r\n" +
+                "Host: localhost\r\n" +
+                "X-Custom: some value\r\n" +
+                "Referer: http://localhost/\u00e6\r\n" +
+                "Content-Length: 0\r\n" +
+                "\r\n");
+
+        HttpParser.RequestHandler handler = new Handler();
+        HttpParser parser = new HttpParser(handler);
+        parseAll(parser, buffer);
+
+        assertThat(_fields.get(0), Matchers.instanceOf(HostPortHttpField.class));
+        assertThat(_fields.get(1), Matchers.instanceOf(HttpField.LazyValueHttpField.class));
+        assertEquals(new HttpField("X-Custom", "some value"), _fields.get(1));
+        assertThat(_fields.get(2), Matchers.instanceOf(HttpField.LazyValueHttpField.class));
+        assertEquals("http://localhost/\u00e6", _fields.get(2).getValue());
+        assertThat(_fields.get(3), Matchers.not(Matchers.instanceOf(HttpField.LazyValueHttpField.class)));
+        assertEquals(0, _fields.get(3).getLongValue());
+    }
+
+    @Test
+    public void testIllegalCharacterInLongHeaderValue()
+    {
+        ByteBuffer buffer = BufferUtil.toBuffer(
+            "GET / HTTP/1.0\r\n" +
+                "Header: 0123456789abcdef\u00010123456789abcdef\r\n" +
+                "\r\n");
+
+        HttpParser.RequestHandler handler = new Handler();
+        HttpParser parser = new HttpParser(handler);
+        parseAll(parser, buffer);
+        assertThat(_bad, Matchers.notNullValue());
+    }
+
     @Test
     public void testBadHeaderEncoding()
     {
@@ -0,0 +1,246 @@
+//
+// ========================================================================
+// Copyright (c) 1995-2022 Mort Bay Consulting Pty Ltd and others.
+//
+// This program and the accompanying materials are made available under the
+// terms of the Eclipse Public License v. 2.0 which is available at
+// https://www.eclipse.org/legal/epl-2.0, or the Apache License, Version 2.0
+// which is available at https://www.apache.org/licenses/LICENSE-2.0.
+//
+// SPDX-License-Identifier: EPL-2.0 OR Apache-2.0
+// ========================================================================
+//
+
+package org.eclipse.jetty.http;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.Test;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.nullValue;
+import static org.hamcrest.Matchers.sameInstance;
+
+public class PrioritySchedulerTest
+{
+    @Test
+    public void testParsePriority()
+    {
+        assertThat(HttpPriority.parse(null), sameInstance(HttpPriority.DEFAULT));
+        assertThat(HttpPriority.parse("u=3"), sameInstance(HttpPriority.DEFAULT));
+        assertThat(HttpPriority.parse("u=0"), is(HttpPriority.of(0, false)));
+        assertThat(HttpPriority.parse("u=5, i"), is(HttpPriority.of(5, true)));
+        assertThat(HttpPriority.parse("i=?1, u=1"), is(HttpPriority.of(1, true)));
+        assertThat(HttpPriority.parse("u=1, i=?0"), is(HttpPriority.of(1, false)));
+        assertThat(HttpPriority.parse("u=2;foo=bar, x=1, i"), is(HttpPriority.of(2, true)));
+        // Invalid values are ignored.
+        assertThat(HttpPriority.parse("u=9, i=maybe"), is(HttpPriority.DEFAULT));
+        assertThat(HttpPriority.parse("u=high"), is(HttpPriority.DEFAULT));
+        assertThat(HttpPriority.of(6, true).toString(), is("u=6, i"));
+    }
+
+    @Test
+    public void testPriorityFromFields()
+    {
+        HttpFields fields = HttpFields.build().put(HttpHeader.PRIORITY, "u=1");
+        assertThat(HttpPriority.from(fields), is(HttpPriority.of(1, false)));
+        assertThat(HttpPriority.from(HttpFields.EMPTY), sameInstance(HttpPriority.DEFAULT));
+    }
+
+    @Test
+    public void testFIFO()
+    {
+        List<TestEntry> entries = new ArrayList<>(List.of(
+            new TestEntry(5, HttpPriority.of(7, false)),
+            new TestEntry(3, HttpPriority.of(0, false)),
+            new TestEntry(0, null)));
+        PriorityScheduler.FIFO.schedule(entries);
+        assertThat(ids(entries), contains(5L, 3L, 0L));
+    }
+
+    @Test
+    public void testExtensiblePriority()
+    {
+        List<TestEntry> entries = new ArrayList<>(List.of(
+            new TestEntry(9, HttpPriority.of(3, true)),
+            new TestEntry(7, HttpPriority.of(3, false)),
+            new TestEntry(1, HttpPriority.of(5, false)),
+            new TestEntry(5, HttpPriority.of(3, true)),
+            new TestEntry(3, HttpPriority.of(3, false)),
+            new TestEntry(11, HttpPriority.of(0, false)),
+            new TestEntry(0, null)));
+        ExtensiblePriorityScheduler scheduler = new ExtensiblePriorityScheduler();
+        scheduler.schedule(entries);
+
+        // Control entries first, then by urgency; non-incremental by stream id,
+        // then incremental in queue order.
+        assertThat(ids(entries), contains(0L, 11L, 3L, 7L, 9L, 5L, 1L));
+
+        TestEntry nonIncremental = entries.get(2);
+        TestEntry otherNonIncremental = entries.get(3);
+        TestEntry incremental = entries.get(4);
+        TestEntry otherIncremental = entries.get(5);
+        TestEntry lessUrgent = entries.get(6);
+        assertThat(scheduler.canInterleave(nonIncremental, otherNonIncremental), is(false));
+        assertThat(scheduler.canInterleave(nonIncremental, incremental), is(false));
+        assertThat(scheduler.canInterleave(incremental, otherIncremental), is(true));
+        assertThat(scheduler.canInterleave(incremental, lessUrgent), is(false));
+        assertThat(scheduler.canInterleave(nonIncremental, new TestEntry(0, null)), is(true));
+        assertThat(scheduler.canInterleave(nonIncremental, new TestEntry(3, HttpPriority.DEFAULT)), is(true));
+    }
+
+    @Test
+    public void testWeightedFair()
+    {
+        WeightedFairPriorityScheduler scheduler = new WeightedFairPriorityScheduler();
+        TestEntry heavy = new TestEntry(1, HttpPriority.DEFAULT, 256);
+        TestEntry light = new TestEntry(3, HttpPriority.DEFAULT, 16);
+
+        // Simulate writes of the same size, counting which stream is scheduled first.
+        int heavyFirst = 0;
+        for (int i = 0; i < 34; ++i)
+        {
+            List<TestEntry> entries = new ArrayList<>(List.of(light, heavy));
+            scheduler.schedule(entries);
+            TestEntry first = entries.get(0);
+            if (first == heavy)
+                ++heavyFirst;
+            scheduler.onScheduled(first, 1024);
+        }
+        // The heavy stream has a 16 times larger weight.
+        assertThat(heavyFirst, is(32));
+
+        // A stream that becomes active does not get credit for its idle time.
+        TestEntry late = new TestEntry(5, HttpPriority.DEFAULT, 16);
+        List<TestEntry> entries = new ArrayList<>(List.of(light, heavy, late));
+        scheduler.schedule(entries);
+        scheduler.onScheduled(entries.get(0), 1024);
+        scheduler.schedule(entries);
+        assertThat(entries.get(0), sameInstance(heavy));
+    }
+
+    @Test
+    public void testWeightedFairManyStreams()
+    {
+        WeightedFairPriorityScheduler scheduler = new WeightedFairPriorityScheduler();
+        List<TestEntry> streams = new ArrayList<>();
+        for (int i = 0; i < 64; ++i)
+        {
+            streams.add(new TestEntry(4L * i + 1, HttpPriority.DEFAULT, i % 2 == 0 ? 16 : 32));
+        }
+
+        // Each stream writes once, then the heavier streams are scheduled first.
+        List<TestEntry> entries = new ArrayList<>(streams);
+        scheduler.schedule(entries);
+        entries.forEach(entry -> scheduler.onScheduled(entry, 1024));
+        entries = new ArrayList<>(streams);
+        scheduler.schedule(entries);
+        for (int i = 0; i < entries.size(); ++i)
+        {
+            assertThat(entries.get(i).getWeight(), is(i < 32 ? 32 : 16));
+        }
+        assertThat(scheduler.toString(), containsString("streams=64"));
+    }
+
+    @Test
+    public void testSchedulingQueue()
+    {
+        CountingScheduler scheduler = new CountingScheduler(new ExtensiblePriorityScheduler());
+        SchedulingQueue<TestEntry> queue = new SchedulingQueue<>();
+        assertThat(queue.poll(scheduler), nullValue());
+
+        // A single entry is not scheduled.
+        queue.offer(new TestEntry(1, HttpPriority.DEFAULT));
+        assertThat(queue.poll(scheduler).getStreamId(), is(1L));
+        assertThat(scheduler.schedules, is(0));
+
+        queue.offer(new TestEntry(3, HttpPriority.of(5, false)));
+        queue.offer(new TestEntry(5, HttpPriority.of(1, false)));
+        queue.offer(new TestEntry(7, HttpPriority.of(3, false)));
+        assertThat(queue.poll(scheduler).getStreamId(), is(5L));
+        assertThat(queue.size(), is(2));
+
+        // Entries offered during a batch are scheduled with the next batch.
+        queue.offer(new TestEntry(9, HttpPriority.of(0, false)));
+        queue.offer(new TestEntry(11, null));
+        assertThat(queue.poll(scheduler).getStreamId(), is(7L));
+        assertThat(queue.poll(scheduler).getStreamId(), is(3L));
+        assertThat(scheduler.schedules, is(1));
+        assertThat(queue.poll(scheduler).getStreamId(), is(11L));
+        assertThat(queue.poll(scheduler).getStreamId(), is(9L));
+        assertThat(scheduler.schedules, is(2));
+        assertThat(queue.poll(scheduler), nullValue());
+        assertThat(queue.isEmpty(), is(true));
+
+        // FIFO keeps the queue order.
+        queue.offer(new TestEntry(13, HttpPriority.of(5, false)));
+        queue.offer(new TestEntry(15, HttpPriority.of(1, false)));
+        assertThat(queue.poll(PriorityScheduler.FIFO).getStreamId(), is(13L));
+        assertThat(queue.poll(PriorityScheduler.FIFO).getStreamId(), is(15L));
+    }
+
+    private static List<Long> ids(List<TestEntry> entries)
+    {
+        return entries.stream().map(TestEntry::getStreamId).collect(Collectors.toList());
+    }
+
+    private static class CountingScheduler implements PriorityScheduler
+    {
+        private final PriorityScheduler scheduler;
+        private int schedules;
+
+        private CountingScheduler(PriorityScheduler scheduler)
+        {
+            this.scheduler = scheduler;
+        }
+
+        @Override
+        public <E extends Entry> void schedule(List<E> entries)
+        {
+            ++schedules;
+            scheduler.schedule(entries);
+        }
+    }
+
+    private static class TestEntry implements PriorityScheduler.Entry
+    {
+        private final long streamId;
+        private final HttpPriority priority;
+        private final int weight;
+
+        private TestEntry(long streamId, HttpPriority priority)
+        {
+            this(streamId, priority, DEFAULT_WEIGHT);
+        }
+
+        private TestEntry(long streamId, HttpPriority priority, int weight)
+        {
+            this.streamId = streamId;
+            this.priority = priority;
+            this.weight = weight;
+        }
+
+        @Override
+        public long getStreamId()
+        {
+            return streamId;
+        }
+
+        @Override
+        public HttpPriority getPriority()
+        {
+            return priority;
+        }
+
+        @Override
+        public int getWeight()
+        {
+            return weight;
+        }
+    }
+}
@@ -0,0 +1,106 @@
+//
+// ========================================================================
+// Copyright (c) 1995-2022 Mort Bay Consulting Pty Ltd and others.
+//
+// This program and the accompanying materials are made available under the
+// terms of the Eclipse Public License v. 2.0 which is available at
+// https://www.eclipse.org/legal/epl-2.0, or the Apache License, Version 2.0
+// which is available at https://www.apache.org/licenses/LICENSE-2.0.
+//
+// SPDX-License-Identifier: EPL-2.0 OR Apache-2.0
+// ========================================================================
+//
+
+package org.eclipse.jetty.http.compression;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Random;
+
+import org.eclipse.jetty.util.BufferUtil;
+import org.eclipse.jetty.util.TypeUtil;
+import org.junit.jupiter.api.Test;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.nullValue;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class HuffmanDecoderTest
+{
+    @Test
+    public void testDecodeSpecExamples() throws Exception
+    {
+        HuffmanDecoder decoder = new HuffmanDecoder();
+        assertThat(decode(decoder, "f1e3c2e5f23a6ba0ab90f4ff"), is("www.example.com"));
+        assertThat(decode(decoder, "a8eb10649cbf"), is("no-cache"));
+        assertThat(decode(decoder, "d07abe941054d444a8200595040b8166e082a62d1bff"), is("Mon, 21 Oct 2013 20:13:21 GMT"));
+        assertThat(decode(decoder, ""), is(""));
+    }
+
+    @Test
+    public void testRandomRoundTrip() throws Exception
+    {
+        Random random = new Random();
+        HuffmanDecoder decoder = new HuffmanDecoder();
+        for (int i = 0; i < 1000; i++)
+        {
+            byte[] bytes = new byte[random.nextInt(512)];
+            random.nextBytes(bytes);
+            // Keep the bytes ASCII so that they are a valid UTF-8 string.
+            for (int j = 0; j < bytes.length; j++)
+            {
+                bytes[j] &= 0x7F;
+            }
+            String value = new String(bytes, StandardCharsets.ISO_8859_1);
+
+            ByteBuffer buffer = BufferUtil.allocate(HuffmanEncoder.octetsNeeded(bytes));
+            BufferUtil.clearToFill(buffer);
+            HuffmanEncoder.encode(buffer, bytes);
+            BufferUtil.flipToFlush(buffer, 0);
+
+            decoder.setLength(buffer.remaining());
+            assertThat(decoder.decode(buffer), is(value));
+        }
+    }
+
+    @Test
+    public void testDecodeAcrossBuffers() throws Exception
+    {
+        String value = "Jetty été ☺";
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        ByteBuffer buffer = BufferUtil.allocate(HuffmanEncoder.octetsNeeded(bytes));
+        BufferUtil.clearToFill(buffer);
+        HuffmanEncoder.encode(buffer, bytes);
+        BufferUtil.flipToFlush(buffer, 0);
+
+        HuffmanDecoder decoder = new HuffmanDecoder();
+        decoder.setLength(buffer.remaining());
+        String decoded = null;
+        while (buffer.hasRemaining())
+        {
+            assertThat(decoded, nullValue());
+            decoded = decoder.decode(ByteBuffer.wrap(new byte[]{buffer.get()}));
+        }
+        assertThat(decoded, is(value));
+    }
+
+    @Test
+    public void testInvalidEncodings() throws Exception
+    {
+        HuffmanDecoder decoder = new HuffmanDecoder();
+        assertThat(assertThrows(EncodingException.class, () -> decode(decoder, "49509FFF")).getMessage(), containsString("Bad termination"));
+        assertThat(assertThrows(EncodingException.class, () -> decode(decoder, "495090")).getMessage(), containsString("Incorrect padding"));
+        assertThat(assertThrows(EncodingException.class, () -> decode(decoder, "497FFFFFFF427F")).getMessage(), containsString("EOS in content"));
+        // The decoder is reset after a failure.
+        assertThat(decode(decoder, "a8eb10649cbf"), is("no-cache"));
+    }
+
+    private static String decode(HuffmanDecoder decoder, String hex) throws EncodingException
+    {
+        byte[] encoded = TypeUtil.fromHexString(hex);
+        decoder.setLength(encoded.length);
+        return decoder.decode(ByteBuffer.wrap(encoded));
+    }
+}
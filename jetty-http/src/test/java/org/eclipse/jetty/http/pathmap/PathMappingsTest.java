@@ -423,4 +423,67 @@ public class PathMappingsTest
         assertThat(PathSpec.from("^.*"), instanceOf(RegexPathSpec.class));
         assertThat(PathSpec.from("^/"), instanceOf(RegexPathSpec.class));
     }
+
+    @Test
+    public void testManyUriTemplateAndRegexMappings()
+    {
+        PathMappings<String> p = new PathMappings<>();
+        p.put(new ServletPathSpec("/"), "default");
+        for (int i = 0; i < 200; i++)
+        {
+            p.put(new UriTemplatePathSpec("/api/v" + (i % 3) + "/resource" + i + "/{id}"), "template" + i);
+            p.put(new UriTemplatePathSpec("/api/v" + (i % 3) + "/resource" + i + "/{id}/items/{item}"), "items" + i);
+        }
+        p.put(new UriTemplatePathSpec("/{tenant}/resource7/{id}"), "tenant");
+        p.put(new RegexPathSpec("^/api/v1/resource7/[0-9]+$"), "numeric");
+        p.put(new RegexPathSpec("^/api/x+/(.*)$"), "quantified");
+        p.put(new RegexPathSpec("^/(api|web)/other/(.*)$"), "alternation");
+        p.put(new RegexPathSpec("^/files/.*\\.txt$"), "text");
+
+        String[] paths = {
+            "/api/v1/resource7/42", "/api/v1/resource7/abc", "/api/v0/resource9/x", "/api/v2/resource11/y/items/z",
+            "/api/v1/resource10/1", "/acme/resource7/1", "/api/x/a", "/api/xxx/b", "/web/other/c",
+            "/files/a/b.txt", "/api/v1/resource7", "/", "/unknown", "/api/v1/resource7/42?q=1"
+        };
+        for (String path : paths)
+        {
+            // The first matching mapping in search order is the expected match.
+            MappedResource<String> expected = p.getMappings().stream()
+                .filter(mr -> mr.getPathSpec().matched(path) != null)
+                .findFirst()
+                .orElse(null);
+            MatchedResource<String> matched = p.getMatched(path);
+            if (expected == null)
+                assertNull(matched, path);
+            else
+                assertEquals(expected.getResource(), matched.getResource(), path);
+        }
+
+        assertMatch(p, "/api/v1/resource7/42", "numeric");
+        assertMatch(p, "/api/v1/resource7/abc", "template7");
+        assertMatch(p, "/api/v2/resource11/y/items/z", "items11");
+        assertMatch(p, "/api/v0/resource9/x", "template9");
+        assertMatch(p, "/api/v1/resource9/x", "default");
+
+        // Mappings added after a match are taken into account.
+        p.put(new UriTemplatePathSpec("/api/v1/resource9/{id}"), "added");
+        assertMatch(p, "/api/v1/resource9/x", "added");
+        p.remove(new UriTemplatePathSpec("/api/v1/resource9/{id}"));
+        assertMatch(p, "/api/v1/resource9/x", "default");
+    }
+
+    @Test
+    public void testLiteralPrefix()
+    {
+        assertEquals("/a/b", PathMappings.literalPrefix(new ServletPathSpec("/a/b")));
+        assertEquals("/a", PathMappings.literalPrefix(new ServletPathSpec("/a/*")));
+        assertEquals("", PathMappings.literalPrefix(new ServletPathSpec("*.do")));
+        assertEquals("/a/", PathMappings.literalPrefix(new UriTemplatePathSpec("/a/{b}/c")));
+        assertEquals("/a/b", PathMappings.literalPrefix(new UriTemplatePathSpec("/a/b")));
+        assertEquals("/a/", PathMappings.literalPrefix(new RegexPathSpec("^/a/b+")));
+        assertEquals("/a/", PathMappings.literalPrefix(new RegexPathSpec("^/a/b{2}")));
+        assertEquals("/a/", PathMappings.literalPrefix(new RegexPathSpec("^/a/\\Qb\\E")));
+        assertEquals("", PathMappings.literalPrefix(new RegexPathSpec("^/a|/b")));
+        assertEquals("", PathMappings.literalPrefix(new RegexPathSpec("^(?i)/a")));
+    }
 }
@@ -18,6 +18,7 @@ import java.nio.channels.SocketChannel;
 import java.time.Duration;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.Executor;
@@ -28,6 +29,7 @@ import org.eclipse.jetty.http2.FlowControlStrategy;
 import org.eclipse.jetty.http2.api.Session;
 import org.eclipse.jetty.http2.frames.Frame;
 import org.eclipse.jetty.http2.frames.SettingsFrame;
+import org.eclipse.jetty.http2.hpack.HpackIndexingStrategy;
 import org.eclipse.jetty.io.ByteBufferPool;
 import org.eclipse.jetty.io.ClientConnectionFactory;
 import org.eclipse.jetty.io.ClientConnector;
@@ -112,6 +114,7 @@ public class HTTP2Client extends ContainerLifeCycle
     private int maxDynamicTableSize = 4096;
     private int maxHeaderBlockFragment = 0;
     private FlowControlStrategy.Factory flowControlStrategyFactory = () -> new BufferingFlowControlStrategy(0.5F);
+    private HpackIndexingStrategy.Factory hpackIndexingStrategyFactory = () -> HpackIndexingStrategy.DEFAULT;
     private long streamIdleTimeout;
     private boolean useInputDirectByteBuffers = true;
     private boolean useOutputDirectByteBuffers = true;
@@ -173,6 +176,23 @@ public class HTTP2Client extends ContainerLifeCycle
         this.flowControlStrategyFactory = flowControlStrategyFactory;
     }
 
+    public HpackIndexingStrategy.Factory getHpackIndexingStrategyFactory()
+    {
+        return hpackIndexingStrategyFactory;
+    }
+
+    /**
+     * <p>Sets the factory of the {@link HpackIndexingStrategy} that decides which
+     * header fields are added to the HPACK dynamic table of each connection.</p>
+     *
+     * @param hpackIndexingStrategyFactory the HPACK indexing strategy factory
+     * @see org.eclipse.jetty.http2.hpack.RepeatedFieldIndexingStrategy
+     */
+    public void setHpackIndexingStrategyFactory(HpackIndexingStrategy.Factory hpackIndexingStrategyFactory)
+    {
+        this.hpackIndexingStrategyFactory = Objects.requireNonNull(hpackIndexingStrategyFactory);
+    }
+
     @ManagedAttribute("The number of selectors")
     public int getSelectors()
     {
@@ -0,0 +1,284 @@
+//
+// ========================================================================
+// Copyright (c) 1995-2022 Mort Bay Consulting Pty Ltd and others.
+//
+// This program and the accompanying materials are made available under the
+// terms of the Eclipse Public License v. 2.0 which is available at
+// https://www.eclipse.org/legal/epl-2.0, or the Apache License, Version 2.0
+// which is available at https://www.apache.org/licenses/LICENSE-2.0.
+//
+// SPDX-License-Identifier: EPL-2.0 OR Apache-2.0
+// ========================================================================
+//
+
+package org.eclipse.jetty.http2.client;
+
+import java.lang.reflect.Proxy;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.eclipse.jetty.http.HttpFields;
+import org.eclipse.jetty.http.HttpStatus;
+import org.eclipse.jetty.http.HttpVersion;
+import org.eclipse.jetty.http.MetaData;
+import org.eclipse.jetty.http2.AdaptiveFlowControlStrategy;
+import org.eclipse.jetty.http2.ErrorCode;
+import org.eclipse.jetty.http2.FlowControlStrategy;
+import org.eclipse.jetty.http2.ISession;
+import org.eclipse.jetty.http2.api.Session;
+import org.eclipse.jetty.http2.api.Stream;
+import org.eclipse.jetty.http2.api.server.ServerSessionListener;
+import org.eclipse.jetty.http2.frames.DataFrame;
+import org.eclipse.jetty.http2.frames.Frame;
+import org.eclipse.jetty.http2.frames.GoAwayFrame;
+import org.eclipse.jetty.http2.frames.HeadersFrame;
+import org.eclipse.jetty.http2.frames.PingFrame;
+import org.eclipse.jetty.http2.frames.ResetFrame;
+import org.eclipse.jetty.http2.frames.SettingsFrame;
+import org.eclipse.jetty.http2.frames.WindowUpdateFrame;
+import org.eclipse.jetty.util.Callback;
+import org.eclipse.jetty.util.FutureCallback;
+import org.eclipse.jetty.util.FuturePromise;
+import org.junit.jupiter.api.Test;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.greaterThan;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.nullValue;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class AdaptiveFlowControlStrategyTest extends AbstractTest
+{
+    private AdaptiveFlowControlStrategy clientStrategy;
+
+    @Override
+    protected void prepareClient()
+    {
+        super.prepareClient();
+        if (clientStrategy != null)
+            client.setFlowControlStrategyFactory(() -> clientStrategy);
+    }
+
+    @Test
+    public void testRecvWindowsFollowBandwidthDelayProduct() throws Exception
+    {
+        List<Frame> frames = new ArrayList<>();
+        ISession session = newSession(frames);
+        AdaptiveFlowControlStrategy strategy = new AdaptiveFlowControlStrategy(1024 * 1024, 512 * 1024);
+        strategy.setSampleInterval(0);
+        strategy.updateInitialStreamWindow(session, FlowControlStrategy.DEFAULT_WINDOW_SIZE, true);
+
+        // Almost a whole window is received in a round trip, so the windows grow.
+        roundTrip(strategy, session, frames, 60 * 1024);
+        assertThat(initialWindowSize(frames), is(120 * 1024));
+        assertThat(sessionWindowDelta(frames), is(120 * 1024 - FlowControlStrategy.DEFAULT_WINDOW_SIZE));
+
+        roundTrip(strategy, session, frames, 100 * 1024);
+        assertThat(initialWindowSize(frames), is(200 * 1024));
+        assertThat(sessionWindowDelta(frames), is(80 * 1024));
+
+        // The windows do not grow beyond the limit.
+        roundTrip(strategy, session, frames, 400 * 1024);
+        assertThat(initialWindowSize(frames), is(512 * 1024));
+        assertThat(sessionWindowDelta(frames), is(312 * 1024));
+
+        // Small samples eventually shrink the stream windows, but not the session window.
+        for (int i = 0; i < 7; i++)
+        {
+            roundTrip(strategy, session, frames, 1024);
+            assertThat(initialWindowSize(frames), nullValue());
+        }
+        roundTrip(strategy, session, frames, 1024);
+        assertThat(initialWindowSize(frames), is(FlowControlStrategy.DEFAULT_WINDOW_SIZE));
+        assertThat(sessionWindowDelta(frames), nullValue());
+    }
+
+    @Test
+    public void testPingRepliesOfOthersAreNotConsumed()
+    {
+        ISession session = newSession(new ArrayList<>());
+        AdaptiveFlowControlStrategy strategy = new AdaptiveFlowControlStrategy();
+        strategy.onDataReceived(session, null, 1024);
+        assertFalse(strategy.onPingReply(session, new PingFrame(System.nanoTime(), true)));
+    }
+
+    @Test
+    public void testSamplesAreRateLimited()
+    {
+        List<Frame> frames = new ArrayList<>();
+        ISession session = newSession(frames);
+        AdaptiveFlowControlStrategy strategy = new AdaptiveFlowControlStrategy();
+        strategy.setSampleInterval(TimeUnit.SECONDS.toMillis(10));
+
+        strategy.onDataReceived(session, null, 1024);
+        assertThat(frames.size(), is(1));
+        PingFrame ping = (PingFrame)frames.remove(0);
+        assertTrue(strategy.onPingReply(session, new PingFrame(ping.getPayload(), true)));
+
+        // DATA keeps arriving, but no PING is sent before the sample interval elapses.
+        for (int i = 0; i < 100; ++i)
+        {
+            strategy.onDataReceived(session, null, 1024);
+        }
+        assertTrue(frames.isEmpty());
+    }
+
+    @Test
+    public void testShrinkDoesNotFailLiveStream() throws Exception
+    {
+        List<Integer> recvWindows = new CopyOnWriteArrayList<>();
+        clientStrategy = new AdaptiveFlowControlStrategy()
+        {
+            @Override
+            public void updateInitialStreamWindow(ISession session, int initialStreamWindow, boolean local)
+            {
+                if (local)
+                    recvWindows.add(initialStreamWindow);
+                super.updateInitialStreamWindow(session, initialStreamWindow, local);
+            }
+        };
+        clientStrategy.setSampleInterval(50);
+
+        int burst = 1024 * 1024;
+        int trickles = 12;
+        int trickle = 1024;
+        start(new ServerSessionListener.Adapter()
+        {
+            @Override
+            public Stream.Listener onNewStream(Stream stream, HeadersFrame frame)
+            {
+                MetaData.Response response = new MetaData.Response(HttpVersion.HTTP_2, HttpStatus.OK_200, HttpFields.EMPTY);
+                stream.headers(new HeadersFrame(stream.getId(), response, null, false), Callback.NOOP);
+                new Thread(() ->
+                {
+                    try
+                    {
+                        // A burst grows the windows, then DATA trickles
+                        // so that the windows shrink, then another burst.
+                        write(stream, burst, false);
+                        for (int i = 0; i < trickles; ++i)
+                        {
+                            Thread.sleep(60);
+                            write(stream, trickle, false);
+                        }
+                        write(stream, burst, true);
+                    }
+                    catch (Throwable x)
+                    {
+                        stream.reset(new ResetFrame(stream.getId(), ErrorCode.INTERNAL_ERROR.code), Callback.NOOP);
+                    }
+                }).start();
+                return null;
+            }
+        });
+
+        CountDownLatch closeLatch = new CountDownLatch(1);
+        Session session = newClient(new Session.Listener.Adapter()
+        {
+            @Override
+            public void onClose(Session session, GoAwayFrame frame)
+            {
+                closeLatch.countDown();
+            }
+        });
+        AtomicInteger received = new AtomicInteger();
+        CountDownLatch latch = new CountDownLatch(1);
+        session.newStream(new HeadersFrame(newRequest("GET", HttpFields.EMPTY), null, true), new FuturePromise<>(), new Stream.Listener.Adapter()
+        {
+            @Override
+            public void onData(Stream stream, DataFrame frame, Callback callback)
+            {
+                received.addAndGet(frame.remaining());
+                callback.succeeded();
+                if (frame.isEndStream())
+                    latch.countDown();
+            }
+        });
+
+        assertTrue(latch.await(15, TimeUnit.SECONDS));
+        assertThat(received.get(), is(2 * burst + trickles * trickle));
+        assertFalse(closeLatch.await(1, TimeUnit.SECONDS));
+
+        // The windows grew during the first burst, and shrank back
+        // while the stream was open, before growing again.
+        assertThat(recvWindows.get(0), is(FlowControlStrategy.DEFAULT_WINDOW_SIZE));
+        assertThat(recvWindows.get(1), greaterThan(FlowControlStrategy.DEFAULT_WINDOW_SIZE));
+        assertTrue(recvWindows.subList(1, recvWindows.size()).contains(FlowControlStrategy.DEFAULT_WINDOW_SIZE));
+    }
+
+    private static void write(Stream stream, int length, boolean last) throws Exception
+    {
+        FutureCallback callback = new FutureCallback();
+        stream.data(new DataFrame(stream.getId(), ByteBuffer.allocate(length), last), callback);
+        callback.get(5, TimeUnit.SECONDS);
+    }
+
+    private void roundTrip(AdaptiveFlowControlStrategy strategy, ISession session, List<Frame> frames, int length) throws Exception
+    {
+        frames.clear();
+        int frameLength = Math.min(length, 1024);
+        for (int received = 0; received < length; received += frameLength)
+        {
+            strategy.onDataReceived(session, null, frameLength);
+        }
+        assertThat(frames.size(), is(1));
+        PingFrame ping = (PingFrame)frames.remove(0);
+        // Make the round trip time, and therefore the bandwidth, deterministic enough.
+        Thread.sleep(10);
+        assertTrue(strategy.onPingReply(session, new PingFrame(ping.getPayload(), true)));
+    }
+
+    private Integer initialWindowSize(List<Frame> frames)
+    {
+        return frames.stream()
+            .filter(SettingsFrame.class::isInstance)
+            .map(frame -> ((SettingsFrame)frame).getSettings().get(SettingsFrame.INITIAL_WINDOW_SIZE))
+            .findFirst()
+            .orElse(null);
+    }
+
+    private Integer sessionWindowDelta(List<Frame> frames)
+    {
+        return frames.stream()
+            .filter(WindowUpdateFrame.class::isInstance)
+            .map(frame -> ((WindowUpdateFrame)frame).getWindowDelta())
+            .findFirst()
+            .orElse(null);
+    }
+
+    @SuppressWarnings("unchecked")
+    private ISession newSession(List<Frame> frames)
+    {
+        return (ISession)Proxy.newProxyInstance(getClass().getClassLoader(), new Class<?>[]{ISession.class}, (proxy, method, args) ->
+        {
+            switch (method.getName())
+            {
+                case "ping":
+                case "settings":
+                    frames.add((Frame)args[0]);
+                    return null;
+                case "frames":
+                    frames.addAll((Collection<? extends Frame>)args[1]);
+                    return null;
+                case "getStreams":
+                    return List.of();
+                default:
+                    Class<?> type = method.getReturnType();
+                    if (type == int.class)
+                        return 0;
+                    if (type == long.class)
+                        return 0L;
+                    if (type == boolean.class)
+                        return false;
+                    return null;
+            }
+        });
+    }
+}
@@ -0,0 +1,174 @@
+//
+// ========================================================================
+// Copyright (c) 1995-2022 Mort Bay Consulting Pty Ltd and others.
+//
+// This program and the accompanying materials are made available under the
+// terms of the Eclipse Public License v. 2.0 which is available at
+// https://www.eclipse.org/legal/epl-2.0, or the Apache License, Version 2.0
+// which is available at https://www.apache.org/licenses/LICENSE-2.0.
+//
+// SPDX-License-Identifier: EPL-2.0 OR Apache-2.0
+// ========================================================================
+//
+
+package org.eclipse.jetty.http2.client;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.LinkedBlockingDeque;
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.jetty.http.ExtensiblePriorityScheduler;
+import org.eclipse.jetty.http.HttpFields;
+import org.eclipse.jetty.http.HttpHeader;
+import org.eclipse.jetty.http.HttpPriority;
+import org.eclipse.jetty.http.HttpStatus;
+import org.eclipse.jetty.http.HttpVersion;
+import org.eclipse.jetty.http.MetaData;
+import org.eclipse.jetty.http2.IStream;
+import org.eclipse.jetty.http2.api.Session;
+import org.eclipse.jetty.http2.api.Stream;
+import org.eclipse.jetty.http2.api.server.ServerSessionListener;
+import org.eclipse.jetty.http2.frames.DataFrame;
+import org.eclipse.jetty.http2.frames.HeadersFrame;
+import org.eclipse.jetty.http2.frames.PushPromiseFrame;
+import org.eclipse.jetty.util.Callback;
+import org.eclipse.jetty.util.FuturePromise;
+import org.eclipse.jetty.util.Promise;
+import org.junit.jupiter.api.Test;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class ExtensiblePriorityTest extends AbstractTest
+{
+    @Test
+    public void testUrgentResponseIsWrittenFirst() throws Exception
+    {
+        CountDownLatch serverStreamsLatch = new CountDownLatch(2);
+        List<Stream> serverStreams = new ArrayList<>();
+        start(new ServerSessionListener.Adapter()
+        {
+            @Override
+            public Stream.Listener onNewStream(Stream stream, HeadersFrame frame)
+            {
+                serverStreams.add(stream);
+                serverStreamsLatch.countDown();
+                return null;
+            }
+        }, factory -> factory.setPrioritySchedulerFactory(ExtensiblePriorityScheduler::new));
+
+        Session session = newClient(new Session.Listener.Adapter());
+
+        BlockingQueue<DataFrame> dataFrames = new LinkedBlockingDeque<>();
+        Stream.Listener streamListener = new Stream.Listener.Adapter()
+        {
+            @Override
+            public void onData(Stream stream, DataFrame frame, Callback callback)
+            {
+                dataFrames.offer(frame);
+                callback.succeeded();
+            }
+        };
+
+        // The less urgent request is sent first.
+        HttpFields.Mutable imageFields = HttpFields.build().put(HttpHeader.PRIORITY, "u=5");
+        FuturePromise<Stream> imagePromise = new FuturePromise<>();
+        session.newStream(new HeadersFrame(newRequest("GET", "/image", imageFields), null, true), imagePromise, streamListener);
+        int imageStreamId = imagePromise.get(5, TimeUnit.SECONDS).getId();
+
+        HttpFields.Mutable cssFields = HttpFields.build().put(HttpHeader.PRIORITY, "u=0");
+        FuturePromise<Stream> cssPromise = new FuturePromise<>();
+        session.newStream(new HeadersFrame(newRequest("GET", "/css", cssFields), null, true), cssPromise, streamListener);
+        int cssStreamId = cssPromise.get(5, TimeUnit.SECONDS).getId();
+
+        assertTrue(serverStreamsLatch.await(5, TimeUnit.SECONDS));
+        Stream imageStream = serverStreams.get(0);
+        Stream cssStream = serverStreams.get(1);
+        assertThat(((IStream)imageStream).getPriority(), is(HttpPriority.of(5, false)));
+        assertThat(((IStream)cssStream).getPriority(), is(HttpPriority.of(0, false)));
+
+        MetaData.Response response = new MetaData.Response(HttpVersion.HTTP_2, HttpStatus.OK_200, HttpFields.EMPTY);
+        imageStream.headers(new HeadersFrame(imageStream.getId(), response, null, false), Callback.NOOP);
+        cssStream.headers(new HeadersFrame(cssStream.getId(), response, null, false), new Callback()
+        {
+            @Override
+            public void succeeded()
+            {
+                // Write data for both streams from within the callback so that they get queued together.
+                imageStream.data(new DataFrame(imageStream.getId(), ByteBuffer.allocate(32 * 1024), true), NOOP);
+                cssStream.data(new DataFrame(cssStream.getId(), ByteBuffer.allocate(8 * 1024), true), NOOP);
+            }
+        });
+
+        // All the CSS data is received before any image data.
+        int cssBytes = 0;
+        while (cssBytes < 8 * 1024)
+        {
+            DataFrame frame = dataFrames.poll(5, TimeUnit.SECONDS);
+            assertNotNull(frame);
+            assertThat(frame.getStreamId(), is(cssStreamId));
+            cssBytes += frame.remaining();
+        }
+        DataFrame frame = dataFrames.poll(5, TimeUnit.SECONDS);
+        assertNotNull(frame);
+        assertThat(frame.getStreamId(), is(imageStreamId));
+    }
+
+    @Test
+    public void testPushPromiseIsWrittenBeforeUrgentEndStream() throws Exception
+    {
+        start(new ServerSessionListener.Adapter()
+        {
+            @Override
+            public Stream.Listener onNewStream(Stream stream, HeadersFrame frame)
+            {
+                MetaData.Response response = new MetaData.Response(HttpVersion.HTTP_2, HttpStatus.OK_200, HttpFields.EMPTY);
+                stream.headers(new HeadersFrame(stream.getId(), response, null, false), new Callback()
+                {
+                    @Override
+                    public void succeeded()
+                    {
+                        // Push and end the stream from within the callback so that they get queued together.
+                        HttpFields.Mutable pushFields = HttpFields.build().put(HttpHeader.PRIORITY, "u=5");
+                        PushPromiseFrame pushFrame = new PushPromiseFrame(stream.getId(), newRequest("GET", "/image", pushFields));
+                        stream.push(pushFrame, new Promise.Adapter<>(), new Stream.Listener.Adapter());
+                        stream.data(new DataFrame(stream.getId(), ByteBuffer.allocate(1024), true), NOOP);
+                    }
+                });
+                return null;
+            }
+        }, factory -> factory.setPrioritySchedulerFactory(ExtensiblePriorityScheduler::new));
+
+        Session session = newClient(new Session.Listener.Adapter());
+
+        BlockingQueue<String> events = new LinkedBlockingDeque<>();
+        HttpFields.Mutable fields = HttpFields.build().put(HttpHeader.PRIORITY, "u=0");
+        session.newStream(new HeadersFrame(newRequest("GET", "/", fields), null, true), new FuturePromise<>(), new Stream.Listener.Adapter()
+        {
+            @Override
+            public Stream.Listener onPush(Stream stream, PushPromiseFrame frame)
+            {
+                events.offer("push");
+                return null;
+            }
+
+            @Override
+            public void onData(Stream stream, DataFrame frame, Callback callback)
+            {
+                if (frame.isEndStream())
+                    events.offer("end");
+                callback.succeeded();
+            }
+        });
+
+        // The PUSH_PROMISE must be received before the end of the associated stream.
+        assertThat(events.poll(5, TimeUnit.SECONDS), is("push"));
+        assertThat(events.poll(5, TimeUnit.SECONDS), is("end"));
+    }
+}
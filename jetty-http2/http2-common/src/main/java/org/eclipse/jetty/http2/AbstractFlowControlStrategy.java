@@ -93,18 +93,27 @@ public abstract class AbstractFlowControlStrategy implements FlowControlStrategy
         for (Stream stream : session.getStreams())
         {
             if (local)
-            {
-                ((IStream)stream).updateRecvWindow(delta);
-                if (LOG.isDebugEnabled())
-                    LOG.debug("Updated initial stream recv window {} -> {} for {}", previousInitialStreamWindow, initialStreamWindow, stream);
-            }
+                updateStreamRecvWindow((IStream)stream, previousInitialStreamWindow, initialStreamWindow);
             else
-            {
                 session.onWindowUpdate((IStream)stream, new WindowUpdateFrame(stream.getId(), delta));
-            }
         }
     }
 
+    /**
+     * <p>Updates the recv window of an existing stream after the local
+     * initial stream window has been updated.</p>
+     *
+     * @param stream the existing stream
+     * @param previousInitialStreamWindow the previous initial stream window
+     * @param initialStreamWindow the new initial stream window
+     */
+    protected void updateStreamRecvWindow(IStream stream, int previousInitialStreamWindow, int initialStreamWindow)
+    {
+        stream.updateRecvWindow(initialStreamWindow - previousInitialStreamWindow);
+        if (LOG.isDebugEnabled())
+            LOG.debug("Updated initial stream recv window {} -> {} for {}", previousInitialStreamWindow, initialStreamWindow, stream);
+    }
+
     @Override
     public void onWindowUpdate(ISession session, IStream stream, WindowUpdateFrame frame)
     {
@@ -0,0 +1,293 @@
+//
+// ========================================================================
+// Copyright (c) 1995-2022 Mort Bay Consulting Pty Ltd and others.
+//
+// This program and the accompanying materials are made available under the
+// terms of the Eclipse Public License v. 2.0 which is available at
+// https://www.eclipse.org/legal/epl-2.0, or the Apache License, Version 2.0
+// which is available at https://www.apache.org/licenses/LICENSE-2.0.
+//
+// SPDX-License-Identifier: EPL-2.0 OR Apache-2.0
+// ========================================================================
+//
+
+package org.eclipse.jetty.http2;
+
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.jetty.http2.frames.PingFrame;
+import org.eclipse.jetty.http2.frames.SettingsFrame;
+import org.eclipse.jetty.http2.frames.WindowUpdateFrame;
+import org.eclipse.jetty.util.Callback;
+import org.eclipse.jetty.util.annotation.ManagedAttribute;
+import org.eclipse.jetty.util.annotation.ManagedObject;
+import org.eclipse.jetty.util.thread.AutoLock;
+
+/**
+ * <p>A flow control strategy that sizes the receive windows after the
+ * bandwidth-delay product (BDP) of the connection.</p>
+ * <p>With fixed windows, a sender on a high latency connection cannot have
+ * more than a window of data in flight per round trip, and is therefore
+ * limited to a fraction of the link capacity when the window is smaller
+ * than the bandwidth-delay product.</p>
+ * <p>When DATA frames are received, this strategy sends a PING frame and
+ * counts the bytes received until the PING reply arrives: this sample is
+ * an estimate of the bandwidth-delay product.
+ * Samples are taken at most once every {@link #getSampleInterval() sampleInterval}
+ * milliseconds, so that the peer does not see an excessive rate of PING frames.
+ * When a sample is close to the current window, and the bandwidth measured
+ * is the highest seen so far, the window is likely to be limiting the
+ * sender, so the window is grown to twice the sample, up to
+ * {@link #getStreamRecvWindowLimit() streamRecvWindowLimit}.
+ * The stream windows are resized by sending a SETTINGS frame with a new
+ * {@code INITIAL_WINDOW_SIZE}, and the session window is enlarged by
+ * sending a WINDOW_UPDATE frame, up to
+ * {@link #getSessionRecvWindowLimit() sessionRecvWindowLimit}.</p>
+ * <p>When several consecutive samples are much smaller than the current
+ * window, the stream windows are shrunk back towards the initial stream
+ * window, to reduce the memory that the peer may make this side buffer.
+ * Only the streams created afterwards use the smaller window, as the peer
+ * may have sent DATA for existing streams according to the larger window.
+ * The session window cannot shrink, as the HTTP/2 protocol does not allow
+ * it, which is why it is capped separately.</p>
+ * <p>Recv window updates as data is consumed are performed by the
+ * superclass, see {@link BufferingFlowControlStrategy}.</p>
+ */
+@ManagedObject
+public class AdaptiveFlowControlStrategy extends BufferingFlowControlStrategy
+{
+    // The number of consecutive small samples that shrink the stream windows.
+    private static final int SHRINK_SAMPLES = 8;
+
+    private final AutoLock lock = new AutoLock();
+    private final long pingPayload = ThreadLocalRandom.current().nextLong();
+    private final int sessionRecvWindowLimit;
+    private final int streamRecvWindowLimit;
+    private int minStreamRecvWindow;
+    private int sessionRecvWindow;
+    private int streamRecvWindow;
+    private long pingTime;
+    private long sample;
+    private long roundTripTime;
+    private double bandwidth;
+    private double maxBandwidth;
+    private int smallSamples;
+    private long nextSampleTime;
+    private long sampleInterval = 100;
+
+    public AdaptiveFlowControlStrategy()
+    {
+        this(16 * 1024 * 1024, 8 * 1024 * 1024);
+    }
+
+    /**
+     * @param sessionRecvWindowLimit the max size the session recv window may grow to
+     * @param streamRecvWindowLimit the max size the stream recv windows may grow to
+     */
+    public AdaptiveFlowControlStrategy(int sessionRecvWindowLimit, int streamRecvWindowLimit)
+    {
+        super(0.5F);
+        if (streamRecvWindowLimit > sessionRecvWindowLimit)
+            throw new IllegalArgumentException("Stream recv window limit " + streamRecvWindowLimit + " larger than session recv window limit " + sessionRecvWindowLimit);
+        this.sessionRecvWindowLimit = sessionRecvWindowLimit;
+        this.streamRecvWindowLimit = streamRecvWindowLimit;
+    }
+
+    @ManagedAttribute(value = "The max size the session recv window may grow to", readonly = true)
+    public int getSessionRecvWindowLimit()
+    {
+        return sessionRecvWindowLimit;
+    }
+
+    @ManagedAttribute(value = "The max size the stream recv windows may grow to", readonly = true)
+    public int getStreamRecvWindowLimit()
+    {
+        return streamRecvWindowLimit;
+    }
+
+    @ManagedAttribute(value = "The last round trip time measured, in microseconds", readonly = true)
+    public long getRoundTripTime()
+    {
+        try (AutoLock l = lock.lock())
+        {
+            return TimeUnit.NANOSECONDS.toMicros(roundTripTime);
+        }
+    }
+
+    @ManagedAttribute(value = "The last bandwidth measured, in bytes per second", readonly = true)
+    public long getBandwidth()
+    {
+        try (AutoLock l = lock.lock())
+        {
+            return (long)bandwidth;
+        }
+    }
+
+    @ManagedAttribute("The minimum interval between samples, in milliseconds")
+    public long getSampleInterval()
+    {
+        try (AutoLock l = lock.lock())
+        {
+            return sampleInterval;
+        }
+    }
+
+    public void setSampleInterval(long sampleInterval)
+    {
+        try (AutoLock l = lock.lock())
+        {
+            this.sampleInterval = sampleInterval;
+        }
+    }
+
+    @Override
+    public void updateInitialStreamWindow(ISession session, int initialStreamWindow, boolean local)
+    {
+        if (local)
+        {
+            try (AutoLock l = lock.lock())
+            {
+                // The first local value is the configured one,
+                // that the stream windows do not shrink below.
+                if (minStreamRecvWindow == 0)
+                    minStreamRecvWindow = initialStreamWindow;
+                streamRecvWindow = initialStreamWindow;
+            }
+        }
+        super.updateInitialStreamWindow(session, initialStreamWindow, local);
+    }
+
+    @Override
+    public void onDataReceived(ISession session, IStream stream, int length)
+    {
+        super.onDataReceived(session, stream, length);
+
+        boolean ping = false;
+        try (AutoLock l = lock.lock())
+        {
+            if (pingTime == 0)
+            {
+                long now = System.nanoTime();
+                if (nextSampleTime == 0 || now - nextSampleTime >= 0)
+                {
+                    // PING frames are prepended to the queue of frames to
+                    // write, so the time they are sent is approximately now.
+                    ping = true;
+                    pingTime = now;
+                    nextSampleTime = now + TimeUnit.MILLISECONDS.toNanos(sampleInterval);
+                    sample = length;
+                }
+            }
+            else
+            {
+                sample += length;
+            }
+        }
+        if (ping)
+            session.ping(new PingFrame(pingPayload, false), Callback.NOOP);
+    }
+
+    @Override
+    public boolean onPingReply(ISession session, PingFrame frame)
+    {
+        if (frame.getPayloadAsLong() != pingPayload)
+            return false;
+
+        int newStreamRecvWindow = 0;
+        int sessionDelta = 0;
+        try (AutoLock l = lock.lock())
+        {
+            if (pingTime == 0)
+                return true;
+            roundTripTime = Math.max(1, System.nanoTime() - pingTime);
+            pingTime = 0;
+            bandwidth = sample * 1_000_000_000D / roundTripTime;
+
+            if (minStreamRecvWindow == 0)
+                minStreamRecvWindow = streamRecvWindow = getInitialStreamRecvWindow();
+            if (sessionRecvWindow == 0)
+                sessionRecvWindow = getMaxSessionRecvWindow();
+
+            if (sample >= streamRecvWindow * 2L / 3 && bandwidth > maxBandwidth)
+            {
+                // The window is likely to be limiting the sender.
+                maxBandwidth = bandwidth;
+                smallSamples = 0;
+                int target = (int)Math.min(2 * sample, streamRecvWindowLimit);
+                if (target > streamRecvWindow)
+                    newStreamRecvWindow = target;
+            }
+            else if (sample < streamRecvWindow / 4)
+            {
+                if (++smallSamples >= SHRINK_SAMPLES)
+                {
+                    smallSamples = 0;
+                    maxBandwidth = bandwidth;
+                    int target = (int)Math.max(2 * sample, minStreamRecvWindow);
+                    if (target < streamRecvWindow)
+                        newStreamRecvWindow = target;
+                }
+            }
+            else
+            {
+                smallSamples = 0;
+            }
+
+            if (newStreamRecvWindow > 0)
+            {
+                streamRecvWindow = newStreamRecvWindow;
+                int newSessionRecvWindow = Math.min(sessionRecvWindowLimit, newStreamRecvWindow);
+                if (newSessionRecvWindow > sessionRecvWindow)
+                {
+                    sessionDelta = newSessionRecvWindow - sessionRecvWindow;
+                    sessionRecvWindow = newSessionRecvWindow;
+                }
+            }
+        }
+
+        if (newStreamRecvWindow > 0)
+        {
+            if (LOG.isDebugEnabled())
+                LOG.debug("Resizing stream recv windows to {}, enlarging session recv window by {} for {}", newStreamRecvWindow, sessionDelta, session);
+            // The stream windows are updated before sending the SETTINGS frame.
+            session.settings(new SettingsFrame(Map.of(SettingsFrame.INITIAL_WINDOW_SIZE, newStreamRecvWindow), false), Callback.NOOP);
+            if (sessionDelta > 0)
+            {
+                session.updateRecvWindow(sessionDelta);
+                sendWindowUpdate(null, session, new WindowUpdateFrame(0, sessionDelta));
+            }
+        }
+        return true;
+    }
+
+    @Override
+    protected void updateStreamRecvWindow(IStream stream, int previousInitialStreamWindow, int initialStreamWindow)
+    {
+        // SPEC: the peer may have sent DATA according to the larger window, that
+        // is still in flight and must be accepted, so existing streams keep their
+        // recv window; the peer just sends less for them until they are closed.
+        if (initialStreamWindow > previousInitialStreamWindow)
+            super.updateStreamRecvWindow(stream, previousInitialStreamWindow, initialStreamWindow);
+    }
+
+    @Override
+    public String toString()
+    {
+        try (AutoLock l = lock.lock())
+        {
+            return String.format("%s@%x[streamRecvWindow=%d/%d,sessionRecvWindow=%d/%d,rtt=%dus,bandwidth=%d,sessionStallTime=%dms,streamsStallTime=%dms]",
+                getClass().getSimpleName(),
+                hashCode(),
+                streamRecvWindow,
+                streamRecvWindowLimit,
+                sessionRecvWindow,
+                sessionRecvWindowLimit,
+                TimeUnit.NANOSECONDS.toMicros(roundTripTime),
+                (long)bandwidth,
+                getSessionStallTime(),
+                getStreamsStallTime());
+        }
+    }
+}
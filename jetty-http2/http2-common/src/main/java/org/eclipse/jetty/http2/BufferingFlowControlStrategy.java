@@ -18,6 +18,7 @@ import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.atomic.AtomicInteger;
 
+import org.eclipse.jetty.http2.api.Stream;
 import org.eclipse.jetty.http2.frames.WindowUpdateFrame;
 import org.eclipse.jetty.util.Atomics;
 import org.eclipse.jetty.util.Callback;
@@ -87,6 +88,12 @@ public class BufferingFlowControlStrategy extends AbstractFlowControlStrategy
         this.bufferRatio = bufferRatio;
     }
 
+    @ManagedAttribute(value = "The max size of session's flow control receive window", readonly = true)
+    public int getMaxSessionRecvWindow()
+    {
+        return maxSessionRecvWindow.get();
+    }
+
     @Override
     public void onStreamCreated(IStream stream)
     {
@@ -101,6 +108,38 @@ public class BufferingFlowControlStrategy extends AbstractFlowControlStrategy
         super.onStreamDestroyed(stream);
     }
 
+    @Override
+    public void updateInitialStreamWindow(ISession session, int initialStreamWindow, boolean local)
+    {
+        int previousInitialStreamWindow = getInitialStreamRecvWindow();
+        super.updateInitialStreamWindow(session, initialStreamWindow, local);
+
+        // A smaller window shrinks the peer's stream send windows, possibly
+        // below zero, so the data consumed but not yet acknowledged must be
+        // acknowledged now: more data, that would trigger the window update,
+        // may never arrive.
+        if (local && initialStreamWindow < previousInitialStreamWindow)
+        {
+            for (Stream s : session.getStreams())
+            {
+                IStream stream = (IStream)s;
+                if (stream.isRemotelyClosed())
+                    continue;
+                AtomicInteger streamLevel = streamLevels.get(stream);
+                if (streamLevel == null)
+                    continue;
+                int level = streamLevel.getAndSet(0);
+                if (level > 0)
+                {
+                    stream.updateRecvWindow(level);
+                    if (LOG.isDebugEnabled())
+                        LOG.debug("Initial stream recv window shrunk, updated stream recv window by {} for {}", level, stream);
+                    sendWindowUpdate(stream, session, new WindowUpdateFrame(stream.getId(), level));
+                }
+            }
+        }
+    }
+
     @Override
     public void onDataConsumed(ISession session, IStream stream, int length)
     {
@@ -13,6 +13,7 @@
 
 package org.eclipse.jetty.http2;
 
+import org.eclipse.jetty.http2.frames.PingFrame;
 import org.eclipse.jetty.http2.frames.WindowUpdateFrame;
 
 public interface FlowControlStrategy
@@ -37,6 +38,21 @@ public interface FlowControlStrategy
 
     public void onDataSent(IStream stream, int length);
 
+    /**
+     * <p>Invoked when a PING reply is received, so that strategies that
+     * send PING frames, for example to measure the round trip time,
+     * can consume the replies to their own PING frames.</p>
+     *
+     * @param session the session
+     * @param frame the PING reply frame
+     * @return whether the reply was consumed by this strategy, and should
+     * therefore not be notified to the session listener
+     */
+    public default boolean onPingReply(ISession session, PingFrame frame)
+    {
+        return false;
+    }
+
     public interface Factory
     {
         public FlowControlStrategy newFlowControlStrategy();
@@ -25,6 +25,8 @@ import java.util.List;
 import java.util.Queue;
 import java.util.Set;
 
+import org.eclipse.jetty.http.HttpPriority;
+import org.eclipse.jetty.http.PriorityScheduler;
 import org.eclipse.jetty.http2.frames.Frame;
 import org.eclipse.jetty.http2.frames.FrameType;
 import org.eclipse.jetty.http2.frames.WindowUpdateFrame;
@@ -51,6 +53,8 @@ public class HTTP2Flusher extends IteratingCallback implements Dumpable
     private final Collection<Entry> processedEntries = new ArrayList<>();
     private final HTTP2Session session;
     private final ByteBufferPool.Lease lease;
+    private final List<Entry> scheduledEntries = new ArrayList<>();
+    private PriorityScheduler scheduler = PriorityScheduler.FIFO;
     private InvocationType invocationType = InvocationType.NON_BLOCKING;
     private Throwable terminated;
     private Entry stalledEntry;
@@ -67,6 +71,16 @@ public class HTTP2Flusher extends IteratingCallback implements Dumpable
         return invocationType;
     }
 
+    public PriorityScheduler getPriorityScheduler()
+    {
+        return scheduler;
+    }
+
+    public void setPriorityScheduler(PriorityScheduler scheduler)
+    {
+        this.scheduler = scheduler == null ? PriorityScheduler.FIFO : scheduler;
+    }
+
     public void window(IStream stream, WindowUpdateFrame frame)
     {
         Throwable closed;
@@ -185,9 +199,22 @@ public class HTTP2Flusher extends IteratingCallback implements Dumpable
             return Action.IDLE;
         }
 
+        PriorityScheduler scheduler = this.scheduler;
+        if (scheduler != PriorityScheduler.FIFO)
+        {
+            scheduledEntries.addAll(pendingEntries);
+            scheduler.schedule(scheduledEntries);
+            pendingEntries.clear();
+            pendingEntries.addAll(scheduledEntries);
+            scheduledEntries.clear();
+        }
+
         while (true)
         {
             boolean progress = false;
+            // The first entry that still has data to write after generating,
+            // which may prevent the entries after it from being generated.
+            Entry head = null;
 
             if (pendingEntries.isEmpty())
                 break;
@@ -199,6 +226,13 @@ public class HTTP2Flusher extends IteratingCallback implements Dumpable
                 if (LOG.isDebugEnabled())
                     LOG.debug("Processing {}", entry);
 
+                if (head != null && !scheduler.canInterleave(head, entry))
+                {
+                    if (LOG.isDebugEnabled())
+                        LOG.debug("Scheduled {} after {}", entry, head);
+                    continue;
+                }
+
                 // If the stream has been reset or removed,
                 // don't send the frame and fail it here.
                 if (entry.shouldBeDropped())
@@ -212,12 +246,14 @@ public class HTTP2Flusher extends IteratingCallback implements Dumpable
 
                 try
                 {
+                    int generated = entry.getFrameBytesGenerated();
                     if (entry.generate(lease))
                     {
                         if (LOG.isDebugEnabled())
                             LOG.debug("Generated {} frame bytes for {}", entry.getFrameBytesGenerated(), entry);
 
                         progress = true;
+                        scheduler.onScheduled(entry, entry.getFrameBytesGenerated() - generated);
 
                         // We use ArrayList contains() + add() instead of HashSet add()
                         // because that is faster for collections of size up to 250 entries.
@@ -229,6 +265,8 @@ public class HTTP2Flusher extends IteratingCallback implements Dumpable
 
                         if (entry.getDataBytesRemaining() == 0)
                             pending.remove();
+                        else if (head == null)
+                            head = entry;
                     }
                     else
                     {
@@ -420,7 +458,7 @@ public class HTTP2Flusher extends IteratingCallback implements Dumpable
             pendingEntries.size());
     }
 
-    public abstract static class Entry extends Callback.Nested
+    public abstract static class Entry extends Callback.Nested implements PriorityScheduler.Entry
     {
         protected final Frame frame;
         protected final IStream stream;
@@ -448,6 +486,40 @@ public class HTTP2Flusher extends IteratingCallback implements Dumpable
             return false;
         }
 
+        @Override
+        public long getStreamId()
+        {
+            return stream == null ? 0 : stream.getId();
+        }
+
+        /**
+         * @return the priority of the stream for frames that carry the response,
+         * or null for control frames and PUSH_PROMISE frames, that are always
+         * written first; a PUSH_PROMISE must precede the frames of its
+         * associated stream, while its stream is the pushed one
+         */
+        @Override
+        public HttpPriority getPriority()
+        {
+            if (stream == null)
+                return null;
+            switch (frame.getType())
+            {
+                case DATA:
+                case HEADERS:
+                case CONTINUATION:
+                    return stream.getPriority();
+                default:
+                    return null;
+            }
+        }
+
+        @Override
+        public int getWeight()
+        {
+            return stream == null ? PriorityScheduler.Entry.DEFAULT_WEIGHT : stream.getWeight();
+        }
+
         @Override
         public void failed(Throwable x)
         {
@@ -19,7 +19,6 @@ import java.net.SocketAddress;
 import java.nio.channels.ClosedChannelException;
 import java.nio.charset.StandardCharsets;
 import java.util.ArrayDeque;
-import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.Iterator;
@@ -27,8 +26,6 @@ import java.util.List;
 import java.util.Map;
 import java.util.Queue;
 import java.util.concurrent.CompletableFuture;
-import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
 import java.util.concurrent.atomic.AtomicInteger;
@@ -38,6 +35,7 @@ import java.util.function.Predicate;
 import java.util.stream.Collectors;
 
 import org.eclipse.jetty.http.MetaData;
+import org.eclipse.jetty.http.PriorityScheduler;
 import org.eclipse.jetty.http2.api.Session;
 import org.eclipse.jetty.http2.api.Stream;
 import org.eclipse.jetty.http2.frames.DataFrame;
@@ -55,6 +53,7 @@ import org.eclipse.jetty.http2.frames.SettingsFrame;
 import org.eclipse.jetty.http2.frames.StreamFrame;
 import org.eclipse.jetty.http2.frames.WindowUpdateFrame;
 import org.eclipse.jetty.http2.generator.Generator;
+import org.eclipse.jetty.http2.hpack.HpackEncoder;
 import org.eclipse.jetty.http2.hpack.HpackException;
 import org.eclipse.jetty.http2.parser.Parser;
 import org.eclipse.jetty.io.ByteBufferPool;
@@ -64,6 +63,7 @@ import org.eclipse.jetty.io.WriteFlusher;
 import org.eclipse.jetty.util.AtomicBiInteger;
 import org.eclipse.jetty.util.Atomics;
 import org.eclipse.jetty.util.Callback;
+import org.eclipse.jetty.util.ConcurrentLongMap;
 import org.eclipse.jetty.util.CountingCallback;
 import org.eclipse.jetty.util.MathUtils;
 import org.eclipse.jetty.util.Promise;
@@ -82,7 +82,7 @@ public abstract class HTTP2Session extends ContainerLifeCycle implements ISessio
 {
     private static final Logger LOG = LoggerFactory.getLogger(HTTP2Session.class);
 
-    private final ConcurrentMap<Integer, IStream> streams = new ConcurrentHashMap<>();
+    private final ConcurrentLongMap<IStream> streams = new ConcurrentLongMap<>();
     private final AtomicLong streamsOpened = new AtomicLong();
     private final AtomicLong streamsClosed = new AtomicLong();
     private final StreamsState streamsState = new StreamsState();
@@ -305,6 +305,10 @@ public abstract class HTTP2Session extends ContainerLifeCycle implements ISessio
     {
         if (LOG.isDebugEnabled())
             LOG.debug("Received {} on {}", frame, this);
+
+        IStream stream = getStream(frame.getStreamId());
+        if (stream != null)
+            stream.setWeight(frame.getWeight());
     }
 
     @Override
@@ -431,7 +435,8 @@ public abstract class HTTP2Session extends ContainerLifeCycle implements ISessio
 
         if (frame.isReply())
         {
-            notifyPing(this, frame);
+            if (!flowControl.onPingReply(this, frame))
+                notifyPing(this, frame);
         }
         else
         {
@@ -892,7 +897,7 @@ public abstract class HTTP2Session extends ContainerLifeCycle implements ISessio
     @Override
     public Collection<Stream> getStreams()
     {
-        return new ArrayList<>(streams.values());
+        return Collections.unmodifiableCollection(streams.values());
     }
 
     @ManagedAttribute("The number of active streams")
@@ -949,6 +954,30 @@ public abstract class HTTP2Session extends ContainerLifeCycle implements ISessio
         return recvWindow.get();
     }
 
+    @ManagedAttribute(value = "The octets of the names and values of the header fields sent", readonly = true)
+    public long getHeadersRawBytes()
+    {
+        return generator.getHpackEncoder().getRawBytes();
+    }
+
+    @ManagedAttribute(value = "The octets of the HPACK encoded header fields sent", readonly = true)
+    public long getHeadersEncodedBytes()
+    {
+        return generator.getHpackEncoder().getEncodedBytes();
+    }
+
+    /**
+     * @return the ratio between the raw and the HPACK encoded octets of the header
+     * fields sent, or 0 if no header fields have been sent
+     */
+    @ManagedAttribute(value = "The HPACK compression ratio of the header fields sent", readonly = true)
+    public double getHeadersCompressionRatio()
+    {
+        HpackEncoder encoder = generator.getHpackEncoder();
+        long encoded = encoder.getEncodedBytes();
+        return encoded == 0 ? 0 : (double)encoder.getRawBytes() / encoded;
+    }
+
     @Override
     public int updateSendWindow(int delta)
     {
@@ -1056,6 +1085,19 @@ public abstract class HTTP2Session extends ContainerLifeCycle implements ISessio
         flusher.onFlushed(bytes);
     }
 
+    public PriorityScheduler getPriorityScheduler()
+    {
+        return flusher.getPriorityScheduler();
+    }
+
+    /**
+     * @param scheduler the scheduler that decides the order in which the frames of the streams are written
+     */
+    public void setPriorityScheduler(PriorityScheduler scheduler)
+    {
+        flusher.setPriorityScheduler(scheduler);
+    }
+
     private void terminate(Throwable cause)
     {
         flusher.terminate(cause);
@@ -28,12 +28,14 @@ import java.util.concurrent.atomic.AtomicReference;
 import org.eclipse.jetty.http.HttpFields;
 import org.eclipse.jetty.http.HttpHeader;
 import org.eclipse.jetty.http.HttpMethod;
+import org.eclipse.jetty.http.HttpPriority;
 import org.eclipse.jetty.http.MetaData;
 import org.eclipse.jetty.http2.api.Stream;
 import org.eclipse.jetty.http2.frames.DataFrame;
 import org.eclipse.jetty.http2.frames.FailureFrame;
 import org.eclipse.jetty.http2.frames.Frame;
 import org.eclipse.jetty.http2.frames.HeadersFrame;
+import org.eclipse.jetty.http2.frames.PriorityFrame;
 import org.eclipse.jetty.http2.frames.PushPromiseFrame;
 import org.eclipse.jetty.http2.frames.ResetFrame;
 import org.eclipse.jetty.http2.frames.WindowUpdateFrame;
@@ -76,6 +78,8 @@ public class HTTP2Stream implements IStream, Callback, Dumpable, CyclicTimeouts.
     private boolean committed;
     private long idleTimeout;
     private long expireNanoTime = Long.MAX_VALUE;
+    private volatile HttpPriority priority;
+    private volatile int weight = PriorityFrame.DEFAULT_WEIGHT;
 
     public HTTP2Stream(ISession session, int streamId, MetaData.Request request, boolean local)
     {
@@ -85,6 +89,7 @@ public class HTTP2Stream implements IStream, Callback, Dumpable, CyclicTimeouts.
         this.local = local;
         this.dataLength = Long.MIN_VALUE;
         this.dataInitial = true;
+        this.priority = request == null ? HttpPriority.DEFAULT : HttpPriority.from(request.getFields());
     }
 
     @Deprecated
@@ -284,6 +289,30 @@ public class HTTP2Stream implements IStream, Callback, Dumpable, CyclicTimeouts.
         return committed;
     }
 
+    @Override
+    public HttpPriority getPriority()
+    {
+        return priority;
+    }
+
+    @Override
+    public void setPriority(HttpPriority priority)
+    {
+        this.priority = priority == null ? HttpPriority.DEFAULT : priority;
+    }
+
+    @Override
+    public int getWeight()
+    {
+        return weight;
+    }
+
+    @Override
+    public void setWeight(int weight)
+    {
+        this.weight = Math.max(1, Math.min(256, weight));
+    }
+
     public boolean isOpen()
     {
         return !isClosed();
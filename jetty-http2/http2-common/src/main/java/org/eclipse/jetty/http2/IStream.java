@@ -19,6 +19,7 @@ import java.util.Collections;
 import java.util.List;
 import java.util.Objects;
 
+import org.eclipse.jetty.http.HttpPriority;
 import org.eclipse.jetty.http2.api.Stream;
 import org.eclipse.jetty.http2.frames.DataFrame;
 import org.eclipse.jetty.http2.frames.Frame;
@@ -142,6 +143,27 @@ public interface IStream extends Stream, Attachable, Closeable
      */
     boolean isCommitted();
 
+    /**
+     * @return the RFC 9218 priority of this stream, by default the one carried by the request
+     * @see org.eclipse.jetty.http.PriorityScheduler
+     */
+    HttpPriority getPriority();
+
+    /**
+     * @param priority the RFC 9218 priority of this stream
+     */
+    void setPriority(HttpPriority priority);
+
+    /**
+     * @return the RFC 7540 weight of this stream, between 1 and 256
+     */
+    int getWeight();
+
+    /**
+     * @param weight the RFC 7540 weight of this stream, between 1 and 256
+     */
+    void setWeight(int weight);
+
     /**
      * <p>An ordered list of frames belonging to the same stream.</p>
      */
@@ -18,6 +18,7 @@ import org.eclipse.jetty.http2.frames.Frame;
 import org.eclipse.jetty.http2.frames.FrameType;
 import org.eclipse.jetty.http2.hpack.HpackEncoder;
 import org.eclipse.jetty.http2.hpack.HpackException;
+import org.eclipse.jetty.http2.hpack.HpackIndexingStrategy;
 import org.eclipse.jetty.io.ByteBufferPool;
 
 public class Generator
@@ -66,6 +67,16 @@ public class Generator
         return byteBufferPool;
     }
 
+    public HpackEncoder getHpackEncoder()
+    {
+        return hpackEncoder;
+    }
+
+    public void setHpackIndexingStrategy(HpackIndexingStrategy indexingStrategy)
+    {
+        hpackEncoder.setIndexingStrategy(indexingStrategy);
+    }
+
     public void setValidateHpackEncoding(boolean validateEncoding)
     {
         hpackEncoder.setValidateEncoding(validateEncoding);
@@ -19,6 +19,7 @@ import org.eclipse.jetty.http.HttpField;
 import org.eclipse.jetty.http.HttpHeader;
 import org.eclipse.jetty.http.HttpTokens;
 import org.eclipse.jetty.http.MetaData;
+import org.eclipse.jetty.http.compression.HuffmanDecoder;
 import org.eclipse.jetty.http2.hpack.HpackContext.Entry;
 import org.eclipse.jetty.util.BufferUtil;
 import org.slf4j.Logger;
@@ -36,6 +37,7 @@ public class HpackDecoder
 
     private final HpackContext _context;
     private final MetaDataBuilder _builder;
+    private final HuffmanDecoder _huffmanDecoder = new HuffmanDecoder();
     private int _localMaxDynamicTableSize;
 
     /**
@@ -163,7 +165,7 @@ public class HpackDecoder
                     int length = NBitInteger.decode(buffer, 7);
                     _builder.checkSize(length, huffmanName);
                     if (huffmanName)
-                        name = Huffman.decode(buffer, length);
+                        name = Huffman.decode(_huffmanDecoder, buffer, length);
                     else
                         name = toASCIIString(buffer, length);
                     check:
@@ -204,7 +206,7 @@ public class HpackDecoder
                 int length = NBitInteger.decode(buffer, 7);
                 _builder.checkSize(length, huffmanValue);
                 if (huffmanValue)
-                    value = Huffman.decode(buffer, length);
+                    value = Huffman.decode(_huffmanDecoder, buffer, length);
                 else
                     value = toASCIIString(buffer, length);
 
@@ -18,6 +18,7 @@ import java.nio.charset.StandardCharsets;
 import java.util.EnumMap;
 import java.util.EnumSet;
 import java.util.HashSet;
+import java.util.Objects;
 import java.util.Set;
 
 import org.eclipse.jetty.http.HttpField;
@@ -97,6 +98,9 @@ public class HpackEncoder
     private int _maxHeaderListSize;
     private int _headerListSize;
     private boolean _validateEncoding = true;
+    private HpackIndexingStrategy _indexingStrategy = HpackIndexingStrategy.DEFAULT;
+    private long _rawBytes;
+    private long _encodedBytes;
 
     public HpackEncoder()
     {
@@ -157,6 +161,35 @@ public class HpackEncoder
         _validateEncoding = validateEncoding;
     }
 
+    public HpackIndexingStrategy getIndexingStrategy()
+    {
+        return _indexingStrategy;
+    }
+
+    /**
+     * @param indexingStrategy the strategy that decides whether fields sent as literals are added to the dynamic table
+     */
+    public void setIndexingStrategy(HpackIndexingStrategy indexingStrategy)
+    {
+        _indexingStrategy = Objects.requireNonNull(indexingStrategy);
+    }
+
+    /**
+     * @return the number of octets of the names and values of the fields encoded so far
+     */
+    public long getRawBytes()
+    {
+        return _rawBytes;
+    }
+
+    /**
+     * @return the number of octets the fields encoded so far have been encoded to
+     */
+    public long getEncodedBytes()
+    {
+        return _encodedBytes;
+    }
+
     public void encode(ByteBuffer buffer, MetaData metadata) throws HpackException
     {
         try
@@ -297,6 +330,8 @@ public class HpackEncoder
 
         int fieldSize = field.getName().length() + field.getValue().length();
         _headerListSize += fieldSize + 32;
+        _rawBytes += fieldSize;
+        int position = buffer.position();
 
         String encoding = null;
 
@@ -320,109 +355,62 @@ public class HpackEncoder
                     encoding = "IdxField" + (entry.isStatic() ? "S" : "") + (1 + NBitInteger.octectsNeeded(7, index));
             }
         }
+        else if (field instanceof PreEncodedHttpField)
+        {
+            int i = buffer.position();
+            ((PreEncodedHttpField)field).putTo(buffer, HttpVersion.HTTP_2);
+            byte b = buffer.get(i);
+            // If we want the field referenced, then we add it to our table and reference set.
+            if (b < 0 || b >= 0x40)
+            {
+                _context.add(field);
+                if (_debug)
+                    encoding = "PreEncodedIdx";
+            }
+            else if (_debug)
+            {
+                encoding = "PreEncoded";
+            }
+        }
         else
         {
             // Unknown field entry, so we will have to send literally, but perhaps add an index.
-            final boolean indexed;
-
-            // Do we know its name?
             HttpHeader header = field.getHeader();
+            String fieldName = header == null ? field.getName() : header.asString();
+            Entry name = header == null ? _context.get(fieldName) : _context.get(header);
+            boolean neverIndex = header != null && NEVER_INDEX.contains(header);
+            boolean huffman = header == null || !DO_NOT_HUFFMAN.contains(header);
 
-            // Select encoding strategy
+            boolean indexByDefault;
             if (header == null)
             {
-                // Select encoding strategy for unknown header names
-                Entry name = _context.get(field.getName());
-
-                if (field instanceof PreEncodedHttpField)
-                {
-                    int i = buffer.position();
-                    ((PreEncodedHttpField)field).putTo(buffer, HttpVersion.HTTP_2);
-                    byte b = buffer.get(i);
-                    indexed = b < 0 || b >= 0x40;
-                    if (_debug)
-                        encoding = indexed ? "PreEncodedIdx" : "PreEncoded";
-                }
-                else if (name == null && fieldSize < _context.getMaxDynamicTableSize())
-                {
-                    // unknown name and value that will fit in dynamic table, so let's index
-                    // this just in case it is the first time we have seen a custom name or a
-                    // custom field.  Unless the name is once only, this is worthwhile
-                    indexed = true;
-                    encodeName(buffer, (byte)0x40, 6, field.getName(), null);
-                    encodeValue(buffer, true, field.getValue());
-                    if (_debug)
-                        encoding = "LitHuffNHuffVIdx";
-                }
-                else
-                {
-                    // Known name, but different value.
-                    // This is probably a custom field with changing value, so don't index.
-                    indexed = false;
-                    encodeName(buffer, (byte)0x00, 4, field.getName(), null);
-                    encodeValue(buffer, true, field.getValue());
-                    if (_debug)
-                        encoding = "LitHuffNHuffV!Idx";
-                }
+                // Index an unknown name just in case it is the first time we have seen a
+                // custom field, but a known name with a different value is probably a
+                // custom field with changing value, so don't index.
+                indexByDefault = name == null;
             }
             else
             {
-                // Select encoding strategy for known header names
-                Entry name = _context.get(header);
-
-                if (field instanceof PreEncodedHttpField)
-                {
-                    // Preencoded field
-                    int i = buffer.position();
-                    ((PreEncodedHttpField)field).putTo(buffer, HttpVersion.HTTP_2);
-                    byte b = buffer.get(i);
-                    indexed = b < 0 || b >= 0x40;
-                    if (_debug)
-                        encoding = indexed ? "PreEncodedIdx" : "PreEncoded";
-                }
-                else if (DO_NOT_INDEX.contains(header))
-                {
-                    // Non indexed field
-                    indexed = false;
-                    boolean neverIndex = NEVER_INDEX.contains(header);
-                    boolean huffman = !DO_NOT_HUFFMAN.contains(header);
-                    encodeName(buffer, neverIndex ? (byte)0x10 : (byte)0x00, 4, header.asString(), name);
-                    encodeValue(buffer, huffman, field.getValue());
-
-                    if (_debug)
-                        encoding = "Lit" +
-                            ((name == null) ? "HuffN" : ("IdxN" + (name.isStatic() ? "S" : "") + (1 + NBitInteger.octectsNeeded(4, _context.index(name))))) +
-                            (huffman ? "HuffV" : "LitV") +
-                            (neverIndex ? "!!Idx" : "!Idx");
-                }
-                else if (fieldSize >= _context.getMaxDynamicTableSize() || header == HttpHeader.CONTENT_LENGTH && !"0".equals(field.getValue()))
-                {
-                    // The field is too large or a non zero content length, so do not index.
-                    indexed = false;
-                    encodeName(buffer, (byte)0x00, 4, header.asString(), name);
-                    encodeValue(buffer, true, field.getValue());
-                    if (_debug)
-                        encoding = "Lit" +
-                            ((name == null) ? "HuffN" : "IdxNS" + (1 + NBitInteger.octectsNeeded(4, _context.index(name)))) +
-                            "HuffV!Idx";
-                }
-                else
-                {
-                    // indexed
-                    indexed = true;
-                    boolean huffman = !DO_NOT_HUFFMAN.contains(header);
-                    encodeName(buffer, (byte)0x40, 6, header.asString(), name);
-                    encodeValue(buffer, huffman, field.getValue());
-                    if (_debug)
-                        encoding = ((name == null) ? "LitHuffN" : ("LitIdxN" + (name.isStatic() ? "S" : "") + (1 + NBitInteger.octectsNeeded(6, _context.index(name))))) +
-                            (huffman ? "HuffVIdx" : "LitVIdx");
-                }
+                // Don't index fields whose value is likely to change, such as a non zero content length.
+                indexByDefault = !DO_NOT_INDEX.contains(header) && (header != HttpHeader.CONTENT_LENGTH || "0".equals(field.getValue()));
             }
+            // A field too large for the dynamic table is never indexed.
+            boolean indexed = fieldSize < _context.getMaxDynamicTableSize() && _indexingStrategy.isIndexed(field, indexByDefault);
+
+            int bits = indexed ? 6 : 4;
+            encodeName(buffer, indexed ? (byte)0x40 : neverIndex ? (byte)0x10 : (byte)0x00, bits, fieldName, name);
+            encodeValue(buffer, huffman, field.getValue());
+            if (_debug)
+                encoding = "Lit" +
+                    ((name == null) ? "HuffN" : ("IdxN" + (name.isStatic() ? "S" : "") + (1 + NBitInteger.octectsNeeded(bits, _context.index(name))))) +
+                    (huffman ? "HuffV" : "LitV") +
+                    (indexed ? "Idx" : neverIndex ? "!!Idx" : "!Idx");
 
             // If we want the field referenced, then we add it to our table and reference set.
             if (indexed)
                 _context.add(field);
         }
+        _encodedBytes += buffer.position() - position;
 
         if (_debug)
         {
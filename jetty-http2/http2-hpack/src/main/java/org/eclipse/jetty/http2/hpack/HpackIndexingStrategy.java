@@ -0,0 +1,52 @@
+//
+// ========================================================================
+// Copyright (c) 1995-2022 Mort Bay Consulting Pty Ltd and others.
+//
+// This program and the accompanying materials are made available under the
+// terms of the Eclipse Public License v. 2.0 which is available at
+// https://www.eclipse.org/legal/epl-2.0, or the Apache License, Version 2.0
+// which is available at https://www.apache.org/licenses/LICENSE-2.0.
+//
+// SPDX-License-Identifier: EPL-2.0 OR Apache-2.0
+// ========================================================================
+//
+
+package org.eclipse.jetty.http2.hpack;
+
+import org.eclipse.jetty.http.HttpField;
+
+/**
+ * <p>Decides whether a header field that {@link HpackEncoder} sends as a literal
+ * is also added to the HPACK dynamic table, so that it can be sent as an index
+ * the next time.</p>
+ * <p>The encoder applies static rules, for example never indexing fields whose
+ * value is likely to change, and passes their outcome to the strategy, which
+ * may override it. Fields that do not fit in the dynamic table are never
+ * indexed and are not passed to the strategy.</p>
+ * <p>A strategy is used by a single encoder, so it need not be thread-safe.</p>
+ *
+ * @see RepeatedFieldIndexingStrategy
+ */
+@FunctionalInterface
+public interface HpackIndexingStrategy
+{
+    /**
+     * <p>The strategy that just applies the encoder static rules.</p>
+     */
+    HpackIndexingStrategy DEFAULT = (field, indexByDefault) -> indexByDefault;
+
+    /**
+     * @param field the field to be sent as a literal
+     * @param indexByDefault whether the encoder static rules would index the field
+     * @return whether to add the field to the dynamic table
+     */
+    boolean isIndexed(HttpField field, boolean indexByDefault);
+
+    /**
+     * <p>Creates a new {@link HpackIndexingStrategy} for each connection.</p>
+     */
+    interface Factory
+    {
+        HpackIndexingStrategy newHpackIndexingStrategy();
+    }
+}
@@ -0,0 +1,102 @@
+//
+// ========================================================================
+// Copyright (c) 1995-2022 Mort Bay Consulting Pty Ltd and others.
+//
+// This program and the accompanying materials are made available under the
+// terms of the Eclipse Public License v. 2.0 which is available at
+// https://www.eclipse.org/legal/epl-2.0, or the Apache License, Version 2.0
+// which is available at https://www.apache.org/licenses/LICENSE-2.0.
+//
+// SPDX-License-Identifier: EPL-2.0 OR Apache-2.0
+// ========================================================================
+//
+
+package org.eclipse.jetty.http2.hpack;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.eclipse.jetty.http.HttpField;
+import org.eclipse.jetty.http.HttpHeader;
+
+/**
+ * <p>An {@link HpackIndexingStrategy} that learns which fields repeat on a connection
+ * and only adds those to the dynamic table.</p>
+ * <p>The encoder static rules index most fields the first time they are sent, so
+ * fields with a value that never repeats, such as a request path or a request id,
+ * evict from the dynamic table fields that do repeat, such as cookies, user agents
+ * or custom API headers. This strategy instead counts how many times each field has
+ * been sent as a literal, and indexes it only when it has been sent at least
+ * {@link #getMinOccurrences() minOccurrences} times, whatever its name.</p>
+ * <p>The occurrences of at most {@link #getMaxFields() maxFields} fields are
+ * remembered, the least recently sent being forgotten first.</p>
+ * <p>Fields that should never be indexed, such as {@code authorization}, are only
+ * indexed if {@link #isIndexSensitiveFields() indexSensitiveFields} is enabled,
+ * which is only appropriate when the peer cannot inject fields on the connection.</p>
+ */
+public class RepeatedFieldIndexingStrategy implements HpackIndexingStrategy
+{
+    private final Map<HttpField, Integer> occurrences;
+    private final int maxFields;
+    private final int minOccurrences;
+    private boolean indexSensitiveFields;
+
+    public RepeatedFieldIndexingStrategy()
+    {
+        this(256, 2);
+    }
+
+    public RepeatedFieldIndexingStrategy(int maxFields, int minOccurrences)
+    {
+        if (maxFields <= 0)
+            throw new IllegalArgumentException("Invalid max fields " + maxFields);
+        if (minOccurrences <= 0)
+            throw new IllegalArgumentException("Invalid min occurrences " + minOccurrences);
+        this.maxFields = maxFields;
+        this.minOccurrences = minOccurrences;
+        this.occurrences = new LinkedHashMap<>(16, 0.75F, true)
+        {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<HttpField, Integer> eldest)
+            {
+                return size() > RepeatedFieldIndexingStrategy.this.maxFields;
+            }
+        };
+    }
+
+    public int getMaxFields()
+    {
+        return maxFields;
+    }
+
+    public int getMinOccurrences()
+    {
+        return minOccurrences;
+    }
+
+    public boolean isIndexSensitiveFields()
+    {
+        return indexSensitiveFields;
+    }
+
+    public void setIndexSensitiveFields(boolean indexSensitiveFields)
+    {
+        this.indexSensitiveFields = indexSensitiveFields;
+    }
+
+    @Override
+    public boolean isIndexed(HttpField field, boolean indexByDefault)
+    {
+        HttpHeader header = field.getHeader();
+        if (header != null && HpackEncoder.NEVER_INDEX.contains(header) && !isIndexSensitiveFields())
+            return false;
+        int count = occurrences.merge(field, 1, Integer::sum);
+        return count >= getMinOccurrences();
+    }
+
+    @Override
+    public String toString()
+    {
+        return String.format("%s@%x[fields=%d/%d,minOccurrences=%d]", getClass().getSimpleName(), hashCode(), occurrences.size(), maxFields, minOccurrences);
+    }
+}
@@ -306,4 +306,65 @@ public class HpackEncoderTest
         assertThat(context.getMaxDynamicTableSize(), Matchers.is(50));
         assertThat(context.size(), Matchers.is(1));
     }
+
+    @Test
+    public void testRepeatedFieldIndexingStrategy() throws Exception
+    {
+        HpackEncoder defaultEncoder = new HpackEncoder(256, 256);
+        HpackEncoder repeatedEncoder = new HpackEncoder(256, 256);
+        repeatedEncoder.setIndexingStrategy(new RepeatedFieldIndexingStrategy());
+        HpackDecoder decoder = new HpackDecoder(256, 8192);
+
+        ByteBuffer buffer = BufferUtil.allocate(4096);
+        for (int i = 0; i < 10; i++)
+        {
+            // The request id never repeats, and would evict the fields that do.
+            HttpFields fields = HttpFields.build()
+                .add("x-request-id", "0123456789abcdef0123456789abcdef-" + i)
+                .add(HttpHeader.COOKIE, "session=0123456789abcdef0123456789abcdef")
+                .add(HttpHeader.USER_AGENT, "Jetty-Internal-Client/1.0")
+                .add("x-api-key", "fedcba9876543210fedcba9876543210");
+
+            BufferUtil.clearToFill(buffer);
+            defaultEncoder.encode(buffer, new MetaData(HttpVersion.HTTP_2, fields));
+
+            BufferUtil.clearToFill(buffer);
+            repeatedEncoder.encode(buffer, new MetaData(HttpVersion.HTTP_2, fields));
+            BufferUtil.flipToFlush(buffer, 0);
+            assertThat(decoder.decode(buffer).getFields(), equalTo(fields.asImmutable()));
+        }
+
+        assertThat(repeatedEncoder.getRawBytes(), equalTo(defaultEncoder.getRawBytes()));
+        assertThat(repeatedEncoder.getEncodedBytes(), Matchers.lessThan(defaultEncoder.getEncodedBytes() / 2));
+        // Only the repeated fields are in the dynamic table.
+        HpackContext context = repeatedEncoder.getHpackContext();
+        assertThat(context.size(), equalTo(3));
+        assertThat(context.get("x-request-id"), Matchers.nullValue());
+    }
+
+    @Test
+    public void testRepeatedFieldIndexingStrategyDoesNotIndexSensitiveFields() throws Exception
+    {
+        HttpFields fields = HttpFields.build()
+            .add(HttpHeader.AUTHORIZATION, "Bearer 0123456789abcdef");
+
+        RepeatedFieldIndexingStrategy strategy = new RepeatedFieldIndexingStrategy();
+        HpackEncoder encoder = new HpackEncoder();
+        encoder.setIndexingStrategy(strategy);
+        ByteBuffer buffer = BufferUtil.allocate(4096);
+        for (int i = 0; i < 3; i++)
+        {
+            BufferUtil.clearToFill(buffer);
+            encoder.encode(buffer, new MetaData(HttpVersion.HTTP_2, fields));
+        }
+        assertThat(encoder.getHpackContext().size(), equalTo(0));
+
+        strategy.setIndexSensitiveFields(true);
+        for (int i = 0; i < 2; i++)
+        {
+            BufferUtil.clearToFill(buffer);
+            encoder.encode(buffer, new MetaData(HttpVersion.HTTP_2, fields));
+        }
+        assertThat(encoder.getHpackContext().size(), equalTo(1));
+    }
 }
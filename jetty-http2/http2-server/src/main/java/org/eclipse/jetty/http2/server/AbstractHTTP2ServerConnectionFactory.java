@@ -23,6 +23,7 @@ import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.atomic.AtomicReference;
 
+import org.eclipse.jetty.http.PriorityScheduler;
 import org.eclipse.jetty.http2.BufferingFlowControlStrategy;
 import org.eclipse.jetty.http2.FlowControlStrategy;
 import org.eclipse.jetty.http2.HTTP2Connection;
@@ -32,6 +33,7 @@ import org.eclipse.jetty.http2.api.server.ServerSessionListener;
 import org.eclipse.jetty.http2.frames.Frame;
 import org.eclipse.jetty.http2.frames.SettingsFrame;
 import org.eclipse.jetty.http2.generator.Generator;
+import org.eclipse.jetty.http2.hpack.HpackIndexingStrategy;
 import org.eclipse.jetty.http2.parser.RateControl;
 import org.eclipse.jetty.http2.parser.ServerParser;
 import org.eclipse.jetty.http2.parser.WindowRateControl;
@@ -63,6 +65,8 @@ public abstract class AbstractHTTP2ServerConnectionFactory extends AbstractConne
     private boolean connectProtocolEnabled = true;
     private RateControl.Factory rateControlFactory = new WindowRateControl.Factory(50);
     private FlowControlStrategy.Factory flowControlStrategyFactory = () -> new BufferingFlowControlStrategy(0.5F);
+    private PriorityScheduler.Factory prioritySchedulerFactory = () -> PriorityScheduler.FIFO;
+    private HpackIndexingStrategy.Factory hpackIndexingStrategyFactory = () -> HpackIndexingStrategy.DEFAULT;
     private long streamIdleTimeout;
     private boolean useInputDirectByteBuffers;
     private boolean useOutputDirectByteBuffers;
@@ -153,6 +157,42 @@ public abstract class AbstractHTTP2ServerConnectionFactory extends AbstractConne
         this.flowControlStrategyFactory = flowControlStrategyFactory;
     }
 
+    public PriorityScheduler.Factory getPrioritySchedulerFactory()
+    {
+        return prioritySchedulerFactory;
+    }
+
+    /**
+     * <p>Sets the factory of the {@link PriorityScheduler} that decides the order
+     * in which the frames of the streams of each connection are written,
+     * by default in the order they are queued.</p>
+     *
+     * @param prioritySchedulerFactory the priority scheduler factory
+     * @see org.eclipse.jetty.http.ExtensiblePriorityScheduler
+     * @see org.eclipse.jetty.http.WeightedFairPriorityScheduler
+     */
+    public void setPrioritySchedulerFactory(PriorityScheduler.Factory prioritySchedulerFactory)
+    {
+        this.prioritySchedulerFactory = Objects.requireNonNull(prioritySchedulerFactory);
+    }
+
+    public HpackIndexingStrategy.Factory getHpackIndexingStrategyFactory()
+    {
+        return hpackIndexingStrategyFactory;
+    }
+
+    /**
+     * <p>Sets the factory of the {@link HpackIndexingStrategy} that decides which
+     * header fields are added to the HPACK dynamic table of each connection.</p>
+     *
+     * @param hpackIndexingStrategyFactory the HPACK indexing strategy factory
+     * @see org.eclipse.jetty.http2.hpack.RepeatedFieldIndexingStrategy
+     */
+    public void setHpackIndexingStrategyFactory(HpackIndexingStrategy.Factory hpackIndexingStrategyFactory)
+    {
+        this.hpackIndexingStrategyFactory = Objects.requireNonNull(hpackIndexingStrategyFactory);
+    }
+
     @ManagedAttribute("The stream idle timeout in milliseconds")
     public long getStreamIdleTimeout()
     {
@@ -261,6 +301,7 @@ public abstract class AbstractHTTP2ServerConnectionFactory extends AbstractConne
         ServerSessionListener listener = newSessionListener(connector, endPoint);
 
         Generator generator = new Generator(connector.getByteBufferPool(), isUseOutputDirectByteBuffers(), getMaxDynamicTableSize(), getMaxHeaderBlockFragment());
+        generator.setHpackIndexingStrategy(getHpackIndexingStrategyFactory().newHpackIndexingStrategy());
         FlowControlStrategy flowControl = getFlowControlStrategyFactory().newFlowControlStrategy();
         HTTP2ServerSession session = new HTTP2ServerSession(connector.getScheduler(), endPoint, generator, listener, flowControl);
         session.setMaxLocalStreams(getMaxConcurrentStreams());
@@ -275,6 +316,7 @@ public abstract class AbstractHTTP2ServerConnectionFactory extends AbstractConne
         session.setInitialSessionRecvWindow(getInitialSessionRecvWindow());
         session.setWriteThreshold(getHttpConfiguration().getOutputBufferSize());
         session.setConnectProtocolEnabled(isConnectProtocolEnabled());
+        session.setPriorityScheduler(getPrioritySchedulerFactory().newPriorityScheduler());
 
         ServerParser parser = newServerParser(connector, session, getRateControlFactory().newRateControl(endPoint));
         parser.setMaxFrameLength(getMaxFrameLength());
@@ -13,6 +13,9 @@
 
 package org.eclipse.jetty.http3;
 
+import java.util.Objects;
+
+import org.eclipse.jetty.http.PriorityScheduler;
 import org.eclipse.jetty.util.annotation.ManagedAttribute;
 import org.eclipse.jetty.util.annotation.ManagedObject;
 
@@ -30,6 +33,7 @@ public class HTTP3Configuration
     private int maxBlockedStreams = 0;
     private int maxRequestHeadersSize = 8192;
     private int maxResponseHeadersSize = 8192;
+    private PriorityScheduler.Factory prioritySchedulerFactory = () -> PriorityScheduler.FIFO;
 
     @ManagedAttribute("The stream idle timeout in milliseconds")
     public long getStreamIdleTimeout()
@@ -118,4 +122,21 @@ public class HTTP3Configuration
     {
         this.maxResponseHeadersSize = maxResponseHeadersSize;
     }
+
+    public PriorityScheduler.Factory getPrioritySchedulerFactory()
+    {
+        return prioritySchedulerFactory;
+    }
+
+    /**
+     * <p>Sets the factory of the {@link PriorityScheduler} that decides the order
+     * in which the frames of the streams of each session are written,
+     * by default in the order they are queued.</p>
+     *
+     * @param prioritySchedulerFactory the priority scheduler factory
+     */
+    public void setPrioritySchedulerFactory(PriorityScheduler.Factory prioritySchedulerFactory)
+    {
+        this.prioritySchedulerFactory = Objects.requireNonNull(prioritySchedulerFactory);
+    }
 }
@@ -21,7 +21,6 @@ import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.CompletableFuture;
-import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.TimeoutException;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicLong;
@@ -42,6 +41,7 @@ import org.eclipse.jetty.quic.common.ProtocolSession;
 import org.eclipse.jetty.quic.common.QuicStreamEndPoint;
 import org.eclipse.jetty.util.Atomics;
 import org.eclipse.jetty.util.Callback;
+import org.eclipse.jetty.util.ConcurrentLongMap;
 import org.eclipse.jetty.util.component.ContainerLifeCycle;
 import org.eclipse.jetty.util.component.DumpableCollection;
 import org.eclipse.jetty.util.thread.AutoLock;
@@ -55,7 +55,7 @@ public abstract class HTTP3Session extends ContainerLifeCycle implements Session
 
     private final AutoLock lock = new AutoLock();
     private final AtomicLong lastStreamId = new AtomicLong(0);
-    private final Map<Long, HTTP3Stream> streams = new ConcurrentHashMap<>();
+    private final ConcurrentLongMap<HTTP3Stream> streams = new ConcurrentLongMap<>();
     private final ProtocolSession session;
     private final Session.Listener listener;
     private final AtomicInteger streamCount = new AtomicInteger();
@@ -269,12 +269,9 @@ public abstract class HTTP3Session extends ContainerLifeCycle implements Session
     protected HTTP3Stream createStream(QuicStreamEndPoint endPoint, Consumer<Throwable> fail)
     {
         long streamId = endPoint.getStreamId();
-        return streams.compute(streamId, (id, stream) ->
-        {
-            if (stream != null)
-                throw new IllegalStateException("duplicate stream id " + streamId);
-            return newHTTP3Stream(endPoint, fail, true);
-        });
+        if (streams.containsKey(streamId))
+            throw new IllegalStateException("duplicate stream id " + streamId);
+        return streams.computeIfAbsent(streamId, id -> newHTTP3Stream(endPoint, fail, true));
     }
 
     protected HTTP3Stream getOrCreateStream(QuicStreamEndPoint endPoint)
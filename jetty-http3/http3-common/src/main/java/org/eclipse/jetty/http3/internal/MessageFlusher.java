@@ -14,10 +14,11 @@
 package org.eclipse.jetty.http3.internal;
 
 import java.nio.ByteBuffer;
-import java.util.ArrayDeque;
 import java.util.List;
-import java.util.Queue;
 
+import org.eclipse.jetty.http.HttpPriority;
+import org.eclipse.jetty.http.PriorityScheduler;
+import org.eclipse.jetty.http.SchedulingQueue;
 import org.eclipse.jetty.http3.frames.Frame;
 import org.eclipse.jetty.http3.internal.generator.MessageGenerator;
 import org.eclipse.jetty.http3.qpack.QpackEncoder;
@@ -34,9 +35,10 @@ public class MessageFlusher extends IteratingCallback
     private static final Logger LOG = LoggerFactory.getLogger(MessageFlusher.class);
 
     private final AutoLock lock = new AutoLock();
-    private final Queue<Entry> entries = new ArrayDeque<>();
+    private final SchedulingQueue<Entry> entries = new SchedulingQueue<>();
     private final ByteBufferPool.Lease lease;
     private final MessageGenerator generator;
+    private PriorityScheduler scheduler = PriorityScheduler.FIFO;
     private Entry entry;
 
     public MessageFlusher(ByteBufferPool byteBufferPool, QpackEncoder encoder, int maxHeadersLength, boolean useDirectByteBuffers)
@@ -45,11 +47,26 @@ public class MessageFlusher extends IteratingCallback
         this.generator = new MessageGenerator(encoder, maxHeadersLength, useDirectByteBuffers);
     }
 
+    public PriorityScheduler getPriorityScheduler()
+    {
+        return scheduler;
+    }
+
+    public void setPriorityScheduler(PriorityScheduler scheduler)
+    {
+        this.scheduler = scheduler == null ? PriorityScheduler.FIFO : scheduler;
+    }
+
     public boolean offer(QuicStreamEndPoint endPoint, Frame frame, Callback callback)
+    {
+        return offer(endPoint, frame, HttpPriority.DEFAULT, callback);
+    }
+
+    public boolean offer(QuicStreamEndPoint endPoint, Frame frame, HttpPriority priority, Callback callback)
     {
         try (AutoLock l = lock.lock())
         {
-            entries.offer(new Entry(endPoint, frame, callback));
+            entries.offer(new Entry(endPoint, frame, priority, callback));
         }
         return true;
     }
@@ -59,7 +76,7 @@ public class MessageFlusher extends IteratingCallback
     {
         try (AutoLock l = lock.lock())
         {
-            entry = entries.poll();
+            entry = entries.poll(scheduler);
             if (entry == null)
                 return Action.IDLE;
         }
@@ -78,6 +95,7 @@ public class MessageFlusher extends IteratingCallback
         int generated = generator.generate(lease, entry.endPoint.getStreamId(), frame, this::failed);
         if (generated < 0)
             return Action.SCHEDULED;
+        scheduler.onScheduled(entry, generated);
 
         QuicStreamEndPoint endPoint = entry.endPoint;
         List<ByteBuffer> buffers = lease.getByteBuffers();
@@ -123,19 +141,33 @@ public class MessageFlusher extends IteratingCallback
         return entry.callback.getInvocationType();
     }
 
-    private static class Entry
+    private static class Entry implements PriorityScheduler.Entry
     {
         private final QuicStreamEndPoint endPoint;
         private final Frame frame;
+        private final HttpPriority priority;
         private final Callback callback;
 
-        private Entry(QuicStreamEndPoint endPoint, Frame frame, Callback callback)
+        private Entry(QuicStreamEndPoint endPoint, Frame frame, HttpPriority priority, Callback callback)
         {
             this.endPoint = endPoint;
             this.frame = frame;
+            this.priority = priority;
             this.callback = callback;
         }
 
+        @Override
+        public long getStreamId()
+        {
+            return endPoint.getStreamId();
+        }
+
+        @Override
+        public HttpPriority getPriority()
+        {
+            return priority;
+        }
+
         @Override
         public String toString()
         {
@@ -15,6 +15,8 @@ package org.eclipse.jetty.http3.qpack.internal.util;
 
 import java.nio.ByteBuffer;
 
+import org.eclipse.jetty.http.compression.HuffmanDecoder;
+
 public class NBitStringParser
 {
     private final NBitIntegerParser _integerParser;
@@ -70,7 +72,7 @@ public class NBitStringParser
                     continue;
 
                 case VALUE:
-                    String value = _huffman ? _huffmanBuilder.decode(buffer) : asciiStringDecode(buffer);
+                    String value = _huffman ? huffmanDecode(buffer) : asciiStringDecode(buffer);
                     if (value != null)
                         reset();
                     return value;
@@ -81,6 +83,20 @@ public class NBitStringParser
         }
     }
 
+    private String huffmanDecode(ByteBuffer buffer) throws EncodingException
+    {
+        try
+        {
+            return _huffmanBuilder.decode(buffer);
+        }
+        catch (org.eclipse.jetty.http.compression.EncodingException x)
+        {
+            EncodingException failure = new EncodingException(x.getMessage());
+            failure.initCause(x);
+            throw failure;
+        }
+    }
+
     private String asciiStringDecode(ByteBuffer buffer)
     {
         for (; _count < _length; _count++)
@@ -16,6 +16,7 @@ package org.eclipse.jetty.http3.server.internal;
 import java.util.Map;
 import java.util.concurrent.CompletableFuture;
 
+import org.eclipse.jetty.http.HttpPriority;
 import org.eclipse.jetty.http3.HTTP3Configuration;
 import org.eclipse.jetty.http3.api.Session;
 import org.eclipse.jetty.http3.frames.Frame;
@@ -83,6 +84,7 @@ public class ServerHTTP3Session extends ServerProtocolSession
             LOG.debug("created control stream #{} on {}", controlStreamId, controlEndPoint);
 
         this.messageFlusher = new MessageFlusher(quicSession.getByteBufferPool(), encoder, configuration.getMaxResponseHeadersSize(), configuration.isUseOutputDirectByteBuffers());
+        messageFlusher.setPriorityScheduler(configuration.getPrioritySchedulerFactory().newPriorityScheduler());
         addBean(messageFlusher);
     }
 
@@ -200,10 +202,10 @@ public class ServerHTTP3Session extends ServerProtocolSession
             controlFlusher.iterate();
     }
 
-    void writeMessageFrame(long streamId, Frame frame, Callback callback)
+    void writeMessageFrame(long streamId, Frame frame, HttpPriority priority, Callback callback)
     {
         QuicStreamEndPoint endPoint = getOrCreateStreamEndPoint(streamId, this::openProtocolEndPoint);
-        if (messageFlusher.offer(endPoint, frame, callback))
+        if (messageFlusher.offer(endPoint, frame, priority, callback))
             messageFlusher.iterate();
     }
 
@@ -157,6 +157,19 @@ public abstract class AbstractConnection implements Connection
      */
     public abstract void onFillable();
 
+    /**
+     * <p>Returns the {@link Invocable.InvocationType} of the callback registered by {@link #fillInterested()}.</p>
+     * <p>When {@link Invocable.InvocationType#NON_BLOCKING} is returned, {@link #onFillable()} may be
+     * run directly by the selector thread rather than being dispatched to the executor, so
+     * implementations must only return it if {@link #onFillable()} never blocks.</p>
+     *
+     * @return the invocation type of {@link #onFillable()}, by default {@link Invocable.InvocationType#BLOCKING}
+     */
+    protected Invocable.InvocationType getFillableInvocationType()
+    {
+        return Invocable.InvocationType.BLOCKING;
+    }
+
     /**
      * <p>Callback method invoked when the endpoint failed to be ready to be read.</p>
      *
@@ -325,6 +338,12 @@ public abstract class AbstractConnection implements Connection
             onFillInterestedFailed(x);
         }
 
+        @Override
+        public InvocationType getInvocationType()
+        {
+            return getFillableInvocationType();
+        }
+
         @Override
         public String toString()
         {
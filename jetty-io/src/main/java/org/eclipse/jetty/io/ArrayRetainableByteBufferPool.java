@@ -14,9 +14,14 @@
 package org.eclipse.jetty.io;
 
 import java.io.IOException;
+import java.lang.ref.WeakReference;
 import java.nio.ByteBuffer;
 import java.util.Arrays;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
 import java.util.function.Consumer;
 import java.util.function.Function;
 
@@ -27,11 +32,28 @@ import org.eclipse.jetty.util.annotation.ManagedObject;
 import org.eclipse.jetty.util.annotation.ManagedOperation;
 import org.eclipse.jetty.util.component.Dumpable;
 import org.eclipse.jetty.util.component.DumpableCollection;
+import org.eclipse.jetty.util.thread.Sweeper;
+import org.eclipse.jetty.util.thread.VirtualThreads;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+/**
+ * <p>A {@link RetainableByteBufferPool} that pools buffers in buckets of increasing capacity.</p>
+ * <p>Buckets grow on demand up to their maximum size, and can be shrunk by releasing
+ * the buffers that have not been used for longer than the {@link #setIdleTimeout(long) idle timeout}.
+ * The pool records, per bucket, the number of acquisitions and how many of them were
+ * served by a pooled buffer, so that the bucket configuration can be tuned to the actual
+ * workload by looking at the {@link #dump() dump} or at the JMX statistics.</p>
+ * <p>Optionally, each thread may keep a small cache of released buffers for each bucket
+ * (see {@link #setThreadLocalCacheSize(int)}), so that threads that keep recycling buffers
+ * of the same sizes do not contend on the shared state of the buckets.</p>
+ * <p>Idle buffers and the caches of terminated threads are released by a
+ * {@link Sweeper} when the pool is {@link Sweeper#offer(Sweeper.Sweepable) offered} to one;
+ * otherwise, they are released by one of the threads that acquire buffers,
+ * at most a few times per idle timeout period.</p>
+ */
 @ManagedObject
-public class ArrayRetainableByteBufferPool implements RetainableByteBufferPool, Dumpable
+public class ArrayRetainableByteBufferPool implements RetainableByteBufferPool, Dumpable, Sweeper.Sweepable
 {
     private static final Logger LOG = LoggerFactory.getLogger(ArrayRetainableByteBufferPool.class);
 
@@ -44,6 +66,14 @@ public class ArrayRetainableByteBufferPool implements RetainableByteBufferPool,
     private final AtomicLong _currentHeapMemory = new AtomicLong();
     private final AtomicLong _currentDirectMemory = new AtomicLong();
     private final Function<Integer, Integer> _bucketIndexFor;
+    private final Statistics _directStatistics = new Statistics();
+    private final Statistics _heapStatistics = new Statistics();
+    private final AtomicLong _lastIdleCheck = new AtomicLong(System.nanoTime());
+    private volatile long _idleTimeout = -1L;
+    private final ThreadLocal<ThreadLocalCache> _threadLocalCache = new ThreadLocal<>();
+    private final Queue<ThreadLocalCache> _threadLocalCaches = new ConcurrentLinkedQueue<>();
+    private volatile int _threadLocalCacheSize;
+    private volatile int _threadLocalCacheGeneration;
 
     public ArrayRetainableByteBufferPool()
     {
@@ -83,8 +113,8 @@ public class ArrayRetainableByteBufferPool implements RetainableByteBufferPool,
         for (int i = 0; i < directArray.length; i++)
         {
             int capacity = Math.min(bucketCapacity.apply(i), maxCapacity);
-            directArray[i] = new Bucket(capacity, maxBucketSize);
-            indirectArray[i] = new Bucket(capacity, maxBucketSize);
+            directArray[i] = new Bucket(i, capacity, maxBucketSize);
+            indirectArray[i] = new Bucket(i, capacity, maxBucketSize);
         }
 
         _minCapacity = minCapacity;
@@ -108,24 +138,84 @@ public class ArrayRetainableByteBufferPool implements RetainableByteBufferPool,
         return _maxCapacity;
     }
 
+    /**
+     * @return the time in milliseconds after which an unused pooled buffer is released, or -1 to never release them
+     */
+    @ManagedAttribute("The idle timeout in ms of pooled ByteBuffers")
+    public long getIdleTimeout()
+    {
+        return _idleTimeout;
+    }
+
+    /**
+     * <p>Sets the time after which a pooled buffer that has not been used is released,
+     * so that buckets shrink back when the workload that filled them goes away.</p>
+     *
+     * @param idleTimeout the idle timeout in milliseconds, or -1 to never release unused buffers
+     */
+    public void setIdleTimeout(long idleTimeout)
+    {
+        _idleTimeout = idleTimeout;
+    }
+
+    /**
+     * @return the max number of released buffers that each thread caches for each bucket
+     */
+    @ManagedAttribute("The max number of ByteBuffers cached per thread for each bucket")
+    public int getThreadLocalCacheSize()
+    {
+        return _threadLocalCacheSize;
+    }
+
+    /**
+     * <p>Sets the max number of released buffers that each thread caches for each bucket,
+     * or zero to disable the thread local caches.</p>
+     * <p>Buffers cached by a thread are re-acquired by the same thread without accessing
+     * the shared state of the buckets, but they cannot be acquired by other threads nor
+     * be evicted until the thread terminates or the pool is {@link #clear() cleared};
+     * the caches of terminated threads are released along with the idle buffers.
+     * Virtual threads never cache buffers.</p>
+     *
+     * @param threadLocalCacheSize the max number of buffers cached per thread for each bucket
+     */
+    public void setThreadLocalCacheSize(int threadLocalCacheSize)
+    {
+        _threadLocalCacheSize = Math.max(0, threadLocalCacheSize);
+        // Let existing caches release their buffers.
+        _threadLocalCacheGeneration++;
+    }
+
     @Override
     public RetainableByteBuffer acquire(int size, boolean direct)
     {
+        releaseIdleMemory();
+
+        Statistics statistics = direct ? _directStatistics : _heapStatistics;
+        statistics._acquires.increment();
         Bucket bucket = bucketFor(size, direct);
         if (bucket == null)
+        {
+            statistics._allocations.increment();
             return newRetainableByteBuffer(size, direct, byteBuffer -> {});
-        Bucket.Entry entry = bucket.acquire();
+        }
+        bucket._acquires.increment();
+
+        ThreadLocalCache cache = getThreadLocalCache();
+        Bucket.Entry entry = cache == null ? null : cache.poll(direct, bucket._index);
+        if (entry == null)
+            entry = bucket.acquire();
 
         RetainableByteBuffer buffer;
         if (entry == null)
         {
+            statistics._allocations.increment();
             Bucket.Entry reservedEntry = bucket.reserve();
             if (reservedEntry != null)
             {
                 buffer = newRetainableByteBuffer(bucket._capacity, direct, byteBuffer ->
                 {
                     BufferUtil.reset(byteBuffer);
-                    reservedEntry.release();
+                    release(reservedEntry, bucket._index, direct);
                 });
                 reservedEntry.enable(buffer, true);
                 if (direct)
@@ -141,12 +231,54 @@ public class ArrayRetainableByteBufferPool implements RetainableByteBufferPool,
         }
         else
         {
+            statistics._hits.increment();
+            bucket._hits.increment();
             buffer = entry.getPooled();
             buffer.acquire();
         }
         return buffer;
     }
 
+    private void release(Bucket.Entry entry, int index, boolean direct)
+    {
+        ThreadLocalCache cache = getThreadLocalCache();
+        if (cache == null || !cache.offer(direct, index, entry))
+            entry.release();
+    }
+
+    private ThreadLocalCache getThreadLocalCache()
+    {
+        int size = _threadLocalCacheSize;
+        ThreadLocalCache cache = _threadLocalCache.get();
+        if (cache == null)
+        {
+            if (size == 0)
+                return null;
+            releaseTerminatedThreadLocalCaches();
+            cache = new ThreadLocalCache(VirtualThreads.isVirtualThread() ? 0 : size, _threadLocalCacheGeneration);
+            _threadLocalCache.set(cache);
+            if (cache._size > 0)
+                _threadLocalCaches.offer(cache);
+        }
+        else if (cache._generation != _threadLocalCacheGeneration)
+        {
+            cache.release();
+            cache._generation = _threadLocalCacheGeneration;
+            if (cache._size > 0)
+                cache._size = size;
+        }
+        return cache._size > 0 ? cache : null;
+    }
+
+    private void releaseTerminatedThreadLocalCaches()
+    {
+        for (ThreadLocalCache cache : _threadLocalCaches)
+        {
+            if (cache.isTerminated() && _threadLocalCaches.remove(cache))
+                cache.release();
+        }
+    }
+
     private RetainableByteBuffer newRetainableByteBuffer(int capacity, boolean direct, Consumer<ByteBuffer> releaser)
     {
         ByteBuffer buffer = direct ? ByteBuffer.allocateDirect(capacity) : ByteBuffer.allocate(capacity);
@@ -247,9 +379,64 @@ public class ArrayRetainableByteBufferPool implements RetainableByteBufferPool,
         return total;
     }
 
+    @ManagedAttribute("The ratio of direct ByteBuffer acquisitions served by pooled ByteBuffers")
+    public double getDirectHitRatio()
+    {
+        return _directStatistics.getHitRatio();
+    }
+
+    @ManagedAttribute("The ratio of heap ByteBuffer acquisitions served by pooled ByteBuffers")
+    public double getHeapHitRatio()
+    {
+        return _heapStatistics.getHitRatio();
+    }
+
+    @ManagedAttribute("The number of direct ByteBuffers allocated")
+    public long getDirectAllocationCount()
+    {
+        return _directStatistics._allocations.sum();
+    }
+
+    @ManagedAttribute("The number of heap ByteBuffers allocated")
+    public long getHeapAllocationCount()
+    {
+        return _heapStatistics._allocations.sum();
+    }
+
+    @ManagedAttribute("The number of pooled direct ByteBuffers evicted")
+    public long getDirectEvictionCount()
+    {
+        return _directStatistics._evictions.sum();
+    }
+
+    @ManagedAttribute("The number of pooled heap ByteBuffers evicted")
+    public long getHeapEvictionCount()
+    {
+        return _heapStatistics._evictions.sum();
+    }
+
+    @ManagedOperation(value = "Resets the statistics", impact = "ACTION")
+    public void resetStats()
+    {
+        _directStatistics.reset();
+        _heapStatistics.reset();
+        for (Bucket bucket : _direct)
+        {
+            bucket.resetStats();
+        }
+        for (Bucket bucket : _indirect)
+        {
+            bucket.resetStats();
+        }
+    }
+
     @ManagedOperation(value = "Clears this RetainableByteBufferPool", impact = "ACTION")
     public void clear()
     {
+        // Let thread local caches drop their buffers,
+        // the caches of terminated threads never will.
+        _threadLocalCacheGeneration++;
+        releaseTerminatedThreadLocalCaches();
         clearArray(_direct, _currentDirectMemory);
         clearArray(_indirect, _currentHeapMemory);
     }
@@ -277,6 +464,83 @@ public class ArrayRetainableByteBufferPool implements RetainableByteBufferPool,
         }
     }
 
+    /**
+     * <p>Releases the idle buffers and the caches of terminated threads.</p>
+     * <p>Sweeping the pool periodically moves this work off the
+     * threads that acquire buffers, which otherwise perform it.</p>
+     *
+     * @return always false, as the pool is never swept away
+     */
+    @Override
+    public boolean sweep()
+    {
+        long now = System.nanoTime();
+        _lastIdleCheck.set(now);
+        releaseTerminatedThreadLocalCaches();
+        releaseIdleMemory(now);
+        return false;
+    }
+
+    private void releaseIdleMemory()
+    {
+        long idleTimeout = _idleTimeout;
+        if (idleTimeout <= 0)
+            return;
+
+        // Check at most a few times per idle timeout period,
+        // and let only the thread that claims the check scan.
+        long now = System.nanoTime();
+        long lastCheck = _lastIdleCheck.get();
+        if (now - lastCheck < TimeUnit.MILLISECONDS.toNanos(idleTimeout) / 4 || !_lastIdleCheck.compareAndSet(lastCheck, now))
+            return;
+
+        releaseTerminatedThreadLocalCaches();
+        releaseIdleMemory(now);
+    }
+
+    private void releaseIdleMemory(long now)
+    {
+        long idleTimeout = _idleTimeout;
+        if (idleTimeout <= 0)
+            return;
+        long idleNanos = TimeUnit.MILLISECONDS.toNanos(idleTimeout);
+        releaseIdleMemory(true, now, idleNanos);
+        releaseIdleMemory(false, now, idleNanos);
+    }
+
+    private void releaseIdleMemory(boolean direct, long now, long idleNanos)
+    {
+        long totalClearedCapacity = 0L;
+        Bucket[] buckets = direct ? _direct : _indirect;
+        for (Bucket bucket : buckets)
+        {
+            for (Bucket.Entry entry : bucket.values())
+            {
+                if (entry.isIdle() && now - entry.getPooled().getLastUpdate() > idleNanos && entry.remove())
+                    totalClearedCapacity += removed(entry, direct);
+            }
+        }
+
+        if (LOG.isDebugEnabled() && totalClearedCapacity > 0)
+            LOG.debug("released {} idle bytes from {} pools", totalClearedCapacity, (direct ? "direct" : "heap"));
+    }
+
+    private int removed(Bucket.Entry entry, boolean direct)
+    {
+        int clearedCapacity = entry.getPooled().capacity();
+        if (direct)
+        {
+            _currentDirectMemory.addAndGet(-clearedCapacity);
+            _directStatistics._evictions.increment();
+        }
+        else
+        {
+            _currentHeapMemory.addAndGet(-clearedCapacity);
+            _heapStatistics._evictions.increment();
+        }
+        return clearedCapacity;
+    }
+
     /**
      * This eviction mechanism searches for the RetainableByteBuffers that were released the longest time ago.
      * @param direct true to search in the direct buffers buckets, false to search in the heap buffers buckets.
@@ -300,14 +564,7 @@ public class ArrayRetainableByteBufferPool implements RetainableByteBufferPool,
                     continue;
 
                 if (oldestEntry.remove())
-                {
-                    int clearedCapacity = oldestEntry.getPooled().capacity();
-                    if (direct)
-                        _currentDirectMemory.addAndGet(-clearedCapacity);
-                    else
-                        _currentHeapMemory.addAndGet(-clearedCapacity);
-                    totalClearedCapacity += clearedCapacity;
-                }
+                    totalClearedCapacity += removed(oldestEntry, direct);
                 // else a concurrent thread evicted the same entry -> do not account for its capacity.
             }
         }
@@ -357,16 +614,134 @@ public class ArrayRetainableByteBufferPool implements RetainableByteBufferPool,
         return oldestEntry;
     }
 
+    private static class Statistics
+    {
+        private final LongAdder _acquires = new LongAdder();
+        private final LongAdder _hits = new LongAdder();
+        private final LongAdder _allocations = new LongAdder();
+        private final LongAdder _evictions = new LongAdder();
+
+        private double getHitRatio()
+        {
+            long acquires = _acquires.sum();
+            return acquires == 0 ? 0.0D : (double)_hits.sum() / acquires;
+        }
+
+        private void reset()
+        {
+            _acquires.reset();
+            _hits.reset();
+            _allocations.reset();
+            _evictions.reset();
+        }
+    }
+
+    /**
+     * <p>The per-thread cache of released buffers, that holds the pool
+     * entries of the cached buffers, still acquired from their buckets.</p>
+     * <p>It is only accessed by its own thread, or by other threads
+     * once its own thread has terminated.</p>
+     */
+    private class ThreadLocalCache
+    {
+        // Do not retain the thread, only its cache.
+        private final WeakReference<Thread> _thread = new WeakReference<>(Thread.currentThread());
+        private final Object[][] _directEntries = new Object[_direct.length][];
+        private final Object[][] _indirectEntries = new Object[_indirect.length][];
+        private final int[] _directCounts = new int[_direct.length];
+        private final int[] _indirectCounts = new int[_indirect.length];
+        private int _size;
+        private int _generation;
+
+        private ThreadLocalCache(int size, int generation)
+        {
+            _size = size;
+            _generation = generation;
+        }
+
+        private boolean isTerminated()
+        {
+            Thread thread = _thread.get();
+            return thread == null || !thread.isAlive();
+        }
+
+        @SuppressWarnings("unchecked")
+        private Bucket.Entry poll(boolean direct, int index)
+        {
+            Object[] entries = (direct ? _directEntries : _indirectEntries)[index];
+            int[] counts = direct ? _directCounts : _indirectCounts;
+            while (counts[index] > 0)
+            {
+                int count = --counts[index];
+                Bucket.Entry entry = (Bucket.Entry)entries[count];
+                entries[count] = null;
+                // Skip the entries removed by clear().
+                if (!entry.isClosed())
+                    return entry;
+            }
+            return null;
+        }
+
+        private boolean offer(boolean direct, int index, Bucket.Entry entry)
+        {
+            Object[][] buckets = direct ? _directEntries : _indirectEntries;
+            int[] counts = direct ? _directCounts : _indirectCounts;
+            int count = counts[index];
+            if (count >= _size)
+                return false;
+            Object[] entries = buckets[index];
+            if (entries == null || entries.length < _size)
+            {
+                entries = entries == null ? new Object[_size] : Arrays.copyOf(entries, _size);
+                buckets[index] = entries;
+            }
+            entries[count] = entry;
+            counts[index] = count + 1;
+            return true;
+        }
+
+        private void release()
+        {
+            release(_directEntries, _directCounts);
+            release(_indirectEntries, _indirectCounts);
+        }
+
+        @SuppressWarnings("unchecked")
+        private void release(Object[][] buckets, int[] counts)
+        {
+            for (int i = 0; i < buckets.length; i++)
+            {
+                Object[] entries = buckets[i];
+                for (int j = 0; j < counts[i]; j++)
+                {
+                    ((Bucket.Entry)entries[j]).release();
+                    entries[j] = null;
+                }
+                counts[i] = 0;
+            }
+        }
+    }
+
     private static class Bucket extends Pool<RetainableByteBuffer>
     {
+        private final int _index;
         private final int _capacity;
+        private final LongAdder _acquires = new LongAdder();
+        private final LongAdder _hits = new LongAdder();
 
-        Bucket(int capacity, int size)
+        Bucket(int index, int capacity, int size)
         {
-            super(Pool.StrategyType.THREAD_ID, size, true);
+            super(Pool.StrategyType.FREE_LIST, size);
+            _index = index;
             _capacity = capacity;
         }
 
+        private void resetStats()
+        {
+            _acquires.reset();
+            _hits.reset();
+        }
+
         @Override
         public String toString()
         {
@@ -379,11 +754,14 @@ public class ArrayRetainableByteBufferPool implements RetainableByteBufferPool,
                     inUse++;
             }
 
-            return String.format("%s{capacity=%d,inuse=%d(%d%%)}",
+            long acquires = _acquires.sum();
+            return String.format("%s{capacity=%d,inuse=%d(%d%%),acquires=%d,hits=%d%%}",
                 super.toString(),
                 _capacity,
                 inUse,
-                entries > 0 ? (inUse * 100) / entries : 0);
+                entries > 0 ? (inUse * 100) / entries : 0,
+                acquires,
+                acquires > 0 ? (_hits.sum() * 100) / acquires : 0);
         }
     }
 }
@@ -631,7 +631,7 @@ public class ClientConnector extends ContainerLifeCycle
          */
         public ChannelWithAddress newChannelWithAddress(ClientConnector clientConnector, SocketAddress address, Map<String, Object> context) throws IOException
         {
-            return new ChannelWithAddress(SocketChannel.open(), address);
+            return new ChannelWithAddress(clientConnector.selectorManager.getSelectorProvider().openSocketChannel(), address);
         }
 
         public EndPoint newEndPoint(ClientConnector clientConnector, SocketAddress address, SelectableChannel selectable, ManagedSelector selector, SelectionKey selectionKey)
@@ -22,6 +22,7 @@ import java.nio.channels.SelectionKey;
 import java.nio.channels.Selector;
 import java.nio.channels.ServerSocketChannel;
 import java.nio.channels.SocketChannel;
+import java.nio.channels.spi.SelectorProvider;
 import java.util.Arrays;
 import java.util.EventListener;
 import java.util.List;
@@ -47,6 +48,10 @@ import org.slf4j.LoggerFactory;
  * simplify the non-blocking primitives provided by the JVM via the {@code java.nio} package.</p>
  * <p>{@link SelectorManager} subclasses implement methods to return protocol-specific
  * {@link EndPoint}s and {@link Connection}s.</p>
+ * <p>Selectors and channels are created by a configurable {@link SelectorProvider},
+ * by default the JVM-wide {@link SelectorProvider#provider() provider}, so that
+ * alternative (for example, native) selector implementations can be plugged in
+ * for a single connector.</p>
  */
 
 @ManagedObject("Manager of the NIO Selectors")
@@ -62,6 +67,7 @@ public abstract class SelectorManager extends ContainerLifeCycle implements Dump
     private final IntUnaryOperator _selectorIndexUpdate;
     private final List<AcceptListener> _acceptListeners = new CopyOnWriteArrayList<>();
     private long _connectTimeout = DEFAULT_CONNECT_TIMEOUT;
+    private SelectorProvider _selectorProvider = SelectorProvider.provider();
     private ThreadPoolBudget.Lease _lease;
 
     private static int defaultSelectors(Executor executor)
@@ -129,6 +135,30 @@ public abstract class SelectorManager extends ContainerLifeCycle implements Dump
         _connectTimeout = milliseconds;
     }
 
+    /**
+     * @return the SelectorProvider used to create selectors and channels
+     */
+    @ManagedAttribute("The SelectorProvider")
+    public SelectorProvider getSelectorProvider()
+    {
+        return _selectorProvider;
+    }
+
+    /**
+     * <p>Sets the {@link SelectorProvider} used to create selectors and channels.</p>
+     * <p>The channels registered with the selectors of this SelectorManager
+     * must be created by the same provider, so the provider must be configured
+     * before this SelectorManager is started.</p>
+     *
+     * @param selectorProvider the SelectorProvider, or null for the JVM-wide default provider
+     */
+    public void setSelectorProvider(SelectorProvider selectorProvider)
+    {
+        if (isStarted())
+            throw new IllegalStateException();
+        _selectorProvider = selectorProvider == null ? SelectorProvider.provider() : selectorProvider;
+    }
+
     /**
      * Executes the given task in a different thread.
      *
@@ -251,7 +281,7 @@ public abstract class SelectorManager extends ContainerLifeCycle implements Dump
 
     protected Selector newSelector() throws IOException
     {
-        return Selector.open();
+        return getSelectorProvider().openSelector();
     }
 
     @Override
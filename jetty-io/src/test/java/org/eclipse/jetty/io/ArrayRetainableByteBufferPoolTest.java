@@ -28,6 +28,7 @@ import static org.hamcrest.Matchers.lessThan;
 import static org.hamcrest.Matchers.lessThanOrEqualTo;
 import static org.hamcrest.Matchers.notNullValue;
 import static org.hamcrest.core.Is.is;
+import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 
 public class ArrayRetainableByteBufferPoolTest
@@ -391,4 +392,148 @@ public class ArrayRetainableByteBufferPoolTest
         assertThat(buffer.release(), is(true));
         assertThat(buffer.getBuffer().order(), Matchers.is(ByteOrder.BIG_ENDIAN));
     }
+
+    @Test
+    public void testStatistics()
+    {
+        ArrayRetainableByteBufferPool pool = new ArrayRetainableByteBufferPool(0, 10, 20, 1);
+
+        RetainableByteBuffer buffer1 = pool.acquire(10, true);
+        assertThat(pool.getDirectAllocationCount(), is(1L));
+        assertThat(pool.getDirectHitRatio(), is(0.0D));
+        buffer1.release();
+
+        RetainableByteBuffer buffer2 = pool.acquire(10, true);
+        assertThat(pool.getDirectAllocationCount(), is(1L));
+        assertThat(pool.getDirectHitRatio(), is(0.5D));
+
+        // The bucket is full, so this buffer is allocated but not pooled.
+        RetainableByteBuffer buffer3 = pool.acquire(10, true);
+        assertThat(pool.getDirectAllocationCount(), is(2L));
+        // Over the max capacity, so this buffer is allocated but not pooled.
+        pool.acquire(100, true).release();
+        assertThat(pool.getDirectAllocationCount(), is(3L));
+        assertThat(pool.getDirectHitRatio(), is(0.25D));
+        buffer2.release();
+        buffer3.release();
+
+        assertThat(pool.getHeapAllocationCount(), is(0L));
+        assertThat(pool.getHeapHitRatio(), is(0.0D));
+        assertThat(pool.dump(), containsString("acquires=3,hits=33%"));
+
+        pool.resetStats();
+        assertThat(pool.getDirectAllocationCount(), is(0L));
+        assertThat(pool.getDirectHitRatio(), is(0.0D));
+    }
+
+    @Test
+    public void testIdleTimeoutReleasesBuffers() throws Exception
+    {
+        ArrayRetainableByteBufferPool pool = new ArrayRetainableByteBufferPool(0, 10, 20, Integer.MAX_VALUE);
+        pool.setIdleTimeout(100);
+
+        List<RetainableByteBuffer> buffers = new ArrayList<>();
+        for (int i = 0; i < 4; i++)
+        {
+            buffers.add(pool.acquire(10, true));
+        }
+        buffers.forEach(RetainableByteBuffer::release);
+        assertThat(pool.getDirectByteBufferCount(), is(4L));
+        assertThat(pool.getDirectMemory(), is(40L));
+
+        Thread.sleep(200);
+
+        // The next acquisition releases the idle buffers.
+        RetainableByteBuffer buffer = pool.acquire(20, true);
+        assertThat(pool.getDirectByteBufferCount(), is(1L));
+        assertThat(pool.getDirectMemory(), is(20L));
+        assertThat(pool.getDirectEvictionCount(), is(4L));
+        buffer.release();
+    }
+
+    @Test
+    public void testSweepReleasesIdleBuffers() throws Exception
+    {
+        ArrayRetainableByteBufferPool pool = new ArrayRetainableByteBufferPool(0, 10, 20, Integer.MAX_VALUE);
+        pool.setIdleTimeout(100);
+
+        pool.acquire(10, true).release();
+        assertFalse(pool.sweep());
+        assertThat(pool.getDirectByteBufferCount(), is(1L));
+
+        Thread.sleep(200);
+
+        // Sweeping releases the idle buffers without an acquisition.
+        assertFalse(pool.sweep());
+        assertThat(pool.getDirectByteBufferCount(), is(0L));
+        assertThat(pool.getDirectEvictionCount(), is(1L));
+    }
+
+    @Test
+    public void testThreadLocalCache() throws Exception
+    {
+        ArrayRetainableByteBufferPool pool = new ArrayRetainableByteBufferPool(0, 10, 20, Integer.MAX_VALUE);
+        pool.setThreadLocalCacheSize(1);
+
+        // A buffer released by a terminated thread is returned to its bucket.
+        Thread thread = new Thread(() -> pool.acquire(10, true).release());
+        thread.start();
+        thread.join();
+        assertThat(pool.getAvailableDirectByteBufferCount(), is(0L));
+
+        RetainableByteBuffer buffer1 = pool.acquire(10, true);
+        assertThat(pool.getDirectByteBufferCount(), is(1L));
+        assertThat(pool.getDirectAllocationCount(), is(1L));
+
+        // The released buffer stays in the thread local cache.
+        buffer1.release();
+        assertThat(pool.getAvailableDirectByteBufferCount(), is(0L));
+        RetainableByteBuffer buffer2 = pool.acquire(10, true);
+        assertThat(buffer2, Matchers.sameInstance(buffer1));
+        assertThat(pool.getDirectAllocationCount(), is(1L));
+
+        // The cache holds one buffer per bucket, the others go to the bucket.
+        RetainableByteBuffer buffer3 = pool.acquire(10, true);
+        buffer2.release();
+        buffer3.release();
+        assertThat(pool.getAvailableDirectByteBufferCount(), is(1L));
+
+        // Disabling the cache returns the cached buffers to the bucket.
+        pool.setThreadLocalCacheSize(0);
+        pool.acquire(20, true).release();
+        assertThat(pool.getAvailableDirectByteBufferCount(), is(3L));
+    }
+
+    @Test
+    public void testTerminatedThreadLocalCacheReleased() throws Exception
+    {
+        ArrayRetainableByteBufferPool pool = new ArrayRetainableByteBufferPool(0, 10, 20, Integer.MAX_VALUE);
+        pool.setThreadLocalCacheSize(1);
+        pool.setIdleTimeout(100);
+
+        Thread thread = new Thread(() -> pool.acquire(10, true).release());
+        thread.start();
+        thread.join();
+        assertThat(pool.getDirectByteBufferCount(), is(1L));
+
+        // The idle check releases the cache of the terminated thread,
+        // and then its buffer once it has been idle for long enough.
+        Thread.sleep(200);
+        pool.acquire(20, true).release();
+        Thread.sleep(200);
+        pool.acquire(20, true).release();
+        assertThat(pool.getDirectByteBufferCount(), is(1L));
+        assertThat(pool.getDirectMemory(), is(20L));
+
+        thread = new Thread(() -> pool.acquire(10, true).release());
+        thread.start();
+        thread.join();
+        assertThat(pool.getDirectByteBufferCount(), is(2L));
+        assertThat(pool.getDirectMemory(), is(30L));
+
+        // Clearing the pool releases the cache of the terminated thread.
+        pool.clear();
+        assertThat(pool.getDirectByteBufferCount(), is(0L));
+        assertThat(pool.getDirectMemory(), is(0L));
+    }
 }
@@ -22,8 +22,6 @@ import java.util.Collection;
 import java.util.EventListener;
 import java.util.List;
 import java.util.concurrent.CompletableFuture;
-import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.Executor;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
@@ -38,6 +36,7 @@ import org.eclipse.jetty.quic.common.internal.QuicErrorCode;
 import org.eclipse.jetty.quic.quiche.QuicheConnection;
 import org.eclipse.jetty.quic.quiche.QuicheConnectionId;
 import org.eclipse.jetty.util.BufferUtil;
+import org.eclipse.jetty.util.ConcurrentLongMap;
 import org.eclipse.jetty.util.IteratingCallback;
 import org.eclipse.jetty.util.component.ContainerLifeCycle;
 import org.eclipse.jetty.util.component.DumpableCollection;
@@ -62,7 +61,7 @@ public abstract class QuicSession extends ContainerLifeCycle
     private static final Logger LOG = LoggerFactory.getLogger(QuicSession.class);
 
     private final AtomicLong[] ids = new AtomicLong[StreamType.values().length];
-    private final ConcurrentMap<Long, QuicStreamEndPoint> endPoints = new ConcurrentHashMap<>();
+    private final ConcurrentLongMap<QuicStreamEndPoint> endPoints = new ConcurrentLongMap<>();
     private final Executor executor;
     private final Scheduler scheduler;
     private final ByteBufferPool byteBufferPool;
@@ -253,6 +253,24 @@ public class RewriteHandler extends HandlerWrapper
         _rules.setRewritePathInfo(rewritePathInfo);
     }
 
+    /**
+     * @return whether the rules are matched in compiled mode
+     * @see RuleContainer#isCompiled()
+     */
+    public boolean isCompiled()
+    {
+        return _rules.isCompiled();
+    }
+
+    /**
+     * @param compiled whether the rules are matched in compiled mode
+     * @see RuleContainer#setCompiled(boolean)
+     */
+    public void setCompiled(boolean compiled)
+    {
+        _rules.setCompiled(compiled);
+    }
+
     /**
      * @return the originalPathAttribte. If non null, this string will be used
      * as the attribute name to store the original request path.
@@ -14,6 +14,7 @@
 package org.eclipse.jetty.rewrite.handler;
 
 import java.io.IOException;
+import java.util.concurrent.atomic.LongAdder;
 import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
 
@@ -34,6 +35,7 @@ public abstract class Rule
 
     protected boolean _terminating;
     protected boolean _handling;
+    private final LongAdder _hits = new LongAdder();
 
     /**
      * This method calls tests the rule against the request/response pair and if the Rule
@@ -87,6 +89,27 @@ public abstract class Rule
         _handling = handling;
     }
 
+    /**
+     * @return the number of times this rule has been applied by its {@link RuleContainer}
+     */
+    public long getHits()
+    {
+        return _hits.longValue();
+    }
+
+    /**
+     * Resets the number of times this rule has been applied.
+     */
+    public void resetHits()
+    {
+        _hits.reset();
+    }
+
+    void hit()
+    {
+        _hits.increment();
+    }
+
     /**
      * Returns the handling and terminating flag values.
      */
@@ -14,20 +14,31 @@
 package org.eclipse.jetty.rewrite.handler;
 
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
 
 import org.eclipse.jetty.http.HttpURI;
 import org.eclipse.jetty.server.Request;
 import org.eclipse.jetty.util.ArrayUtil;
+import org.eclipse.jetty.util.Index;
 import org.eclipse.jetty.util.URIUtil;
 import org.eclipse.jetty.util.component.Dumpable;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 /**
- * Base container to group rules. Can be extended so that the contained rules
- * will only be applied under certain conditions
+ * <p>Base container to group rules. Can be extended so that the contained rules
+ * will only be applied under certain conditions.</p>
+ * <p>In {@link #setCompiled(boolean) compiled mode}, the literal prefixes of the
+ * {@link PatternRule}s and {@link RegexRule}s are indexed when the rules are first
+ * applied, so that only the rules whose prefix matches the target are tried.
+ * The rules are still applied in order, and each matching rule sees the target
+ * rewritten by the previous ones, exactly as in the default mode.</p>
  */
 public class RuleContainer extends Rule implements Dumpable
 {
@@ -40,6 +51,8 @@ public class RuleContainer extends Rule implements Dumpable
     protected String _originalQueryStringAttribute;
     protected boolean _rewriteRequestURI = true;
     protected boolean _rewritePathInfo = true;
+    private boolean _compiled;
+    private volatile CompiledRules _compiledRules;
 
     /**
      * Returns the list of rules.
@@ -126,6 +139,29 @@ public class RuleContainer extends Rule implements Dumpable
         _originalQueryStringAttribute = originalPathAttribte + ORIGINAL_QUERYSTRING_ATTRIBUTE_SUFFIX;
     }
 
+    /**
+     * @return whether the rules are matched in compiled mode
+     */
+    public boolean isCompiled()
+    {
+        return _compiled;
+    }
+
+    /**
+     * <p>Sets whether the rules are matched in compiled mode.</p>
+     * <p>In compiled mode the rules are indexed by the literal prefix of their pattern or regex,
+     * so that containers with many rules only evaluate the few that can match a given target.
+     * The index is rebuilt when the rules are {@link #setRules(Rule[]) set} or
+     * {@link #addRule(Rule) added}, but not when the pattern or regex of an already
+     * contained rule is changed.</p>
+     *
+     * @param compiled whether the rules are matched in compiled mode
+     */
+    public void setCompiled(boolean compiled)
+    {
+        _compiled = compiled;
+    }
+
     /**
      * Process the contained rules
      *
@@ -152,68 +188,256 @@ public class RuleContainer extends Rule implements Dumpable
     {
         boolean originalSet = _originalPathAttribute == null;
 
-        if (_rules == null)
+        Rule[] rules = _rules;
+        if (rules == null)
             return target;
 
-        for (Rule rule : _rules)
+        if (_compiled)
+            return applyCompiled(rules, target, request, response);
+
+        for (Rule rule : rules)
         {
             String applied = rule.matchAndApply(target, request, response);
             if (applied != null)
             {
-                LOG.debug("applied {}", rule);
-                LOG.debug("rewrote {} to {}", target, applied);
-                if (!originalSet)
-                {
-                    originalSet = true;
-                    request.setAttribute(_originalPathAttribute, target);
+                onApplied(rule, target, applied, !originalSet, request);
+                originalSet = true;
+                target = applied;
 
-                    String query = request.getQueryString();
-                    if (query != null)
-                        request.setAttribute(_originalQueryStringAttribute, query);
+                if (rule.isTerminating())
+                {
+                    LOG.debug("terminating {}", rule);
+                    break;
                 }
+            }
+        }
 
-                // Ugly hack, we should just pass baseRequest into the API from RewriteHandler itself.
-                Request baseRequest = Request.getBaseRequest(request);
+        return target;
+    }
 
-                if (_rewriteRequestURI)
-                {
-                    String encoded = URIUtil.encodePath(applied);
-                    if (rule instanceof Rule.ApplyURI)
-                        ((Rule.ApplyURI)rule).applyURI(baseRequest, baseRequest.getRequestURI(), encoded);
-                    else
-                    {
-                        HttpURI baseUri = baseRequest.getHttpURI();
-                        baseRequest.setHttpURI(HttpURI.build(baseUri, encoded)
-                            .param(baseUri.getParam())
-                            .query(baseUri.getQuery()));
-                    }
-                }
+    private String applyCompiled(Rule[] rules, String target, HttpServletRequest request, HttpServletResponse response) throws IOException
+    {
+        boolean originalSet = _originalPathAttribute == null;
 
-                if (_rewritePathInfo)
-                    baseRequest.setContext(baseRequest.getContext(), applied);
+        CompiledRules compiled = _compiledRules;
+        if (compiled == null || compiled._rules != rules)
+            _compiledRules = compiled = new CompiledRules(rules);
 
-                target = applied;
+        int[] candidates = compiled.getCandidates(target);
+        int c = 0;
+        while (c < candidates.length)
+        {
+            int index = candidates[c++];
+            Rule rule = rules[index];
+            String applied = rule.matchAndApply(target, request, response);
+            if (applied != null)
+            {
+                onApplied(rule, target, applied, !originalSet, request);
+                originalSet = true;
 
-                if (rule.isHandling())
+                if (rule.isTerminating())
                 {
-                    LOG.debug("handling {}", rule);
-                    baseRequest.setHandled(true);
+                    LOG.debug("terminating {}", rule);
+                    return applied;
                 }
 
-                if (rule.isTerminating())
+                if (!applied.equals(target))
                 {
-                    LOG.debug("terminating {}", rule);
-                    break;
+                    // The following rules must be selected against the rewritten target.
+                    candidates = compiled.getCandidates(applied);
+                    int next = Arrays.binarySearch(candidates, index + 1);
+                    c = next < 0 ? -next - 1 : next;
                 }
+                target = applied;
             }
         }
 
         return target;
     }
 
+    private void onApplied(Rule rule, String target, String applied, boolean setOriginal, HttpServletRequest request) throws IOException
+    {
+        rule.hit();
+        LOG.debug("applied {}", rule);
+        LOG.debug("rewrote {} to {}", target, applied);
+        if (setOriginal)
+        {
+            request.setAttribute(_originalPathAttribute, target);
+
+            String query = request.getQueryString();
+            if (query != null)
+                request.setAttribute(_originalQueryStringAttribute, query);
+        }
+
+        // Ugly hack, we should just pass baseRequest into the API from RewriteHandler itself.
+        Request baseRequest = Request.getBaseRequest(request);
+
+        if (_rewriteRequestURI)
+        {
+            String encoded = URIUtil.encodePath(applied);
+            if (rule instanceof Rule.ApplyURI)
+                ((Rule.ApplyURI)rule).applyURI(baseRequest, baseRequest.getRequestURI(), encoded);
+            else
+            {
+                HttpURI baseUri = baseRequest.getHttpURI();
+                baseRequest.setHttpURI(HttpURI.build(baseUri, encoded)
+                    .param(baseUri.getParam())
+                    .query(baseUri.getQuery()));
+            }
+        }
+
+        if (_rewritePathInfo)
+            baseRequest.setContext(baseRequest.getContext(), applied);
+
+        if (rule.isHandling())
+        {
+            LOG.debug("handling {}", rule);
+            baseRequest.setHandled(true);
+        }
+    }
+
+    /**
+     * @param rule the rule
+     * @return a string that is a prefix of all the targets the rule may apply to, possibly empty
+     */
+    static String literalPrefix(Rule rule)
+    {
+        Class<?> matcher;
+        try
+        {
+            matcher = rule.getClass().getMethod("matchAndApply", String.class, HttpServletRequest.class, HttpServletResponse.class).getDeclaringClass();
+        }
+        catch (NoSuchMethodException x)
+        {
+            return "";
+        }
+
+        // Rules that override the matching may apply to any target.
+        if (matcher == PatternRule.class)
+        {
+            String pattern = ((PatternRule)rule).getPattern();
+            if (pattern == null || pattern.length() <= 1 || pattern.charAt(0) != '/')
+                return "";
+            // A spec of "/foo/*" also matches "/foo".
+            if (pattern.endsWith("/*"))
+                return pattern.substring(0, pattern.length() - 2);
+            return pattern;
+        }
+
+        if (matcher == RegexRule.class)
+        {
+            String regex = ((RegexRule)rule).getRegex();
+            // Alternations may match targets with different prefixes.
+            if (regex == null || regex.indexOf('|') >= 0)
+                return "";
+            int start = regex.startsWith("^") ? 1 : 0;
+            int end = start;
+            while (end < regex.length() && isRegexLiteral(regex.charAt(end)))
+            {
+                end++;
+            }
+            // A quantifier applies to the last literal character, which may then be absent.
+            if (end > start && end < regex.length() && "*+?{".indexOf(regex.charAt(end)) >= 0)
+                end--;
+            return regex.substring(start, end);
+        }
+
+        return "";
+    }
+
+    private static boolean isRegexLiteral(char c)
+    {
+        return (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z') || (c >= '0' && c <= '9') || "/-_~,;=:@!&'%".indexOf(c) >= 0;
+    }
+
     @Override
     public void dump(Appendable out, String indent) throws IOException
     {
         Dumpable.dumpObjects(out, indent, this, _rules);
     }
+
+    private static class CompiledRules
+    {
+        private final Rule[] _rules;
+        private final int[] _anyTarget;
+        private final Index<Candidates> _byPrefix;
+
+        private CompiledRules(Rule[] rules)
+        {
+            _rules = rules;
+            List<Integer> anyTarget = new ArrayList<>();
+            Map<String, List<Integer>> byPrefix = new HashMap<>();
+            for (int i = 0; i < rules.length; ++i)
+            {
+                String prefix = literalPrefix(rules[i]);
+                if (prefix.isEmpty())
+                    anyTarget.add(i);
+                else
+                    byPrefix.computeIfAbsent(prefix, p -> new ArrayList<>()).add(i);
+            }
+            _anyTarget = toArray(anyTarget);
+            Index.Builder<Candidates> builder = new Index.Builder<Candidates>().caseSensitive(true);
+            byPrefix.forEach((prefix, indexes) -> builder.with(prefix, new Candidates(prefix.length(), toArray(indexes))));
+            _byPrefix = builder.build();
+        }
+
+        /**
+         * @param target the target
+         * @return the sorted indexes of the rules that may apply to the target
+         */
+        private int[] getCandidates(String target)
+        {
+            int[] candidates = _anyTarget;
+            int i = target.length();
+            while (i > 0)
+            {
+                Candidates prefixed = _byPrefix.getBest(target, 0, i);
+                if (prefixed == null)
+                    break;
+                candidates = merge(candidates, prefixed._indexes);
+                i = prefixed._length - 1;
+            }
+            return candidates;
+        }
+
+        private static int[] merge(int[] a, int[] b)
+        {
+            if (a.length == 0)
+                return b;
+            int[] merged = new int[a.length + b.length];
+            int i = 0;
+            int j = 0;
+            int k = 0;
+            while (i < a.length && j < b.length)
+            {
+                merged[k++] = a[i] < b[j] ? a[i++] : b[j++];
+            }
+            while (i < a.length)
+            {
+                merged[k++] = a[i++];
+            }
+            while (j < b.length)
+            {
+                merged[k++] = b[j++];
+            }
+            return merged;
+        }
+
+        private static int[] toArray(List<Integer> list)
+        {
+            return list.stream().mapToInt(Integer::intValue).toArray();
+        }
+    }
+
+    private static class Candidates
+    {
+        private final int _length;
+        private final int[] _indexes;
+
+        private Candidates(int length, int[] indexes)
+        {
+            _length = length;
+            _indexes = indexes;
+        }
+    }
 }
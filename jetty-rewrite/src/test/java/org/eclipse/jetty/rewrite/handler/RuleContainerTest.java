@@ -0,0 +1,171 @@
+//
+// ========================================================================
+// Copyright (c) 1995-2022 Mort Bay Consulting Pty Ltd and others.
+//
+// This program and the accompanying materials are made available under the
+// terms of the Eclipse Public License v. 2.0 which is available at
+// https://www.eclipse.org/legal/epl-2.0, or the Apache License, Version 2.0
+// which is available at https://www.apache.org/licenses/LICENSE-2.0.
+//
+// SPDX-License-Identifier: EPL-2.0 OR Apache-2.0
+// ========================================================================
+//
+
+package org.eclipse.jetty.rewrite.handler;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class RuleContainerTest extends AbstractRuleTestCase
+{
+    private RuleContainer _container;
+    private List<String> _seen;
+
+    @BeforeEach
+    public void init() throws Exception
+    {
+        start(false);
+
+        _seen = new ArrayList<>();
+        _container = new RuleContainer();
+        _container.setRewriteRequestURI(false);
+        _container.setRewritePathInfo(false);
+        for (int i = 0; i < 100; ++i)
+        {
+            RewriteRegexRule regex = new RewriteRegexRule("/r" + i + "/(.*)", "/p" + (i + 1) + "/$1");
+            regex.setTerminating(i % 10 == 9);
+            _container.addRule(regex);
+        }
+        for (int i = 0; i < 100; ++i)
+        {
+            _container.addRule(new RewritePatternRule("/p" + i + "/*", "/q" + (i % 10)));
+            _container.addRule(new RewritePatternRule("/q" + i, "/s" + i));
+        }
+        _container.addRule(new RewritePatternRule("*.txt", "/p5"));
+        _container.addRule(new RewriteRegexRule("/x+|/y+", "/p6/xy"));
+        _container.addRule(new Rule()
+        {
+            @Override
+            public String matchAndApply(String target, HttpServletRequest request, HttpServletResponse response) throws IOException
+            {
+                _seen.add(target);
+                return null;
+            }
+        });
+        _container.addRule(new RewritePatternRule("/p7/*", "/last"));
+    }
+
+    @Test
+    public void testCompiledMatchesLinear() throws Exception
+    {
+        String[] targets = {
+            "/", "/none", "/r0/a", "/r7/a/b", "/r9/a", "/r19/", "/r99/z", "/p3", "/p3/x", "/p42/x/y",
+            "/q1", "/q1/x", "/p1/a.txt", "/a.txt", "/x", "/xxx", "/y", "/p7/b", "/r6/b", "/p77"
+        };
+
+        for (String target : targets)
+        {
+            _container.setCompiled(false);
+            _seen.clear();
+            String linear = _container.apply(target, _request, _response);
+            List<String> linearSeen = new ArrayList<>(_seen);
+
+            _container.setCompiled(true);
+            _seen.clear();
+            String compiled = _container.apply(target, _request, _response);
+
+            assertEquals(linear, compiled, target);
+            assertEquals(linearSeen, _seen, target);
+        }
+    }
+
+    @Test
+    public void testCompiledChain() throws Exception
+    {
+        _container.setCompiled(true);
+        // /r3/a -> /p4/a -> /q4/a
+        assertEquals("/q4/a", _container.apply("/r3/a", _request, _response));
+        // /p4 -> /q4 -> /s4
+        assertEquals("/s4", _container.apply("/p4", _request, _response));
+        // The regex rule is terminating.
+        assertEquals("/p10/a", _container.apply("/r9/a", _request, _response));
+        // /r6/b -> /p7/b -> /q7/b, then "/p7/*" no longer matches.
+        assertEquals("/q7/b", _container.apply("/r6/b", _request, _response));
+        // /a.txt -> /p5, the rules before "*.txt" are not applied again.
+        assertEquals("/p5", _container.apply("/a.txt", _request, _response));
+    }
+
+    @Test
+    public void testHits() throws Exception
+    {
+        Rule[] rules = _container.getRules();
+        for (boolean compiled : new boolean[]{false, true})
+        {
+            _container.setCompiled(compiled);
+            for (Rule rule : rules)
+            {
+                rule.resetHits();
+            }
+
+            _container.apply("/r3/a", _request, _response);
+            _container.apply("/r3/b", _request, _response);
+            _container.apply("/p4", _request, _response);
+
+            assertEquals(2, rules[3].getHits());
+            assertEquals(3, rules[100 + 2 * 4].getHits());
+            assertEquals(1, rules[100 + 2 * 4 + 1].getHits());
+            long total = 0;
+            for (Rule rule : rules)
+            {
+                total += rule.getHits();
+            }
+            assertEquals(6, total);
+        }
+    }
+
+    @Test
+    public void testLiteralPrefix()
+    {
+        assertEquals("/foo", RuleContainer.literalPrefix(new RewritePatternRule("/foo/*", "/")));
+        assertEquals("/foo/bar", RuleContainer.literalPrefix(new RewritePatternRule("/foo/bar", "/")));
+        assertEquals("", RuleContainer.literalPrefix(new RewritePatternRule("/*", "/")));
+        assertEquals("", RuleContainer.literalPrefix(new RewritePatternRule("/", "/")));
+        assertEquals("", RuleContainer.literalPrefix(new RewritePatternRule("*.txt", "/")));
+        assertEquals("/foo/", RuleContainer.literalPrefix(new RewriteRegexRule("/foo/(.*)", "/")));
+        assertEquals("/fo", RuleContainer.literalPrefix(new RewriteRegexRule("^/foo?/.*", "/")));
+        assertEquals("", RuleContainer.literalPrefix(new RewriteRegexRule("/foo|/bar", "/")));
+        assertEquals("/a", RuleContainer.literalPrefix(new RewriteRegexRule("/a\\s*b", "/")));
+        assertEquals("", RuleContainer.literalPrefix(new VirtualHostRuleContainer()));
+    }
+
+    @Test
+    public void testCompiledRegexWithEscapes() throws Exception
+    {
+        _container.setCompiled(true);
+        _container.addRule(new RewriteRegexRule("/a\\s*b\\t?", "/c"));
+        assertEquals("/c", _container.apply("/a  b", _request, _response));
+        assertEquals("/none", _container.apply("/none", _request, _response));
+    }
+
+    @Test
+    public void testRulesChangedAfterCompile() throws Exception
+    {
+        _container.setCompiled(true);
+        assertEquals("/none", _container.apply("/none", _request, _response));
+        _container.addRule(new RewritePatternRule("/none", "/some"));
+        assertEquals("/some", _container.apply("/none", _request, _response));
+        assertTrue(_container.isCompiled());
+        _container.setCompiled(false);
+        assertFalse(_container.isCompiled());
+    }
+}
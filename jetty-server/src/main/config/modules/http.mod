@@ -53,4 +53,7 @@ etc/jetty-http.xml
 ## The SO_SNDBUF socket option to set on accepted sockets.
 ## A value of -1 indicates that the platform default is used.
 # jetty.http.acceptedSendBufferSize=-1
+
+## Whether to aggregate the responses to pipelined HTTP/1.1 requests into fewer writes.
+# jetty.http.aggregatePipelinedResponses=false
 # end::documentation[]
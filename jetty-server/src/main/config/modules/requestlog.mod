@@ -38,4 +38,14 @@ logs/
 
 ## The timezone of the log file name.
 # jetty.requestlog.timezone=GMT
+
+## What to do when the queue of log entries is full: DROP the entry, BLOCK the request thread,
+## or SAMPLE by blocking for one entry every sampleRate and dropping the others.
+# jetty.requestlog.overflowPolicy=DROP
+
+## With the SAMPLE overflow policy, one entry every sampleRate is kept when the queue is full.
+# jetty.requestlog.sampleRate=10
+
+## The max number of log entries written with a single flush.
+# jetty.requestlog.maxBatchSize=128
 # end::documentation[]
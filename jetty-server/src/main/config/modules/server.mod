@@ -66,6 +66,9 @@ etc/jetty.xml
 ## Whether to use direct ByteBuffers for reading or writing
 # jetty.httpConfig.useInputDirectByteBuffers=true
 # jetty.httpConfig.useOutputDirectByteBuffers=true
+
+## Whether to write file content from memory mapped file regions
+# jetty.httpConfig.useFileMappedOutput=false
 # end::documentation-http-config[]
 
 # tag::documentation-server-compliance[]
@@ -22,3 +22,6 @@ etc/jetty-threadpool.xml
 
 ## Whether to output a detailed dump.
 #jetty.threadPool.detailedDump=false
+
+## Whether to run blocking tasks on virtual threads (requires a Java runtime with virtual threads).
+#jetty.threadPool.useVirtualThreads=false
@@ -14,21 +14,43 @@
 package org.eclipse.jetty.server;
 
 import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.concurrent.BlockingQueue;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
 
 import org.eclipse.jetty.util.BlockingArrayQueue;
+import org.eclipse.jetty.util.annotation.ManagedAttribute;
+import org.eclipse.jetty.util.annotation.ManagedObject;
+import org.eclipse.jetty.util.thread.AutoLock;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 /**
- * An asynchronously writing RequestLogWriter
+ * <p>An asynchronously writing RequestLogWriter.</p>
+ * <p>Log entries are queued and written by a dedicated thread, that drains the
+ * queue in batches of up to {@link #getMaxBatchSize()} entries and writes each
+ * batch with {@link RequestLogWriter#write(List)}, so that the output is flushed
+ * once per batch rather than once per entry.</p>
+ * <p>When the queue is full, entries are dropped, the logging thread blocks until
+ * there is room in the queue, or one entry every {@link #getSampleRate()} is kept
+ * by blocking while the others are dropped, depending on the {@link OverflowPolicy}.</p>
  */
+@ManagedObject("Request Log writer which writes asynchronously to file")
 public class AsyncRequestLogWriter extends RequestLogWriter
 {
     private static final Logger LOG = LoggerFactory.getLogger(AsyncRequestLogWriter.class);
     private final BlockingQueue<String> _queue;
+    private final LongAdder _dropped = new LongAdder();
+    private final AtomicLong _overflows = new AtomicLong();
+    private final AutoLock.WithCondition _lock = new AutoLock.WithCondition();
     private transient AsyncRequestLogWriter.WriterThread _thread;
+    private OverflowPolicy _overflowPolicy = OverflowPolicy.DROP;
+    private int _maxBatchSize = 128;
+    private int _sampleRate = 10;
     private boolean _warnedFull;
 
     public AsyncRequestLogWriter()
@@ -49,8 +71,77 @@ public class AsyncRequestLogWriter extends RequestLogWriter
         _queue = queue;
     }
 
+    /**
+     * @return the policy applied when the queue of log entries is full
+     */
+    @ManagedAttribute("The policy applied when the queue is full")
+    public OverflowPolicy getOverflowPolicy()
+    {
+        return _overflowPolicy;
+    }
+
+    /**
+     * @param overflowPolicy the policy applied when the queue of log entries is full
+     */
+    public void setOverflowPolicy(OverflowPolicy overflowPolicy)
+    {
+        _overflowPolicy = overflowPolicy;
+    }
+
+    /**
+     * @return the max number of entries written with a single flush
+     */
+    @ManagedAttribute("The max number of entries written with a single flush")
+    public int getMaxBatchSize()
+    {
+        return _maxBatchSize;
+    }
+
+    /**
+     * @param maxBatchSize the max number of entries written with a single flush
+     */
+    public void setMaxBatchSize(int maxBatchSize)
+    {
+        if (maxBatchSize < 1)
+            throw new IllegalArgumentException("Invalid max batch size " + maxBatchSize);
+        _maxBatchSize = maxBatchSize;
+    }
+
+    /**
+     * @return the rate at which entries are kept when the queue is full
+     * and the overflow policy is {@link OverflowPolicy#SAMPLE}
+     */
+    @ManagedAttribute("The rate at which entries are kept when the queue is full")
+    public int getSampleRate()
+    {
+        return _sampleRate;
+    }
+
+    /**
+     * @param sampleRate the rate at which entries are kept when the queue is full
+     * and the overflow policy is {@link OverflowPolicy#SAMPLE}: one entry every
+     * {@code sampleRate} is kept, the others are dropped
+     */
+    public void setSampleRate(int sampleRate)
+    {
+        if (sampleRate < 1)
+            throw new IllegalArgumentException("Invalid sample rate " + sampleRate);
+        _sampleRate = sampleRate;
+    }
+
+    /**
+     * @return the number of entries dropped because the queue was full
+     */
+    @ManagedAttribute("The number of entries dropped because the queue was full")
+    public long getDroppedCount()
+    {
+        return _dropped.longValue();
+    }
+
     private class WriterThread extends Thread
     {
+        private final List<String> _batch = new ArrayList<>();
+
         WriterThread()
         {
             setName("AsyncRequestLogWriter@" + Integer.toString(AsyncRequestLogWriter.this.hashCode(), 16));
@@ -65,13 +156,9 @@ public class AsyncRequestLogWriter extends RequestLogWriter
                 {
                     String log = _queue.poll(10, TimeUnit.SECONDS);
                     if (log != null)
-                        AsyncRequestLogWriter.super.write(log);
-
-                    while (!_queue.isEmpty())
                     {
-                        log = _queue.poll();
-                        if (log != null)
-                            AsyncRequestLogWriter.super.write(log);
+                        _batch.add(log);
+                        writeBatches();
                     }
                 }
                 catch (InterruptedException e)
@@ -82,6 +169,41 @@ public class AsyncRequestLogWriter extends RequestLogWriter
                 {
                     LOG.warn("Failed to write log", t);
                 }
+                finally
+                {
+                    _batch.clear();
+                }
+            }
+
+            // Write the entries queued before stopping.
+            try
+            {
+                writeBatches();
+            }
+            catch (Throwable t)
+            {
+                LOG.warn("Failed to write log", t);
+            }
+        }
+
+        private void writeBatches() throws IOException
+        {
+            int maxBatchSize = getMaxBatchSize();
+            while (true)
+            {
+                while (_batch.size() < maxBatchSize)
+                {
+                    String log = _queue.poll();
+                    if (log == null)
+                        break;
+                    _batch.add(log);
+                }
+                if (_batch.isEmpty())
+                    return;
+                if (getOverflowPolicy() != OverflowPolicy.DROP)
+                    wakeUpBlocked();
+                AsyncRequestLogWriter.super.write(_batch);
+                _batch.clear();
             }
         }
     }
@@ -99,6 +221,7 @@ public class AsyncRequestLogWriter extends RequestLogWriter
     {
         _thread.interrupt();
         _thread.join();
+        wakeUpBlocked();
         super.doStop();
         _thread = null;
     }
@@ -106,11 +229,61 @@ public class AsyncRequestLogWriter extends RequestLogWriter
     @Override
     public void write(String log) throws IOException
     {
-        if (!_queue.offer(log))
+        if (_queue.offer(log))
+            return;
+
+        OverflowPolicy overflowPolicy = _overflowPolicy;
+        boolean block = overflowPolicy == OverflowPolicy.BLOCK ||
+            overflowPolicy == OverflowPolicy.SAMPLE && _overflows.getAndIncrement() % _sampleRate == 0;
+        if (block)
+        {
+            // Not all BlockingQueues implement put(), so wait to be woken up by the writer thread.
+            try (AutoLock.WithCondition l = _lock.lock())
+            {
+                while (isRunning())
+                {
+                    if (_queue.offer(log))
+                        return;
+                    l.await();
+                }
+            }
+            catch (InterruptedException x)
+            {
+                throw new InterruptedIOException();
+            }
+        }
+
+        _dropped.increment();
+        if (!_warnedFull)
+            LOG.warn("Log Queue overflow");
+        _warnedFull = true;
+    }
+
+    private void wakeUpBlocked()
+    {
+        try (AutoLock.WithCondition l = _lock.lock())
         {
-            if (_warnedFull)
-                LOG.warn("Log Queue overflow");
-            _warnedFull = true;
+            l.signalAll();
         }
     }
+
+    /**
+     * The policy applied when the queue of log entries is full.
+     */
+    public enum OverflowPolicy
+    {
+        /**
+         * The entry is dropped and counted in {@link AsyncRequestLogWriter#getDroppedCount()}.
+         */
+        DROP,
+        /**
+         * The logging thread blocks until there is room in the queue.
+         */
+        BLOCK,
+        /**
+         * One entry every {@link AsyncRequestLogWriter#getSampleRate()} is kept as with {@link #BLOCK},
+         * the others are dropped as with {@link #DROP}.
+         */
+        SAMPLE
+    }
 }
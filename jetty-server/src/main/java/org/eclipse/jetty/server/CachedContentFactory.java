@@ -21,11 +21,12 @@ import java.nio.channels.ReadableByteChannel;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.Map;
-import java.util.SortedSet;
-import java.util.TreeSet;
+import java.util.Queue;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
 import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLongArray;
 import java.util.concurrent.atomic.AtomicReference;
 
 import org.eclipse.jetty.http.CompressedContentFormat;
@@ -44,14 +45,28 @@ import org.eclipse.jetty.util.resource.ResourceFactory;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+/**
+ * <p>A {@link HttpContent.ContentFactory} that caches the content of resources,
+ * bounded by a maximum number of cached files and a maximum cache size in bytes.</p>
+ * <p>When the cache is full, entries are evicted with the CLOCK (second chance)
+ * algorithm, that approximates LRU eviction in constant amortized time: entries
+ * are queued in insertion order, and an entry that has been accessed since it was
+ * last examined is requeued rather than evicted.</p>
+ * <p>Optionally, new entries may be admitted into a full cache only if they are
+ * accessed more frequently than the entry they would evict (see
+ * {@link #setUseFrequencyAdmission(boolean)}), and the content may be kept
+ * only in direct (off-heap) buffers (see {@link #setUseDirectByteBuffers(boolean)}).</p>
+ */
 public class CachedContentFactory implements HttpContent.ContentFactory
 {
     private static final Logger LOG = LoggerFactory.getLogger(CachedContentFactory.class);
     private static final Map<CompressedContentFormat, CachedPrecompressedHttpContent> NO_PRECOMPRESSED = Collections.unmodifiableMap(Collections.emptyMap());
 
     private final ConcurrentMap<String, CachedHttpContent> _cache;
+    private final Queue<CachedHttpContent> _evictionQueue = new ConcurrentLinkedQueue<>();
     private final AtomicInteger _cachedSize;
     private final AtomicInteger _cachedFiles;
+    private final AtomicInteger _staleEntries = new AtomicInteger();
     private final ResourceFactory _factory;
     private final CachedContentFactory _parent;
     private final MimeTypes _mimeTypes;
@@ -62,6 +77,8 @@ public class CachedContentFactory implements HttpContent.ContentFactory
     private int _maxCachedFileSize = 128 * 1024 * 1024;
     private int _maxCachedFiles = 2048;
     private int _maxCacheSize = 256 * 1024 * 1024;
+    private boolean _useDirectByteBuffers;
+    private volatile FrequencySketch _frequencySketch;
 
     /**
      * Constructor.
@@ -132,6 +149,8 @@ public class CachedContentFactory implements HttpContent.ContentFactory
     public void setMaxCachedFiles(int maxCachedFiles)
     {
         _maxCachedFiles = maxCachedFiles;
+        if (_frequencySketch != null)
+            _frequencySketch = new FrequencySketch(maxCachedFiles);
         shrinkCache();
     }
 
@@ -140,6 +159,49 @@ public class CachedContentFactory implements HttpContent.ContentFactory
         return _useFileMappedBuffer;
     }
 
+    /**
+     * @return whether the cached content is only kept in direct buffers
+     */
+    public boolean isUseDirectByteBuffers()
+    {
+        return _useDirectByteBuffers;
+    }
+
+    /**
+     * <p>Sets whether the cached content is only kept in direct buffers,
+     * so that the content of files is never copied to the heap, and
+     * {@link HttpContent#getIndirectBuffer()} returns a direct buffer.</p>
+     *
+     * @param useDirectByteBuffers whether to only keep content in direct buffers
+     */
+    public void setUseDirectByteBuffers(boolean useDirectByteBuffers)
+    {
+        _useDirectByteBuffers = useDirectByteBuffers;
+    }
+
+    /**
+     * @return whether new entries are admitted into a full cache depending on their access frequency
+     */
+    public boolean isUseFrequencyAdmission()
+    {
+        return _frequencySketch != null;
+    }
+
+    /**
+     * <p>Sets whether new entries are admitted into a full cache only if they have
+     * been requested more frequently than the entry that would be evicted for them,
+     * in the style of the TinyLFU admission policy.</p>
+     * <p>This prevents a burst of requests for rarely accessed resources from
+     * evicting popular resources from the cache. The access frequencies are
+     * estimated with a fixed size sketch that is periodically aged.</p>
+     *
+     * @param useFrequencyAdmission whether to use frequency based admission
+     */
+    public void setUseFrequencyAdmission(boolean useFrequencyAdmission)
+    {
+        _frequencySketch = useFrequencyAdmission ? new FrequencySketch(_maxCachedFiles) : null;
+    }
+
     public void flushCache()
     {
         while (_cache.size() > 0)
@@ -151,6 +213,8 @@ public class CachedContentFactory implements HttpContent.ContentFactory
                     content.invalidate();
             }
         }
+        _evictionQueue.clear();
+        _staleEntries.set(0);
     }
 
     /**
@@ -168,6 +232,10 @@ public class CachedContentFactory implements HttpContent.ContentFactory
     @Override
     public HttpContent getContent(String pathInContext, int maxBufferSize) throws IOException
     {
+        FrequencySketch frequencySketch = _frequencySketch;
+        if (frequencySketch != null)
+            frequencySketch.increment(pathInContext);
+
         // Is the content in this cache?
         CachedHttpContent content = _cache.get(pathInContext);
         if (content != null && (content).isValid())
@@ -214,7 +282,7 @@ public class CachedContentFactory implements HttpContent.ContentFactory
             return new ResourceHttpContent(resource, _mimeTypes.getMimeByExtension(resource.toString()), getMaxCachedFileSize());
 
         // Will it fit in the cache?
-        if (isCacheable(resource))
+        if (isCacheable(resource) && isAdmitted(pathInContext))
         {
             CachedHttpContent content;
 
@@ -240,6 +308,10 @@ public class CachedContentFactory implements HttpContent.ContentFactory
                                 compressedContent.invalidate();
                                 compressedContent = added;
                             }
+                            else
+                            {
+                                _evictionQueue.offer(compressedContent);
+                            }
                         }
                     }
                     if (compressedContent != null)
@@ -257,6 +329,10 @@ public class CachedContentFactory implements HttpContent.ContentFactory
                 content.invalidate();
                 content = added;
             }
+            else
+            {
+                _evictionQueue.offer(content);
+            }
 
             return content;
         }
@@ -288,38 +364,63 @@ public class CachedContentFactory implements HttpContent.ContentFactory
         return new ResourceHttpContent(resource, mt, maxBufferSize);
     }
 
+    /**
+     * @param pathInContext the key of a new cache entry
+     * @return whether the new entry may be added to the cache
+     */
+    private boolean isAdmitted(String pathInContext)
+    {
+        FrequencySketch frequencySketch = _frequencySketch;
+        if (frequencySketch == null || _cachedFiles.get() < _maxCachedFiles)
+            return true;
+
+        // The cache is full, admit the new entry only if it is
+        // more popular than the entry that would be evicted.
+        CachedHttpContent victim = _evictionQueue.peek();
+        while (victim != null && victim != _cache.get(victim.getKey()))
+        {
+            if (_evictionQueue.remove(victim))
+                _staleEntries.decrementAndGet();
+            victim = _evictionQueue.peek();
+        }
+        return victim == null || frequencySketch.frequency(pathInContext) > frequencySketch.frequency(victim.getKey());
+    }
+
     private void shrinkCache()
     {
         // While we need to shrink
         while (_cache.size() > 0 && (_cachedFiles.get() > _maxCachedFiles || _cachedSize.get() > _maxCacheSize))
         {
-            // Scan the entire cache and generate an ordered list by last accessed time.
-            SortedSet<CachedHttpContent> sorted = new TreeSet<>((c1, c2) ->
-            {
-                if (c1._lastAccessed < c2._lastAccessed)
-                    return -1;
-
-                if (c1._lastAccessed > c2._lastAccessed)
-                    return 1;
+            CachedHttpContent content = _evictionQueue.poll();
+            if (content == null)
+                break;
 
-                if (c1._contentLengthValue < c2._contentLengthValue)
-                    return -1;
-
-                return c1._key.compareTo(c2._key);
-            });
-            sorted.addAll(_cache.values());
+            // Skip entries that have already been removed.
+            if (content != _cache.get(content.getKey()))
+            {
+                _staleEntries.decrementAndGet();
+                continue;
+            }
 
-            // Invalidate least recently used first
-            for (CachedHttpContent content : sorted)
+            // Give a second chance to entries accessed since they were last examined.
+            if (content._referenced)
             {
-                if (_cachedFiles.get() <= _maxCachedFiles && _cachedSize.get() <= _maxCacheSize)
-                    break;
-                if (content == _cache.remove(content.getKey()))
-                    content.invalidate();
+                content._referenced = false;
+                _evictionQueue.offer(content);
+                continue;
             }
+
+            if (_cache.remove(content.getKey(), content))
+                content.invalidate();
         }
     }
 
+    private void purgeStaleEntries()
+    {
+        _staleEntries.set(0);
+        _evictionQueue.removeIf(content -> content != _cache.get(content.getKey()));
+    }
+
     protected ByteBuffer getIndirectBuffer(Resource resource)
     {
         try
@@ -390,7 +491,7 @@ public class CachedContentFactory implements HttpContent.ContentFactory
         private final AtomicReference<ByteBuffer> _indirectBuffer = new AtomicReference<>();
         private final AtomicReference<ByteBuffer> _directBuffer = new AtomicReference<>();
         private final AtomicReference<ByteBuffer> _mappedBuffer = new AtomicReference<>();
-        private volatile long _lastAccessed;
+        private volatile boolean _referenced;
 
         CachedHttpContent(String pathInContext, Resource resource, Map<CompressedContentFormat, CachedHttpContent> precompressedResources)
         {
@@ -413,8 +514,6 @@ public class CachedContentFactory implements HttpContent.ContentFactory
             if (_cachedFiles.incrementAndGet() > _maxCachedFiles)
                 shrinkCache();
 
-            _lastAccessed = System.currentTimeMillis();
-
             _etag = CachedContentFactory.this._etags ? new PreEncodedHttpField(HttpHeader.ETAG, resource.getWeakETag()) : null;
 
             if (precompressedResources != null)
@@ -463,12 +562,18 @@ public class CachedContentFactory implements HttpContent.ContentFactory
         {
             if (_lastModifiedValue == _resource.lastModified() && _contentLengthValue == _resource.length())
             {
-                _lastAccessed = System.currentTimeMillis();
+                _referenced = true;
                 return true;
             }
 
-            if (this == _cache.remove(_key))
+            if (_cache.remove(_key, this))
+            {
                 invalidate();
+                // The entry is left in the eviction queue, where it is skipped when polled;
+                // purge the queue only when stale entries outnumber the cacheable files.
+                if (_staleEntries.incrementAndGet() > _maxCachedFiles)
+                    purgeStaleEntries();
+            }
             return false;
         }
 
@@ -544,6 +649,9 @@ public class CachedContentFactory implements HttpContent.ContentFactory
         @Override
         public ByteBuffer getIndirectBuffer()
         {
+            if (_useDirectByteBuffers)
+                return getDirectBuffer();
+
             if (_resource.length() > _maxCachedFileSize)
             {
                 return null;
@@ -712,4 +820,85 @@ public class CachedContentFactory implements HttpContent.ContentFactory
             return "Cached" + super.toString();
         }
     }
+
+    /**
+     * <p>A Count-Min sketch of 4-bit counters, used to estimate
+     * the access frequency of cache keys in constant space.</p>
+     * <p>Counters are halved once the number of increments reaches
+     * 10 times the cache capacity, so that the frequencies of keys
+     * that are no longer accessed decay over time.</p>
+     */
+    private static class FrequencySketch
+    {
+        private static final long[] SEEDS = {0xC3A5C85C97CB3127L, 0xB492B66FBE98F273L, 0x9AE16A3B2F90404FL, 0xCBF29CE484222325L};
+        private static final long RESET_MASK = 0x7777_7777_7777_7777L;
+
+        private final AtomicLongArray _table;
+        private final AtomicInteger _increments = new AtomicInteger();
+        private final int _sampleSize;
+
+        private FrequencySketch(int maxEntries)
+        {
+            int capacity = Math.min(Math.max(16, maxEntries), 1 << 24);
+            // Each long holds 16 counters, allocate ~4 counters per entry.
+            _table = new AtomicLongArray(Integer.highestOneBit(capacity - 1) << 1 >> 2);
+            _sampleSize = 10 * capacity;
+        }
+
+        private void increment(String key)
+        {
+            int hash = spread(key.hashCode());
+            for (long seed : SEEDS)
+            {
+                long h = hash * seed;
+                int index = index(h);
+                int shift = shift(h);
+                while (true)
+                {
+                    long value = _table.get(index);
+                    if (((value >>> shift) & 0xF) == 0xF)
+                        break;
+                    if (_table.compareAndSet(index, value, value + (1L << shift)))
+                        break;
+                }
+            }
+
+            int increments = _increments.incrementAndGet();
+            if (increments >= _sampleSize && _increments.compareAndSet(increments, 0))
+            {
+                for (int i = 0; i < _table.length(); ++i)
+                {
+                    _table.getAndUpdate(i, v -> (v >>> 1) & RESET_MASK);
+                }
+            }
+        }
+
+        private int frequency(String key)
+        {
+            int hash = spread(key.hashCode());
+            int frequency = 0xF;
+            for (long seed : SEEDS)
+            {
+                long h = hash * seed;
+                frequency = Math.min(frequency, (int)((_table.get(index(h)) >>> shift(h)) & 0xF));
+            }
+            return frequency;
+        }
+
+        private int index(long h)
+        {
+            return (int)(h >>> 32) & (_table.length() - 1);
+        }
+
+        private int shift(long h)
+        {
+            return ((int)(h >>> 28) & 0xF) << 2;
+        }
+
+        private static int spread(int hash)
+        {
+            hash = ((hash >>> 16) ^ hash) * 0x45D9F3B;
+            return (hash >>> 16) ^ hash;
+        }
+    }
 }
@@ -25,6 +25,7 @@ import org.eclipse.jetty.util.annotation.ManagedObject;
 import org.eclipse.jetty.util.annotation.ManagedOperation;
 import org.eclipse.jetty.util.component.Destroyable;
 import org.eclipse.jetty.util.component.LifeCycle;
+import org.eclipse.jetty.util.thread.Invocable;
 
 /**
  * A Jetty Server Handler.
@@ -43,6 +44,15 @@ import org.eclipse.jetty.util.component.LifeCycle;
  * not Servlets.  The servlet container is implemented by handlers for
  * context, security, session and servlet that modify the request object
  * before passing it to the next stage of handling.
+ * <p>
+ * A Handler that never blocks may also implement {@link Invocable} and return
+ * {@link Invocable.InvocationType#NON_BLOCKING}. When the {@link Server#getHandler() server handler}
+ * is non-blocking, HTTP/1 requests are handled directly by the selector thread that read them,
+ * rather than being dispatched to the thread pool. Such handlers must not perform blocking
+ * reads or writes (for example the response must fit in the output buffer or be written
+ * asynchronously), must not wait on locks held by other requests, and any configured
+ * {@link RequestLog} should write asynchronously, otherwise the selector is stalled.
+ * {@link HandlerCollection}s are non-blocking if all their children are.
  */
 @ManagedObject("Jetty Handler")
 public interface Handler extends LifeCycle, Destroyable
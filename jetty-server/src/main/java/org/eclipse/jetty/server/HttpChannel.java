@@ -888,6 +888,10 @@ public abstract class HttpChannel implements Runnable, HttpOutput.Interceptor
     {
         _requests.incrementAndGet();
         _request.setTimeStamp(System.currentTimeMillis());
+        long headersNanoTime = System.nanoTime();
+        _request.setHeadersNanoTime(headersNanoTime);
+        if (_request.getBeginNanoTime() == 0)
+            _request.setBeginNanoTime(headersNanoTime);
         HttpFields.Mutable fields = _response.getHttpFields();
         if (_configuration.getSendDateHeader() && !fields.contains(HttpHeader.DATE))
             fields.put(_connector.getServer().getDateField());
@@ -1165,6 +1169,11 @@ public abstract class HttpChannel implements Runnable, HttpOutput.Interceptor
         return getHttpConfiguration().isUseOutputDirectByteBuffers();
     }
 
+    public boolean isUseFileMappedOutput()
+    {
+        return getHttpConfiguration().isUseFileMappedOutput();
+    }
+
     /**
      * If a write or similar operation to this channel fails,
      * then this method should be called.
@@ -69,6 +69,7 @@ public class HttpConfiguration implements Dumpable
     private int _maxErrorDispatches = 10;
     private boolean _useInputDirectByteBuffers = true;
     private boolean _useOutputDirectByteBuffers = true;
+    private boolean _useFileMappedOutput = false;
     private long _minRequestDataRate;
     private long _minResponseDataRate;
     private HttpCompliance _httpCompliance = HttpCompliance.RFC7230;
@@ -142,6 +143,7 @@ public class HttpConfiguration implements Dumpable
         _maxErrorDispatches = config._maxErrorDispatches;
         _useInputDirectByteBuffers = config._useInputDirectByteBuffers;
         _useOutputDirectByteBuffers = config._useOutputDirectByteBuffers;
+        _useFileMappedOutput = config._useFileMappedOutput;
         _minRequestDataRate = config._minRequestDataRate;
         _minResponseDataRate = config._minResponseDataRate;
         _httpCompliance = config._httpCompliance;
@@ -365,6 +367,26 @@ public class HttpConfiguration implements Dumpable
         return _useOutputDirectByteBuffers;
     }
 
+    /**
+     * <p>Sets whether content sent from a {@link java.nio.channels.FileChannel} is written
+     * using memory mapped regions of the file rather than being read into pooled buffers.</p>
+     * <p>Memory mapped regions are written directly from the page cache, avoiding the copy
+     * of the file bytes into user space, but the file must not be truncated while it is sent.</p>
+     *
+     * @param useFileMappedOutput whether to use file mapped ByteBuffers for writing file content
+     * @see HttpOutput#sendContent(java.nio.channels.FileChannel, long, long, org.eclipse.jetty.util.Callback)
+     */
+    public void setUseFileMappedOutput(boolean useFileMappedOutput)
+    {
+        _useFileMappedOutput = useFileMappedOutput;
+    }
+
+    @ManagedAttribute("Whether to use file mapped ByteBuffers for writing file content")
+    public boolean isUseFileMappedOutput()
+    {
+        return _useFileMappedOutput;
+    }
+
     /**
      * <p>Sets the {@link Customizer}s that are invoked for every
      * request received.</p>
@@ -40,6 +40,7 @@ import org.eclipse.jetty.io.WriteFlusher;
 import org.eclipse.jetty.util.BufferUtil;
 import org.eclipse.jetty.util.Callback;
 import org.eclipse.jetty.util.IteratingCallback;
+import org.eclipse.jetty.util.thread.Invocable;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -70,6 +71,8 @@ public class HttpConnection extends AbstractConnection implements Runnable, Http
     private final LongAdder bytesOut = new LongAdder();
     private boolean _useInputDirectByteBuffers;
     private boolean _useOutputDirectByteBuffers;
+    private boolean _aggregatePipelinedResponses;
+    private ByteBuffer _pipelinedResponses;
 
     /**
      * Get the current connection that this thread is dispatched to.
@@ -150,6 +153,25 @@ public class HttpConnection extends AbstractConnection implements Runnable, Http
         return _connector;
     }
 
+    /**
+     * <p>Requests are handled by {@link #onFillable()}, so it may only be run by the
+     * selector thread if the {@link Server#getHandler() server handler} is
+     * {@link Invocable.InvocationType#NON_BLOCKING}, see {@link Handler}.</p>
+     * <p>Request content is read with a different callback, so this does not
+     * affect how content is read by handlers that are dispatched to the executor.</p>
+     *
+     * @return {@link Invocable.InvocationType#NON_BLOCKING} if the server handler never blocks,
+     * {@link Invocable.InvocationType#BLOCKING} otherwise
+     */
+    @Override
+    protected Invocable.InvocationType getFillableInvocationType()
+    {
+        Server server = getServer();
+        if (server != null && Invocable.getInvocationType(server.getHandler()) == Invocable.InvocationType.NON_BLOCKING)
+            return Invocable.InvocationType.NON_BLOCKING;
+        return Invocable.InvocationType.BLOCKING;
+    }
+
     public HttpChannel getHttpChannel()
     {
         return _channel;
@@ -197,6 +219,29 @@ public class HttpConnection extends AbstractConnection implements Runnable, Http
         _useOutputDirectByteBuffers = useOutputDirectByteBuffers;
     }
 
+    public boolean isAggregatePipelinedResponses()
+    {
+        return _aggregatePipelinedResponses;
+    }
+
+    /**
+     * <p>Sets whether the responses to pipelined requests are aggregated.</p>
+     * <p>When enabled, a completed response is not written if another request is already
+     * in the input buffer; instead it is copied to an aggregation buffer of
+     * {@link HttpConfiguration#getOutputBufferSize()} bytes that is written together with
+     * the next response, or when there are no more buffered requests to handle, so that
+     * a batch of pipelined requests is answered with a single gathered write.</p>
+     * <p>This is intended for handlers that complete synchronously: the aggregated
+     * responses are held until the next response is written, so a slow or asynchronous
+     * handler of a pipelined request delays the responses to the requests before it.</p>
+     *
+     * @param aggregatePipelinedResponses whether to aggregate the responses to pipelined requests
+     */
+    public void setAggregatePipelinedResponses(boolean aggregatePipelinedResponses)
+    {
+        _aggregatePipelinedResponses = aggregatePipelinedResponses;
+    }
+
     @Override
     public ByteBuffer onUpgradeFrom()
     {
@@ -287,12 +332,13 @@ public class HttpConnection extends AbstractConnection implements Runnable, Http
                 }
                 else if (filled == 0)
                 {
-                    fillInterested();
+                    if (!flushPipelinedResponses(this::fillInterested))
+                        fillInterested();
                     break;
                 }
                 else if (filled < 0)
                 {
-                    if (_channel.getState().isIdle())
+                    if (_channel.getState().isIdle() && !flushPipelinedResponses(getEndPoint()::shutdownOutput))
                         getEndPoint().shutdownOutput();
                     break;
                 }
@@ -323,6 +369,40 @@ public class HttpConnection extends AbstractConnection implements Runnable, Http
         }
     }
 
+    /**
+     * <p>Writes the aggregated responses to pipelined requests, if any.</p>
+     * <p>Only called when no request is being handled, so the write cannot
+     * overlap with the write of a response.</p>
+     *
+     * @param then the task to run once the aggregated responses have been written
+     * @return true if a write was started, in which case {@code then} will be run once it completes
+     */
+    private boolean flushPipelinedResponses(Runnable then)
+    {
+        ByteBuffer responses = _pipelinedResponses;
+        if (BufferUtil.isEmpty(responses))
+            return false;
+        _pipelinedResponses = null;
+        getEndPoint().write(Callback.from(() ->
+        {
+            _bufferPool.release(responses);
+            then.run();
+        }, x ->
+        {
+            _bufferPool.release(responses);
+            getEndPoint().close(x);
+        }), responses);
+        return true;
+    }
+
+    private void releasePipelinedResponses()
+    {
+        ByteBuffer responses = _pipelinedResponses;
+        _pipelinedResponses = null;
+        if (responses != null)
+            _bufferPool.release(responses);
+    }
+
     /**
      * Parse and fill data, looking for content.
      * We do parse first, and only fill if we're out of bytes to avoid unnecessary system calls.
@@ -395,7 +475,14 @@ public class HttpConnection extends AbstractConnection implements Runnable, Http
         if (LOG.isDebugEnabled())
             LOG.debug("{} parse {}", this, _retainableByteBuffer);
 
-        boolean handle = _parser.parseNext(_retainableByteBuffer == null ? BufferUtil.EMPTY_BUFFER : _retainableByteBuffer.getBuffer());
+        ByteBuffer buffer = _retainableByteBuffer == null ? BufferUtil.EMPTY_BUFFER : _retainableByteBuffer.getBuffer();
+
+        // Record when the first byte of a request is available.
+        Request request = _channel.getRequest();
+        if (_parser.isStart() && buffer.hasRemaining() && request.getBeginNanoTime() == 0)
+            request.setBeginNanoTime(System.nanoTime());
+
+        boolean handle = _parser.parseNext(buffer);
 
         if (LOG.isDebugEnabled())
             LOG.debug("{} parsed {} {}", this, handle, _parser);
@@ -551,6 +638,7 @@ public class HttpConnection extends AbstractConnection implements Runnable, Http
             _sendCallback.close();
         else
             _sendCallback.failed(cause);
+        releasePipelinedResponses();
         super.onClose(cause);
     }
 
@@ -697,6 +785,7 @@ public class HttpConnection extends AbstractConnection implements Runnable, Http
         private ByteBuffer _header;
         private ByteBuffer _chunk;
         private boolean _shutdownOut;
+        private ByteBuffer _flushedResponses;
 
         private SendCallback()
         {
@@ -739,6 +828,7 @@ public class HttpConnection extends AbstractConnection implements Runnable, Http
         {
             if (_callback == null)
                 throw new IllegalStateException();
+            releaseFlushedResponses();
 
             boolean useDirectByteBuffers = isUseOutputDirectByteBuffers();
             while (true)
@@ -809,6 +899,22 @@ public class HttpConnection extends AbstractConnection implements Runnable, Http
                             bytes += _content.remaining();
                         }
                         HttpConnection.this.bytesOut.add(bytes);
+
+                        if (aggregate(bytes))
+                        {
+                            succeeded();
+                            return Action.SCHEDULED;
+                        }
+
+                        if (BufferUtil.hasContent(_pipelinedResponses))
+                        {
+                            // Write the responses to the previous pipelined requests before this one.
+                            _flushedResponses = _pipelinedResponses;
+                            _pipelinedResponses = null;
+                            getEndPoint().write(this, _flushedResponses, orEmpty(_header), orEmpty(_chunk), orEmpty(_content));
+                            return Action.SCHEDULED;
+                        }
+
                         switch (gatherWrite)
                         {
                             case 7:
@@ -865,8 +971,64 @@ public class HttpConnection extends AbstractConnection implements Runnable, Http
             }
         }
 
+        /**
+         * <p>Copies the bytes to flush to the pipelined responses buffer, if the response
+         * is complete, another request is already buffered and the bytes fit.</p>
+         *
+         * @param bytes the number of bytes to flush
+         * @return true if the bytes were aggregated and need not be written
+         */
+        private boolean aggregate(long bytes)
+        {
+            if (!isAggregatePipelinedResponses() || !_lastContent || isRequestBufferEmpty())
+                return false;
+            // The connection may be closed, or aborted if the request content is not
+            // fully parsed, once this response completes, which would lose the aggregated responses.
+            if (!_generator.isPersistent() || _shutdownOut || !isRequestContentParsed())
+                return false;
+
+            if (_pipelinedResponses == null)
+                _pipelinedResponses = _bufferPool.acquire(_config.getOutputBufferSize(), isUseOutputDirectByteBuffers());
+            if (bytes > BufferUtil.space(_pipelinedResponses))
+            {
+                if (BufferUtil.isEmpty(_pipelinedResponses))
+                    releasePipelinedResponses();
+                return false;
+            }
+
+            if (_header != null)
+                BufferUtil.append(_pipelinedResponses, _header);
+            if (_chunk != null)
+                BufferUtil.append(_pipelinedResponses, _chunk);
+            if (_content != null)
+                BufferUtil.append(_pipelinedResponses, _content);
+            return true;
+        }
+
+        private boolean isRequestContentParsed()
+        {
+            if (_parser.isComplete())
+                return true;
+            // Requests without content, or with all of their content length parsed,
+            // are only moved to the END state by the next parse.
+            return _parser.isState(HttpParser.State.CONTENT) && _parser.getContentRead() >= Math.max(0, _parser.getContentLength());
+        }
+
+        private ByteBuffer orEmpty(ByteBuffer buffer)
+        {
+            return buffer == null ? BufferUtil.EMPTY_BUFFER : buffer;
+        }
+
+        private void releaseFlushedResponses()
+        {
+            if (_flushedResponses != null)
+                _bufferPool.release(_flushedResponses);
+            _flushedResponses = null;
+        }
+
         private Callback release()
         {
+            releaseFlushedResponses();
             Callback complete = _callback;
             _callback = null;
             _info = null;
@@ -32,6 +32,7 @@ public class HttpConnectionFactory extends AbstractConnectionFactory implements
     private boolean _recordHttpComplianceViolations;
     private boolean _useInputDirectByteBuffers;
     private boolean _useOutputDirectByteBuffers;
+    private boolean _aggregatePipelinedResponses;
 
     public HttpConnectionFactory()
     {
@@ -83,12 +84,28 @@ public class HttpConnectionFactory extends AbstractConnectionFactory implements
         _useOutputDirectByteBuffers = useOutputDirectByteBuffers;
     }
 
+    public boolean isAggregatePipelinedResponses()
+    {
+        return _aggregatePipelinedResponses;
+    }
+
+    /**
+     * @param aggregatePipelinedResponses whether the responses to pipelined requests
+     * are aggregated into fewer writes
+     * @see HttpConnection#setAggregatePipelinedResponses(boolean)
+     */
+    public void setAggregatePipelinedResponses(boolean aggregatePipelinedResponses)
+    {
+        _aggregatePipelinedResponses = aggregatePipelinedResponses;
+    }
+
     @Override
     public Connection newConnection(Connector connector, EndPoint endPoint)
     {
         HttpConnection connection = new HttpConnection(_config, connector, endPoint, isRecordHttpComplianceViolations());
         connection.setUseInputDirectByteBuffers(isUseInputDirectByteBuffers());
         connection.setUseOutputDirectByteBuffers(isUseOutputDirectByteBuffers());
+        connection.setAggregatePipelinedResponses(isAggregatePipelinedResponses());
         return configure(connection, connector, endPoint);
     }
 }
@@ -17,6 +17,7 @@ import java.io.IOException;
 import java.io.InputStream;
 import java.nio.ByteBuffer;
 import java.nio.CharBuffer;
+import java.nio.channels.FileChannel;
 import java.nio.channels.ReadableByteChannel;
 import java.nio.channels.WritePendingException;
 import java.nio.charset.Charset;
@@ -173,6 +174,7 @@ public class HttpOutput extends ServletOutputStream implements Runnable
     }
 
     private static final Logger LOG = LoggerFactory.getLogger(HttpOutput.class);
+    private static final int MAX_MAPPED_BUFFER_SIZE = Integer.MAX_VALUE / 2;
     private static final ThreadLocal<CharsetEncoder> _encoder = new ThreadLocal<>();
 
     private final HttpChannel _channel;
@@ -1166,7 +1168,24 @@ public class HttpOutput extends ServletOutputStream implements Runnable
     {
         try (Blocker blocker = _writeBlocker.acquire())
         {
-            new ReadableByteChannelWritingCB(in, blocker).iterate();
+            newReadableByteChannelWritingCB(in, blocker).iterate();
+            blocker.block();
+        }
+    }
+
+    /**
+     * Blocking send of a region of file content.
+     *
+     * @param in The file channel content to send
+     * @param position The position in the file of the first byte to send
+     * @param length The number of bytes to send
+     * @throws IOException if the send fails
+     */
+    public void sendContent(FileChannel in, long position, long length) throws IOException
+    {
+        try (Blocker blocker = _writeBlocker.acquire())
+        {
+            sendContent(in, position, length, blocker);
             blocker.block();
         }
     }
@@ -1246,7 +1265,34 @@ public class HttpOutput extends ServletOutputStream implements Runnable
             LOG.debug("sendContent(channel={},{})", in, callback);
 
         if (prepareSendContent(0, callback))
-            new ReadableByteChannelWritingCB(in, callback).iterate();
+            newReadableByteChannelWritingCB(in, callback).iterate();
+    }
+
+    /**
+     * <p>Asynchronous send of a region of file content.</p>
+     * <p>The region is written from memory mapped buffers, so that the file
+     * bytes are not copied into user space before being written.</p>
+     * <p>The channel will be closed after writing all the region.</p>
+     *
+     * @param in The file channel content to send
+     * @param position The position in the file of the first byte to send
+     * @param length The number of bytes to send
+     * @param callback The callback to use to notify success or failure
+     */
+    public void sendContent(FileChannel in, long position, long length, Callback callback)
+    {
+        if (LOG.isDebugEnabled())
+            LOG.debug("sendContent(file={},{},{},{})", in, position, length, callback);
+
+        if (prepareSendContent(0, callback))
+            new FileChannelWritingCB(in, position, length, callback).iterate();
+    }
+
+    private IteratingCallback newReadableByteChannelWritingCB(ReadableByteChannel in, Callback callback)
+    {
+        if (in instanceof FileChannel && _channel.isUseFileMappedOutput())
+            return new FileChannelWritingCB((FileChannel)in, -1, -1, callback);
+        return new ReadableByteChannelWritingCB(in, callback);
     }
 
     private boolean prepareSendContent(int len, Callback callback)
@@ -1867,6 +1913,71 @@ public class HttpOutput extends ServletOutputStream implements Runnable
         }
     }
 
+    /**
+     * An iterating callback that will write a region of a
+     * FileChannel to the {@link HttpChannel}.
+     * The region is written as memory mapped {@link ByteBuffer}s, so the
+     * file bytes are written from the page cache without being copied
+     * into a pooled buffer.
+     * A negative position writes from the current position of the channel to its end.
+     * This callback is passed to the {@link HttpChannel#write(ByteBuffer, boolean, Callback)} to
+     * be notified as each mapped buffer is written and only once all the region is written will the
+     * wrapped {@link Callback#succeeded()} method be called.
+     */
+    private class FileChannelWritingCB extends NestedChannelWriteCB
+    {
+        private final FileChannel _in;
+        private long _position;
+        private long _end;
+        private boolean _eof;
+
+        private FileChannelWritingCB(FileChannel in, long position, long length, Callback callback)
+        {
+            super(callback, true);
+            _in = in;
+            _position = position;
+            _end = position + length;
+        }
+
+        @Override
+        protected Action process() throws Exception
+        {
+            if (_position < 0)
+            {
+                _position = _in.position();
+                _end = _in.size();
+            }
+
+            if (_eof)
+            {
+                if (LOG.isDebugEnabled())
+                    LOG.debug("EOF of {}", this);
+                return Action.SUCCEEDED;
+            }
+
+            long length = Math.min(MAX_MAPPED_BUFFER_SIZE, _end - _position);
+            ByteBuffer buffer = length > 0 ? _in.map(FileChannel.MapMode.READ_ONLY, _position, length) : BufferUtil.EMPTY_BUFFER;
+            _position += length;
+            _eof = _position >= _end;
+
+            // A mapped buffer remains valid after its channel is closed
+            if (_eof)
+                IO.close(_in);
+
+            _written += length;
+            channelWrite(buffer, _eof, this);
+
+            return Action.SCHEDULED;
+        }
+
+        @Override
+        public void onCompleteFailure(Throwable x)
+        {
+            IO.close(_in);
+            super.onCompleteFailure(x);
+        }
+    }
+
     private static class WriteBlocker extends SharedBlockingCallback
     {
         private final HttpChannel _channel;
@@ -0,0 +1,291 @@
+//
+// ========================================================================
+// Copyright (c) 1995-2022 Mort Bay Consulting Pty Ltd and others.
+//
+// This program and the accompanying materials are made available under the
+// terms of the Eclipse Public License v. 2.0 which is available at
+// https://www.eclipse.org/legal/epl-2.0, or the Apache License, Version 2.0
+// which is available at https://www.apache.org/licenses/LICENSE-2.0.
+//
+// SPDX-License-Identifier: EPL-2.0 OR Apache-2.0
+// ========================================================================
+//
+
+package org.eclipse.jetty.server;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.jetty.http.pathmap.MatchedResource;
+import org.eclipse.jetty.http.pathmap.PathMappings;
+import org.eclipse.jetty.util.annotation.ManagedAttribute;
+import org.eclipse.jetty.util.annotation.ManagedObject;
+import org.eclipse.jetty.util.component.ContainerLifeCycle;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * <p>A {@link RequestLog} that writes one JSON object per request, in the
+ * <a href="http://ndjson.org/">newline delimited JSON</a> format, so that
+ * request logs can be ingested by analytics tools without being parsed.</p>
+ * <p>Each entry contains the following fields, omitted when not available:</p>
+ * <ul>
+ * <li>{@code timestamp}: the time the request began, in milliseconds since the epoch</li>
+ * <li>{@code client}: the address of the client</li>
+ * <li>{@code method}, {@code uri}, {@code protocol}: the request line</li>
+ * <li>{@code status}: the response status</li>
+ * <li>{@code bytesIn}, {@code bytesOut}: the request and response content bytes</li>
+ * <li>{@code referer}, {@code userAgent}: the request headers</li>
+ * <li>{@code sampleRate}: the sample rate the entry was logged with, when less than 1</li>
+ * <li>{@code timing}: the microseconds elapsed since the request began when the request
+ * content ended ({@code requestEnd}), the request was dispatched to the application
+ * ({@code dispatch}), the response was committed ({@code commit}) and the request
+ * completed ({@code complete})</li>
+ * </ul>
+ * <p>The {@code timing} field is recorded by this class as a {@link HttpChannel.Listener},
+ * so it is only present if this request log is also added as a bean to the connectors.</p>
+ * <p>Entries may be sampled, with a {@link #setSampleRate(double) default rate} that can be
+ * overridden {@link #setPathSampleRate(String, double) per path spec} and
+ * {@link #setStatusSampleRate(int, double) per status}, the latter having precedence.</p>
+ */
+@ManagedObject("JSON Request Log")
+public class JsonRequestLog extends ContainerLifeCycle implements RequestLog, HttpChannel.Listener
+{
+    private static final Logger LOG = LoggerFactory.getLogger(JsonRequestLog.class);
+    private static final String TIMING_ATTRIBUTE = JsonRequestLog.class.getName() + ".timing";
+    private static final int BEGIN = 0;
+    private static final int REQUEST_END = 1;
+    private static final int DISPATCH = 2;
+    private static final int COMMIT = 3;
+    private static final ThreadLocal<StringBuilder> _buffers = ThreadLocal.withInitial(() -> new StringBuilder(512));
+
+    private final RequestLog.Writer _requestLogWriter;
+    private final PathMappings<Double> _pathSampleRates = new PathMappings<>();
+    private final Map<Integer, Double> _statusSampleRates = new HashMap<>();
+    private double _sampleRate = 1.0D;
+
+    public JsonRequestLog()
+    {
+        this(new Slf4jRequestLogWriter());
+    }
+
+    public JsonRequestLog(String file)
+    {
+        this(new RequestLogWriter(file));
+    }
+
+    public JsonRequestLog(RequestLog.Writer writer)
+    {
+        _requestLogWriter = writer;
+        addBean(_requestLogWriter);
+    }
+
+    @ManagedAttribute("The RequestLogWriter")
+    public RequestLog.Writer getWriter()
+    {
+        return _requestLogWriter;
+    }
+
+    /**
+     * @return the rate at which requests are logged when no path or status rate applies
+     */
+    @ManagedAttribute("The default sample rate")
+    public double getSampleRate()
+    {
+        return _sampleRate;
+    }
+
+    /**
+     * @param sampleRate the rate, between 0 and 1, at which requests are logged when no path or status rate applies
+     */
+    public void setSampleRate(double sampleRate)
+    {
+        _sampleRate = checkSampleRate(sampleRate);
+    }
+
+    /**
+     * @param pathSpec the path spec matched against the request URI
+     * @param sampleRate the rate, between 0 and 1, at which matching requests are logged
+     */
+    public void setPathSampleRate(String pathSpec, double sampleRate)
+    {
+        _pathSampleRates.put(pathSpec, checkSampleRate(sampleRate));
+    }
+
+    /**
+     * @param status either a response status such as {@code 404}, or a status class
+     * between 1 and 5 such as {@code 5} for all the {@code 5xx} statuses
+     * @param sampleRate the rate, between 0 and 1, at which requests with the status are logged
+     */
+    public void setStatusSampleRate(int status, double sampleRate)
+    {
+        if (status < 1 || status > 5 && (status < 100 || status > 599))
+            throw new IllegalArgumentException("Invalid status " + status);
+        _statusSampleRates.put(status, checkSampleRate(sampleRate));
+    }
+
+    private static double checkSampleRate(double sampleRate)
+    {
+        if (!(sampleRate >= 0.0D && sampleRate <= 1.0D))
+            throw new IllegalArgumentException("Invalid sample rate " + sampleRate);
+        return sampleRate;
+    }
+
+    /**
+     * @param request the request
+     * @param status the response status
+     * @return the rate at which the request is logged
+     */
+    protected double getSampleRate(Request request, int status)
+    {
+        if (!_statusSampleRates.isEmpty())
+        {
+            Double rate = _statusSampleRates.get(status);
+            if (rate == null)
+                rate = _statusSampleRates.get(status / 100);
+            if (rate != null)
+                return rate;
+        }
+        if (_pathSampleRates.size() > 0)
+        {
+            MatchedResource<Double> matched = _pathSampleRates.getMatched(request.getRequestURI());
+            if (matched != null)
+                return matched.getResource();
+        }
+        return _sampleRate;
+    }
+
+    @Override
+    public void onRequestBegin(Request request)
+    {
+        long[] timing = new long[COMMIT + 1];
+        timing[BEGIN] = System.nanoTime();
+        request.setAttribute(TIMING_ATTRIBUTE, timing);
+    }
+
+    @Override
+    public void onRequestEnd(Request request)
+    {
+        record(request, REQUEST_END);
+    }
+
+    @Override
+    public void onBeforeDispatch(Request request)
+    {
+        record(request, DISPATCH);
+    }
+
+    @Override
+    public void onResponseCommit(Request request)
+    {
+        record(request, COMMIT);
+    }
+
+    private static void record(Request request, int phase)
+    {
+        Object timing = request.getAttribute(TIMING_ATTRIBUTE);
+        if (timing instanceof long[])
+        {
+            long[] phases = (long[])timing;
+            if (phases[phase] == 0)
+                phases[phase] = System.nanoTime();
+        }
+    }
+
+    @Override
+    public void log(Request request, Response response)
+    {
+        try
+        {
+            int status = response.getCommittedMetaData().getStatus();
+            double sampleRate = getSampleRate(request, status);
+            if (sampleRate < 1.0D && (sampleRate == 0.0D || ThreadLocalRandom.current().nextDouble() >= sampleRate))
+                return;
+
+            StringBuilder b = _buffers.get();
+            b.setLength(0);
+            b.append("{\"timestamp\":").append(request.getTimeStamp());
+            appendField(b, "client", request.getRemoteHost());
+            appendField(b, "method", request.getMethod());
+            appendField(b, "uri", request.getOriginalURI());
+            appendField(b, "protocol", request.getProtocol());
+            b.append(",\"status\":").append(status);
+            b.append(",\"bytesIn\":").append(request.getHttpInput().getContentReceived());
+            b.append(",\"bytesOut\":").append(response.getHttpChannel().getBytesWritten());
+            appendField(b, "referer", request.getHeader("Referer"));
+            appendField(b, "userAgent", request.getHeader("User-Agent"));
+            if (sampleRate < 1.0D)
+                b.append(",\"sampleRate\":").append(sampleRate);
+            appendTiming(b, request);
+            b.append('}');
+
+            _requestLogWriter.write(b.toString());
+        }
+        catch (Throwable x)
+        {
+            LOG.warn("Unable to log request", x);
+        }
+    }
+
+    private static void appendTiming(StringBuilder b, Request request)
+    {
+        Object timing = request.getAttribute(TIMING_ATTRIBUTE);
+        if (!(timing instanceof long[]))
+            return;
+        long[] phases = (long[])timing;
+        long begin = phases[BEGIN];
+        b.append(",\"timing\":{");
+        appendPhase(b, "requestEnd", begin, phases[REQUEST_END]);
+        appendPhase(b, "dispatch", begin, phases[DISPATCH]);
+        appendPhase(b, "commit", begin, phases[COMMIT]);
+        appendPhase(b, "complete", begin, System.nanoTime());
+        b.append('}');
+    }
+
+    private static void appendPhase(StringBuilder b, String name, long begin, long time)
+    {
+        if (time == 0)
+            return;
+        if (b.charAt(b.length() - 1) != '{')
+            b.append(',');
+        b.append('"').append(name).append("\":").append(TimeUnit.NANOSECONDS.toMicros(time - begin));
+    }
+
+    private static void appendField(StringBuilder b, String name, String value)
+    {
+        if (value == null)
+            return;
+        b.append(",\"").append(name).append("\":\"");
+        for (int i = 0; i < value.length(); ++i)
+        {
+            char c = value.charAt(i);
+            switch (c)
+            {
+                case '"':
+                    b.append("\\\"");
+                    break;
+                case '\\':
+                    b.append("\\\\");
+                    break;
+                case '\n':
+                    b.append("\\n");
+                    break;
+                case '\r':
+                    b.append("\\r");
+                    break;
+                case '\t':
+                    b.append("\\t");
+                    break;
+                default:
+                    if (c < 0x20 || c == 0x7F)
+                        b.append(String.format("\\u%04x", (int)c));
+                    else
+                        b.append(c);
+                    break;
+            }
+        }
+        b.append('"');
+    }
+}
@@ -230,6 +230,8 @@ public class Request implements HttpServletRequest
     private HttpSession _session;
     private SessionHandler _sessionHandler;
     private long _timeStamp;
+    private long _beginNanoTime;
+    private long _headersNanoTime;
     private MultiParts _multiParts; //if the request is a multi-part mime
     private AsyncContextState _async;
     private List<Session> _sessions; //list of sessions used during lifetime of request
@@ -1569,6 +1571,38 @@ public class Request implements HttpServletRequest
         return _timeStamp;
     }
 
+    /**
+     * <p>Returns the {@link System#nanoTime()} at which the transport started to receive
+     * the request, or the {@link #getHeadersNanoTime() headers nanoTime} if the transport
+     * does not record it.</p>
+     * <p>This value can only be used to measure latencies, not to obtain a wall clock time.</p>
+     *
+     * @return the nanoTime at which the request began
+     */
+    public long getBeginNanoTime()
+    {
+        return _beginNanoTime;
+    }
+
+    void setBeginNanoTime(long beginNanoTime)
+    {
+        _beginNanoTime = beginNanoTime;
+    }
+
+    /**
+     * @return the {@link System#nanoTime()} at which the request headers were received
+     * @see #getBeginNanoTime()
+     */
+    public long getHeadersNanoTime()
+    {
+        return _headersNanoTime;
+    }
+
+    void setHeadersNanoTime(long headersNanoTime)
+    {
+        _headersNanoTime = headersNanoTime;
+    }
+
     public HttpURI getHttpURI()
     {
         return _uri;
@@ -1865,6 +1899,8 @@ public class Request implements HttpServletRequest
         _session = null;
         _sessionHandler = null;
         _timeStamp = 0;
+        _beginNanoTime = 0;
+        _headersNanoTime = 0;
         _multiParts = null;
         if (_async != null)
             _async.reset();
@@ -0,0 +1,306 @@
+//
+// ========================================================================
+// Copyright (c) 1995-2022 Mort Bay Consulting Pty Ltd and others.
+//
+// This program and the accompanying materials are made available under the
+// terms of the Eclipse Public License v. 2.0 which is available at
+// https://www.eclipse.org/legal/epl-2.0, or the Apache License, Version 2.0
+// which is available at https://www.apache.org/licenses/LICENSE-2.0.
+//
+// SPDX-License-Identifier: EPL-2.0 OR Apache-2.0
+// ========================================================================
+//
+
+package org.eclipse.jetty.server;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import javax.servlet.DispatcherType;
+
+import org.eclipse.jetty.server.handler.ContextHandler;
+import org.eclipse.jetty.server.handler.ContextHandler.Context;
+import org.eclipse.jetty.server.handler.ContextHandler.ContextScopeListener;
+import org.eclipse.jetty.util.annotation.ManagedAttribute;
+import org.eclipse.jetty.util.annotation.ManagedObject;
+import org.eclipse.jetty.util.annotation.ManagedOperation;
+import org.eclipse.jetty.util.component.ContainerLifeCycle;
+import org.eclipse.jetty.util.statistic.HistogramStatistic;
+
+/**
+ * <p>Records histograms of the time spent by requests in each phase of their processing,
+ * from the {@link HttpChannel.Listener} events:</p>
+ * <ul>
+ * <li>{@link Phase#PARSE}: from when the transport started receiving the request to when its headers were parsed</li>
+ * <li>{@link Phase#QUEUE}: from when the request headers were parsed to the initial dispatch to the application</li>
+ * <li>{@link Phase#HANDLE}: the time spent in each dispatch to the application</li>
+ * <li>{@link Phase#FIRST_BYTE}: from the begin of the request to the commit of the response</li>
+ * <li>{@link Phase#TOTAL}: from the begin of the request to its completion</li>
+ * </ul>
+ * <p>Times are recorded in microseconds, in lock-free histograms that do not allocate, and are broken
+ * down by connector and, when this object is also added as an event listener to contexts, by context.
+ * Since the context of a request is only known once the request is dispatched, the context timings
+ * only record the {@link Phase#HANDLE}, {@link Phase#FIRST_BYTE} and {@link Phase#TOTAL} phases.</p>
+ * <p>Typical usage is:</p>
+ * <pre>
+ * RequestTimingStatistics timings = new RequestTimingStatistics();
+ * server.addBean(timings);
+ * server.addBeanToAllConnectors(timings);
+ * contextHandler.addEventListener(timings);
+ * </pre>
+ * <p>The timings of each connector and context are added as beans of this object, so that they
+ * are exported via JMX.</p>
+ */
+@ManagedObject("Request phase timing statistics")
+public class RequestTimingStatistics extends ContainerLifeCycle implements HttpChannel.Listener, ContextScopeListener
+{
+    private static final ThreadLocal<long[]> _dispatchNanoTime = ThreadLocal.withInitial(() -> new long[1]);
+
+    private final String _contextAttribute = String.format("%s@%x.context", getClass().getName(), System.identityHashCode(this));
+    private final Map<Object, Timings> _timings = new ConcurrentHashMap<>();
+
+    /**
+     * @param connector the connector
+     * @return the timings of the requests received by the given connector, or null if there are none
+     */
+    public Timings getTimings(Connector connector)
+    {
+        return _timings.get(connector);
+    }
+
+    /**
+     * @param contextHandler the context handler
+     * @return the timings of the requests handled by the given context, or null if there are none
+     */
+    public Timings getTimings(ContextHandler contextHandler)
+    {
+        return _timings.get(contextHandler);
+    }
+
+    @ManagedOperation(value = "resets the statistics", impact = "ACTION")
+    public void reset()
+    {
+        _timings.values().forEach(Timings::reset);
+    }
+
+    private Timings timingsOf(Object key)
+    {
+        Timings timings = _timings.get(key);
+        if (timings == null)
+        {
+            timings = _timings.computeIfAbsent(key, k ->
+            {
+                if (k instanceof ContextHandler)
+                    return new Timings("context:" + ((ContextHandler)k).getContextPath());
+                String name = ((Connector)k).getName();
+                return new Timings("connector:" + (name == null ? k : name));
+            });
+            addBean(timings);
+        }
+        return timings;
+    }
+
+    private Timings contextTimingsOf(Request request)
+    {
+        Object context = request.getAttribute(_contextAttribute);
+        return context == null ? null : timingsOf(context);
+    }
+
+    @Override
+    public void onRequestBegin(Request request)
+    {
+        Timings timings = timingsOf(request.getHttpChannel().getConnector());
+        timings.record(Phase.PARSE, request.getHeadersNanoTime() - request.getBeginNanoTime());
+    }
+
+    @Override
+    public void onBeforeDispatch(Request request)
+    {
+        long now = System.nanoTime();
+        _dispatchNanoTime.get()[0] = now;
+        if (request.getDispatcherType() == DispatcherType.REQUEST)
+            timingsOf(request.getHttpChannel().getConnector()).record(Phase.QUEUE, now - request.getHeadersNanoTime());
+    }
+
+    @Override
+    public void onAfterDispatch(Request request)
+    {
+        long handle = System.nanoTime() - _dispatchNanoTime.get()[0];
+        timingsOf(request.getHttpChannel().getConnector()).record(Phase.HANDLE, handle);
+        Timings context = contextTimingsOf(request);
+        if (context != null)
+            context.record(Phase.HANDLE, handle);
+    }
+
+    @Override
+    public void onResponseCommit(Request request)
+    {
+        recordSinceBegin(request, Phase.FIRST_BYTE);
+    }
+
+    @Override
+    public void onComplete(Request request)
+    {
+        recordSinceBegin(request, Phase.TOTAL);
+    }
+
+    private void recordSinceBegin(Request request, Phase phase)
+    {
+        long elapsed = System.nanoTime() - request.getBeginNanoTime();
+        timingsOf(request.getHttpChannel().getConnector()).record(phase, elapsed);
+        Timings context = contextTimingsOf(request);
+        if (context != null)
+            context.record(phase, elapsed);
+    }
+
+    @Override
+    public void enterScope(Context context, Request request, Object reason)
+    {
+        if (request != null && request.getAttribute(_contextAttribute) == null)
+            request.setAttribute(_contextAttribute, context.getContextHandler());
+    }
+
+    @Override
+    public void exitScope(Context context, Request request)
+    {
+    }
+
+    /**
+     * The phases of the processing of a request.
+     */
+    public enum Phase
+    {
+        PARSE, QUEUE, HANDLE, FIRST_BYTE, TOTAL
+    }
+
+    /**
+     * <p>The histograms of the phase times of the requests received by a connector or handled by a context.</p>
+     */
+    @ManagedObject("Request phase timings")
+    public static class Timings
+    {
+        private final String _name;
+        private final HistogramStatistic[] _histograms = new HistogramStatistic[Phase.values().length];
+
+        private Timings(String name)
+        {
+            _name = name;
+            for (int i = 0; i < _histograms.length; ++i)
+            {
+                _histograms[i] = new HistogramStatistic();
+            }
+        }
+
+        @ManagedAttribute("The connector or context of these timings")
+        public String getName()
+        {
+            return _name;
+        }
+
+        /**
+         * @param phase the phase
+         * @return the histogram of the times, in microseconds, of the given phase
+         */
+        public HistogramStatistic getHistogram(Phase phase)
+        {
+            return _histograms[phase.ordinal()];
+        }
+
+        private void record(Phase phase, long nanos)
+        {
+            getHistogram(phase).record(TimeUnit.NANOSECONDS.toMicros(nanos));
+        }
+
+        private void reset()
+        {
+            for (HistogramStatistic histogram : _histograms)
+            {
+                histogram.reset();
+            }
+        }
+
+        /**
+         * @param phase the name of the phase
+         * @param percentile the percentile, between 0 and 100
+         * @return the time in microseconds at the given percentile for the given phase
+         */
+        @ManagedOperation(value = "time (in us) at the given percentile for the given phase", impact = "INFO")
+        public long getTimeAtPercentile(String phase, double percentile)
+        {
+            return getHistogram(Phase.valueOf(phase)).getValueAtPercentile(percentile);
+        }
+
+        @ManagedAttribute("median parse time (in us)")
+        public long getParseTimeMedian()
+        {
+            return getHistogram(Phase.PARSE).getMedian();
+        }
+
+        @ManagedAttribute("99th percentile of parse time (in us)")
+        public long getParseTime99thPercentile()
+        {
+            return getHistogram(Phase.PARSE).getValueAtPercentile(99.0D);
+        }
+
+        @ManagedAttribute("median queue time before dispatch (in us)")
+        public long getQueueTimeMedian()
+        {
+            return getHistogram(Phase.QUEUE).getMedian();
+        }
+
+        @ManagedAttribute("99th percentile of queue time before dispatch (in us)")
+        public long getQueueTime99thPercentile()
+        {
+            return getHistogram(Phase.QUEUE).getValueAtPercentile(99.0D);
+        }
+
+        @ManagedAttribute("median handle time (in us)")
+        public long getHandleTimeMedian()
+        {
+            return getHistogram(Phase.HANDLE).getMedian();
+        }
+
+        @ManagedAttribute("99th percentile of handle time (in us)")
+        public long getHandleTime99thPercentile()
+        {
+            return getHistogram(Phase.HANDLE).getValueAtPercentile(99.0D);
+        }
+
+        @ManagedAttribute("median time to first byte (in us)")
+        public long getFirstByteTimeMedian()
+        {
+            return getHistogram(Phase.FIRST_BYTE).getMedian();
+        }
+
+        @ManagedAttribute("99th percentile of time to first byte (in us)")
+        public long getFirstByteTime99thPercentile()
+        {
+            return getHistogram(Phase.FIRST_BYTE).getValueAtPercentile(99.0D);
+        }
+
+        @ManagedAttribute("median total time (in us)")
+        public long getTotalTimeMedian()
+        {
+            return getHistogram(Phase.TOTAL).getMedian();
+        }
+
+        @ManagedAttribute("99th percentile of total time (in us)")
+        public long getTotalTime99thPercentile()
+        {
+            return getHistogram(Phase.TOTAL).getValueAtPercentile(99.0D);
+        }
+
+        @Override
+        public String toString()
+        {
+            StringBuilder builder = new StringBuilder();
+            builder.append(getClass().getSimpleName()).append('[').append(_name).append(']');
+            for (Phase phase : Phase.values())
+            {
+                HistogramStatistic histogram = getHistogram(phase);
+                builder.append(String.format("{%s:count=%d,p50=%d,p99=%d}", phase, histogram.getCount(), histogram.getMedian(), histogram.getValueAtPercentile(99.0D)));
+            }
+            return builder.toString();
+        }
+    }
+}
@@ -18,6 +18,8 @@ import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
 import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.InvalidPathException;
 import java.util.Collection;
@@ -771,6 +773,9 @@ public class ResourceService
                     response.addDateHeader(HttpHeader.DATE.asString(), System.currentTimeMillis());
                 response.setHeader(HttpHeader.CONTENT_RANGE.asString(),
                     singleSatisfiableRange.toHeaderRangeString(content_length));
+                // write the range from a file mapped region if possible
+                if (!written && out instanceof HttpOutput && sendMappedContent(content, (HttpOutput)out, singleSatisfiableRange.getFirst(), singleLength))
+                    return true;
                 writeContent(content, out, singleSatisfiableRange.getFirst(), singleLength);
                 return true;
             }
@@ -838,6 +843,22 @@ public class ResourceService
         return true;
     }
 
+    private static boolean sendMappedContent(HttpContent content, HttpOutput out, long start, long contentLength) throws IOException
+    {
+        if (!out.getHttpChannel().isUseFileMappedOutput())
+            return false;
+
+        ReadableByteChannel channel = content.getReadableByteChannel();
+        if (channel instanceof FileChannel)
+        {
+            // Close of the channel is done by sendContent
+            out.sendContent((FileChannel)channel, start, contentLength);
+            return true;
+        }
+        IO.close(channel);
+        return false;
+    }
+
     private static void writeContent(HttpContent content, OutputStream out, long start, long contentLength) throws IOException
     {
         // Is the write for the whole content?
@@ -331,7 +331,7 @@ public class ServerConnector extends AbstractNetworkConnector
         if (serverChannel == null)
         {
             InetSocketAddress bindAddress = getHost() == null ? new InetSocketAddress(getPort()) : new InetSocketAddress(getHost(), getPort());
-            serverChannel = ServerSocketChannel.open();
+            serverChannel = _manager.getSelectorProvider().openServerSocketChannel();
             setSocketOption(serverChannel, StandardSocketOptions.SO_REUSEADDR, getReuseAddress());
             setSocketOption(serverChannel, StandardSocketOptions.SO_REUSEPORT, isReusePort());
             try
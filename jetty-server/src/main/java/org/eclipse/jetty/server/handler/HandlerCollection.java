@@ -28,6 +28,7 @@ import org.eclipse.jetty.util.ArrayUtil;
 import org.eclipse.jetty.util.MultiException;
 import org.eclipse.jetty.util.annotation.ManagedAttribute;
 import org.eclipse.jetty.util.annotation.ManagedObject;
+import org.eclipse.jetty.util.thread.Invocable;
 
 /**
  * A collection of handlers.
@@ -36,9 +37,12 @@ import org.eclipse.jetty.util.annotation.ManagedObject;
  * regardless of the response status or exceptions. Derived implementation
  * may alter the order or the conditions of calling the contained
  * handlers.
+ * <p>
+ * A collection is {@link Invocable.InvocationType#NON_BLOCKING non-blocking}
+ * only if it has handlers and all of them are non-blocking.
  */
 @ManagedObject("Handler of multiple handlers")
-public class HandlerCollection extends AbstractHandlerContainer
+public class HandlerCollection extends AbstractHandlerContainer implements Invocable
 {
     private final boolean _mutableWhenRunning;
     protected final AtomicReference<Handlers> _handlers = new AtomicReference<>();
@@ -71,6 +75,20 @@ public class HandlerCollection extends AbstractHandlerContainer
         return handlers == null ? null : handlers._handlers;
     }
 
+    @Override
+    public InvocationType getInvocationType()
+    {
+        Handler[] handlers = getHandlers();
+        if (handlers == null || handlers.length == 0)
+            return InvocationType.BLOCKING;
+        InvocationType type = InvocationType.NON_BLOCKING;
+        for (Handler handler : handlers)
+        {
+            type = Invocable.combine(type, Invocable.getInvocationType(handler));
+        }
+        return type;
+    }
+
     /**
      * @param handlers the array of handlers to set.
      */
@@ -34,7 +34,7 @@ import org.eclipse.jetty.util.annotation.ManagedObject;
 import org.eclipse.jetty.util.annotation.ManagedOperation;
 import org.eclipse.jetty.util.component.Graceful;
 import org.eclipse.jetty.util.statistic.CounterStatistic;
-import org.eclipse.jetty.util.statistic.SampleStatistic;
+import org.eclipse.jetty.util.statistic.HistogramStatistic;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -46,9 +46,9 @@ public class StatisticsHandler extends HandlerWrapper implements Graceful
     private final Shutdown _shutdown;
 
     private final CounterStatistic _requestStats = new CounterStatistic();
-    private final SampleStatistic _requestTimeStats = new SampleStatistic();
+    private final HistogramStatistic _requestTimeStats = new HistogramStatistic();
     private final CounterStatistic _dispatchedStats = new CounterStatistic();
-    private final SampleStatistic _dispatchedTimeStats = new SampleStatistic();
+    private final HistogramStatistic _dispatchedTimeStats = new HistogramStatistic();
     private final CounterStatistic _asyncWaitStats = new CounterStatistic();
 
     private final LongAdder _asyncDispatches = new LongAdder();
@@ -360,6 +360,46 @@ public class StatisticsHandler extends HandlerWrapper implements Graceful
         return _requestTimeStats.getStdDev();
     }
 
+    /**
+     * @return the median time (in milliseconds) of request handling
+     * since {@link #statsReset()} was last called.
+     */
+    @ManagedAttribute("median time spent handling requests (in ms)")
+    public long getRequestTimeMedian()
+    {
+        return _requestTimeStats.getValueAtPercentile(50.0D);
+    }
+
+    /**
+     * @return the 99th percentile of time (in milliseconds) of request handling
+     * since {@link #statsReset()} was last called.
+     */
+    @ManagedAttribute("99th percentile of time spent handling requests (in ms)")
+    public long getRequestTime99thPercentile()
+    {
+        return _requestTimeStats.getValueAtPercentile(99.0D);
+    }
+
+    /**
+     * @return the 99.9th percentile of time (in milliseconds) of request handling
+     * since {@link #statsReset()} was last called.
+     */
+    @ManagedAttribute("99.9th percentile of time spent handling requests (in ms)")
+    public long getRequestTime999thPercentile()
+    {
+        return _requestTimeStats.getValueAtPercentile(99.9D);
+    }
+
+    /**
+     * @param percentile the percentile, between 0 and 100 inclusive
+     * @return the time (in milliseconds) of request handling at the given percentile
+     * since {@link #statsReset()} was last called.
+     */
+    public long getRequestTimeAtPercentile(double percentile)
+    {
+        return _requestTimeStats.getValueAtPercentile(percentile);
+    }
+
     /**
      * @return the number of dispatches seen by this handler
      * since {@link #statsReset()} was last called, excluding
@@ -437,6 +477,46 @@ public class StatisticsHandler extends HandlerWrapper implements Graceful
         return _dispatchedTimeStats.getStdDev();
     }
 
+    /**
+     * @return the median time (in milliseconds) of request dispatch
+     * since {@link #statsReset()} was last called.
+     */
+    @ManagedAttribute("median time spent in dispatch handling (in ms)")
+    public long getDispatchedTimeMedian()
+    {
+        return _dispatchedTimeStats.getValueAtPercentile(50.0D);
+    }
+
+    /**
+     * @return the 99th percentile of time (in milliseconds) of request dispatch
+     * since {@link #statsReset()} was last called.
+     */
+    @ManagedAttribute("99th percentile of time spent in dispatch handling (in ms)")
+    public long getDispatchedTime99thPercentile()
+    {
+        return _dispatchedTimeStats.getValueAtPercentile(99.0D);
+    }
+
+    /**
+     * @return the 99.9th percentile of time (in milliseconds) of request dispatch
+     * since {@link #statsReset()} was last called.
+     */
+    @ManagedAttribute("99.9th percentile of time spent in dispatch handling (in ms)")
+    public long getDispatchedTime999thPercentile()
+    {
+        return _dispatchedTimeStats.getValueAtPercentile(99.9D);
+    }
+
+    /**
+     * @param percentile the percentile, between 0 and 100 inclusive
+     * @return the time (in milliseconds) of request dispatch at the given percentile
+     * since {@link #statsReset()} was last called.
+     */
+    public long getDispatchedTimeAtPercentile(double percentile)
+    {
+        return _dispatchedTimeStats.getValueAtPercentile(percentile);
+    }
+
     /**
      * @return the number of requests handled by this handler
      * since {@link #statsReset()} was last called, including
@@ -593,6 +673,9 @@ public class StatisticsHandler extends HandlerWrapper implements Graceful
         sb.append("Mean request time: ").append(getRequestTimeMean()).append("<br />\n");
         sb.append("Max request time: ").append(getRequestTimeMax()).append("<br />\n");
         sb.append("Request time standard deviation: ").append(getRequestTimeStdDev()).append("<br />\n");
+        sb.append("Median request time: ").append(getRequestTimeMedian()).append("<br />\n");
+        sb.append("99th percentile request time: ").append(getRequestTime99thPercentile()).append("<br />\n");
+        sb.append("99.9th percentile request time: ").append(getRequestTime999thPercentile()).append("<br />\n");
 
         sb.append("<h2>Dispatches:</h2>\n");
         sb.append("Total dispatched: ").append(getDispatched()).append("<br />\n");
@@ -602,6 +685,9 @@ public class StatisticsHandler extends HandlerWrapper implements Graceful
         sb.append("Mean dispatched time: ").append(getDispatchedTimeMean()).append("<br />\n");
         sb.append("Max dispatched time: ").append(getDispatchedTimeMax()).append("<br />\n");
         sb.append("Dispatched time standard deviation: ").append(getDispatchedTimeStdDev()).append("<br />\n");
+        sb.append("Median dispatched time: ").append(getDispatchedTimeMedian()).append("<br />\n");
+        sb.append("99th percentile dispatched time: ").append(getDispatchedTime99thPercentile()).append("<br />\n");
+        sb.append("99.9th percentile dispatched time: ").append(getDispatchedTime999thPercentile()).append("<br />\n");
 
         sb.append("Total requests suspended: ").append(getAsyncRequests()).append("<br />\n");
         sb.append("Total requests expired: ").append(getExpires()).append("<br />\n");
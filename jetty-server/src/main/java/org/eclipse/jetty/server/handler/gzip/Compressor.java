@@ -0,0 +1,63 @@
+//
+// ========================================================================
+// Copyright (c) 1995-2022 Mort Bay Consulting Pty Ltd and others.
+//
+// This program and the accompanying materials are made available under the
+// terms of the Eclipse Public License v. 2.0 which is available at
+// https://www.eclipse.org/legal/epl-2.0, or the Apache License, Version 2.0
+// which is available at https://www.apache.org/licenses/LICENSE-2.0.
+//
+// SPDX-License-Identifier: EPL-2.0 OR Apache-2.0
+// ========================================================================
+//
+
+package org.eclipse.jetty.server.handler.gzip;
+
+import java.nio.ByteBuffer;
+
+import org.eclipse.jetty.http.CompressedContentFormat;
+
+/**
+ * <p>Compresses the content of a single response with a content coding.</p>
+ * <p>Content is passed with {@link #setInput(ByteBuffer, boolean)} and
+ * compressed into output buffers with {@link #compress(ByteBuffer, boolean)}
+ * until more input is needed or, after the last input, until the compressed
+ * stream, including any framing of the coding, is complete.</p>
+ *
+ * @see CompressorFactory
+ */
+public interface Compressor
+{
+    /**
+     * @return the format of the compressed content, that determines
+     * the {@code Content-Encoding} of the response and its etag suffix
+     */
+    CompressedContentFormat getFormat();
+
+    /**
+     * <p>Sets the content to compress, which is consumed by {@link #compress(ByteBuffer, boolean)}.</p>
+     *
+     * @param content the content to compress
+     * @param last whether the content is the last of the response
+     */
+    void setInput(ByteBuffer content, boolean last);
+
+    /**
+     * @return whether the input has been consumed and more input is needed to produce output
+     */
+    boolean needsInput();
+
+    /**
+     * <p>Appends compressed bytes to the given buffer.</p>
+     *
+     * @param output the buffer, in flush mode, to append to
+     * @param flush whether all the input consumed so far must be output
+     * @return whether the compressed stream is complete
+     */
+    boolean compress(ByteBuffer output, boolean flush);
+
+    /**
+     * <p>Releases the resources of this compressor, for example returning its encoder to a pool.</p>
+     */
+    void release();
+}
@@ -0,0 +1,38 @@
+//
+// ========================================================================
+// Copyright (c) 1995-2022 Mort Bay Consulting Pty Ltd and others.
+//
+// This program and the accompanying materials are made available under the
+// terms of the Eclipse Public License v. 2.0 which is available at
+// https://www.eclipse.org/legal/epl-2.0, or the Apache License, Version 2.0
+// which is available at https://www.apache.org/licenses/LICENSE-2.0.
+//
+// SPDX-License-Identifier: EPL-2.0 OR Apache-2.0
+// ========================================================================
+//
+
+package org.eclipse.jetty.server.handler.gzip;
+
+import org.eclipse.jetty.http.CompressedContentFormat;
+
+/**
+ * <p>Creates the {@link Compressor}s of a content coding, such as {@code br} or {@code zstd},
+ * so that the coding can be negotiated by {@link GzipHandler} in addition to gzip.</p>
+ * <p>A factory that is also a {@link org.eclipse.jetty.util.component.LifeCycle}, for example
+ * to manage a pool of encoders, is started and stopped with the {@link GzipHandler}.</p>
+ *
+ * @see GzipHandler#addCompressorFactory(CompressorFactory)
+ */
+public interface CompressorFactory
+{
+    /**
+     * @return the format of the compressors, whose encoding is
+     * the content coding as listed in {@code Accept-Encoding}
+     */
+    CompressedContentFormat getFormat();
+
+    /**
+     * @return a new compressor, or null if none is available
+     */
+    Compressor newCompressor();
+}
@@ -0,0 +1,111 @@
+//
+// ========================================================================
+// Copyright (c) 1995-2022 Mort Bay Consulting Pty Ltd and others.
+//
+// This program and the accompanying materials are made available under the
+// terms of the Eclipse Public License v. 2.0 which is available at
+// https://www.eclipse.org/legal/epl-2.0, or the Apache License, Version 2.0
+// which is available at https://www.apache.org/licenses/LICENSE-2.0.
+//
+// SPDX-License-Identifier: EPL-2.0 OR Apache-2.0
+// ========================================================================
+//
+
+package org.eclipse.jetty.server.handler.gzip;
+
+import java.nio.ByteBuffer;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+
+import org.eclipse.jetty.http.CompressedContentFormat;
+import org.eclipse.jetty.util.BufferUtil;
+import org.eclipse.jetty.util.compression.DeflaterPool;
+
+/**
+ * <p>The built-in {@link Compressor} for the gzip content coding,
+ * that deflates with a {@link Deflater} from a {@link DeflaterPool}.</p>
+ */
+public class GzipCompressor implements Compressor
+{
+    private static final byte[] GZIP_HEADER = new byte[]{(byte)0x1f, (byte)0x8b, Deflater.DEFLATED, 0, 0, 0, 0, 0, 0, 0};
+
+    private final CRC32 _crc = new CRC32();
+    private DeflaterPool.Entry _deflaterEntry;
+    private boolean _header;
+    private boolean _last;
+
+    public GzipCompressor(DeflaterPool.Entry deflaterEntry)
+    {
+        _deflaterEntry = deflaterEntry;
+    }
+
+    @Override
+    public CompressedContentFormat getFormat()
+    {
+        return CompressedContentFormat.GZIP;
+    }
+
+    @Override
+    public void setInput(ByteBuffer content, boolean last)
+    {
+        _crc.update(content.slice());
+        Deflater deflater = _deflaterEntry.get();
+        deflater.setInput(content);
+        if (last)
+        {
+            _last = true;
+            deflater.finish();
+        }
+    }
+
+    @Override
+    public boolean needsInput()
+    {
+        return !_last && _deflaterEntry.get().needsInput();
+    }
+
+    @Override
+    public boolean compress(ByteBuffer output, boolean flush)
+    {
+        if (!_header)
+        {
+            _header = true;
+            BufferUtil.fill(output, GZIP_HEADER, 0, GZIP_HEADER.length);
+        }
+
+        Deflater deflater = _deflaterEntry.get();
+        if (!deflater.finished())
+        {
+            int pos = BufferUtil.flipToFill(output);
+            deflater.deflate(output, flush ? Deflater.SYNC_FLUSH : Deflater.NO_FLUSH);
+            BufferUtil.flipToFlush(output, pos);
+        }
+
+        // Add the trailer once deflation is finished and there is room for it.
+        if (deflater.finished() && BufferUtil.space(output) >= 8)
+        {
+            BufferUtil.putIntLittleEndian(output, (int)_crc.getValue());
+            BufferUtil.putIntLittleEndian(output, deflater.getTotalIn());
+            return true;
+        }
+        return false;
+    }
+
+    @Override
+    public void release()
+    {
+        if (_deflaterEntry != null)
+        {
+            _deflaterEntry.release();
+            _deflaterEntry = null;
+        }
+    }
+
+    @Override
+    public String toString()
+    {
+        DeflaterPool.Entry deflaterEntry = _deflaterEntry;
+        return String.format("%s@%x[%s%s]", getClass().getSimpleName(), hashCode(), deflaterEntry,
+            deflaterEntry != null && deflaterEntry.get().finished() ? "(finished)" : "");
+    }
+}
@@ -13,6 +13,7 @@
 
 package org.eclipse.jetty.server.handler.gzip;
 
+import org.eclipse.jetty.http.CompressedContentFormat;
 import org.eclipse.jetty.server.Request;
 import org.eclipse.jetty.util.compression.DeflaterPool;
 
@@ -21,4 +22,23 @@ public interface GzipFactory
     DeflaterPool.Entry getDeflaterEntry(Request request, long contentLength);
 
     boolean isMimeTypeGzipable(String mimetype);
+
+    /**
+     * @param request the request
+     * @param contentLength the content length of the response, or -1 if unknown
+     * @return the compressor of the response content, or null to not compress it
+     */
+    default Compressor getCompressor(Request request, long contentLength)
+    {
+        DeflaterPool.Entry deflaterEntry = getDeflaterEntry(request, contentLength);
+        return deflaterEntry == null ? null : new GzipCompressor(deflaterEntry);
+    }
+
+    /**
+     * @return the formats of the compressors, whose etag suffixes may be found in conditional requests
+     */
+    default CompressedContentFormat[] getCompressedContentFormats()
+    {
+        return new CompressedContentFormat[]{CompressedContentFormat.GZIP};
+    }
 }
@@ -14,8 +14,13 @@
 package org.eclipse.jetty.server.handler.gzip;
 
 import java.io.IOException;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.Set;
 import java.util.regex.Pattern;
 import java.util.stream.Collectors;
@@ -122,6 +127,12 @@ import org.slf4j.LoggerFactory;
  * Note that the suffix used is determined by {@link CompressedContentFormat#ETAG_SEPARATOR}
  * </p>
  * <p>
+ * Content codings other than gzip, such as {@code br} or {@code zstd}, are produced by
+ * {@link #addCompressorFactory(CompressorFactory) adding} a {@link CompressorFactory} for them,
+ * and are negotiated with gzip by the quality values of the {@code Accept-Encoding} header.
+ * The etag suffix of these codings is the name of the coding, for example {@code --br}.
+ * </p>
+ * <p>
  * This implementation relies on an Jetty internal {@link org.eclipse.jetty.server.HttpOutput.Interceptor}
  * mechanism to allow for effective and efficient compression of the response on all Output API usages:
  * </p>
@@ -153,6 +164,7 @@ public class GzipHandler extends HandlerWrapper implements GzipFactory
     public static final String GZIP_HANDLER_ETAGS = "o.e.j.s.h.gzip.GzipHandler.etag";
     public static final String GZIP = "gzip";
     public static final String DEFLATE = "deflate";
+    private static final String X_GZIP = "x-gzip";
     public static final int DEFAULT_MIN_GZIP_SIZE = 32;
     public static final int BREAK_EVEN_GZIP_SIZE = 23;
     private static final Logger LOG = LoggerFactory.getLogger(GzipHandler.class);
@@ -171,6 +183,8 @@ public class GzipHandler extends HandlerWrapper implements GzipFactory
     private final IncludeExclude<String> _inflatePaths = new IncludeExclude<>(PathSpecSet.class);
     private final IncludeExclude<String> _mimeTypes = new IncludeExclude<>(AsciiLowerCaseSet.class);
     private HttpField _vary = GzipHttpOutputInterceptor.VARY_ACCEPT_ENCODING;
+    private final List<CompressorFactory> _compressorFactories = new ArrayList<>();
+    private CompressedContentFormat[] _compressedContentFormats = {CompressedContentFormat.GZIP};
 
     /**
      * Instantiates a new GzipHandler.
@@ -518,7 +532,7 @@ public class GzipHandler extends HandlerWrapper implements GzipFactory
         }
 
         // check the accept encoding header
-        if (!request.getHttpFields().contains(HttpHeader.ACCEPT_ENCODING, "gzip"))
+        if (!isGzipAccepted(request.getHttpFields()))
         {
             LOG.debug("{} excluded not gzip accept {}", this, request);
             return null;
@@ -527,6 +541,175 @@ public class GzipHandler extends HandlerWrapper implements GzipFactory
         return _deflaterPool.acquire();
     }
 
+    @Override
+    public Compressor getCompressor(Request request, long contentLength)
+    {
+        if (!_compressorFactories.isEmpty())
+        {
+            if (contentLength >= 0 && contentLength < _minGzipSize)
+            {
+                LOG.debug("{} excluded minGzipSize {}", this, request);
+                return null;
+            }
+
+            CompressorFactory factory = negotiateCompressorFactory(request.getHttpFields());
+            if (factory != null)
+            {
+                Compressor compressor = factory.newCompressor();
+                if (compressor != null)
+                    return compressor;
+            }
+        }
+        return GzipFactory.super.getCompressor(request, contentLength);
+    }
+
+    @Override
+    public CompressedContentFormat[] getCompressedContentFormats()
+    {
+        return _compressedContentFormats;
+    }
+
+    /**
+     * <p>Adds a factory of compressors for a content coding, which replaces
+     * the built-in gzip compression if the coding is gzip.</p>
+     * <p>The coding of a response is the accepted coding with the highest quality
+     * in the {@code Accept-Encoding} request headers; the codings of the added
+     * factories are preferred to the built-in gzip, in the order they were added,
+     * when their quality is the same.</p>
+     *
+     * @param factory the factory to add
+     */
+    public void addCompressorFactory(CompressorFactory factory)
+    {
+        if (isStarted())
+            throw new IllegalStateException(getState());
+
+        _compressorFactories.add(factory);
+        addBean(factory);
+        _compressedContentFormats = Stream.concat(
+            _compressorFactories.stream().map(CompressorFactory::getFormat),
+            Stream.of(CompressedContentFormat.GZIP))
+            .distinct()
+            .toArray(CompressedContentFormat[]::new);
+    }
+
+    /**
+     * @return the factories of compressors added to the built-in gzip compression
+     */
+    public List<CompressorFactory> getCompressorFactories()
+    {
+        return Collections.unmodifiableList(_compressorFactories);
+    }
+
+    /**
+     * @param fields the request fields
+     * @return the added factory with the accepted coding of highest quality,
+     * or null if the built-in gzip coding has a higher quality or none is accepted
+     */
+    private CompressorFactory negotiateCompressorFactory(HttpFields fields)
+    {
+        List<String> values = fields.getCSV(HttpHeader.ACCEPT_ENCODING, false);
+        if (values.isEmpty())
+            return null;
+
+        double gzipQuality = -1.0D;
+        double anyQuality = -1.0D;
+        double[] qualities = new double[_compressorFactories.size()];
+        Arrays.fill(qualities, -1.0D);
+        Map<String, String> params = new HashMap<>();
+        for (String value : values)
+        {
+            params.clear();
+            String coding = HttpField.valueParameters(value, params);
+            double quality = toQuality(params.get("q"));
+            if (GZIP.equalsIgnoreCase(coding) || X_GZIP.equalsIgnoreCase(coding))
+                gzipQuality = Math.max(gzipQuality, quality);
+            else if ("*".equals(coding))
+                anyQuality = Math.max(anyQuality, quality);
+            for (int i = 0; i < qualities.length; ++i)
+            {
+                if (_compressorFactories.get(i).getFormat().getEncoding().equalsIgnoreCase(coding))
+                    qualities[i] = Math.max(qualities[i], quality);
+            }
+        }
+
+        // Codings that are not listed have the quality of the wildcard.
+        if (gzipQuality < 0.0D)
+            gzipQuality = anyQuality;
+        CompressorFactory result = null;
+        double resultQuality = gzipQuality;
+        for (int i = 0; i < qualities.length; ++i)
+        {
+            CompressorFactory factory = _compressorFactories.get(i);
+            double quality = GZIP.equals(factory.getFormat().getEncoding()) ? gzipQuality : qualities[i];
+            if (quality < 0.0D)
+                quality = anyQuality;
+            if (quality > 0.0D && (result == null ? quality >= resultQuality : quality > resultQuality))
+            {
+                result = factory;
+                resultQuality = quality;
+            }
+        }
+        return result;
+    }
+
+    /**
+     * <p>Tests whether the {@code Accept-Encoding} headers accept a gzip encoded response.</p>
+     * <p>The content codings are negotiated as per RFC 7231 section 5.3.4: {@code gzip}
+     * (or its alias {@code x-gzip}) is accepted if it is listed with a non zero quality,
+     * or if it is not listed and the {@code *} wildcard is listed with a non zero quality.</p>
+     *
+     * @param fields the request fields
+     * @return whether a gzip encoded response is accepted
+     */
+    protected boolean isGzipAccepted(HttpFields fields)
+    {
+        boolean negotiate = false;
+        for (HttpField field : fields)
+        {
+            if (field.getHeader() != HttpHeader.ACCEPT_ENCODING)
+                continue;
+            // Fast path for the common case of gzip listed without a zero quality.
+            if (field.contains(GZIP))
+                return true;
+            String value = field.getValue();
+            if (value != null && (value.indexOf('*') >= 0 || StringUtil.asciiToLowerCase(value).contains(X_GZIP)))
+                negotiate = true;
+        }
+        if (!negotiate)
+            return false;
+
+        double gzipQuality = -1.0D;
+        double anyQuality = -1.0D;
+        Map<String, String> params = new HashMap<>();
+        for (String value : fields.getCSV(HttpHeader.ACCEPT_ENCODING, false))
+        {
+            params.clear();
+            String coding = HttpField.valueParameters(value, params);
+            double quality = toQuality(params.get("q"));
+            if (GZIP.equalsIgnoreCase(coding) || X_GZIP.equalsIgnoreCase(coding))
+                gzipQuality = Math.max(gzipQuality, quality);
+            else if ("*".equals(coding))
+                anyQuality = Math.max(anyQuality, quality);
+        }
+        return gzipQuality > 0.0D || (gzipQuality < 0.0D && anyQuality > 0.0D);
+    }
+
+    private static double toQuality(String q)
+    {
+        if (q == null)
+            return 1.0D;
+        try
+        {
+            return Double.parseDouble(q);
+        }
+        catch (NumberFormatException x)
+        {
+            LOG.trace("IGNORED", x);
+            return 0.0D;
+        }
+    }
+
     /**
      * Get the current filter list of excluded HTTP methods
      *
@@ -735,7 +918,11 @@ public class GzipHandler extends HandlerWrapper implements GzipFactory
                     case IF_NONE_MATCH:
                     {
                         String etags = field.getValue();
-                        String etagsNoSuffix = CompressedContentFormat.GZIP.stripSuffixes(etags);
+                        String etagsNoSuffix = etags;
+                        for (CompressedContentFormat format : _compressedContentFormats)
+                        {
+                            etagsNoSuffix = format.stripSuffixes(etagsNoSuffix);
+                        }
                         if (etagsNoSuffix.equals(etags))
                             newFields.add(field);
                         else
@@ -16,9 +16,8 @@ package org.eclipse.jetty.server.handler.gzip;
 import java.nio.ByteBuffer;
 import java.nio.channels.WritePendingException;
 import java.util.concurrent.atomic.AtomicReference;
-import java.util.zip.CRC32;
-import java.util.zip.Deflater;
 
+import org.eclipse.jetty.http.CompressedContentFormat;
 import org.eclipse.jetty.http.HttpField;
 import org.eclipse.jetty.http.HttpFields;
 import org.eclipse.jetty.http.HttpHeader;
@@ -30,16 +29,12 @@ import org.eclipse.jetty.server.Response;
 import org.eclipse.jetty.util.BufferUtil;
 import org.eclipse.jetty.util.Callback;
 import org.eclipse.jetty.util.IteratingNestedCallback;
-import org.eclipse.jetty.util.compression.DeflaterPool;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import static org.eclipse.jetty.http.CompressedContentFormat.GZIP;
-
 public class GzipHttpOutputInterceptor implements HttpOutput.Interceptor
 {
     public static Logger LOG = LoggerFactory.getLogger(GzipHttpOutputInterceptor.class);
-    private static final byte[] GZIP_HEADER = new byte[]{(byte)0x1f, (byte)0x8b, Deflater.DEFLATED, 0, 0, 0, 0, 0, 0, 0};
 
     public static final HttpField VARY_ACCEPT_ENCODING = new PreEncodedHttpField(HttpHeader.VARY, HttpHeader.ACCEPT_ENCODING.asString());
 
@@ -49,7 +44,6 @@ public class GzipHttpOutputInterceptor implements HttpOutput.Interceptor
     }
 
     private final AtomicReference<GZState> _state = new AtomicReference<>(GZState.MIGHT_COMPRESS);
-    private final CRC32 _crc = new CRC32();
 
     private final GzipFactory _factory;
     private final HttpOutput.Interceptor _interceptor;
@@ -58,7 +52,7 @@ public class GzipHttpOutputInterceptor implements HttpOutput.Interceptor
     private final int _bufferSize;
     private final boolean _syncFlush;
 
-    private DeflaterPool.Entry _deflaterEntry;
+    private Compressor _compressor;
     private ByteBuffer _buffer;
 
     public GzipHttpOutputInterceptor(GzipFactory factory, HttpChannel channel, HttpOutput.Interceptor next, boolean syncFlush)
@@ -114,12 +108,6 @@ public class GzipHttpOutputInterceptor implements HttpOutput.Interceptor
         }
     }
 
-    private void addTrailer()
-    {
-        BufferUtil.putIntLittleEndian(_buffer, (int)_crc.getValue());
-        BufferUtil.putIntLittleEndian(_buffer, _deflaterEntry.get().getTotalIn());
-    }
-
     private void gzip(ByteBuffer content, boolean complete, final Callback callback)
     {
         if (content.hasRemaining() || complete)
@@ -144,9 +132,15 @@ public class GzipHttpOutputInterceptor implements HttpOutput.Interceptor
                 String responseEtag = response.getHttpFields().get(HttpHeader.ETAG);
                 if (requestEtags != null && responseEtag != null)
                 {
-                    String responseEtagGzip = etagGzip(responseEtag);
-                    if (requestEtags.contains(responseEtagGzip))
-                        response.getHttpFields().put(HttpHeader.ETAG, responseEtagGzip);
+                    for (CompressedContentFormat format : _factory.getCompressedContentFormats())
+                    {
+                        String responseEtagCompressed = format.etag(responseEtag);
+                        if (requestEtags.contains(responseEtagCompressed))
+                        {
+                            response.getHttpFields().put(HttpHeader.ETAG, responseEtagCompressed);
+                            break;
+                        }
+                    }
                 }
             }
 
@@ -190,25 +184,25 @@ public class GzipHttpOutputInterceptor implements HttpOutput.Interceptor
             if (contentLength < 0 && complete)
                 contentLength = content.remaining();
 
-            _deflaterEntry = _factory.getDeflaterEntry(_channel.getRequest(), contentLength);
-            if (_deflaterEntry == null)
+            _compressor = _factory.getCompressor(_channel.getRequest(), contentLength);
+            if (_compressor == null)
             {
-                LOG.debug("{} exclude no deflater", this);
+                LOG.debug("{} exclude no compressor", this);
                 _state.set(GZState.NOT_COMPRESSING);
                 _interceptor.write(content, complete, callback);
                 return;
             }
 
-            fields.put(GZIP.getContentEncoding());
-            _crc.reset();
+            CompressedContentFormat format = _compressor.getFormat();
+            fields.put(format.getContentEncoding());
 
             // Adjust headers
             response.setContentLength(-1);
             String etag = fields.get(HttpHeader.ETAG);
             if (etag != null)
-                fields.put(HttpHeader.ETAG, etagGzip(etag));
+                fields.put(HttpHeader.ETAG, format.etag(etag));
 
-            LOG.debug("{} compressing {}", this, _deflaterEntry);
+            LOG.debug("{} compressing {}", this, _compressor);
             _state.set(GZState.COMPRESSING);
 
             if (BufferUtil.isEmpty(content))
@@ -225,11 +219,6 @@ public class GzipHttpOutputInterceptor implements HttpOutput.Interceptor
             callback.failed(new WritePendingException());
     }
 
-    private String etagGzip(String etag)
-    {
-        return GZIP.etag(etag);
-    }
-
     public void noCompression()
     {
         while (true)
@@ -267,21 +256,16 @@ public class GzipHttpOutputInterceptor implements HttpOutput.Interceptor
             _content = content;
             _last = complete;
 
-            _crc.update(_content.slice());
-
-            Deflater deflater = _deflaterEntry.get();
-            deflater.setInput(_content);
-            if (_last)
-                deflater.finish();
+            _compressor.setInput(_content, _last);
         }
 
         @Override
         protected void onCompleteFailure(Throwable x)
         {
-            if (_deflaterEntry != null)
+            if (_compressor != null)
             {
-                _deflaterEntry.release();
-                _deflaterEntry = null;
+                _compressor.release();
+                _compressor = null;
             }
             super.onCompleteFailure(x);
         }
@@ -289,8 +273,8 @@ public class GzipHttpOutputInterceptor implements HttpOutput.Interceptor
         @Override
         protected Action process() throws Exception
         {
-            // If we have no deflator
-            if (_deflaterEntry == null)
+            // If we have no compressor
+            if (_compressor == null)
             {
                 // then the trailer has been generated and written below.
                 // we have finished compressing the entire content, so
@@ -303,12 +287,15 @@ public class GzipHttpOutputInterceptor implements HttpOutput.Interceptor
                 return Action.SUCCEEDED;
             }
 
+            // If the compressor needs more data, wait for the next write.
+            if (_compressor.needsInput())
+                return Action.SUCCEEDED;
+
             // If we have no buffer
             if (_buffer == null)
             {
-                // allocate a buffer and add the gzip header
+                // allocate a buffer
                 _buffer = _channel.getByteBufferPool().acquire(_bufferSize, _channel.isUseOutputDirectByteBuffers());
-                BufferUtil.fill(_buffer, GZIP_HEADER, 0, GZIP_HEADER.length);
             }
             else
             {
@@ -316,43 +303,28 @@ public class GzipHttpOutputInterceptor implements HttpOutput.Interceptor
                 BufferUtil.clear(_buffer);
             }
 
-            // If the deflator is not finished, then compress more data
-            Deflater deflater = _deflaterEntry.get();
-            if (!deflater.finished())
-            {
-                if (deflater.needsInput() && !_last)
-                    return Action.SUCCEEDED;
-
-                int pos = BufferUtil.flipToFill(_buffer);
-                deflater.deflate(_buffer, _syncFlush ? Deflater.SYNC_FLUSH : Deflater.NO_FLUSH);
-                BufferUtil.flipToFlush(_buffer, pos);
-            }
-
-            // If we have finished deflation and there is room for the trailer.
-            if (deflater.finished() && BufferUtil.space(_buffer) >= 8)
+            // If the compressed stream is complete, release the compressor
+            // to flag that we will have had completeSuccess when the write below completes.
+            if (_compressor.compress(_buffer, _syncFlush))
             {
-                // add the trailer and recycle the deflator to flag that we will have had completeSuccess when
-                // the write below completes.
-                addTrailer();
-                _deflaterEntry.release();
-                _deflaterEntry = null;
+                _compressor.release();
+                _compressor = null;
             }
 
             // write the compressed buffer.
-            _interceptor.write(_buffer, _deflaterEntry == null, this);
+            _interceptor.write(_buffer, _compressor == null, this);
             return Action.SCHEDULED;
         }
 
         @Override
         public String toString()
         {
-            return String.format("%s[content=%s last=%b buffer=%s deflate=%s %s]",
+            return String.format("%s[content=%s last=%b buffer=%s compressor=%s]",
                 super.toString(),
                 BufferUtil.toDetailString(_content),
                 _last,
                 BufferUtil.toDetailString(_buffer),
-                _deflaterEntry,
-                _deflaterEntry != null && _deflaterEntry.get().finished() ? "(finished)" : "");
+                _compressor);
         }
     }
 }
@@ -0,0 +1,161 @@
+//
+// ========================================================================
+// Copyright (c) 1995-2022 Mort Bay Consulting Pty Ltd and others.
+//
+// This program and the accompanying materials are made available under the
+// terms of the Eclipse Public License v. 2.0 which is available at
+// https://www.eclipse.org/legal/epl-2.0, or the Apache License, Version 2.0
+// which is available at https://www.apache.org/licenses/LICENSE-2.0.
+//
+// SPDX-License-Identifier: EPL-2.0 OR Apache-2.0
+// ========================================================================
+//
+
+package org.eclipse.jetty.server;
+
+import java.nio.charset.Charset;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.eclipse.jetty.toolchain.test.jupiter.WorkDir;
+import org.eclipse.jetty.toolchain.test.jupiter.WorkDirExtension;
+import org.eclipse.jetty.util.BlockingArrayQueue;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@ExtendWith(WorkDirExtension.class)
+public class AsyncRequestLogWriterTest
+{
+    public WorkDir workDir;
+
+    @Test
+    public void testBatchedWritesKeepOrder() throws Exception
+    {
+        Path log = workDir.getEmptyPathDir().resolve("request.log");
+        AsyncRequestLogWriter writer = new AsyncRequestLogWriter(log.toString());
+        writer.setMaxBatchSize(7);
+        writer.start();
+        List<String> expected = new ArrayList<>();
+        for (int i = 0; i < 1000; ++i)
+        {
+            String entry = "entry " + i;
+            expected.add(entry);
+            writer.write(entry);
+        }
+        // Entries still queued are written when stopping.
+        writer.stop();
+
+        assertEquals(expected, Files.readAllLines(log, Charset.defaultCharset()));
+        assertEquals(0, writer.getDroppedCount());
+    }
+
+    @Test
+    public void testDropOverflowPolicy() throws Exception
+    {
+        Path log = workDir.getEmptyPathDir().resolve("request.log");
+        AsyncRequestLogWriter writer = new AsyncRequestLogWriter(log.toString(), new BlockingArrayQueue<>(4));
+        assertEquals(AsyncRequestLogWriter.OverflowPolicy.DROP, writer.getOverflowPolicy());
+        // Not started, so the queue is not drained.
+        for (int i = 0; i < 10; ++i)
+        {
+            writer.write("entry " + i);
+        }
+        assertEquals(6, writer.getDroppedCount());
+
+        writer.start();
+        writer.stop();
+        assertEquals(List.of("entry 0", "entry 1", "entry 2", "entry 3"), Files.readAllLines(log, Charset.defaultCharset()));
+    }
+
+    @Test
+    public void testSampleOverflowPolicy() throws Exception
+    {
+        Path log = workDir.getEmptyPathDir().resolve("request.log");
+        // A queue that is full at the first offer of every entry.
+        BlockingArrayQueue<String> queue = new BlockingArrayQueue<>(16)
+        {
+            private String rejected;
+
+            @Override
+            public boolean offer(String e)
+            {
+                if (e.equals(rejected))
+                    return super.offer(e);
+                rejected = e;
+                return false;
+            }
+        };
+        AsyncRequestLogWriter writer = new AsyncRequestLogWriter(log.toString(), queue);
+        writer.setOverflowPolicy(AsyncRequestLogWriter.OverflowPolicy.SAMPLE);
+        writer.setSampleRate(3);
+        writer.start();
+        for (int i = 0; i < 10; ++i)
+        {
+            writer.write("entry " + i);
+        }
+        writer.stop();
+
+        assertEquals(List.of("entry 0", "entry 3", "entry 6", "entry 9"), Files.readAllLines(log, Charset.defaultCharset()));
+        assertEquals(6, writer.getDroppedCount());
+    }
+
+    @Test
+    public void testBlockOverflowPolicy() throws Exception
+    {
+        Path log = workDir.getEmptyPathDir().resolve("request.log");
+        AsyncRequestLogWriter writer = new AsyncRequestLogWriter(log.toString(), new BlockingArrayQueue<>(2));
+        writer.setOverflowPolicy(AsyncRequestLogWriter.OverflowPolicy.BLOCK);
+        writer.start();
+
+        int threads = 4;
+        int entries = 500;
+        CountDownLatch latch = new CountDownLatch(threads);
+        AtomicReference<Throwable> failure = new AtomicReference<>();
+        for (int t = 0; t < threads; ++t)
+        {
+            int thread = t;
+            new Thread(() ->
+            {
+                try
+                {
+                    for (int i = 0; i < entries; ++i)
+                    {
+                        writer.write(thread + ":" + i);
+                    }
+                }
+                catch (Throwable x)
+                {
+                    failure.compareAndSet(null, x);
+                }
+                finally
+                {
+                    latch.countDown();
+                }
+            }).start();
+        }
+        assertTrue(latch.await(10, TimeUnit.SECONDS));
+        writer.stop();
+        assertNull(failure.get());
+
+        List<String> lines = Files.readAllLines(log, Charset.defaultCharset());
+        assertEquals(threads * entries, lines.size());
+        assertEquals(0, writer.getDroppedCount());
+    }
+
+    @Test
+    public void testInvalidSettings()
+    {
+        assertThrows(IllegalArgumentException.class, () -> new AsyncRequestLogWriter().setMaxBatchSize(0));
+        assertThrows(IllegalArgumentException.class, () -> new AsyncRequestLogWriter().setSampleRate(0));
+    }
+}
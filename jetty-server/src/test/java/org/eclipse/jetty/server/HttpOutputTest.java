@@ -19,8 +19,10 @@ import java.io.IOException;
 import java.io.InputStream;
 import java.io.PrintWriter;
 import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
 import java.nio.channels.ReadableByteChannel;
 import java.nio.charset.StandardCharsets;
+import java.nio.file.StandardOpenOption;
 import java.util.Arrays;
 import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.TimeUnit;
@@ -216,6 +218,33 @@ public class HttpOutputTest
         assertThat(response, endsWith(toUTF8String(big)));
     }
 
+    @Test
+    public void testSendChannelBigFileMapped() throws Exception
+    {
+        _connector.getConnectionFactory(HttpConnectionFactory.class).getHttpConfiguration().setUseFileMappedOutput(true);
+        Resource big = Resource.newClassPathResource("simple/big.txt");
+        ReadableByteChannel channel = big.getReadableByteChannel();
+        assertThat(channel, Matchers.instanceOf(FileChannel.class));
+        _handler._contentChannel = channel;
+        String response = _connector.getResponse("GET / HTTP/1.0\nHost: localhost:80\n\n");
+        assertThat(response, containsString("HTTP/1.1 200 OK"));
+        assertThat(response, endsWith(toUTF8String(big)));
+        assertThat(channel.isOpen(), is(false));
+    }
+
+    @Test
+    public void testSendFileChannelRegion() throws Exception
+    {
+        Resource big = Resource.newClassPathResource("simple/big.txt");
+        String content = toUTF8String(big);
+        _handler._contentFileChannel = FileChannel.open(big.getFile().toPath(), StandardOpenOption.READ);
+        _handler._contentPosition = 1000;
+        _handler._contentLength = 5000;
+        String response = _connector.getResponse("GET / HTTP/1.0\nHost: localhost:80\n\n");
+        assertThat(response, containsString("HTTP/1.1 200 OK"));
+        assertThat(response, endsWith(content.substring(1000, 6000)));
+    }
+
     @Test
     public void testSendBigDirect() throws Exception
     {
@@ -1201,6 +1230,9 @@ public class HttpOutputTest
         byte[] _arrayBuffer;
         InputStream _contentInputStream;
         ReadableByteChannel _contentChannel;
+        FileChannel _contentFileChannel;
+        long _contentPosition;
+        long _contentLength;
         ByteBuffer _content;
         ChainedInterceptor _interceptor;
         final FuturePromise<Boolean> _closedAfterWrite = new FuturePromise<>();
@@ -1236,6 +1268,15 @@ public class HttpOutputTest
                 return;
             }
 
+            if (_contentFileChannel != null)
+            {
+                response.setContentLengthLong(_contentLength);
+                out.sendContent(_contentFileChannel, _contentPosition, _contentLength);
+                _contentFileChannel = null;
+                _closedAfterWrite.succeeded(out.isClosed());
+                return;
+            }
+
             if (_content != null && _writeLengthIfKnown)
                 response.setContentLength(_content.remaining());
 
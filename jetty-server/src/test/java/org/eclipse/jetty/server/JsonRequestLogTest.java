@@ -0,0 +1,158 @@
+//
+// ========================================================================
+// Copyright (c) 1995-2022 Mort Bay Consulting Pty Ltd and others.
+//
+// This program and the accompanying materials are made available under the
+// terms of the Eclipse Public License v. 2.0 which is available at
+// https://www.eclipse.org/legal/epl-2.0, or the Apache License, Version 2.0
+// which is available at https://www.apache.org/licenses/LICENSE-2.0.
+//
+// SPDX-License-Identifier: EPL-2.0 OR Apache-2.0
+// ========================================================================
+//
+
+package org.eclipse.jetty.server;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+import org.eclipse.jetty.server.handler.AbstractHandler;
+import org.eclipse.jetty.util.BlockingArrayQueue;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.allOf;
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.greaterThan;
+import static org.hamcrest.Matchers.lessThan;
+import static org.hamcrest.Matchers.matchesRegex;
+import static org.hamcrest.Matchers.not;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class JsonRequestLogTest
+{
+    private final BlockingArrayQueue<String> _entries = new BlockingArrayQueue<>();
+    private final BlockingArrayQueue<Request> _completed = new BlockingArrayQueue<>();
+    private Server _server;
+    private LocalConnector _connector;
+    private JsonRequestLog _requestLog;
+
+    private void start(boolean timing) throws Exception
+    {
+        _server = new Server();
+        _connector = new LocalConnector(_server);
+        _server.addConnector(_connector);
+        // The request log is written before the listeners are notified of completion.
+        _connector.addBean(new HttpChannel.Listener()
+        {
+            @Override
+            public void onComplete(Request request)
+            {
+                _completed.add(request);
+            }
+        });
+        _requestLog = new JsonRequestLog(_entries::add);
+        if (timing)
+            _connector.addBean(_requestLog);
+        _server.setRequestLog(_requestLog);
+        _server.setHandler(new AbstractHandler()
+        {
+            @Override
+            public void handle(String target, Request baseRequest, HttpServletRequest request, HttpServletResponse response) throws IOException
+            {
+                baseRequest.setHandled(true);
+                if (target.startsWith("/missing"))
+                    response.setStatus(404);
+                else
+                    response.getWriter().print("hello");
+            }
+        });
+        _server.start();
+    }
+
+    @AfterEach
+    public void dispose() throws Exception
+    {
+        if (_server != null)
+            _server.stop();
+    }
+
+    private String log(String uri, String... headers) throws Exception
+    {
+        StringBuilder request = new StringBuilder("GET ").append(uri).append(" HTTP/1.1\r\nHost: localhost\r\n");
+        for (String header : headers)
+        {
+            request.append(header).append("\r\n");
+        }
+        request.append("Connection: close\r\n\r\n");
+        _connector.getResponse(request.toString());
+        _completed.poll(5, TimeUnit.SECONDS);
+        return _entries.poll();
+    }
+
+    @Test
+    public void testEntry() throws Exception
+    {
+        start(false);
+        String entry = log("/path?a=b", "User-Agent: agent \"quoted\"\t\\");
+        assertThat(entry, matchesRegex("\\{\"timestamp\":\\d+,.*}"));
+        assertThat(entry, containsString("\"method\":\"GET\",\"uri\":\"/path?a=b\",\"protocol\":\"HTTP/1.1\",\"status\":200,\"bytesIn\":0,\"bytesOut\":"));
+        assertThat(entry, containsString("\"userAgent\":\"agent \\\"quoted\\\"\\t\\\\\""));
+        assertThat(entry, not(containsString("referer")));
+        assertThat(entry, not(containsString("timing")));
+        assertThat(entry, not(containsString("sampleRate")));
+    }
+
+    @Test
+    public void testTiming() throws Exception
+    {
+        start(true);
+        String entry = log("/path");
+        assertThat(entry, matchesRegex(".*\"timing\":\\{\"requestEnd\":\\d+,\"dispatch\":\\d+,\"commit\":\\d+,\"complete\":\\d+}}"));
+    }
+
+    @Test
+    public void testSampling() throws Exception
+    {
+        start(false);
+        _requestLog.setSampleRate(0.0D);
+        _requestLog.setPathSampleRate("/sampled/*", 1.0D);
+        _requestLog.setStatusSampleRate(4, 1.0D);
+        _requestLog.setStatusSampleRate(404, 0.5D);
+
+        assertNull(log("/other"));
+        assertThat(log("/sampled/x"), containsString("\"status\":200"));
+
+        int logged = 0;
+        for (int i = 0; i < 100; ++i)
+        {
+            String entry = log("/missing");
+            if (entry != null)
+            {
+                assertThat(entry, containsString("\"sampleRate\":0.5"));
+                logged++;
+            }
+        }
+        assertThat(logged, allOf(greaterThan(10), lessThan(90)));
+
+        _requestLog.setStatusSampleRate(404, 1.0D);
+        assertThat(log("/missing/x"), containsString("\"status\":404"));
+    }
+
+    @Test
+    public void testInvalidSampleRates()
+    {
+        JsonRequestLog requestLog = new JsonRequestLog(entry ->
+        {
+        });
+        assertThrows(IllegalArgumentException.class, () -> requestLog.setSampleRate(1.5D));
+        assertThrows(IllegalArgumentException.class, () -> requestLog.setSampleRate(Double.NaN));
+        assertThrows(IllegalArgumentException.class, () -> requestLog.setStatusSampleRate(42, 1.0D));
+        assertEquals(1.0D, requestLog.getSampleRate());
+    }
+}
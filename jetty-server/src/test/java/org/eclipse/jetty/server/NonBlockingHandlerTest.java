@@ -0,0 +1,140 @@
+//
+// ========================================================================
+// Copyright (c) 1995-2022 Mort Bay Consulting Pty Ltd and others.
+//
+// This program and the accompanying materials are made available under the
+// terms of the Eclipse Public License v. 2.0 which is available at
+// https://www.eclipse.org/legal/epl-2.0, or the Apache License, Version 2.0
+// which is available at https://www.apache.org/licenses/LICENSE-2.0.
+//
+// SPDX-License-Identifier: EPL-2.0 OR Apache-2.0
+// ========================================================================
+//
+
+package org.eclipse.jetty.server;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+import org.eclipse.jetty.io.ManagedSelector;
+import org.eclipse.jetty.server.handler.AbstractHandler;
+import org.eclipse.jetty.server.handler.HandlerList;
+import org.eclipse.jetty.util.thread.Invocable;
+import org.eclipse.jetty.util.thread.strategy.AdaptiveExecutionStrategy;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.greaterThan;
+import static org.hamcrest.Matchers.is;
+
+public class NonBlockingHandlerTest
+{
+    private Server server;
+    private ServerConnector connector;
+
+    private void start(Handler handler) throws Exception
+    {
+        server = new Server();
+        connector = new ServerConnector(server, 1, 1);
+        server.addConnector(connector);
+        server.setHandler(handler);
+        server.start();
+    }
+
+    @AfterEach
+    public void dispose() throws Exception
+    {
+        server.stop();
+    }
+
+    @Test
+    public void testNonBlockingHandlerRunsOnSelector() throws Exception
+    {
+        start(new HandlerList(new HelloHandler(Invocable.InvocationType.NON_BLOCKING)));
+
+        assertThat(requestsConsumedBySelector(), greaterThan(0L));
+    }
+
+    @Test
+    public void testBlockingHandlerIsDispatched() throws Exception
+    {
+        start(new HandlerList(new HelloHandler(Invocable.InvocationType.NON_BLOCKING), new HelloHandler(Invocable.InvocationType.BLOCKING)));
+
+        assertThat(requestsConsumedBySelector(), is(0L));
+    }
+
+    private long requestsConsumedBySelector() throws IOException
+    {
+        AdaptiveExecutionStrategy strategy = connector.getSelectorManager().getBean(ManagedSelector.class).getBean(AdaptiveExecutionStrategy.class);
+        try (Socket socket = new Socket("localhost", connector.getLocalPort()))
+        {
+            OutputStream output = socket.getOutputStream();
+            BufferedReader input = new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.ISO_8859_1));
+
+            // The first request opens the connection, which runs its own tasks.
+            request(output, input);
+            long before = strategy.getPCTasksConsumed();
+            for (int i = 0; i < 5; i++)
+            {
+                request(output, input);
+            }
+            return strategy.getPCTasksConsumed() - before;
+        }
+    }
+
+    private void request(OutputStream output, BufferedReader input) throws IOException
+    {
+        output.write("GET /hello HTTP/1.1\r\nHost: localhost\r\n\r\n".getBytes(StandardCharsets.ISO_8859_1));
+        output.flush();
+        assertThat(input.readLine(), containsString(" 200 "));
+        int length = -1;
+        String line;
+        while (!(line = input.readLine()).isEmpty())
+        {
+            if (line.toLowerCase().startsWith("content-length:"))
+                length = Integer.parseInt(line.substring(15).trim());
+        }
+        char[] body = new char[length];
+        int read = 0;
+        while (read < length)
+        {
+            read += input.read(body, read, length - read);
+        }
+        assertThat(new String(body), is("hello"));
+    }
+
+    private static class HelloHandler extends AbstractHandler implements Invocable
+    {
+        private final InvocationType invocationType;
+
+        private HelloHandler(InvocationType invocationType)
+        {
+            this.invocationType = invocationType;
+        }
+
+        @Override
+        public InvocationType getInvocationType()
+        {
+            return invocationType;
+        }
+
+        @Override
+        public void handle(String target, Request baseRequest, HttpServletRequest request, HttpServletResponse response) throws IOException
+        {
+            if (baseRequest.isHandled())
+                return;
+            baseRequest.setHandled(true);
+            response.setContentType("text/plain");
+            response.setContentLength(5);
+            response.getOutputStream().write("hello".getBytes(StandardCharsets.ISO_8859_1));
+        }
+    }
+}
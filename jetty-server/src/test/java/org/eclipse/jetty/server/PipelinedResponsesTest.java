@@ -0,0 +1,171 @@
+//
+// ========================================================================
+// Copyright (c) 1995-2022 Mort Bay Consulting Pty Ltd and others.
+//
+// This program and the accompanying materials are made available under the
+// terms of the Eclipse Public License v. 2.0 which is available at
+// https://www.eclipse.org/legal/epl-2.0, or the Apache License, Version 2.0
+// which is available at https://www.apache.org/licenses/LICENSE-2.0.
+//
+// SPDX-License-Identifier: EPL-2.0 OR Apache-2.0
+// ========================================================================
+//
+
+package org.eclipse.jetty.server;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.net.Socket;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicInteger;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+import org.eclipse.jetty.io.ManagedSelector;
+import org.eclipse.jetty.io.SocketChannelEndPoint;
+import org.eclipse.jetty.server.handler.AbstractHandler;
+import org.eclipse.jetty.util.StringUtil;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.is;
+
+public class PipelinedResponsesTest
+{
+    private final AtomicInteger flushes = new AtomicInteger();
+    private Server server;
+    private ServerConnector connector;
+
+    private void start(boolean aggregate) throws Exception
+    {
+        server = new Server();
+        HttpConnectionFactory http = new HttpConnectionFactory();
+        http.setAggregatePipelinedResponses(aggregate);
+        connector = new ServerConnector(server, 1, 1, http)
+        {
+            @Override
+            protected SocketChannelEndPoint newEndPoint(SocketChannel channel, ManagedSelector selectSet, SelectionKey key)
+            {
+                SocketChannelEndPoint endPoint = new SocketChannelEndPoint(channel, selectSet, key, getScheduler())
+                {
+                    @Override
+                    public boolean flush(ByteBuffer... buffers) throws IOException
+                    {
+                        flushes.incrementAndGet();
+                        return super.flush(buffers);
+                    }
+                };
+                endPoint.setIdleTimeout(getIdleTimeout());
+                return endPoint;
+            }
+        };
+        server.addConnector(connector);
+        server.setHandler(new AbstractHandler()
+        {
+            @Override
+            public void handle(String target, Request baseRequest, HttpServletRequest request, HttpServletResponse response) throws IOException
+            {
+                baseRequest.setHandled(true);
+                String body = target.equals("/big") ? StringUtil.stringFrom("x", 64 * 1024) : target;
+                response.setContentType("text/plain");
+                response.setContentLength(body.length());
+                response.getOutputStream().write(body.getBytes(StandardCharsets.ISO_8859_1));
+            }
+        });
+        server.start();
+    }
+
+    @AfterEach
+    public void dispose() throws Exception
+    {
+        server.stop();
+    }
+
+    @Test
+    public void testPipelinedResponsesAreAggregated() throws Exception
+    {
+        start(true);
+        try (Socket socket = new Socket("localhost", connector.getLocalPort()))
+        {
+            send(socket, "/a", "/b", "/c");
+            BufferedReader input = reader(socket);
+            assertThat(readBody(input), is("/a"));
+            assertThat(readBody(input), is("/b"));
+            assertThat(readBody(input), is("/c"));
+        }
+        assertThat(flushes.get(), is(1));
+    }
+
+    @Test
+    public void testPipelinedResponsesAreNotAggregatedByDefault() throws Exception
+    {
+        start(false);
+        try (Socket socket = new Socket("localhost", connector.getLocalPort()))
+        {
+            send(socket, "/a", "/b", "/c");
+            BufferedReader input = reader(socket);
+            assertThat(readBody(input), is("/a"));
+            assertThat(readBody(input), is("/b"));
+            assertThat(readBody(input), is("/c"));
+        }
+        assertThat(flushes.get(), is(3));
+    }
+
+    @Test
+    public void testAggregatedResponsesPrecedeLargeResponse() throws Exception
+    {
+        start(true);
+        try (Socket socket = new Socket("localhost", connector.getLocalPort()))
+        {
+            send(socket, "/a", "/b", "/big", "/c");
+            BufferedReader input = reader(socket);
+            assertThat(readBody(input), is("/a"));
+            assertThat(readBody(input), is("/b"));
+            assertThat(readBody(input).length(), is(64 * 1024));
+            assertThat(readBody(input), is("/c"));
+        }
+    }
+
+    private void send(Socket socket, String... targets) throws IOException
+    {
+        StringBuilder requests = new StringBuilder();
+        for (String target : targets)
+        {
+            requests.append("GET ").append(target).append(" HTTP/1.1\r\nHost: localhost\r\n\r\n");
+        }
+        OutputStream output = socket.getOutputStream();
+        output.write(requests.toString().getBytes(StandardCharsets.ISO_8859_1));
+        output.flush();
+    }
+
+    private BufferedReader reader(Socket socket) throws IOException
+    {
+        return new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.ISO_8859_1));
+    }
+
+    private String readBody(BufferedReader input) throws IOException
+    {
+        assertThat(input.readLine(), containsString(" 200 "));
+        int length = -1;
+        String line;
+        while (!(line = input.readLine()).isEmpty())
+        {
+            if (line.toLowerCase().startsWith("content-length:"))
+                length = Integer.parseInt(line.substring(15).trim());
+        }
+        char[] body = new char[length];
+        int read = 0;
+        while (read < length)
+        {
+            read += input.read(body, read, length - read);
+        }
+        return new String(body);
+    }
+}
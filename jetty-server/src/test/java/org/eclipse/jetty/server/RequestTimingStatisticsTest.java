@@ -0,0 +1,162 @@
+//
+// ========================================================================
+// Copyright (c) 1995-2022 Mort Bay Consulting Pty Ltd and others.
+//
+// This program and the accompanying materials are made available under the
+// terms of the Eclipse Public License v. 2.0 which is available at
+// https://www.eclipse.org/legal/epl-2.0, or the Apache License, Version 2.0
+// which is available at https://www.apache.org/licenses/LICENSE-2.0.
+//
+// SPDX-License-Identifier: EPL-2.0 OR Apache-2.0
+// ========================================================================
+//
+
+package org.eclipse.jetty.server;
+
+import java.util.concurrent.TimeUnit;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+import org.eclipse.jetty.http.HttpTester;
+import org.eclipse.jetty.server.RequestTimingStatistics.Phase;
+import org.eclipse.jetty.server.RequestTimingStatistics.Timings;
+import org.eclipse.jetty.server.handler.AbstractHandler;
+import org.eclipse.jetty.server.handler.ContextHandler;
+import org.eclipse.jetty.util.BlockingArrayQueue;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.greaterThanOrEqualTo;
+import static org.hamcrest.Matchers.lessThanOrEqualTo;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class RequestTimingStatisticsTest
+{
+    private Server _server;
+
+    @AfterEach
+    public void dispose() throws Exception
+    {
+        if (_server != null)
+            _server.stop();
+    }
+
+    @Test
+    public void testPhaseTimings() throws Exception
+    {
+        _server = new Server();
+        LocalConnector connector = new LocalConnector(_server);
+        connector.setName("local");
+        _server.addConnector(connector);
+        BlockingArrayQueue<Request> completed = new BlockingArrayQueue<>();
+        RequestTimingStatistics timings = new RequestTimingStatistics();
+        _server.addBean(timings);
+        _server.addBeanToAllConnectors(timings);
+        connector.addBean(new HttpChannel.Listener()
+        {
+            @Override
+            public void onComplete(Request request)
+            {
+                completed.add(request);
+            }
+        });
+
+        ContextHandler context = new ContextHandler("/ctx");
+        context.addEventListener(timings);
+        context.setHandler(new AbstractHandler()
+        {
+            @Override
+            public void handle(String target, Request baseRequest, HttpServletRequest request, HttpServletResponse response)
+            {
+                baseRequest.setHandled(true);
+                sleep(50);
+            }
+        });
+        _server.setHandler(context);
+        _server.start();
+
+        int requests = 3;
+        for (int i = 0; i < requests; ++i)
+        {
+            HttpTester.Response response = HttpTester.parseResponse(connector.getResponse("GET /ctx/ HTTP/1.1\r\nHost: localhost\r\nConnection: close\r\n\r\n"));
+            assertEquals(200, response.getStatus());
+            assertNotNull(completed.poll(5, TimeUnit.SECONDS));
+        }
+
+        Timings connectorTimings = timings.getTimings(connector);
+        assertEquals("connector:local", connectorTimings.getName());
+        for (Phase phase : Phase.values())
+        {
+            assertEquals(requests, connectorTimings.getHistogram(phase).getCount(), phase.name());
+        }
+        long handle = connectorTimings.getHandleTimeMedian();
+        assertThat(handle, greaterThanOrEqualTo(TimeUnit.MILLISECONDS.toMicros(50)));
+        assertThat(handle, lessThanOrEqualTo(connectorTimings.getFirstByteTimeMedian()));
+        assertThat(connectorTimings.getFirstByteTimeMedian(), lessThanOrEqualTo(connectorTimings.getTotalTime99thPercentile()));
+
+        Timings contextTimings = timings.getTimings(context);
+        assertEquals("context:/ctx", contextTimings.getName());
+        assertEquals(0, contextTimings.getHistogram(Phase.PARSE).getCount());
+        assertEquals(0, contextTimings.getHistogram(Phase.QUEUE).getCount());
+        assertEquals(requests, contextTimings.getHistogram(Phase.HANDLE).getCount());
+        assertEquals(requests, contextTimings.getHistogram(Phase.TOTAL).getCount());
+        assertTrue(timings.getBeans(Timings.class).contains(contextTimings));
+
+        timings.reset();
+        assertEquals(0, connectorTimings.getHistogram(Phase.TOTAL).getCount());
+    }
+
+    @Test
+    public void testParseTimeStartsAtFirstByte() throws Exception
+    {
+        _server = new Server();
+        LocalConnector connector = new LocalConnector(_server);
+        _server.addConnector(connector);
+        RequestTimingStatistics timings = new RequestTimingStatistics();
+        _server.addBean(timings);
+        _server.addBeanToAllConnectors(timings);
+        _server.setHandler(new AbstractHandler()
+        {
+            @Override
+            public void handle(String target, Request baseRequest, HttpServletRequest request, HttpServletResponse response)
+            {
+                baseRequest.setHandled(true);
+            }
+        });
+        _server.start();
+
+        // Warm up, so that the connection is opened and serves the request promptly.
+        HttpTester.Response response = HttpTester.parseResponse(connector.getResponse("GET /path HTTP/1.1\r\nHost: localhost\r\nConnection: close\r\n\r\n"));
+        assertEquals(200, response.getStatus());
+        timings.reset();
+
+        // Split the request line, so that it is parsed only after the delay.
+        long delay = 200;
+        LocalConnector.LocalEndPoint endPoint = connector.connect();
+        endPoint.addInput("GET /pa");
+        sleep(delay);
+        endPoint.addInput("th HTTP/1.1\r\nHost: localhost\r\nConnection: close\r\n\r\n");
+        response = HttpTester.parseResponse(endPoint.getResponse());
+        assertEquals(200, response.getStatus());
+
+        Timings connectorTimings = timings.getTimings(connector);
+        assertEquals(1, connectorTimings.getHistogram(Phase.PARSE).getCount());
+        // Allow for the precision of the histogram.
+        assertThat(connectorTimings.getParseTimeMedian(), greaterThanOrEqualTo(TimeUnit.MILLISECONDS.toMicros(delay / 2)));
+    }
+
+    private static void sleep(long ms)
+    {
+        try
+        {
+            Thread.sleep(ms);
+        }
+        catch (InterruptedException x)
+        {
+            throw new RuntimeException(x);
+        }
+    }
+}
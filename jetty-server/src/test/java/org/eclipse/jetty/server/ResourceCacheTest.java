@@ -18,6 +18,7 @@ import java.io.File;
 import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.OutputStream;
+import java.nio.ByteBuffer;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.StandardOpenOption;
@@ -38,11 +39,14 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 
 import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.hamcrest.CoreMatchers.instanceOf;
 import static org.hamcrest.CoreMatchers.is;
 import static org.hamcrest.CoreMatchers.not;
 import static org.hamcrest.CoreMatchers.nullValue;
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
 @ExtendWith(WorkDirExtension.class)
@@ -342,6 +346,78 @@ public class ResourceCacheTest
         cache.flushCache();
     }
 
+    @Test
+    public void testSecondChanceEviction() throws Exception
+    {
+        Path basePath = workDir.getEmptyPathDir();
+        makeFile(basePath.resolve("a.txt"), "a");
+        makeFile(basePath.resolve("b.txt"), "b");
+        makeFile(basePath.resolve("c.txt"), "c");
+
+        CachedContentFactory cache = new CachedContentFactory(null, new PathResource(basePath), new MimeTypes(), false, false, CompressedContentFormat.NONE);
+        cache.setMaxCachedFiles(2);
+
+        HttpContent a = cache.getContent("a.txt", 4096);
+        HttpContent b = cache.getContent("b.txt", 4096);
+        assertEquals(2, cache.getCachedFiles());
+
+        // Access a.txt again, so that b.txt is evicted rather than a.txt.
+        assertSame(a, cache.getContent("a.txt", 4096));
+        cache.getContent("c.txt", 4096);
+
+        assertEquals(2, cache.getCachedFiles());
+        assertSame(a, cache.getContent("a.txt", 4096));
+        assertNotSame(b, cache.getContent("b.txt", 4096));
+    }
+
+    @Test
+    public void testFrequencyAdmission() throws Exception
+    {
+        Path basePath = workDir.getEmptyPathDir();
+        makeFile(basePath.resolve("a.txt"), "a");
+        makeFile(basePath.resolve("b.txt"), "b");
+        makeFile(basePath.resolve("c.txt"), "c");
+
+        CachedContentFactory cache = new CachedContentFactory(null, new PathResource(basePath), new MimeTypes(), false, false, CompressedContentFormat.NONE);
+        cache.setMaxCachedFiles(2);
+        cache.setUseFrequencyAdmission(true);
+        assertTrue(cache.isUseFrequencyAdmission());
+
+        for (int i = 0; i < 2; ++i)
+        {
+            assertThat(cache.getContent("a.txt", 4096), instanceOf(CachedContentFactory.CachedHttpContent.class));
+            assertThat(cache.getContent("b.txt", 4096), instanceOf(CachedContentFactory.CachedHttpContent.class));
+        }
+
+        // A rarely requested resource does not evict more popular ones.
+        assertThat(cache.getContent("c.txt", 4096), instanceOf(ResourceHttpContent.class));
+        assertThat(cache.getContent("c.txt", 4096), instanceOf(ResourceHttpContent.class));
+        assertEquals(2, cache.getCachedFiles());
+
+        // Once it is more popular, it is admitted.
+        assertThat(cache.getContent("c.txt", 4096), instanceOf(CachedContentFactory.CachedHttpContent.class));
+        assertEquals(2, cache.getCachedFiles());
+        assertEquals("c", getContent(cache, "c.txt"));
+    }
+
+    @Test
+    public void testUseDirectByteBuffers() throws Exception
+    {
+        Path basePath = workDir.getEmptyPathDir();
+        makeFile(basePath.resolve("a.txt"), "direct content");
+
+        CachedContentFactory cache = new CachedContentFactory(null, new PathResource(basePath), new MimeTypes(), false, false, CompressedContentFormat.NONE);
+        cache.setUseDirectByteBuffers(true);
+
+        HttpContent content = cache.getContent("a.txt", 4096);
+        ByteBuffer indirect = content.getIndirectBuffer();
+        assertTrue(indirect.isDirect());
+        assertEquals("direct content", BufferUtil.toString(indirect));
+        assertTrue(content.getDirectBuffer().isDirect());
+        // The content is cached only once.
+        assertEquals(14, cache.getCachedSize());
+    }
+
     @Test
     public void testNoextension() throws Exception
     {
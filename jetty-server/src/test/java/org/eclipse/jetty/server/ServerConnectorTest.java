@@ -20,14 +20,20 @@ import java.lang.reflect.Field;
 import java.net.BindException;
 import java.net.HttpURLConnection;
 import java.net.InetSocketAddress;
+import java.net.ProtocolFamily;
 import java.net.ServerSocket;
 import java.net.Socket;
 import java.net.URI;
 import java.net.URISyntaxException;
+import java.nio.channels.DatagramChannel;
+import java.nio.channels.Pipe;
 import java.nio.channels.ServerSocketChannel;
 import java.nio.channels.SocketChannel;
+import java.nio.channels.spi.AbstractSelector;
+import java.nio.channels.spi.SelectorProvider;
 import java.nio.charset.StandardCharsets;
 import java.util.Collection;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicLong;
 import javax.servlet.ServletException;
 import javax.servlet.http.HttpServletRequest;
@@ -344,6 +350,77 @@ public class ServerConnectorTest
         assertThat(connector.getTransport(), Matchers.nullValue());
     }
 
+    @Test
+    public void testSelectorProvider() throws Exception
+    {
+        AtomicInteger selectors = new AtomicInteger();
+        AtomicInteger serverChannels = new AtomicInteger();
+        SelectorProvider defaultProvider = SelectorProvider.provider();
+        SelectorProvider provider = new SelectorProvider()
+        {
+            @Override
+            public DatagramChannel openDatagramChannel() throws IOException
+            {
+                return defaultProvider.openDatagramChannel();
+            }
+
+            @Override
+            public DatagramChannel openDatagramChannel(ProtocolFamily family) throws IOException
+            {
+                return defaultProvider.openDatagramChannel(family);
+            }
+
+            @Override
+            public Pipe openPipe() throws IOException
+            {
+                return defaultProvider.openPipe();
+            }
+
+            @Override
+            public AbstractSelector openSelector() throws IOException
+            {
+                selectors.incrementAndGet();
+                return defaultProvider.openSelector();
+            }
+
+            @Override
+            public ServerSocketChannel openServerSocketChannel() throws IOException
+            {
+                serverChannels.incrementAndGet();
+                return defaultProvider.openServerSocketChannel();
+            }
+
+            @Override
+            public SocketChannel openSocketChannel() throws IOException
+            {
+                return defaultProvider.openSocketChannel();
+            }
+        };
+
+        Server server = new Server();
+        ServerConnector connector = new ServerConnector(server, 1, 2);
+        connector.getSelectorManager().setSelectorProvider(provider);
+        connector.setPort(0);
+        server.addConnector(connector);
+        server.setHandler(new DefaultHandler());
+
+        try
+        {
+            server.start();
+
+            assertSame(provider, connector.getSelectorManager().getSelectorProvider());
+            assertEquals(2, selectors.get());
+            assertEquals(1, serverChannels.get());
+            HttpURLConnection http = (HttpURLConnection)toServerURI(connector).toURL().openConnection();
+            assertEquals(HttpStatus.NOT_FOUND_404, http.getResponseCode());
+            assertThrows(IllegalStateException.class, () -> connector.getSelectorManager().setSelectorProvider(null));
+        }
+        finally
+        {
+            server.stop();
+        }
+    }
+
     @Test
     public void testBindToAddressWhichIsInUse() throws Exception
     {
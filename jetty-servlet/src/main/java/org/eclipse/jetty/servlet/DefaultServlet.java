@@ -102,6 +102,11 @@ import org.slf4j.LoggerFactory;
  *  maxCacheSize      The maximum total size of the cache or 0 for no cache.
  *  maxCachedFileSize The maximum size of a file to cache
  *  maxCachedFiles    The maximum number of files to cache
+ *  cacheDirectByteBuffers
+ *                    If true, cached content is only kept in direct (off-heap) buffers.
+ *  cacheFrequencyAdmission
+ *                    If true, new files are only cached when the cache is full if they
+ *                    are requested more frequently than the file they would evict.
  *
  *  useFileMappedBuffer
  *                    If set to true, it will use mapped file buffer to serve static content
@@ -260,6 +265,8 @@ public class DefaultServlet extends HttpServlet implements ResourceFactory, Welc
                     _cache.setMaxCachedFileSize(maxCachedFileSize);
                 if (maxCachedFiles >= -1)
                     _cache.setMaxCachedFiles(maxCachedFiles);
+                _cache.setUseDirectByteBuffers(getInitBoolean("cacheDirectByteBuffers", false));
+                _cache.setUseFrequencyAdmission(getInitBoolean("cacheFrequencyAdmission", false));
                 _servletContext.setAttribute(resourceCache == null ? "resourceCache" : resourceCache, _cache);
             }
         }
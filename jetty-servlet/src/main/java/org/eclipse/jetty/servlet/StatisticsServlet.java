@@ -268,6 +268,9 @@ public class StatisticsServlet extends HttpServlet
         requests.put("requestsTimeMean", _statsHandler.getRequestTimeMean());
         requests.put("requestsTimeMax", _statsHandler.getRequestTimeMax());
         requests.put("requestsTimeStdDev", _statsHandler.getRequestTimeStdDev());
+        requests.put("requestsTimeMedian", _statsHandler.getRequestTimeMedian());
+        requests.put("requestsTime99thPercentile", _statsHandler.getRequestTime99thPercentile());
+        requests.put("requestsTime999thPercentile", _statsHandler.getRequestTime999thPercentile());
 
         requests.put("dispatched", _statsHandler.getDispatched());
         requests.put("dispatchedActive", _statsHandler.getDispatchedActive());
@@ -276,6 +279,9 @@ public class StatisticsServlet extends HttpServlet
         requests.put("dispatchedTimeMean", _statsHandler.getDispatchedTimeMean());
         requests.put("dispatchedTimeMax", _statsHandler.getDispatchedTimeMax());
         requests.put("dispatchedTimeStdDev", _statsHandler.getDispatchedTimeStdDev());
+        requests.put("dispatchedTimeMedian", _statsHandler.getDispatchedTimeMedian());
+        requests.put("dispatchedTime99thPercentile", _statsHandler.getDispatchedTime99thPercentile());
+        requests.put("dispatchedTime999thPercentile", _statsHandler.getDispatchedTime999thPercentile());
 
         requests.put("asyncRequests", _statsHandler.getAsyncRequests());
         requests.put("requestsSuspended", _statsHandler.getAsyncDispatches());
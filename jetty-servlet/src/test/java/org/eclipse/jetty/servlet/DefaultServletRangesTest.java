@@ -32,6 +32,7 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 
 import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.endsWith;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
@@ -113,6 +114,23 @@ public class DefaultServletRangesTest
         assertResponseContains(DATA.substring(0, 10), response);
     }
 
+    @Test
+    public void testSingleRangeRequestFileMapped() throws Exception
+    {
+        connector.getConnectionFactory(HttpConfiguration.ConnectionFactory.class).getHttpConfiguration().setUseFileMappedOutput(true);
+
+        String response = connector.getResponse(
+            "GET /context/data.txt HTTP/1.1\r\n" +
+                "Host: localhost\r\n" +
+                "Connection: close\r\n" +
+                "Range: bytes=3-9\r\n" +
+                "\r\n");
+        assertResponseContains("206 Partial", response);
+        assertResponseContains("Content-Length: 7", response);
+        assertResponseContains("Content-Range: bytes 3-9/80", response);
+        assertThat(response, endsWith("\r\n\r\n" + DATA.substring(3, 10)));
+    }
+
     @Test
     public void testSingleRangeRequests() throws Exception
     {
@@ -23,8 +23,10 @@ import java.nio.charset.StandardCharsets;
 import java.util.Arrays;
 import java.util.EnumSet;
 import java.util.Enumeration;
+import java.util.zip.Deflater;
 import java.util.zip.GZIPInputStream;
 import java.util.zip.GZIPOutputStream;
+import java.util.zip.InflaterInputStream;
 import javax.servlet.AsyncContext;
 import javax.servlet.DispatcherType;
 import javax.servlet.Filter;
@@ -45,6 +47,8 @@ import org.eclipse.jetty.http.HttpTester;
 import org.eclipse.jetty.server.HttpOutput;
 import org.eclipse.jetty.server.LocalConnector;
 import org.eclipse.jetty.server.Server;
+import org.eclipse.jetty.server.handler.gzip.Compressor;
+import org.eclipse.jetty.server.handler.gzip.CompressorFactory;
 import org.eclipse.jetty.server.handler.gzip.GzipHandler;
 import org.eclipse.jetty.util.BufferUtil;
 import org.eclipse.jetty.util.IO;
@@ -52,6 +56,8 @@ import org.hamcrest.Matchers;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
 
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.contains;
@@ -122,6 +128,65 @@ public class GzipHandlerTest
         _server.start();
     }
 
+    public static class DeflateCompressorFactory implements CompressorFactory
+    {
+        private static final CompressedContentFormat FORMAT = new CompressedContentFormat("deflate", ".zz");
+
+        @Override
+        public CompressedContentFormat getFormat()
+        {
+            return FORMAT;
+        }
+
+        @Override
+        public Compressor newCompressor()
+        {
+            return new Compressor()
+            {
+                private final Deflater deflater = new Deflater();
+                private boolean last;
+
+                @Override
+                public CompressedContentFormat getFormat()
+                {
+                    return FORMAT;
+                }
+
+                @Override
+                public void setInput(ByteBuffer content, boolean last)
+                {
+                    deflater.setInput(content);
+                    if (last)
+                    {
+                        this.last = true;
+                        deflater.finish();
+                    }
+                }
+
+                @Override
+                public boolean needsInput()
+                {
+                    return !last && deflater.needsInput();
+                }
+
+                @Override
+                public boolean compress(ByteBuffer output, boolean flush)
+                {
+                    int pos = BufferUtil.flipToFill(output);
+                    deflater.deflate(output, flush ? Deflater.SYNC_FLUSH : Deflater.NO_FLUSH);
+                    BufferUtil.flipToFlush(output, pos);
+                    return deflater.finished();
+                }
+
+                @Override
+                public void release()
+                {
+                    deflater.end();
+                }
+            };
+        }
+    }
+
     public static class MicroServlet extends HttpServlet
     {
         @Override
@@ -506,6 +571,97 @@ public class GzipHandlerTest
         assertEquals(__content, testOut.toString("UTF8"));
     }
 
+    @ParameterizedTest
+    @ValueSource(strings = {"gzip;q=0.5, deflate", "*", "deflate, *;q=0.1", "x-gzip", "br;q=1.0, gzip;q=0.8"})
+    public void testAcceptEncodingGzip(String acceptEncoding) throws Exception
+    {
+        HttpTester.Request request = HttpTester.newRequest();
+        request.setMethod("GET");
+        request.setURI("/ctx/content");
+        request.setVersion("HTTP/1.0");
+        request.setHeader("Host", "tester");
+        request.setHeader("Accept-Encoding", acceptEncoding);
+
+        HttpTester.Response response = HttpTester.parseResponse(_connector.getResponse(request.generate()));
+
+        assertThat(response.getStatus(), is(200));
+        assertThat(response.get("Content-Encoding"), equalToIgnoringCase("gzip"));
+        InputStream testIn = new GZIPInputStream(new ByteArrayInputStream(response.getContentBytes()));
+        assertEquals(__content, IO.toString(testIn, StandardCharsets.UTF_8));
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"deflate", "gzip;q=0", "gzip;q=0.0, *", "*;q=0", "identity, x-gzip;q=0"})
+    public void testAcceptEncodingNotGzip(String acceptEncoding) throws Exception
+    {
+        HttpTester.Request request = HttpTester.newRequest();
+        request.setMethod("GET");
+        request.setURI("/ctx/content");
+        request.setVersion("HTTP/1.0");
+        request.setHeader("Host", "tester");
+        request.setHeader("Accept-Encoding", acceptEncoding);
+
+        HttpTester.Response response = HttpTester.parseResponse(_connector.getResponse(request.generate()));
+
+        assertThat(response.getStatus(), is(200));
+        assertThat(response.get("Content-Encoding"), nullValue());
+        assertEquals(__content, response.getContent());
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"deflate", "gzip, deflate", "gzip;q=0.5, deflate", "*", "deflate;q=0.5, gzip;q=0"})
+    public void testCompressorFactory(String acceptEncoding) throws Exception
+    {
+        _server.stop();
+        gzipHandler.addCompressorFactory(new DeflateCompressorFactory());
+        _server.start();
+
+        HttpTester.Request request = HttpTester.newRequest();
+        request.setMethod("GET");
+        request.setURI("/ctx/content");
+        request.setVersion("HTTP/1.0");
+        request.setHeader("Host", "tester");
+        request.setHeader("Accept-Encoding", acceptEncoding);
+
+        HttpTester.Response response = HttpTester.parseResponse(_connector.getResponse(request.generate()));
+
+        assertThat(response.getStatus(), is(200));
+        assertThat(response.get("Content-Encoding"), is("deflate"));
+        assertThat(response.get("ETag"), is(DeflateCompressorFactory.FORMAT.etag(__contentETag)));
+        InputStream testIn = new InflaterInputStream(new ByteArrayInputStream(response.getContentBytes()));
+        assertEquals(__content, IO.toString(testIn, StandardCharsets.UTF_8));
+
+        // A conditional request with the etag of the deflated content.
+        request.setHeader("If-None-Match", response.get("ETag"));
+        response = HttpTester.parseResponse(_connector.getResponse(request.generate()));
+        assertThat(response.getStatus(), is(304));
+        assertThat(response.get("ETag"), is(DeflateCompressorFactory.FORMAT.etag(__contentETag)));
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"gzip, deflate;q=0.5", "x-gzip", "deflate;q=0, *"})
+    public void testCompressorFactoryNegotiatesGzip(String acceptEncoding) throws Exception
+    {
+        _server.stop();
+        gzipHandler.addCompressorFactory(new DeflateCompressorFactory());
+        _server.start();
+
+        HttpTester.Request request = HttpTester.newRequest();
+        request.setMethod("GET");
+        request.setURI("/ctx/content");
+        request.setVersion("HTTP/1.0");
+        request.setHeader("Host", "tester");
+        request.setHeader("Accept-Encoding", acceptEncoding);
+
+        HttpTester.Response response = HttpTester.parseResponse(_connector.getResponse(request.generate()));
+
+        assertThat(response.getStatus(), is(200));
+        assertThat(response.get("Content-Encoding"), is("gzip"));
+        assertThat(response.get("ETag"), is(__contentETagGzip));
+        InputStream testIn = new GZIPInputStream(new ByteArrayInputStream(response.getContentBytes()));
+        assertEquals(__content, IO.toString(testIn, StandardCharsets.UTF_8));
+    }
+
     @Test
     public void testGzipNotMicro() throws Exception
     {
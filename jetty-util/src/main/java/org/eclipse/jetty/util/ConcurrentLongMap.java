@@ -0,0 +1,434 @@
+//
+// ========================================================================
+// Copyright (c) 1995-2022 Mort Bay Consulting Pty Ltd and others.
+//
+// This program and the accompanying materials are made available under the
+// terms of the Eclipse Public License v. 2.0 which is available at
+// https://www.eclipse.org/legal/epl-2.0, or the Apache License, Version 2.0
+// which is available at https://www.apache.org/licenses/LICENSE-2.0.
+//
+// SPDX-License-Identifier: EPL-2.0 OR Apache-2.0
+// ========================================================================
+//
+
+package org.eclipse.jetty.util;
+
+import java.lang.invoke.VarHandle;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+import java.util.function.LongFunction;
+
+/**
+ * <p>A concurrent map with primitive {@code long} keys.</p>
+ * <p>Differently from {@code ConcurrentHashMap<Long, V>}, keys are not boxed
+ * and mappings do not allocate nodes: each segment of the map is an open
+ * addressing hash table with linear probing, made of a {@code long[]} of keys
+ * and an array of values.</p>
+ * <p>Reads never block: they are performed optimistically and validated
+ * against a version that writers increment before and after modifying the
+ * segment tables, and retried if a write happened concurrently.
+ * Writes are serialized per segment.</p>
+ * <p>{@code null} values are not allowed.</p>
+ *
+ * @param <V> the type of the values
+ */
+public class ConcurrentLongMap<V>
+{
+    private final Segment<V>[] segments;
+    private final int segmentMask;
+
+    public ConcurrentLongMap()
+    {
+        this(16, 4);
+    }
+
+    /**
+     * @param initialCapacity the initial number of mappings the map is sized for
+     * @param concurrencyLevel the estimated number of concurrent writers
+     */
+    @SuppressWarnings("unchecked")
+    public ConcurrentLongMap(int initialCapacity, int concurrencyLevel)
+    {
+        if (initialCapacity < 0)
+            throw new IllegalArgumentException("Invalid initial capacity " + initialCapacity);
+        if (concurrencyLevel <= 0)
+            throw new IllegalArgumentException("Invalid concurrency level " + concurrencyLevel);
+        int segmentCount = ceilToPowerOfTwo(concurrencyLevel);
+        int segmentCapacity = (initialCapacity + segmentCount - 1) / segmentCount;
+        segments = new Segment[segmentCount];
+        for (int i = 0; i < segmentCount; ++i)
+        {
+            segments[i] = new Segment<>(segmentCapacity);
+        }
+        segmentMask = segmentCount - 1;
+    }
+
+    private static int ceilToPowerOfTwo(int value)
+    {
+        return value <= 1 ? 1 : Integer.highestOneBit(value - 1) << 1;
+    }
+
+    private static long hash(long key)
+    {
+        // Spreads sequential keys, such as stream ids, over the table.
+        long h = key * 0x9E37_79B9_7F4A_7C15L;
+        return h ^ (h >>> 32);
+    }
+
+    private Segment<V> segment(long hash)
+    {
+        return segments[(int)(hash >>> 32) & segmentMask];
+    }
+
+    /**
+     * @param key the key
+     * @return the value mapped to the given key, or null if there is no mapping
+     */
+    public V get(long key)
+    {
+        long hash = hash(key);
+        return segment(hash).get(key, (int)hash);
+    }
+
+    /**
+     * @param key the key
+     * @return whether there is a mapping for the given key
+     */
+    public boolean containsKey(long key)
+    {
+        return get(key) != null;
+    }
+
+    /**
+     * @param key the key
+     * @param value the value
+     * @return the value previously mapped to the given key, or null if there was no mapping
+     */
+    public V put(long key, V value)
+    {
+        Objects.requireNonNull(value);
+        long hash = hash(key);
+        return segment(hash).put(key, (int)hash, value, false);
+    }
+
+    /**
+     * @param key the key
+     * @param value the value
+     * @return the value already mapped to the given key, or null if the given value was mapped
+     */
+    public V putIfAbsent(long key, V value)
+    {
+        Objects.requireNonNull(value);
+        long hash = hash(key);
+        return segment(hash).put(key, (int)hash, value, true);
+    }
+
+    /**
+     * <p>Returns the value mapped to the given key, or maps the value computed
+     * by the given function if there is no mapping.</p>
+     * <p>The function is invoked at most once per absent key, and while it is
+     * invoked other writers of the same segment are blocked, so it should be
+     * short and it must not modify this map; readers are not blocked.</p>
+     *
+     * @param key the key
+     * @param function the function that computes the value
+     * @return the existing or the computed value, or null if the function returned null
+     */
+    public V computeIfAbsent(long key, LongFunction<? extends V> function)
+    {
+        long hash = hash(key);
+        Segment<V> segment = segment(hash);
+        V value = segment.get(key, (int)hash);
+        if (value != null)
+            return value;
+        return segment.computeIfAbsent(key, (int)hash, function);
+    }
+
+    /**
+     * @param key the key
+     * @return the value that was mapped to the given key, or null if there was no mapping
+     */
+    public V remove(long key)
+    {
+        long hash = hash(key);
+        return segment(hash).remove(key, (int)hash);
+    }
+
+    /**
+     * <p>Removes all the mappings.</p>
+     */
+    public void clear()
+    {
+        for (Segment<V> segment : segments)
+        {
+            segment.clear();
+        }
+    }
+
+    /**
+     * @return the number of mappings
+     */
+    public int size()
+    {
+        int size = 0;
+        for (Segment<V> segment : segments)
+        {
+            size += segment.size;
+        }
+        return size;
+    }
+
+    /**
+     * @return whether there are no mappings
+     */
+    public boolean isEmpty()
+    {
+        return size() == 0;
+    }
+
+    /**
+     * <p>Returns a snapshot of the values of this map.</p>
+     * <p>Each segment is copied atomically, but concurrent modifications
+     * of different segments may or may not be reflected.</p>
+     *
+     * @return a new list with the values of this map
+     */
+    public List<V> values()
+    {
+        List<V> result = new ArrayList<>(size());
+        for (Segment<V> segment : segments)
+        {
+            segment.values(result);
+        }
+        return result;
+    }
+
+    @Override
+    public String toString()
+    {
+        return String.format("%s@%x[size=%d]", getClass().getSimpleName(), hashCode(), size());
+    }
+
+    private static class Segment<V>
+    {
+        private static final int MIN_CAPACITY = 4;
+
+        // Odd while a writer modifies the tables.
+        private volatile int version;
+        private volatile int size;
+        private long[] keys;
+        private Object[] values;
+
+        private Segment(int capacity)
+        {
+            int tableSize = tableSize(capacity);
+            keys = new long[tableSize];
+            values = new Object[tableSize];
+        }
+
+        private static int tableSize(int capacity)
+        {
+            // Keep the load factor at most 3/4.
+            return Math.max(MIN_CAPACITY, ceilToPowerOfTwo(capacity + (capacity + 2) / 3));
+        }
+
+        private static int indexOf(long[] keys, Object[] values, long key, int hash)
+        {
+            int mask = keys.length - 1;
+            int index = hash & mask;
+            // Probes at most the whole table, as a torn
+            // optimistic read may observe a full table.
+            for (int i = 0; i <= mask; ++i)
+            {
+                if (values[index] == null)
+                    return -index - 1;
+                if (keys[index] == key)
+                    return index;
+                index = (index + 1) & mask;
+            }
+            return -1;
+        }
+
+        @SuppressWarnings("unchecked")
+        private V get(long key, int hash)
+        {
+            while (true)
+            {
+                int version = this.version;
+                if ((version & 1) == 0)
+                {
+                    long[] keys = this.keys;
+                    Object[] values = this.values;
+                    Object value = null;
+                    if (keys.length == values.length)
+                    {
+                        int index = indexOf(keys, values, key, hash);
+                        if (index >= 0)
+                            value = values[index];
+                    }
+                    VarHandle.acquireFence();
+                    if (version == this.version)
+                        return (V)value;
+                }
+                Thread.onSpinWait();
+            }
+        }
+
+        @SuppressWarnings("unchecked")
+        private void values(List<V> result)
+        {
+            int start = result.size();
+            while (true)
+            {
+                int version = this.version;
+                if ((version & 1) == 0)
+                {
+                    for (Object value : this.values)
+                    {
+                        if (value != null)
+                            result.add((V)value);
+                    }
+                    VarHandle.acquireFence();
+                    if (version == this.version)
+                        return;
+                    result.subList(start, result.size()).clear();
+                }
+                Thread.onSpinWait();
+            }
+        }
+
+        private void beginWrite()
+        {
+            version = version + 1;
+            // Table stores must not be reordered before the version store.
+            VarHandle.storeStoreFence();
+        }
+
+        private void endWrite()
+        {
+            version = version + 1;
+        }
+
+        @SuppressWarnings("unchecked")
+        private synchronized V put(long key, int hash, V value, boolean onlyIfAbsent)
+        {
+            int index = indexOf(keys, values, key, hash);
+            if (index >= 0)
+            {
+                V existing = (V)values[index];
+                if (!onlyIfAbsent)
+                {
+                    beginWrite();
+                    values[index] = value;
+                    endWrite();
+                }
+                return existing;
+            }
+            insert(key, hash, value);
+            return null;
+        }
+
+        @SuppressWarnings("unchecked")
+        private synchronized V computeIfAbsent(long key, int hash, LongFunction<? extends V> function)
+        {
+            int index = indexOf(keys, values, key, hash);
+            if (index >= 0)
+                return (V)values[index];
+            // The function is invoked outside of the write,
+            // so that concurrent readers do not spin on it.
+            V value = function.apply(key);
+            if (value == null)
+                return null;
+            if (indexOf(keys, values, key, hash) >= 0)
+                throw new IllegalStateException("Recursive update");
+            insert(key, hash, value);
+            return value;
+        }
+
+        private void insert(long key, int hash, Object value)
+        {
+            beginWrite();
+            int size = this.size;
+            if (tableSize(size + 1) > keys.length)
+                resize(tableSize(size + 1));
+            int mask = keys.length - 1;
+            int index = hash & mask;
+            while (values[index] != null)
+            {
+                index = (index + 1) & mask;
+            }
+            keys[index] = key;
+            values[index] = value;
+            this.size = size + 1;
+            endWrite();
+        }
+
+        private void resize(int tableSize)
+        {
+            long[] oldKeys = keys;
+            Object[] oldValues = values;
+            long[] newKeys = new long[tableSize];
+            Object[] newValues = new Object[tableSize];
+            int mask = tableSize - 1;
+            for (int i = 0; i < oldKeys.length; ++i)
+            {
+                Object value = oldValues[i];
+                if (value == null)
+                    continue;
+                long key = oldKeys[i];
+                int index = (int)hash(key) & mask;
+                while (newValues[index] != null)
+                {
+                    index = (index + 1) & mask;
+                }
+                newKeys[index] = key;
+                newValues[index] = value;
+            }
+            keys = newKeys;
+            values = newValues;
+        }
+
+        @SuppressWarnings("unchecked")
+        private synchronized V remove(long key, int hash)
+        {
+            int index = indexOf(keys, values, key, hash);
+            if (index < 0)
+                return null;
+            V removed = (V)values[index];
+            beginWrite();
+            // Shifts back the following entries of the probe sequence,
+            // so that lookups do not need tombstones.
+            int mask = keys.length - 1;
+            int hole = index;
+            int next = (hole + 1) & mask;
+            while (values[next] != null)
+            {
+                int home = (int)hash(keys[next]) & mask;
+                // Move the entry if its home slot is not cyclically within (hole, next].
+                if (((next - home) & mask) >= ((next - hole) & mask))
+                {
+                    keys[hole] = keys[next];
+                    values[hole] = values[next];
+                    hole = next;
+                }
+                next = (next + 1) & mask;
+            }
+            values[hole] = null;
+            size = size - 1;
+            endWrite();
+            return removed;
+        }
+
+        private synchronized void clear()
+        {
+            if (size == 0)
+                return;
+            beginWrite();
+            Arrays.fill(values, null);
+            size = 0;
+            endWrite();
+        }
+    }
+}
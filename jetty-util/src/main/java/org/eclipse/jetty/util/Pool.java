@@ -20,6 +20,8 @@ import java.util.Collection;
 import java.util.Collections;
 import java.util.List;
 import java.util.Objects;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
 import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.ThreadLocalRandom;
 import java.util.concurrent.atomic.AtomicInteger;
@@ -62,6 +64,7 @@ public class Pool<T> implements AutoCloseable, Dumpable
     private final AutoLock lock = new AutoLock();
     private final ThreadLocal<Entry> cache;
     private final AtomicInteger nextIndex;
+    private final List<Queue<Entry>> freeLists;
     private volatile boolean closed;
     @Deprecated
     private volatile int maxUsage = -1;
@@ -101,7 +104,18 @@ public class Pool<T> implements AutoCloseable, Dumpable
          * random strategy but with more predictable behaviour.
          * No entries are favoured and contention is reduced.
          */
-        ROUND_ROBIN
+        ROUND_ROBIN,
+
+        /**
+         * A strategy that keeps idle entries in free lists, striped by thread,
+         * so that acquiring and releasing an entry takes constant time regardless
+         * of the number of entries in the pool.
+         * A thread looks for an entry in its own free list first, then in the others.
+         * The {@link ThreadLocal} cache is not used with this strategy, and pools
+         * with a max multiplex count greater than one or with a max usage count
+         * fall back to iterating from the first entry.
+         */
+        FREE_LIST
     }
 
     /**
@@ -128,8 +142,23 @@ public class Pool<T> implements AutoCloseable, Dumpable
     {
         this.maxEntries = maxEntries;
         this.strategyType = strategyType;
-        this.cache = cache ? new ThreadLocal<>() : null;
+        this.cache = cache && strategyType != StrategyType.FREE_LIST ? new ThreadLocal<>() : null;
         this.nextIndex = strategyType == StrategyType.ROUND_ROBIN ? new AtomicInteger() : null;
+        if (strategyType == StrategyType.FREE_LIST)
+        {
+            // A power of 2 number of stripes, so that the stripe index is a cheap mask.
+            int stripes = Integer.highestOneBit(Math.max(1, Math.min(maxEntries, ProcessorUtils.availableProcessors())));
+            List<Queue<Entry>> freeLists = new ArrayList<>(stripes);
+            for (int i = 0; i < stripes; i++)
+            {
+                freeLists.add(new ConcurrentLinkedQueue<>());
+            }
+            this.freeLists = freeLists;
+        }
+        else
+        {
+            this.freeLists = null;
+        }
     }
 
     /**
@@ -220,7 +249,10 @@ public class Pool<T> implements AutoCloseable, Dumpable
             if (entries.stream().anyMatch(MonoEntry.class::isInstance))
                 throw new IllegalStateException("Pool entries do not support multiplexing");
 
+            boolean freeListed = isFreeListed();
             this.maxMultiplex = maxMultiplex;
+            if (!freeListed)
+                fillFreeLists();
         }
     }
 
@@ -275,7 +307,10 @@ public class Pool<T> implements AutoCloseable, Dumpable
             if (entries.stream().anyMatch(MonoEntry.class::isInstance))
                 throw new IllegalStateException("Pool entries do not support max usage");
 
+            boolean freeListed = isFreeListed();
             this.maxUsage = maxUsageCount;
+            if (!freeListed)
+                fillFreeLists();
 
             copy = entries.stream()
                 .filter(entry -> entry.isIdleAndOverUsed() && remove(entry) && entry.pooled instanceof Closeable)
@@ -374,6 +409,9 @@ public class Pool<T> implements AutoCloseable, Dumpable
         if (size == 0)
             return null;
 
+        if (isFreeListed())
+            return acquireFromFreeLists();
+
         if (cache != null)
         {
             Pool<T>.Entry entry = cache.get();
@@ -406,11 +444,60 @@ public class Pool<T> implements AutoCloseable, Dumpable
         return null;
     }
 
+    private Entry acquireFromFreeLists()
+    {
+        int stripes = freeLists.size();
+        int stripe = stripeIndex();
+        for (int i = 0; i < stripes; i++)
+        {
+            Queue<Entry> freeList = freeLists.get((stripe + i) & (stripes - 1));
+            while (true)
+            {
+                Entry entry = freeList.poll();
+                if (entry == null)
+                    break;
+                // Skip the entries that have been removed while idle.
+                if (entry.tryAcquire())
+                    return entry;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * @return whether the free lists are used, that is when each entry
+     * can only be acquired once at a time and an unlimited number of times
+     */
+    private boolean isFreeListed()
+    {
+        return freeLists != null && maxMultiplex <= 1 && maxUsage < 0;
+    }
+
+    private void offerToFreeList(Entry entry)
+    {
+        // Entries that are still acquired, when multiplexed, are not offered.
+        if (isFreeListed() && entry.isIdle())
+            freeLists.get(stripeIndex()).offer(entry);
+    }
+
+    private void fillFreeLists()
+    {
+        // The idle entries were not offered while the free lists were not used.
+        if (isFreeListed())
+            entries.stream().filter(Entry::isIdle).forEach(this::offerToFreeList);
+    }
+
+    private int stripeIndex()
+    {
+        return (int)Thread.currentThread().getId() & (freeLists.size() - 1);
+    }
+
     private int startIndex(int size)
     {
         switch (strategyType)
         {
             case FIRST:
+            case FREE_LIST:
                 return 0;
             case RANDOM:
                 return ThreadLocalRandom.current().nextInt(size);
@@ -476,8 +563,12 @@ public class Pool<T> implements AutoCloseable, Dumpable
             return false;
 
         boolean released = entry.tryRelease();
-        if (released && cache != null)
-            cache.set(entry);
+        if (released)
+        {
+            if (cache != null)
+                cache.set(entry);
+            offerToFreeList(entry);
+        }
         return released;
     }
 
@@ -520,6 +611,8 @@ public class Pool<T> implements AutoCloseable, Dumpable
             closed = true;
             copy = new ArrayList<>(entries);
             entries.clear();
+            if (freeLists != null)
+                freeLists.forEach(Queue::clear);
         }
 
         // iterate the copy and close its entries
@@ -604,7 +697,11 @@ public class Pool<T> implements AutoCloseable, Dumpable
             this.pooled = pooled;
 
             if (tryEnable(acquire))
+            {
+                if (!acquire)
+                    offerToFreeList(this);
                 return true;
+            }
 
             this.pooled = null;
             if (isClosed())
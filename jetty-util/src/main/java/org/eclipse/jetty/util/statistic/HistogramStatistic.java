@@ -0,0 +1,161 @@
+//
+// ========================================================================
+// Copyright (c) 1995-2022 Mort Bay Consulting Pty Ltd and others.
+//
+// This program and the accompanying materials are made available under the
+// terms of the Eclipse Public License v. 2.0 which is available at
+// https://www.eclipse.org/legal/epl-2.0, or the Apache License, Version 2.0
+// which is available at https://www.apache.org/licenses/LICENSE-2.0.
+//
+// SPDX-License-Identifier: EPL-2.0 OR Apache-2.0
+// ========================================================================
+//
+
+package org.eclipse.jetty.util.statistic;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * <p>Statistics on a sampled value, that in addition to those provided by
+ * {@link SampleStatistic} also records the distribution of the samples,
+ * so that percentiles (such as the median or the 99th percentile) can be
+ * estimated.</p>
+ * <p>The distribution is recorded in a fixed size log-linear histogram,
+ * in the style of <a href="http://hdrhistogram.org/">HdrHistogram</a>:
+ * the range of non negative {@code long} values is divided in powers of
+ * two, and each power of two is further divided in {@code 2^precision}
+ * linear sub-buckets.
+ * Values smaller than {@code 2^(precision+1)} are recorded exactly, while
+ * larger values are recorded with a relative error of at most {@code 2^-precision}.</p>
+ * <p>Recording a sample is lock-free and does not allocate; the memory
+ * used by the histogram is fixed at construction.</p>
+ */
+public class HistogramStatistic extends SampleStatistic
+{
+    private final int _precision;
+    private final AtomicLongArray _counts;
+
+    /**
+     * <p>Creates a histogram with a precision of 5 bits, that is
+     * a relative error of at most ~3% on the recorded values.</p>
+     */
+    public HistogramStatistic()
+    {
+        this(5);
+    }
+
+    /**
+     * @param precision the number of bits of each recorded value that are
+     * kept exactly, between 1 and 10 inclusive
+     */
+    public HistogramStatistic(int precision)
+    {
+        if (precision < 1 || precision > 10)
+            throw new IllegalArgumentException("Invalid precision " + precision);
+        _precision = precision;
+        _counts = new AtomicLongArray((Long.SIZE - precision) << precision);
+    }
+
+    /**
+     * @return the number of bits of each recorded value that are kept exactly
+     */
+    public int getPrecision()
+    {
+        return _precision;
+    }
+
+    @Override
+    public void reset()
+    {
+        super.reset();
+        for (int i = 0; i < _counts.length(); ++i)
+        {
+            _counts.set(i, 0);
+        }
+    }
+
+    /**
+     * Records a sample value; negative values are recorded as zero.
+     *
+     * @param sample the value to record.
+     */
+    @Override
+    public void record(long sample)
+    {
+        long value = Math.max(0, sample);
+        super.record(value);
+        _counts.incrementAndGet(indexOf(value));
+    }
+
+    /**
+     * <p>Returns an estimate of the value below which the given percentage of
+     * the recorded samples fall.</p>
+     * <p>The estimate is the highest value equivalent, within the precision of
+     * this histogram, to the exact percentile, but never more than {@link #getMax()}.</p>
+     *
+     * @param percentile the percentile, between 0 and 100 inclusive
+     * @return the value at the given percentile, or zero if there are no samples
+     */
+    public long getValueAtPercentile(double percentile)
+    {
+        if (percentile < 0.0D || percentile > 100.0D)
+            throw new IllegalArgumentException("Invalid percentile " + percentile);
+
+        long[] counts = new long[_counts.length()];
+        long total = 0;
+        for (int i = 0; i < counts.length; ++i)
+        {
+            counts[i] = _counts.get(i);
+            total += counts[i];
+        }
+        if (total == 0)
+            return 0;
+
+        long target = Math.max(1, (long)Math.ceil(percentile / 100.0D * total));
+        long seen = 0;
+        for (int i = 0; i < counts.length; ++i)
+        {
+            seen += counts[i];
+            if (seen >= target)
+                return Math.min(highestValueAt(i), getMax());
+        }
+        return getMax();
+    }
+
+    /**
+     * @return the median of the recorded samples
+     */
+    public long getMedian()
+    {
+        return getValueAtPercentile(50.0D);
+    }
+
+    private int indexOf(long value)
+    {
+        int subBuckets = 1 << _precision;
+        if (value < subBuckets)
+            return (int)value;
+        int shift = Long.SIZE - 1 - Long.numberOfLeadingZeros(value) - _precision;
+        return (shift << _precision) + (int)(value >>> shift);
+    }
+
+    private long highestValueAt(int index)
+    {
+        int subBuckets = 1 << _precision;
+        if (index < subBuckets)
+            return index;
+        int shift = (index >>> _precision) - 1;
+        long mantissa = subBuckets | (index & (subBuckets - 1));
+        long highest = ((mantissa + 1) << shift) - 1;
+        // The last bucket of the highest power of two overflows.
+        return highest < 0 ? Long.MAX_VALUE : highest;
+    }
+
+    @Override
+    public String toString()
+    {
+        return String.format("%s@%x{count=%d,max=%d,mean=%f,total=%d,stddev=%f,p50=%d,p99=%d,p999=%d}",
+            getClass().getSimpleName(), hashCode(), getCount(), getMax(), getMean(), getTotal(), getStdDev(),
+            getValueAtPercentile(50.0D), getValueAtPercentile(99.0D), getValueAtPercentile(99.9D));
+    }
+}
@@ -20,7 +20,7 @@ import org.eclipse.jetty.util.annotation.ManagedAttribute;
 import org.eclipse.jetty.util.annotation.ManagedObject;
 import org.eclipse.jetty.util.annotation.ManagedOperation;
 import org.eclipse.jetty.util.statistic.CounterStatistic;
-import org.eclipse.jetty.util.statistic.SampleStatistic;
+import org.eclipse.jetty.util.statistic.HistogramStatistic;
 
 /**
  * <p>A {@link QueuedThreadPool} subclass that monitors its own activity by recording queue and task statistics.</p>
@@ -29,8 +29,8 @@ import org.eclipse.jetty.util.statistic.SampleStatistic;
 public class MonitoredQueuedThreadPool extends QueuedThreadPool
 {
     private final CounterStatistic queueStats = new CounterStatistic();
-    private final SampleStatistic queueLatencyStats = new SampleStatistic();
-    private final SampleStatistic taskLatencyStats = new SampleStatistic();
+    private final HistogramStatistic queueLatencyStats = new HistogramStatistic();
+    private final HistogramStatistic taskLatencyStats = new HistogramStatistic();
     private final CounterStatistic threadStats = new CounterStatistic();
 
     public MonitoredQueuedThreadPool()
@@ -144,6 +144,42 @@ public class MonitoredQueuedThreadPool extends QueuedThreadPool
         return queueLatencyStats.getMax();
     }
 
+    /**
+     * @return the median time a task remains in the queue, in nanoseconds
+     */
+    @ManagedAttribute("the median time a task remains in the queue, in nanoseconds")
+    public long getMedianQueueLatency()
+    {
+        return queueLatencyStats.getValueAtPercentile(50.0D);
+    }
+
+    /**
+     * @return the 99th percentile of the time a task remains in the queue, in nanoseconds
+     */
+    @ManagedAttribute("the 99th percentile of the time a task remains in the queue, in nanoseconds")
+    public long getQueueLatency99thPercentile()
+    {
+        return queueLatencyStats.getValueAtPercentile(99.0D);
+    }
+
+    /**
+     * @return the 99.9th percentile of the time a task remains in the queue, in nanoseconds
+     */
+    @ManagedAttribute("the 99.9th percentile of the time a task remains in the queue, in nanoseconds")
+    public long getQueueLatency999thPercentile()
+    {
+        return queueLatencyStats.getValueAtPercentile(99.9D);
+    }
+
+    /**
+     * @param percentile the percentile, between 0 and 100 inclusive
+     * @return the time a task remains in the queue at the given percentile, in nanoseconds
+     */
+    public long getQueueLatencyAtPercentile(double percentile)
+    {
+        return queueLatencyStats.getValueAtPercentile(percentile);
+    }
+
     /**
      * @return the average task execution time, in nanoseconds
      */
@@ -161,4 +197,40 @@ public class MonitoredQueuedThreadPool extends QueuedThreadPool
     {
         return taskLatencyStats.getMax();
     }
+
+    /**
+     * @return the median task execution time, in nanoseconds
+     */
+    @ManagedAttribute("the median task execution time, in nanoseconds")
+    public long getMedianTaskLatency()
+    {
+        return taskLatencyStats.getValueAtPercentile(50.0D);
+    }
+
+    /**
+     * @return the 99th percentile of the task execution time, in nanoseconds
+     */
+    @ManagedAttribute("the 99th percentile of the task execution time, in nanoseconds")
+    public long getTaskLatency99thPercentile()
+    {
+        return taskLatencyStats.getValueAtPercentile(99.0D);
+    }
+
+    /**
+     * @return the 99.9th percentile of the task execution time, in nanoseconds
+     */
+    @ManagedAttribute("the 99.9th percentile of the task execution time, in nanoseconds")
+    public long getTaskLatency999thPercentile()
+    {
+        return taskLatencyStats.getValueAtPercentile(99.9D);
+    }
+
+    /**
+     * @param percentile the percentile, between 0 and 100 inclusive
+     * @return the task execution time at the given percentile, in nanoseconds
+     */
+    public long getTaskLatencyAtPercentile(double percentile)
+    {
+        return taskLatencyStats.getValueAtPercentile(percentile);
+    }
 }
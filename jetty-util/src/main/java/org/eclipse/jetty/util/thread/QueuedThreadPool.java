@@ -74,7 +74,7 @@ import org.slf4j.LoggerFactory;
  * </ul>
  */
 @ManagedObject("A thread pool")
-public class QueuedThreadPool extends ContainerLifeCycle implements ThreadFactory, SizedThreadPool, Dumpable, TryExecutor
+public class QueuedThreadPool extends ContainerLifeCycle implements ThreadFactory, SizedThreadPool, Dumpable, TryExecutor, VirtualThreads.Configurable
 {
     private static final Logger LOG = LoggerFactory.getLogger(QueuedThreadPool.class);
     private static final Runnable NOOP = () ->
@@ -106,6 +106,7 @@ public class QueuedThreadPool extends ContainerLifeCycle implements ThreadFactor
     private int _priority = Thread.NORM_PRIORITY;
     private boolean _daemon = false;
     private boolean _detailedDump = false;
+    private boolean _useVirtualThreads = false;
     private int _lowThreadsThreshold = 1;
     private ThreadPoolBudget _budget;
     private long _stopTimeout;
@@ -483,6 +484,36 @@ public class QueuedThreadPool extends ContainerLifeCycle implements ThreadFactor
         _detailedDump = detailedDump;
     }
 
+    /**
+     * @return whether blocking tasks produced by execution strategies are run on virtual threads
+     * @see VirtualThreads
+     */
+    @ManagedAttribute("whether blocking tasks are run on virtual threads")
+    @Override
+    public boolean isUseVirtualThreads()
+    {
+        return _useVirtualThreads;
+    }
+
+    /**
+     * <p>Sets whether blocking tasks produced by execution strategies, such as
+     * the handling of a request, are run on virtual threads rather than on
+     * the threads of this pool.</p>
+     * <p>The threads of this pool, for example those running selectors or
+     * those reserved by the {@link ReservedThreadExecutor}, are not affected
+     * and remain platform threads.</p>
+     *
+     * @param useVirtualThreads whether to run blocking tasks on virtual threads
+     * @throws UnsupportedOperationException if the runtime does not support virtual threads
+     * @see VirtualThreads#areSupported()
+     */
+    @Override
+    public void setUseVirtualThreads(boolean useVirtualThreads)
+    {
+        VirtualThreads.Configurable.super.setUseVirtualThreads(useVirtualThreads);
+        _useVirtualThreads = useVirtualThreads;
+    }
+
     @ManagedAttribute("threshold at which the pool is low on threads")
     public int getLowThreadsThreshold()
     {
@@ -29,6 +29,7 @@ import org.eclipse.jetty.util.thread.AutoLock;
 import org.eclipse.jetty.util.thread.ExecutionStrategy;
 import org.eclipse.jetty.util.thread.Invocable;
 import org.eclipse.jetty.util.thread.TryExecutor;
+import org.eclipse.jetty.util.thread.VirtualThreads;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -69,6 +70,10 @@ import org.slf4j.LoggerFactory;
  *     <dd>Otherwise.</dd>
  * </dl>
  *
+ * <p>If the executor is configured to {@link VirtualThreads.Configurable#isUseVirtualThreads() use virtual threads},
+ * then tasks that may block are consumed with PEC on a virtual thread rather than with EPC, so that
+ * the producing thread and the threads of the executor are not blocked by the tasks.</p>
+ *
  * <p>Because of the preference for {@code PC} mode, on a multicore machine with many
  * many {@link Invocable.InvocationType#NON_BLOCKING} tasks, multiple instances of the strategy may be
  * required to keep all CPUs on the system busy.</p>
@@ -138,6 +143,7 @@ public class AdaptiveExecutionStrategy extends ContainerLifeCycle implements Exe
     private final Runnable _runPendingProducer = () -> tryProduce(true);
     private State _state = State.IDLE;
     private boolean _pending;
+    private boolean _useVirtualThreads;
 
     /**
      * @param producer The produce of tasks to be consumed.
@@ -154,6 +160,13 @@ public class AdaptiveExecutionStrategy extends ContainerLifeCycle implements Exe
             LOG.debug("{} created", this);
     }
 
+    @Override
+    protected void doStart() throws Exception
+    {
+        super.doStart();
+        _useVirtualThreads = VirtualThreads.isUseVirtualThreads(_executor);
+    }
+
     @Override
     public void dispatch()
     {
@@ -300,6 +313,11 @@ public class AdaptiveExecutionStrategy extends ContainerLifeCycle implements Exe
                 if (nonBlocking)
                     return SubStrategy.PRODUCE_CONSUME;
 
+                // If virtual threads are used, use PEC: the task is consumed by a
+                // virtual thread and the producer continues to produce.
+                if (isUseVirtualThreads())
+                    return SubStrategy.PRODUCE_EXECUTE_CONSUME;
+
                 // Take the lock to atomically check if a pending producer is available.
                 try (AutoLock l = _lock.lock())
                 {
@@ -321,8 +339,9 @@ public class AdaptiveExecutionStrategy extends ContainerLifeCycle implements Exe
             case BLOCKING:
                 // The produced task may block.
 
-                // If the calling producing thread may also block
-                if (!nonBlocking)
+                // If the calling producing thread may also block and
+                // virtual threads are not used to consume the task
+                if (!nonBlocking && !isUseVirtualThreads())
                 {
                     // Take the lock to atomically check if a pending producer is available.
                     try (AutoLock l = _lock.lock())
@@ -453,7 +472,8 @@ public class AdaptiveExecutionStrategy extends ContainerLifeCycle implements Exe
     }
 
     /**
-     * Executes a task via the {@link Executor} used to construct this strategy.
+     * Executes a task via the {@link Executor} used to construct this strategy,
+     * or in a virtual thread if the executor is configured to use virtual threads.
      * If the execution is rejected and the task is a Closeable, then it is closed.
      *
      * @param task The task to execute.
@@ -462,7 +482,10 @@ public class AdaptiveExecutionStrategy extends ContainerLifeCycle implements Exe
     {
         try
         {
-            _executor.execute(task);
+            if (isUseVirtualThreads())
+                VirtualThreads.executeOnVirtualThread(task);
+            else
+                _executor.execute(task);
         }
         catch (RejectedExecutionException e)
         {
@@ -476,6 +499,12 @@ public class AdaptiveExecutionStrategy extends ContainerLifeCycle implements Exe
         }
     }
 
+    @ManagedAttribute(value = "whether this execution strategy uses virtual threads", readonly = true)
+    public boolean isUseVirtualThreads()
+    {
+        return _useVirtualThreads;
+    }
+
     @ManagedAttribute(value = "number of tasks consumed with PC mode", readonly = true)
     public long getPCTasksConsumed()
     {
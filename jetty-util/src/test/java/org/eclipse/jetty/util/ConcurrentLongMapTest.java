@@ -0,0 +1,167 @@
+//
+// ========================================================================
+// Copyright (c) 1995-2022 Mort Bay Consulting Pty Ltd and others.
+//
+// This program and the accompanying materials are made available under the
+// terms of the Eclipse Public License v. 2.0 which is available at
+// https://www.eclipse.org/legal/epl-2.0, or the Apache License, Version 2.0
+// which is available at https://www.apache.org/licenses/LICENSE-2.0.
+//
+// SPDX-License-Identifier: EPL-2.0 OR Apache-2.0
+// ========================================================================
+//
+
+package org.eclipse.jetty.util;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.junit.jupiter.api.Test;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.containsInAnyOrder;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.nullValue;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class ConcurrentLongMapTest
+{
+    @Test
+    public void testPutGetRemove()
+    {
+        ConcurrentLongMap<String> map = new ConcurrentLongMap<>();
+        assertTrue(map.isEmpty());
+        assertThat(map.put(1, "one"), nullValue());
+        assertThat(map.put(3, "three"), nullValue());
+        assertThat(map.putIfAbsent(3, "tres"), is("three"));
+        assertThat(map.put(1, "uno"), is("one"));
+        assertThat(map.size(), is(2));
+        assertThat(map.get(1), is("uno"));
+        assertThat(map.get(3), is("three"));
+        assertThat(map.get(5), nullValue());
+        assertThat(map.values(), containsInAnyOrder("uno", "three"));
+
+        assertThat(map.remove(1), is("uno"));
+        assertThat(map.remove(1), nullValue());
+        assertFalse(map.containsKey(1));
+        assertThat(map.size(), is(1));
+
+        map.clear();
+        assertTrue(map.isEmpty());
+        assertThat(map.get(3), nullValue());
+    }
+
+    @Test
+    public void testComputeIfAbsent()
+    {
+        ConcurrentLongMap<String> map = new ConcurrentLongMap<>();
+        assertThat(map.computeIfAbsent(7, key -> null), nullValue());
+        assertFalse(map.containsKey(7));
+        assertThat(map.computeIfAbsent(7, String::valueOf), is("7"));
+        assertThat(map.computeIfAbsent(7, key -> "seven"), is("7"));
+        assertThrows(IllegalStateException.class, () -> map.computeIfAbsent(9, key ->
+        {
+            map.put(key, "nine");
+            return "neuf";
+        }));
+    }
+
+    @Test
+    public void testManyKeysWithRandomRemovals()
+    {
+        // A single small segment exercises resizes and probe sequences.
+        ConcurrentLongMap<Long> map = new ConcurrentLongMap<>(0, 1);
+        Map<Long, Long> expected = new HashMap<>();
+        Random random = new Random(1234);
+        for (int i = 0; i < 100_000; ++i)
+        {
+            long key = random.nextInt(2048) * 2L + 1;
+            if (random.nextBoolean())
+                assertThat(map.put(key, key), is(expected.put(key, key)));
+            else
+                assertThat(map.remove(key), is(expected.remove(key)));
+        }
+        assertThat(map.size(), is(expected.size()));
+        for (long key = 0; key < 4096; ++key)
+        {
+            assertThat(map.get(key), is(expected.get(key)));
+        }
+        List<Long> values = map.values();
+        assertThat(values.size(), is(expected.size()));
+        assertTrue(values.containsAll(expected.values()));
+    }
+
+    @Test
+    public void testConcurrentReadersAndWriters() throws Exception
+    {
+        ConcurrentLongMap<Long> map = new ConcurrentLongMap<>();
+        // Stable mappings that readers must always find.
+        for (long key = 0; key < 100; ++key)
+        {
+            map.put(key, key);
+        }
+
+        int writers = 4;
+        AtomicReference<Throwable> failure = new AtomicReference<>();
+        CountDownLatch latch = new CountDownLatch(writers + 2);
+        for (int w = 0; w < writers; ++w)
+        {
+            long base = 1000 + w * 100_000L;
+            new Thread(() ->
+            {
+                try
+                {
+                    for (int i = 0; i < 200_000; ++i)
+                    {
+                        long key = base + i % 1000;
+                        if (map.putIfAbsent(key, key) != null && !Long.valueOf(key).equals(map.remove(key)))
+                            throw new AssertionError("Lost mapping for " + key);
+                    }
+                }
+                catch (Throwable x)
+                {
+                    failure.compareAndSet(null, x);
+                }
+                finally
+                {
+                    latch.countDown();
+                }
+            }).start();
+        }
+        for (int r = 0; r < 2; ++r)
+        {
+            new Thread(() ->
+            {
+                try
+                {
+                    while (latch.getCount() > 2)
+                    {
+                        for (long key = 0; key < 100; ++key)
+                        {
+                            if (!Long.valueOf(key).equals(map.get(key)))
+                                throw new AssertionError("Missing mapping for " + key);
+                        }
+                    }
+                }
+                catch (Throwable x)
+                {
+                    failure.compareAndSet(null, x);
+                }
+                finally
+                {
+                    latch.countDown();
+                }
+            }).start();
+        }
+
+        assertTrue(latch.await(30, TimeUnit.SECONDS));
+        assertThat(failure.get(), nullValue());
+    }
+}
@@ -28,6 +28,7 @@ import org.junit.jupiter.params.provider.MethodSource;
 
 import static java.util.stream.Collectors.toList;
 import static org.eclipse.jetty.util.Pool.StrategyType.FIRST;
+import static org.eclipse.jetty.util.Pool.StrategyType.FREE_LIST;
 import static org.eclipse.jetty.util.Pool.StrategyType.RANDOM;
 import static org.eclipse.jetty.util.Pool.StrategyType.ROUND_ROBIN;
 import static org.hamcrest.MatcherAssert.assertThat;
@@ -73,6 +74,7 @@ public class PoolTest
         data.add(new Object[]{(Factory)s -> new Pool<>(RANDOM, s)});
         data.add(new Object[]{(Factory)s -> new Pool<>(FIRST, s, true)});
         data.add(new Object[]{(Factory)s -> new Pool<>(ROUND_ROBIN, s)});
+        data.add(new Object[]{(Factory)s -> new Pool<>(FREE_LIST, s)});
         return data.stream();
     }
 
@@ -690,4 +692,76 @@ public class PoolTest
         assertThat(e3.getPooled().get(), greaterThan(10));
         assertThat(e4.getPooled().get(), greaterThan(10));
     }
+
+    @Test
+    public void testFreeListStrategy() throws Exception
+    {
+        int size = 1000;
+        Pool<AtomicInteger> pool = new Pool<>(FREE_LIST, size);
+        for (int i = 0; i < size; i++)
+        {
+            pool.reserve().enable(new AtomicInteger(), false);
+        }
+
+        // Removed idle entries are skipped.
+        Pool<AtomicInteger>.Entry removed = pool.values().iterator().next();
+        assertThat(pool.remove(removed), is(true));
+
+        int threads = 8;
+        int iterations = 10_000;
+        AtomicInteger failures = new AtomicInteger();
+        List<Thread> workers = new ArrayList<>();
+        for (int t = 0; t < threads; t++)
+        {
+            Thread worker = new Thread(() ->
+            {
+                for (int i = 0; i < iterations; i++)
+                {
+                    Pool<AtomicInteger>.Entry entry = pool.acquire();
+                    if (entry == null || entry == removed || entry.getPooled().incrementAndGet() != 1)
+                        failures.incrementAndGet();
+                    else if (entry.getPooled().decrementAndGet() != 0 || !entry.release())
+                        failures.incrementAndGet();
+                }
+            });
+            workers.add(worker);
+            worker.start();
+        }
+        for (Thread worker : workers)
+        {
+            worker.join();
+        }
+
+        assertThat(failures.get(), is(0));
+        assertThat(pool.size(), is(size - 1));
+        assertThat(pool.getIdleCount(), is(size - 1));
+    }
+
+    @Test
+    public void testFreeListStrategyWithMaxMultiplex()
+    {
+        Pool<String> pool = new Pool<>(FREE_LIST, 2);
+        // Duplex entries, as used by connection pools, are free listed.
+        pool.setMaxMultiplex(1);
+        pool.reserve().enable("a", false);
+        Pool<String>.Entry entry = pool.acquire();
+        assertThat(entry.getPooled(), is("a"));
+        assertNull(pool.acquire());
+        assertThat(entry.release(), is(true));
+        assertThat(pool.acquire(), sameInstance(entry));
+        assertThat(entry.release(), is(true));
+
+        // Multiplexed entries are found by iterating the entries.
+        pool.setMaxMultiplex(2);
+        assertThat(pool.acquire(), sameInstance(entry));
+        assertThat(pool.acquire(), sameInstance(entry));
+        assertNull(pool.acquire());
+        assertThat(entry.release(), is(true));
+        assertThat(entry.release(), is(true));
+
+        // Entries that became idle meanwhile are free listed again.
+        pool.setMaxMultiplex(1);
+        assertThat(pool.acquire(), sameInstance(entry));
+        assertNull(pool.acquire());
+    }
 }
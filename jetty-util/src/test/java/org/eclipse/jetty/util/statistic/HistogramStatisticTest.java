@@ -0,0 +1,122 @@
+//
+// ========================================================================
+// Copyright (c) 1995-2022 Mort Bay Consulting Pty Ltd and others.
+//
+// This program and the accompanying materials are made available under the
+// terms of the Eclipse Public License v. 2.0 which is available at
+// https://www.eclipse.org/legal/epl-2.0, or the Apache License, Version 2.0
+// which is available at https://www.apache.org/licenses/LICENSE-2.0.
+//
+// SPDX-License-Identifier: EPL-2.0 OR Apache-2.0
+// ========================================================================
+//
+
+package org.eclipse.jetty.util.statistic;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+import org.junit.jupiter.api.Test;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.greaterThanOrEqualTo;
+import static org.hamcrest.Matchers.lessThanOrEqualTo;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class HistogramStatisticTest
+{
+    @Test
+    public void testEmpty()
+    {
+        HistogramStatistic stats = new HistogramStatistic();
+        assertEquals(0, stats.getCount());
+        assertEquals(0, stats.getValueAtPercentile(99.0D));
+    }
+
+    @Test
+    public void testSmallValuesAreExact()
+    {
+        HistogramStatistic stats = new HistogramStatistic(5);
+        for (int i = 1; i <= 50; ++i)
+        {
+            stats.record(i);
+        }
+
+        assertEquals(50, stats.getCount());
+        assertEquals(50, stats.getMax());
+        assertEquals(1, stats.getValueAtPercentile(0.0D));
+        assertEquals(25, stats.getMedian());
+        assertEquals(45, stats.getValueAtPercentile(90.0D));
+        assertEquals(50, stats.getValueAtPercentile(100.0D));
+    }
+
+    @Test
+    public void testLargeValuesWithinPrecision()
+    {
+        HistogramStatistic stats = new HistogramStatistic(5);
+        for (long i = 1; i <= 100_000; ++i)
+        {
+            stats.record(i * 1000);
+        }
+
+        double error = 1.0D / (1 << stats.getPrecision());
+        double[][] expectations = {{50.0D, 50_000_000D}, {99.0D, 99_000_000D}, {99.9D, 99_900_000D}};
+        for (double[] expectation : expectations)
+        {
+            long value = stats.getValueAtPercentile(expectation[0]);
+            assertThat(value, greaterThanOrEqualTo((long)expectation[1]));
+            assertThat(value, lessThanOrEqualTo((long)(expectation[1] * (1 + error))));
+        }
+        assertEquals(100_000_000L, stats.getValueAtPercentile(100.0D));
+    }
+
+    @Test
+    public void testExtremeValues()
+    {
+        HistogramStatistic stats = new HistogramStatistic(3);
+        stats.record(-1);
+        stats.record(Long.MAX_VALUE / 2);
+        stats.record(Long.MAX_VALUE);
+
+        assertEquals(0, stats.getValueAtPercentile(0.0D));
+        assertThat(stats.getValueAtPercentile(60.0D), greaterThanOrEqualTo(Long.MAX_VALUE / 2));
+        assertEquals(Long.MAX_VALUE, stats.getValueAtPercentile(100.0D));
+    }
+
+    @Test
+    public void testRandomValues()
+    {
+        HistogramStatistic stats = new HistogramStatistic();
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        for (int i = 0; i < 10_000; ++i)
+        {
+            stats.record(random.nextLong(1_000_000_000L));
+        }
+
+        long previous = 0;
+        for (double percentile = 0.0D; percentile <= 100.0D; percentile += 0.5D)
+        {
+            long value = stats.getValueAtPercentile(percentile);
+            assertThat(value, greaterThanOrEqualTo(previous));
+            previous = value;
+        }
+        assertEquals(stats.getMax(), stats.getValueAtPercentile(100.0D));
+    }
+
+    @Test
+    public void testReset()
+    {
+        HistogramStatistic stats = new HistogramStatistic();
+        stats.record(1000);
+        stats.reset();
+        assertEquals(0, stats.getCount());
+        assertEquals(0, stats.getMedian());
+    }
+
+    @Test
+    public void testInvalidArguments()
+    {
+        assertThrows(IllegalArgumentException.class, () -> new HistogramStatistic(0));
+        assertThrows(IllegalArgumentException.class, () -> new HistogramStatistic().getValueAtPercentile(101.0D));
+    }
+}
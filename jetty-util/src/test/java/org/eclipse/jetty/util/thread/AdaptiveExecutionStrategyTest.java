@@ -24,7 +24,10 @@ import org.eclipse.jetty.util.thread.strategy.AdaptiveExecutionStrategy;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.Test;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
 
 public class AdaptiveExecutionStrategyTest
 {
@@ -117,4 +120,38 @@ public class AdaptiveExecutionStrategyTest
             assertNull(detector.get());
         }
     }
+
+    @Test
+    public void testBlockingTaskRunsOnVirtualThread() throws Exception
+    {
+        assumeTrue(VirtualThreads.areSupported());
+
+        QueuedThreadPool executor = new QueuedThreadPool();
+        executor.setUseVirtualThreads(true);
+        executor.start();
+        try
+        {
+            BlockingQueue<Runnable> tasks = new LinkedBlockingQueue<>();
+            aes = new AdaptiveExecutionStrategy(tasks::poll, executor);
+            aes.start();
+            assertTrue(aes.isUseVirtualThreads());
+
+            CountDownLatch latch = new CountDownLatch(1);
+            AtomicReference<Boolean> virtual = new AtomicReference<>();
+            tasks.offer(new Invocable.ReadyTask(Invocable.InvocationType.BLOCKING, () ->
+            {
+                virtual.set(VirtualThreads.isVirtualThread());
+                latch.countDown();
+            }));
+            aes.produce();
+
+            assertTrue(latch.await(5, TimeUnit.SECONDS));
+            assertTrue(virtual.get());
+            assertEquals(1, aes.getPECTasksExecuted());
+        }
+        finally
+        {
+            executor.stop();
+        }
+    }
 }
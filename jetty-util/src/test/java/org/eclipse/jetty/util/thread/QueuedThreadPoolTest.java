@@ -947,6 +947,27 @@ public class QueuedThreadPoolTest extends AbstractThreadPoolTest
         }
     }
 
+    @Test
+    public void testUseVirtualThreads()
+    {
+        QueuedThreadPool tp = new QueuedThreadPool();
+        assertFalse(tp.isUseVirtualThreads());
+        assertFalse(VirtualThreads.isUseVirtualThreads(tp));
+        if (VirtualThreads.areSupported())
+        {
+            tp.setUseVirtualThreads(true);
+            assertTrue(VirtualThreads.isUseVirtualThreads(tp));
+        }
+        else
+        {
+            try (StacklessLogging ignored = new StacklessLogging(VirtualThreads.class))
+            {
+                assertThrows(UnsupportedOperationException.class, () -> tp.setUseVirtualThreads(true));
+            }
+            assertFalse(tp.isUseVirtualThreads());
+        }
+    }
+
     private int count(String s, String p)
     {
         int c = 0;
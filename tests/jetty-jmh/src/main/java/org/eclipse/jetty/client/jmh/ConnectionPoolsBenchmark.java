@@ -32,6 +32,7 @@ import org.eclipse.jetty.client.api.Request;
 import org.eclipse.jetty.client.api.Response;
 import org.eclipse.jetty.util.Attachable;
 import org.eclipse.jetty.util.Callback;
+import org.eclipse.jetty.util.Pool;
 import org.eclipse.jetty.util.Promise;
 import org.openjdk.jmh.annotations.Benchmark;
 import org.openjdk.jmh.annotations.Param;
@@ -50,9 +51,12 @@ public class ConnectionPoolsBenchmark
 {
     private ConnectionPool pool;
 
-    @Param({"round-robin", "cached/multiplex", "uncached/multiplex", "cached/duplex", "uncached/duplex"})
+    @Param({"round-robin", "cached/multiplex", "uncached/multiplex", "cached/duplex", "uncached/duplex", "free-list/duplex"})
     public static String POOL_TYPE;
 
+    @Param({"12", "1000"})
+    public static int INITIAL_CONNECTIONS;
+
     @Setup
     public void setUp() throws Exception
     {
@@ -73,8 +77,8 @@ public class ConnectionPoolsBenchmark
         HttpExchange httpExchange = new HttpExchange(httpDestination, httpRequest, new ArrayList<>());
         httpDestination.getHttpExchanges().add(httpExchange);
 
-        int initialConnections = 12;
-        int maxConnections = 100;
+        int initialConnections = INITIAL_CONNECTIONS;
+        int maxConnections = Math.max(100, initialConnections);
         switch (POOL_TYPE)
         {
             case "uncached/duplex":
@@ -85,6 +89,10 @@ public class ConnectionPoolsBenchmark
                 pool = new DuplexConnectionPool(httpDestination, maxConnections, true, Callback.NOOP);
                 pool.preCreateConnections(initialConnections).get();
                 break;
+            case "free-list/duplex":
+                pool = new DuplexConnectionPool(httpDestination, Pool.StrategyType.FREE_LIST, maxConnections, false, Callback.NOOP);
+                pool.preCreateConnections(initialConnections).get();
+                break;
             case "uncached/multiplex":
                 pool = new MultiplexConnectionPool(httpDestination, maxConnections, false, Callback.NOOP, 12);
                 pool.preCreateConnections(initialConnections).get();
@@ -0,0 +1,107 @@
+//
+// ========================================================================
+// Copyright (c) 1995-2022 Mort Bay Consulting Pty Ltd and others.
+//
+// This program and the accompanying materials are made available under the
+// terms of the Eclipse Public License v. 2.0 which is available at
+// https://www.eclipse.org/legal/epl-2.0, or the Apache License, Version 2.0
+// which is available at https://www.apache.org/licenses/LICENSE-2.0.
+//
+// SPDX-License-Identifier: EPL-2.0 OR Apache-2.0
+// ========================================================================
+//
+
+package org.eclipse.jetty.http.compression;
+
+import java.nio.ByteBuffer;
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.jetty.util.BufferUtil;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+@State(Scope.Thread)
+@Threads(1)
+@Warmup(iterations = 5, time = 2000, timeUnit = TimeUnit.MILLISECONDS)
+@Measurement(iterations = 5, time = 2000, timeUnit = TimeUnit.MILLISECONDS)
+public class HuffmanDecoderBenchmark
+{
+    private static final String[] VALUES =
+        {
+            "www.example.com",
+            "no-cache",
+            "Mon, 21 Oct 2013 20:13:21 GMT",
+            "https://www.example.com/path/to/resource?query=value&other=1",
+            "text/html,application/xhtml+xml,application/xml;q=0.9,*/*;q=0.8",
+            "Mozilla/5.0 (X11; Linux x86_64; rv:109.0) Gecko/20100101 Firefox/115.0",
+            "session=0123456789abcdef0123456789abcdef; theme=dark; lang=en-US",
+            "gzip, deflate, br"
+        };
+
+    private final HuffmanDecoder decoder = new HuffmanDecoder();
+    private ByteBuffer[] encoded;
+
+    @Setup
+    public void setUp()
+    {
+        encoded = new ByteBuffer[VALUES.length];
+        for (int i = 0; i < VALUES.length; i++)
+        {
+            ByteBuffer buffer = BufferUtil.allocate(HuffmanEncoder.octetsNeeded(VALUES[i]));
+            BufferUtil.clearToFill(buffer);
+            HuffmanEncoder.encode(buffer, VALUES[i]);
+            BufferUtil.flipToFlush(buffer, 0);
+            encoded[i] = buffer;
+        }
+    }
+
+    @Benchmark
+    @BenchmarkMode({Mode.Throughput})
+    public void testTreeDecoder(Blackhole blackhole) throws Exception
+    {
+        for (ByteBuffer buffer : encoded)
+        {
+            ByteBuffer slice = buffer.slice();
+            blackhole.consume(TreeHuffmanDecoder.decode(slice, slice.remaining()));
+        }
+    }
+
+    @Benchmark
+    @BenchmarkMode({Mode.Throughput})
+    public void testTableDecoder(Blackhole blackhole) throws Exception
+    {
+        for (ByteBuffer buffer : encoded)
+        {
+            ByteBuffer slice = buffer.slice();
+            decoder.setLength(slice.remaining());
+            blackhole.consume(decoder.decode(slice));
+        }
+    }
+
+    public static void main(String[] args) throws RunnerException
+    {
+        Options opt = new OptionsBuilder()
+            .include(HuffmanDecoderBenchmark.class.getSimpleName())
+            .warmupIterations(5)
+            .measurementIterations(5)
+            .addProfiler(GCProfiler.class)
+            .forks(1)
+            .threads(1)
+            .build();
+
+        new Runner(opt).run();
+    }
+}
@@ -0,0 +1,147 @@
+//
+// ========================================================================
+// Copyright (c) 1995-2022 Mort Bay Consulting Pty Ltd and others.
+//
+// This program and the accompanying materials are made available under the
+// terms of the Eclipse Public License v. 2.0 which is available at
+// https://www.eclipse.org/legal/epl-2.0, or the Apache License, Version 2.0
+// which is available at https://www.apache.org/licenses/LICENSE-2.0.
+//
+// SPDX-License-Identifier: EPL-2.0 OR Apache-2.0
+// ========================================================================
+//
+
+package org.eclipse.jetty.http.compression;
+
+import java.nio.ByteBuffer;
+
+import org.eclipse.jetty.util.Utf8StringBuilder;
+
+/**
+ * The previous Huffman decoder, which walks a tree indexed by octet and
+ * emits one symbol at a time into a new {@link Utf8StringBuilder},
+ * kept as a baseline for {@link HuffmanDecoderBenchmark}.
+ */
+public class TreeHuffmanDecoder
+{
+    static final char EOS = Huffman.EOS;
+    static final char[] tree;
+    static final char[] rowsym;
+    static final byte[] rowbits;
+
+    static
+    {
+        int[][] codes = Huffman.CODES;
+        int r = 0;
+        for (int[] code : codes)
+        {
+            r += (code[1] + 7) / 8;
+        }
+        tree = new char[r * 256];
+        rowsym = new char[r];
+        rowbits = new byte[r];
+
+        r = 0;
+        for (int sym = 0; sym < codes.length; sym++)
+        {
+            int code = codes[sym][0];
+            int len = codes[sym][1];
+
+            int current = 0;
+
+            while (len > 8)
+            {
+                len -= 8;
+                int i = ((code >>> len) & 0xFF);
+
+                int t = current * 256 + i;
+                current = tree[t];
+                if (current == 0)
+                {
+                    tree[t] = (char)++r;
+                    current = r;
+                }
+            }
+
+            int terminal = ++r;
+            rowsym[r] = (char)sym;
+            int b = len & 0x07;
+            int terminalBits = b == 0 ? 8 : b;
+
+            rowbits[r] = (byte)terminalBits;
+            int shift = 8 - len;
+            int start = current * 256 + ((code << shift) & 0xFF);
+            int end = start + (1 << shift);
+            for (int i = start; i < end; i++)
+            {
+                tree[i] = (char)terminal;
+            }
+        }
+    }
+
+    public static String decode(ByteBuffer buffer, int length) throws EncodingException
+    {
+        Utf8StringBuilder utf8 = new Utf8StringBuilder(length * 2);
+        int node = 0;
+        int current = 0;
+        int bits = 0;
+
+        for (int i = 0; i < length; i++)
+        {
+            int b = buffer.get() & 0xFF;
+            current = (current << 8) | b;
+            bits += 8;
+            while (bits >= 8)
+            {
+                int c = (current >>> (bits - 8)) & 0xFF;
+                node = tree[node * 256 + c];
+                if (rowbits[node] != 0)
+                {
+                    if (rowsym[node] == EOS)
+                        throw new EncodingException("EOS in content");
+
+                    // terminal node
+                    utf8.append((byte)(0xFF & rowsym[node]));
+                    bits -= rowbits[node];
+                    node = 0;
+                }
+                else
+                {
+                    // non-terminal node
+                    bits -= 8;
+                }
+            }
+        }
+
+        while (bits > 0)
+        {
+            int c = (current << (8 - bits)) & 0xFF;
+            int lastNode = node;
+            node = tree[node * 256 + c];
+
+            if (rowbits[node] == 0 || rowbits[node] > bits)
+            {
+                int requiredPadding = 0;
+                for (int i = 0; i < bits; i++)
+                {
+                    requiredPadding = (requiredPadding << 1) | 1;
+                }
+
+                if ((c >> (8 - bits)) != requiredPadding)
+                    throw new EncodingException("Incorrect padding");
+
+                node = lastNode;
+                break;
+            }
+
+            utf8.append((byte)(0xFF & rowsym[node]));
+            bits -= rowbits[node];
+            node = 0;
+        }
+
+        if (node != 0)
+            throw new EncodingException("Bad termination");
+
+        return utf8.toString();
+    }
+}
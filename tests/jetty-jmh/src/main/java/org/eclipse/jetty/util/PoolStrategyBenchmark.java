@@ -33,23 +33,25 @@ public class PoolStrategyBenchmark
 {
     private Pool<String> pool;
 
+    // The free list strategy does not use the cache,
+    // so it is not a separate parameter.
     @Param({
         "Pool.Linear",
+        "Pool.Linear.Cache",
         "Pool.Random",
+        "Pool.Random.Cache",
         "Pool.RoundRobin",
+        "Pool.RoundRobin.Cache",
         "Pool.ThreadId",
+        "Pool.ThreadId.Cache",
+        "Pool.FreeList",
     })
     public static String POOL_TYPE;
 
-    @Param({
-        "false",
-        "true",
-    })
-    public static boolean CACHE;
-
     @Param({
         "4",
-        "16"
+        "16",
+        "256"
     })
     public static int SIZE;
 
@@ -62,19 +64,23 @@ public class PoolStrategyBenchmark
     {
         misses.reset();
 
-        switch (POOL_TYPE)
+        boolean cache = POOL_TYPE.endsWith(".Cache");
+        switch (cache ? POOL_TYPE.substring(0, POOL_TYPE.length() - ".Cache".length()) : POOL_TYPE)
         {
             case "Pool.Linear" :
-                pool = new Pool<>(Pool.StrategyType.FIRST, SIZE, CACHE);
+                pool = new Pool<>(Pool.StrategyType.FIRST, SIZE, cache);
                 break;
             case "Pool.Random" :
-                pool = new Pool<>(Pool.StrategyType.RANDOM, SIZE, CACHE);
+                pool = new Pool<>(Pool.StrategyType.RANDOM, SIZE, cache);
                 break;
             case "Pool.ThreadId" :
-                pool = new Pool<>(Pool.StrategyType.THREAD_ID, SIZE, CACHE);
+                pool = new Pool<>(Pool.StrategyType.THREAD_ID, SIZE, cache);
                 break;
             case "Pool.RoundRobin" :
-                pool = new Pool<>(Pool.StrategyType.ROUND_ROBIN, SIZE, CACHE);
+                pool = new Pool<>(Pool.StrategyType.ROUND_ROBIN, SIZE, cache);
+                break;
+            case "Pool.FreeList" :
+                pool = new Pool<>(Pool.StrategyType.FREE_LIST, SIZE);
                 break;
 
             default: